@@ -0,0 +1,23 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttachmentDto {
+    private Long id;
+    private Long taskId;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private String sha256;
+    private Long uploadedBy;
+    private LocalDateTime createdAt;
+}
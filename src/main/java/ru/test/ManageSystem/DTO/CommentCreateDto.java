@@ -15,4 +15,9 @@ import lombok.NoArgsConstructor;
 public class CommentCreateDto {
     @NotBlank(message = "Content is required")
     private String content;
+
+    /**
+     * Идентификатор комментария, на который дан ответ, или {@code null} для комментария верхнего уровня.
+     */
+    private Long parentId;
 }
\ No newline at end of file
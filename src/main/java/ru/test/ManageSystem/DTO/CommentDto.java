@@ -1,12 +1,19 @@
 package ru.test.ManageSystem.DTO;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.CommentField;
 
 import java.time.LocalDateTime;
 
+/**
+ * Сериализуется через JSON-фильтр {@link CommentField#FILTER_ID}: по умолчанию выводятся все поля,
+ * при запросе с параметром {@code fields} — только запрошенные.
+ */
+@JsonFilter(CommentField.FILTER_ID)
 @Data
 @Builder
 @AllArgsConstructor
@@ -16,4 +23,7 @@ public class CommentDto {
     private String content;
     private UserDto author;
     private LocalDateTime createdAt;
+    private Long parentId;
+    private int depth;
+    private int replyCount;
 }
\ No newline at end of file
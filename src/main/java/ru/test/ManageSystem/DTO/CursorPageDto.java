@@ -0,0 +1,28 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница результатов выборки по ключу. Следующая страница запрашивается с параметром
+ * {@code cursor}, равным {@code nextCursor}; при {@code hasNext = false} поле {@code nextCursor} равно {@code null},
+ * если выборка не поддерживает ожидание новых элементов.
+ * Поле {@code prevCursor} заполняется выборками, которые умеют листать в обе стороны: это курсор для чтения
+ * в обратном направлении от первого элемента страницы.
+ *
+ * @param <T> тип элементов страницы
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+    private List<T> content;
+    private String nextCursor;
+    private String prevCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,21 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.NotificationType;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxItemDto {
+    private Long id;
+    private NotificationType type;
+    private Long taskId;
+    private LocalDateTime createdAt;
+    private boolean read;
+}
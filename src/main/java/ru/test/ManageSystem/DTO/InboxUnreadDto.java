@@ -0,0 +1,19 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Число непрочитанных элементов входящих и граница прочтения: элементы с идентификатором
+ * не больше {@code readUpTo} прочитаны.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxUnreadDto {
+    private long unread;
+    private long readUpTo;
+}
@@ -0,0 +1,19 @@
+package ru.test.ManageSystem.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LabelCreateDto {
+    @NotBlank(message = "Name is required")
+    @Pattern(regexp = "^[\\p{L}\\p{N}_.-]{1,50}$",
+            message = "Name must be 1-50 letters, digits, '_', '.' or '-'")
+    private String name;
+}
@@ -0,0 +1,15 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LabelDto {
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,87 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Страница результатов с общим количеством элементов, вычисленным в выбранном режиме.
+ * При режиме {@code none} поля {@code totalElements} и {@code totalPages} равны {@code null},
+ * при режиме {@code estimate} поле {@code totalApproximate} равно {@code true}.
+ *
+ * @param <T> тип элементов страницы
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageDto<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private Long totalElements;
+    private Integer totalPages;
+    private boolean totalApproximate;
+    private boolean hasNext;
+
+    /**
+     * Создаёт страницу с точным общим количеством элементов.
+     *
+     * @param page страница Spring Data
+     * @param <T>  тип элементов
+     * @return объект {@link PageDto}
+     */
+    public static <T> PageDto<T> exact(Page<T> page) {
+        return PageDto.<T>builder()
+                .content(page.getContent())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .hasNext(page.hasNext())
+                .build();
+    }
+
+    /**
+     * Создаёт страницу с заданным общим количеством элементов (точным или оценочным).
+     *
+     * @param slice         срез Spring Data
+     * @param totalElements оценка общего количества элементов
+     * @param approximate   {@code true}, если значение является оценкой
+     * @param <T>           тип элементов
+     * @return объект {@link PageDto}
+     */
+    public static <T> PageDto<T> counted(Slice<T> slice, long totalElements, boolean approximate) {
+        int size = slice.getSize();
+        return PageDto.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages(size == 0 ? 1 : (int) ((totalElements + size - 1) / size))
+                .totalApproximate(approximate)
+                .hasNext(slice.hasNext())
+                .build();
+    }
+
+    /**
+     * Создаёт страницу без общего количества элементов.
+     *
+     * @param slice срез Spring Data
+     * @param <T>   тип элементов
+     * @return объект {@link PageDto}
+     */
+    public static <T> PageDto<T> withoutTotal(Slice<T> slice) {
+        return PageDto.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .build();
+    }
+}
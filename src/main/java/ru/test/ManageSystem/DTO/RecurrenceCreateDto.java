@@ -0,0 +1,35 @@
+package ru.test.ManageSystem.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.RecurrenceFrequency;
+
+import java.time.LocalDateTime;
+
+/**
+ * Правило повторения задачи-шаблона: каждые {@code interval} единиц {@code frequency}, начиная со {@code startAt},
+ * до {@code untilAt} включительно или без ограничения.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurrenceCreateDto {
+    @NotNull(message = "Frequency is required")
+    private RecurrenceFrequency frequency;
+
+    @Builder.Default
+    @Min(value = 1, message = "Interval must be between 1 and 1000")
+    @Max(value = 1000, message = "Interval must be between 1 and 1000")
+    private int interval = 1;
+
+    @NotNull(message = "Start is required")
+    private LocalDateTime startAt;
+
+    private LocalDateTime untilAt;
+}
@@ -0,0 +1,23 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.RecurrenceFrequency;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurrenceDto {
+    private Long id;
+    private Long templateId;
+    private RecurrenceFrequency frequency;
+    private int interval;
+    private LocalDateTime startAt;
+    private LocalDateTime untilAt;
+    private LocalDateTime generatedUntil;
+}
@@ -0,0 +1,21 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.BatchItemStatus;
+
+/**
+ * Результат пакетного запроса задач для одного идентификатора.
+ * Поле {@code task} заполнено только при статусе {@link BatchItemStatus#OK}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchItemDto {
+    private Long id;
+    private BatchItemStatus status;
+    private TaskDto task;
+}
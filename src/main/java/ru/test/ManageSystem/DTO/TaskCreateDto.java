@@ -9,6 +9,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.test.ManageSystem.enums.TaskPriority;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -25,4 +27,21 @@ public class TaskCreateDto {
     private TaskPriority priority;
 
     private Long assigneeId;
+
+    /**
+     * Назначить задачу наименее загруженному пользователю вместо {@code assigneeId}.
+     * Учитывается только при создании задачи.
+     */
+    private boolean autoAssign;
+
+    /**
+     * Срок выполнения задачи. При обновлении задачи заменяет прежний срок, {@code null} снимает срок.
+     */
+    private LocalDateTime dueAt;
+
+    /**
+     * Идентификатор родительской задачи. Учитывается только при создании задачи;
+     * перемещение существующей задачи выполняется через {@code PUT /api/tasks/{taskId}/parent}.
+     */
+    private Long parentId;
 }
\ No newline at end of file
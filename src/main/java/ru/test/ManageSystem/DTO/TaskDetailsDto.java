@@ -0,0 +1,21 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Карточка задачи: задача, страница самых новых комментариев с авторами, автор и исполнитель задачи.
+ * Более старые комментарии запрашиваются по {@code comments.nextCursor}, новые — по {@code comments.prevCursor}.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskDetailsDto {
+    private TaskDto task;
+    private CursorPageDto<CommentDto> comments;
+    private UserDto author;
+    private UserDto assignee;
+}
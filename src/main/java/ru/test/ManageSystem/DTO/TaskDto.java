@@ -1,15 +1,22 @@
 package ru.test.ManageSystem.DTO;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.TaskField;
 import ru.test.ManageSystem.enums.TaskPriority;
 import ru.test.ManageSystem.enums.TaskStatus;
 
 
 import java.time.LocalDateTime;
 
+/**
+ * Сериализуется через JSON-фильтр {@link TaskField#FILTER_ID}: по умолчанию выводятся все поля,
+ * при запросе с параметром {@code fields} — только запрошенные.
+ */
+@JsonFilter(TaskField.FILTER_ID)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,4 +31,10 @@ public class TaskDto {
     private Long assigneeId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private int commentCount;
+    private LocalDateTime lastCommentAt;
+    private Long parentId;
+    private LocalDateTime dueAt;
+    private boolean overdue;
+    private Long recurrenceId;
 }
\ No newline at end of file
@@ -4,9 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import ru.test.ManageSystem.enums.TaskPriority;
 import ru.test.ManageSystem.enums.TaskStatus;
 
+import java.time.LocalDateTime;
+
 
 @Data
 @NoArgsConstructor
@@ -17,4 +20,44 @@ public class TaskFilterDto {
     private TaskPriority priority;
     private Long authorId;
     private Long assigneeId;
+
+    /**
+     * Минимальное количество комментариев задачи.
+     */
+    private Integer minCommentCount;
+
+    /**
+     * Нижняя граница времени последнего комментария (включительно).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime commentedAfter;
+
+    /**
+     * Нижняя граница времени создания задачи (включительно).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    /**
+     * Верхняя граница времени создания задачи (не включительно).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    /**
+     * Нижняя граница времени последнего изменения задачи (включительно).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+
+    /**
+     * Верхняя граница времени последнего изменения задачи (не включительно).
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+
+    /**
+     * Только просроченные ({@code true}) или только непросроченные ({@code false}) задачи.
+     */
+    private Boolean overdue;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.TaskHistoryAction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskHistoryDto {
+    private LocalDateTime at;
+    private TaskHistoryAction action;
+    private Long actorId;
+    private Long commentId;
+    private List<TaskFieldChangeDto> changes;
+}
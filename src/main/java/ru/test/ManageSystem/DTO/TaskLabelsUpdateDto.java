@@ -0,0 +1,18 @@
+package ru.test.ManageSystem.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskLabelsUpdateDto {
+    @NotNull(message = "Label ids are required")
+    private Set<Long> labelIds;
+}
@@ -0,0 +1,17 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Новый родитель перемещаемой задачи; {@code null} делает задачу задачей верхнего уровня.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskMoveDto {
+    private Long parentId;
+}
@@ -0,0 +1,18 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Новое место задачи в колонке доски: задача, после которой её нужно поставить;
+ * {@code null} ставит задачу в начало колонки.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskRankDto {
+    private Long afterTaskId;
+}
@@ -0,0 +1,23 @@
+package ru.test.ManageSystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.util.Map;
+
+/**
+ * Сводка по поддереву задачи: количество подзадач всех уровней всего и по каждому статусу.
+ * Сама задача в сводку не входит; статусы без подзадач присутствуют с нулевым количеством.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskRollupDto {
+    private Long taskId;
+    private long total;
+    private Map<TaskStatus, Long> byStatus;
+}
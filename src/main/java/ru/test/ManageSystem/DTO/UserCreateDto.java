@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.Role;
 
 
 import java.util.HashSet;
@@ -28,5 +29,5 @@ public class UserCreateDto {
 
     @Builder.Default
     @NotEmpty(message = "Роли не могут быть пустыми")
-    private Set<String> roles = new HashSet<>();
+    private Set<Role> roles = new HashSet<>();
 }
\ No newline at end of file
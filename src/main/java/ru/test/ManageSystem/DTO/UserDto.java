@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.Role;
 
 import java.util.Set;
 
@@ -14,5 +15,5 @@ import java.util.Set;
 public class UserDto {
     private Long id;
     private String email;
-    private Set<String> roles;
+    private Set<Role> roles;
 }
\ No newline at end of file
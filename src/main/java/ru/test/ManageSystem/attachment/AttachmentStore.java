@@ -0,0 +1,291 @@
+package ru.test.ManageSystem.attachment;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище содержимого вложений в каталоге {@code attachments.dir}. Файл содержимого называется SHA-256
+ * своих байт и лежит в подкаталоге из двух первых символов хеша, поэтому одинаковое содержимое хранится один раз.
+ * <p>
+ * Загрузка копируется из потока запроса во временный файл буфером фиксированного размера с одновременным
+ * подсчётом хеша, так что файл не держится в памяти целиком; затем временный файл переименовывается в файл
+ * содержимого или удаляется, если такое содержимое уже есть. Отдача использует {@code sendfile} контейнера
+ * Tomcat, когда он доступен, и {@link FileChannel#transferTo} в остальных случаях — в обоих случаях байты
+ * не копируются в кучу.
+ * <p>
+ * Добавление ссылки на содержимое и удаление неиспользуемого содержимого выполняются под блокировкой хеша
+ * {@link #lock(String)}, чтобы удаление не забрало файл, на который в этот момент ссылается новое вложение.
+ */
+@Slf4j
+@Component
+public class AttachmentStore implements MetricsSource {
+
+    /**
+     * Атрибуты запроса, через которые Tomcat отдаёт файл системным вызовом {@code sendfile} после
+     * возврата из сервлета.
+     */
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Меньшие фрагменты выгоднее отдать из потока сервлета, чем передавать соединение в {@code sendfile};
+     * значение совпадает с порогом {@code DefaultServlet} Tomcat.
+     */
+    static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+    private static final String TMP_DIR = "tmp";
+
+    private final Path dir;
+    private final Path tmpDir;
+    private final long maxSize;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong sendfileTransfers = new AtomicLong();
+    private final AtomicLong channelTransfers = new AtomicLong();
+
+    public AttachmentStore(@Value("${attachments.dir:attachments}") Path dir,
+                           @Value("${attachments.max-size:50MB}") DataSize maxSize) {
+        if (maxSize.toBytes() <= 0) {
+            throw new IllegalArgumentException("attachments.max-size must be positive");
+        }
+        this.dir = dir.toAbsolutePath();
+        this.tmpDir = this.dir.resolve(TMP_DIR);
+        this.maxSize = maxSize.toBytes();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Создаёт каталоги хранилища и удаляет временные файлы загрузок, прерванных остановкой приложения.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(tmpDir);
+        try (Stream<Path> files = Files.list(tmpDir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Копирует поток во временный файл хранилища, считая размер и SHA-256 содержимого.
+     *
+     * @param in поток содержимого; не закрывается
+     * @return загруженное содержимое, которое нужно передать в {@link #commit(Upload)} или {@link #discard(Upload)}
+     * @throws IllegalArgumentException если содержимое больше {@code attachments.max-size}
+     * @throws IOException              если поток или файл недоступны
+     */
+    public Upload write(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmpDir, "upload-", ".tmp");
+        long size = 0;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw new IllegalArgumentException("Attachment size exceeds " + maxSize + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    out.write(chunk);
+                }
+            }
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new Upload(HexFormat.of().formatHex(digest.digest()), size, temp);
+    }
+
+    /**
+     * Делает загруженное содержимое доступным по его хешу. Если такое содержимое уже хранится,
+     * временный файл удаляется. Вызывается под блокировкой {@link #lock(String)} хеша содержимого.
+     *
+     * @param upload загруженное содержимое
+     */
+    public void commit(Upload upload) throws IOException {
+        Path target = path(upload.sha256());
+        if (Files.exists(target)) {
+            Files.deleteIfExists(upload.temp());
+            deduplicated.incrementAndGet();
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(upload.temp(), target, StandardCopyOption.ATOMIC_MOVE);
+            stored.incrementAndGet();
+            bytesWritten.addAndGet(upload.size());
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(upload.temp());
+            deduplicated.incrementAndGet();
+        }
+    }
+
+    /**
+     * Удаляет временный файл загрузки, которая не была сохранена.
+     *
+     * @param upload загруженное содержимое
+     */
+    public void discard(Upload upload) {
+        try {
+            Files.deleteIfExists(upload.temp());
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary upload {}", upload.temp(), e);
+        }
+    }
+
+    /**
+     * Удаляет файл содержимого. Вызывается под блокировкой {@link #lock(String)} хеша содержимого после проверки,
+     * что на содержимое не ссылается ни одно вложение.
+     *
+     * @param sha256 хеш содержимого
+     */
+    public void delete(String sha256) throws IOException {
+        if (Files.deleteIfExists(path(sha256))) {
+            removed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Возвращает блокировку, под которой добавляются ссылки на содержимое с указанным хешем и удаляется
+     * неиспользуемое содержимое. Блокировки распределены по полосам, поэтому разные хеши могут делить одну.
+     *
+     * @param sha256 хеш содержимого
+     * @return блокировка хеша
+     */
+    public ReentrantLock lock(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * Возвращает путь к файлу содержимого.
+     *
+     * @param sha256 хеш содержимого в шестнадцатеричном виде
+     * @return путь к файлу содержимого
+     * @throws IllegalArgumentException если строка не является хешем SHA-256
+     */
+    public Path path(String sha256) {
+        if (sha256 == null || sha256.length() != 64 || !sha256.chars().allMatch(HexFormat::isHexDigit)) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return dir.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * Отдаёт фрагмент содержимого в ответ. Если контейнер поддерживает {@code sendfile}, а фрагмент не меньше
+     * {@link #SENDFILE_THRESHOLD}, в запросе указываются файл и границы фрагмента, и контейнер отправляет их
+     * после возврата из сервлета; иначе фрагмент передаётся в поток ответа через {@link FileChannel#transferTo}.
+     * Заголовок {@code Content-Length} выставляется здесь.
+     *
+     * @param sha256   хеш содержимого
+     * @param start    первый байт фрагмента
+     * @param length   длина фрагмента
+     * @param request  текущий запрос
+     * @param response текущий ответ
+     */
+    public void transfer(String sha256, long start, long length, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path file = path(sha256);
+        response.setContentLengthLong(length);
+        if (length >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            sendfileTransfers.incrementAndGet();
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    throw new IOException("Attachment content " + sha256 + " is shorter than expected");
+                }
+                position += sent;
+            }
+        }
+        channelTransfers.incrementAndGet();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "attachments";
+    }
+
+    /**
+     * Возвращает число сохранённых файлов содержимого и записанных в них байт, число загрузок, совпавших с уже
+     * хранимым содержимым, число удалённых файлов и число отдач через {@code sendfile} и через
+     * {@link FileChannel#transferTo} с запуска.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stored", stored.get());
+        metrics.put("bytesWritten", bytesWritten.get());
+        metrics.put("deduplicated", deduplicated.get());
+        metrics.put("removed", removed.get());
+        metrics.put("sendfileTransfers", sendfileTransfers.get());
+        metrics.put("channelTransfers", channelTransfers.get());
+        return metrics;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Загруженное, но ещё не сохранённое содержимое.
+     *
+     * @param sha256 SHA-256 содержимого в шестнадцатеричном виде
+     * @param size   размер содержимого в байтах
+     * @param temp   временный файл с содержимым
+     */
+    public record Upload(String sha256, long size, Path temp) {
+    }
+}
@@ -0,0 +1,80 @@
+package ru.test.ManageSystem.attachment;
+
+/**
+ * Диапазон байт содержимого из заголовка {@code Range}, границы включительно.
+ * Поддерживается один диапазон в единицах {@code bytes}: {@code a-b}, {@code a-} и суффикс {@code -n}.
+ *
+ * @param start первый байт диапазона
+ * @param end   последний байт диапазона
+ */
+public record ByteRange(long start, long end) {
+
+    /**
+     * Диапазон, который не пересекается с содержимым; на него отвечают статусом 416.
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String UNIT = "bytes=";
+
+    /**
+     * Разбирает заголовок {@code Range} для содержимого указанного размера. Заголовок с ошибкой синтаксиса,
+     * другими единицами или несколькими диапазонами игнорируется, как разрешает RFC 9110, и содержимое
+     * отдаётся целиком.
+     *
+     * @param header значение заголовка {@code Range}
+     * @param size   размер содержимого в байтах
+     * @return диапазон, усечённый до размера содержимого, {@link #UNSATISFIABLE}, если диапазон не пересекается
+     * с содержимым, или {@code null}, если заголовок нужно игнорировать
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.regionMatches(true, 0, UNIT, 0, UNIT.length())) {
+            return null;
+        }
+        String spec = header.substring(UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        long first = parseNumber(spec.substring(0, dash).trim());
+        long last = parseNumber(spec.substring(dash + 1).trim());
+        if (first == -1 && last < 0) {
+            return null;
+        }
+        if (first == -1) {
+            return last == 0 || size == 0 ? UNSATISFIABLE : new ByteRange(Math.max(0, size - last), size - 1);
+        }
+        if (first < 0 || last == -2 || (last >= 0 && last < first)) {
+            return null;
+        }
+        if (first >= size) {
+            return UNSATISFIABLE;
+        }
+        return new ByteRange(first, last < 0 ? size - 1 : Math.min(last, size - 1));
+    }
+
+    /**
+     * @return число байт в диапазоне
+     */
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * @return {@code -1} для пустой строки, {@code -2} для строки, которая не является неотрицательным числом
+     */
+    private static long parseNumber(String value) {
+        if (value.isEmpty()) {
+            return -1;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return -2;
+            }
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -2;
+        }
+    }
+}
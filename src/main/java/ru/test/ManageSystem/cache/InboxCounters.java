@@ -0,0 +1,355 @@
+package ru.test.ManageSystem.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики непрочитанных элементов входящих по пользователям. Пользователи распределены по полосам
+ * (stripes) со своими блокировками, поэтому чтение и изменение счётчика выполняются за {@code O(1)}
+ * и одновременные изменения счётчиков разных пользователей почти не конкурируют.
+ * <p>
+ * Элемент входящих прочитан, если его идентификатор не больше границы {@code readUpTo} пользователя, поэтому
+ * отметка прочтения диапазона — это сдвиг границы. Счётчики периодически сохраняются в базу данных вместе
+ * с безопасной границей {@link #safeWatermark()}: все элементы с идентификатором не больше неё уже учтены
+ * (или их транзакции откатились). Сохранённое значение счётчика не включает элементы выше границы, поэтому
+ * после перезапуска счётчик равен сохранённому значению плюс число непрочитанных элементов выше границы.
+ * <p>
+ * Граница определяется резервированиями: транзакция резервирует границу до вставки элементов и снимает резерв
+ * после их учёта или отката. Идентификаторы элементов выдаются по возрастанию, поэтому элементы незавершённой
+ * транзакции всегда больше наименьшего резерва.
+ */
+public final class InboxCounters {
+
+    private static final Comparator<Reservation> RESERVATION_ORDER = Comparator
+            .comparingLong(Reservation::floor)
+            .thenComparingLong(Reservation::sequence);
+
+    private final Stripe[] stripes;
+    private final AtomicLong maxItemId = new AtomicLong();
+    private final AtomicLong reservationSequence = new AtomicLong();
+    private final ConcurrentSkipListSet<Reservation> reservations = new ConcurrentSkipListSet<>(RESERVATION_ORDER);
+
+    /**
+     * @param stripes число полос, степень двойки
+     */
+    public InboxCounters(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a positive power of two");
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Возвращает число непрочитанных элементов пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return число непрочитанных элементов
+     */
+    public long unread(long userId) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            Counter counter = stripe.counters.get(userId);
+            return counter != null ? counter.unread : 0;
+        }
+    }
+
+    /**
+     * Возвращает границу прочтения пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return граница прочтения; элементы с идентификатором не больше неё прочитаны
+     */
+    public long readUpTo(long userId) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            Counter counter = stripe.counters.get(userId);
+            return counter != null ? counter.readUpTo : 0;
+        }
+    }
+
+    /**
+     * Резервирует безопасную границу перед вставкой элементов: пока резерв не снят,
+     * {@link #safeWatermark()} не превышает наибольший известный на момент резервирования идентификатор.
+     *
+     * @return резерв, который нужно снять через {@link #release(Reservation)}
+     */
+    public Reservation reserve() {
+        Reservation reservation = new Reservation(maxItemId.get(), reservationSequence.incrementAndGet());
+        reservations.add(reservation);
+        return reservation;
+    }
+
+    /**
+     * Снимает резерв после учёта элементов транзакции или её отката.
+     *
+     * @param reservation резерв
+     */
+    public void release(Reservation reservation) {
+        reservations.remove(reservation);
+    }
+
+    /**
+     * Запоминает идентификатор вставленного элемента.
+     *
+     * @param itemId идентификатор элемента
+     */
+    public void inserted(long itemId) {
+        maxItemId.accumulateAndGet(itemId, Math::max);
+    }
+
+    /**
+     * Учитывает новый элемент пользователя после фиксации его транзакции.
+     * Элемент не выше границы прочтения считается прочитанным.
+     *
+     * @param userId идентификатор пользователя
+     * @param itemId идентификатор элемента
+     */
+    public void add(long userId, long itemId) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            Counter counter = stripe.counters.computeIfAbsent(userId, id -> new Counter());
+            if (itemId <= counter.readUpTo) {
+                return;
+            }
+            counter.unread++;
+            counter.recent.add(itemId);
+            counter.changed();
+        }
+    }
+
+    /**
+     * Возвращает безопасную границу: все элементы с идентификатором не больше неё учтены или откатились.
+     *
+     * @return безопасная граница
+     */
+    public long safeWatermark() {
+        long watermark = maxItemId.get();
+        Reservation oldest = reservations.ceiling(new Reservation(Long.MIN_VALUE, Long.MIN_VALUE));
+        return oldest != null ? Math.min(watermark, oldest.floor()) : watermark;
+    }
+
+    /**
+     * Возвращает идентификатор последнего учтённого элемента пользователя или безопасную границу, если она больше.
+     * Отметка прочтения до этого идентификатора отмечает прочитанными все учтённые элементы.
+     *
+     * @param userId    идентификатор пользователя
+     * @param watermark безопасная граница
+     * @return граница прочтения всех элементов
+     */
+    public long latest(long userId, long watermark) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            Counter counter = stripe.counters.get(userId);
+            return counter != null ? Math.max(watermark, counter.recent.max()) : watermark;
+        }
+    }
+
+    /**
+     * Отмечает прочитанными элементы пользователя с идентификатором не больше {@code upTo}.
+     * Непрочитанные элементы до безопасной границы хранятся только в базе данных, поэтому их число
+     * в диапазоне {@code (upTo, watermark]} передаёт вызывающий; элементы выше границы учитываются здесь.
+     *
+     * @param userId       идентификатор пользователя
+     * @param upTo         новая граница прочтения
+     * @param watermark    безопасная граница, для которой подсчитано {@code unreadBelow}
+     * @param unreadBelow  число элементов пользователя в диапазоне {@code (upTo, watermark]}
+     * @return число непрочитанных элементов после отметки
+     */
+    public long markRead(long userId, long upTo, long watermark, long unreadBelow) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            Counter counter = stripe.counters.computeIfAbsent(userId, id -> new Counter());
+            if (upTo <= counter.readUpTo) {
+                return counter.unread;
+            }
+            counter.readUpTo = upTo;
+            counter.recent.removeAtMost(upTo);
+            counter.unread = unreadBelow + counter.recent.countAbove(Math.max(upTo, watermark));
+            counter.changed();
+            return counter.unread;
+        }
+    }
+
+    /**
+     * Восстанавливает счётчик пользователя при загрузке.
+     *
+     * @param userId   идентификатор пользователя
+     * @param unread   число непрочитанных элементов
+     * @param readUpTo граница прочтения
+     * @param dirty    {@code true}, если счётчик отличается от сохранённого и должен быть сохранён
+     */
+    public void restore(long userId, long unread, long readUpTo, boolean dirty) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            Counter counter = stripe.counters.computeIfAbsent(userId, id -> new Counter());
+            counter.unread = unread;
+            counter.readUpTo = readUpTo;
+            if (dirty) {
+                counter.changed();
+            }
+        }
+    }
+
+    /**
+     * Возвращает изменённые счётчики для сохранения на безопасной границе {@code watermark}:
+     * значение каждого счётчика без учтённых элементов выше границы.
+     *
+     * @param watermark безопасная граница
+     * @return снимки изменённых счётчиков
+     */
+    public List<Snapshot> snapshot(long watermark) {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Map.Entry<Long, Counter> entry : stripe.counters.entrySet()) {
+                    Counter counter = entry.getValue();
+                    if (counter.dirty) {
+                        snapshots.add(new Snapshot(entry.getKey(),
+                                counter.unread - counter.recent.countAbove(watermark), counter.readUpTo,
+                                watermark, counter.version));
+                    }
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Отмечает счётчики сохранёнными. Счётчик, изменённый после снимка или с учтёнными элементами выше
+     * границы снимка, остаётся изменённым и будет сохранён снова.
+     *
+     * @param snapshots сохранённые снимки
+     */
+    public void flushed(List<Snapshot> snapshots) {
+        for (Snapshot snapshot : snapshots) {
+            Stripe stripe = stripe(snapshot.userId());
+            synchronized (stripe) {
+                Counter counter = stripe.counters.get(snapshot.userId());
+                if (counter == null) {
+                    continue;
+                }
+                counter.recent.removeAtMost(snapshot.countedUpTo());
+                if (counter.version == snapshot.version() && counter.recent.size == 0) {
+                    counter.dirty = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает число пользователей со счётчиками.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.counters.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Возвращает число активных резервов.
+     */
+    public int reservations() {
+        return reservations.size();
+    }
+
+    private Stripe stripe(long userId) {
+        return stripes[Long.hashCode(userId * 0x9E3779B97F4A7C15L) & (stripes.length - 1)];
+    }
+
+    /**
+     * Резерв безопасной границы на время транзакции, вставляющей элементы.
+     *
+     * @param floor    наибольший известный идентификатор элемента на момент резервирования
+     * @param sequence порядковый номер резерва
+     */
+    public record Reservation(long floor, long sequence) {
+    }
+
+    /**
+     * Снимок счётчика для сохранения.
+     *
+     * @param userId      идентификатор пользователя
+     * @param unread      число непрочитанных элементов не выше {@code countedUpTo}
+     * @param readUpTo    граница прочтения
+     * @param countedUpTo безопасная граница снимка
+     * @param version     версия счётчика на момент снимка
+     */
+    public record Snapshot(long userId, long unread, long readUpTo, long countedUpTo, int version) {
+    }
+
+    private static final class Stripe {
+        private final Map<Long, Counter> counters = new HashMap<>();
+    }
+
+    private static final class Counter {
+        private long unread;
+        private long readUpTo;
+        private boolean dirty;
+        private int version;
+        /**
+         * Непрочитанные элементы, учтённые после последнего сохранения или выше его границы.
+         */
+        private final LongList recent = new LongList();
+
+        void changed() {
+            dirty = true;
+            version++;
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[0];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, size * 2));
+            }
+            values[size++] = value;
+        }
+
+        long max() {
+            long max = 0;
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+
+        int countAbove(long bound) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (values[i] > bound) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        void removeAtMost(long bound) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (values[i] > bound) {
+                    values[kept++] = values[i];
+                }
+            }
+            size = kept;
+            if (size == 0 && values.length > 64) {
+                values = new long[0];
+            }
+        }
+    }
+}
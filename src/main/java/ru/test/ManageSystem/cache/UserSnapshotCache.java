@@ -0,0 +1,181 @@
+package ru.test.ManageSystem.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.test.ManageSystem.metrics.MetricsSource;
+import ru.test.ManageSystem.repository.UserRepository;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный кэш снимков пользователей по email.
+ * Одновременные промахи по одному ключу схлопываются в один запрос к базе данных (single-flight):
+ * первый поток загружает значение, остальные ждут его результата.
+ * Отсутствующие пользователи не кэшируются. Записи устаревают по TTL; при превышении
+ * максимального размера сначала удаляются устаревшие, затем произвольные записи.
+ * Любое изменение email, пароля или ролей пользователя должно сопровождаться вызовом {@link #invalidate(String)}.
+ */
+@Component
+public class UserSnapshotCache implements MetricsSource {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserSnapshotCache(UserRepository userRepository,
+                             @Value("${cache.users.max-size:10000}") int maxSize,
+                             @Value("${cache.users.ttl:PT5M}") Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("cache.users.max-size must be positive");
+        }
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Возвращает снимок пользователя по email, загружая его из базы данных при промахе.
+     *
+     * @param email адрес электронной почты пользователя
+     * @return снимок пользователя или пустой {@link Optional}, если пользователь не найден
+     */
+    public Optional<UserSnapshot> get(String email) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && !entry.isExpired(now, ttlNanos)) {
+            (entry.future.isDone() ? hits : coalesced).increment();
+            return entry.await();
+        }
+
+        Entry created = new Entry(now);
+        Entry winner = entries.compute(email, (key, current) ->
+                current == null || current.isExpired(now, ttlNanos) ? created : current);
+        if (winner != created) {
+            coalesced.increment();
+            return winner.await();
+        }
+
+        misses.increment();
+        Optional<UserSnapshot> loaded;
+        try {
+            loaded = userRepository.findByEmail(email).map(UserSnapshot::of);
+        } catch (RuntimeException e) {
+            entries.remove(email, created);
+            created.future.completeExceptionally(e);
+            throw e;
+        }
+        created.future.complete(loaded);
+        if (loaded.isEmpty()) {
+            entries.remove(email, created);
+        } else if (entries.size() > maxSize) {
+            evict(now);
+        }
+        return loaded;
+    }
+
+    /**
+     * Удаляет запись пользователя из кэша немедленно и повторно после фиксации текущей транзакции,
+     * чтобы параллельная загрузка не вернула в кэш незафиксированное состояние.
+     *
+     * @param email адрес электронной почты пользователя
+     */
+    public void invalidate(String email) {
+        entries.remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Полностью очищает кэш.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "userCache";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum() + coalesced.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", entries.size());
+        metrics.put("maxSize", maxSize);
+        metrics.put("ttlSeconds", ttlNanos / 1_000_000_000L);
+        metrics.put("hits", hits.sum());
+        metrics.put("coalescedLoads", coalesced.sum());
+        metrics.put("misses", missCount);
+        metrics.put("evictions", evictions.sum());
+        metrics.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return metrics;
+    }
+
+    private void evict(long now) {
+        int target = Math.max(1, maxSize - maxSize / 10);
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && entries.size() > target) {
+            if (iterator.next().getValue().isExpired(now, ttlNanos)) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && entries.size() > target) {
+            if (iterator.next().getValue().future.isDone()) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Optional<UserSnapshot>> future = new CompletableFuture<>();
+        private final long loadedAt;
+
+        private Entry(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isExpired(long now, long ttlNanos) {
+            return future.isDone() && now - loadedAt >= ttlNanos;
+        }
+
+        private Optional<UserSnapshot> await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.test.ManageSystem.concurrent;
+
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Область выполнения параллельных подзадач одного запроса.
+ * Подзадачи запускаются методом {@link #fork}, а {@link #join} ждёт завершения всех подзадач:
+ * при первой ошибке или истечении времени остальные подзадачи отменяются с прерыванием потока.
+ * Область закрывается в {@code try-with-resources}, поэтому подзадачи не переживают вызвавший их метод.
+ * <pre>{@code
+ * try (FailFastScope scope = new FailFastScope(executor)) {
+ *     Supplier<TaskDto> task = scope.fork(() -> loadTask(id));
+ *     Supplier<List<CommentDto>> comments = scope.fork(() -> loadComments(id));
+ *     scope.join(timeout);
+ *     return new Details(task.get(), comments.get());
+ * }
+ * }</pre>
+ */
+public final class FailFastScope implements AutoCloseable {
+
+    private final ExecutorCompletionService<Object> completion;
+    private final List<Future<Object>> forks = new ArrayList<>();
+    private boolean joined;
+
+    public FailFastScope(ExecutorService executor) {
+        this.completion = new ExecutorCompletionService<>(executor);
+    }
+
+    /**
+     * Запускает подзадачу.
+     *
+     * @param task подзадача
+     * @param <T>  тип результата
+     * @return доступ к результату, который можно прочитать только после успешного {@link #join}
+     * @throws IllegalStateException если область уже дождалась подзадач
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Supplier<T> fork(Callable<? extends T> task) {
+        if (joined) {
+            throw new IllegalStateException("Scope is already joined");
+        }
+        Future<Object> future = completion.submit((Callable<Object>) task);
+        forks.add(future);
+        return () -> {
+            if (!joined) {
+                throw new IllegalStateException("Scope is not joined");
+            }
+            return (T) resultOf(future);
+        };
+    }
+
+    /**
+     * Ждёт завершения всех подзадач.
+     * Если подзадача завершилась ошибкой, остальные отменяются, а ошибка пробрасывается:
+     * непроверяемые исключения — как есть, проверяемые — обёрнутыми в {@link IllegalStateException}.
+     *
+     * @param timeout максимальное время ожидания всех подзадач
+     * @throws ServiceUnavailableException если подзадачи не завершились за отведённое время
+     * @throws InterruptedException        если поток был прерван во время ожидания
+     */
+    public void join(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (int remaining = forks.size(); remaining > 0; remaining--) {
+                Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new ServiceUnavailableException("Timed out after " + timeout.toMillis() + " ms");
+                }
+                done.get();
+            }
+            joined = true;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Subtask was cancelled", e);
+        } finally {
+            if (!joined) {
+                cancelAll();
+            }
+        }
+    }
+
+    /**
+     * Отменяет незавершённые подзадачи.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private static Object resultOf(Future<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void cancelAll() {
+        for (Future<Object> future : forks) {
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.test.ManageSystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пулы потоков для параллельного выполнения частей одного запроса.
+ */
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * Пул потоков, на котором параллельно загружаются части карточки задачи
+     * (см. {@link ru.test.ManageSystem.service.TaskDetailsService}).
+     * Размер пула ограничивает число одновременных обращений к базе данных из этих запросов.
+     *
+     * @param threads количество потоков
+     * @return пул потоков
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService taskDetailsExecutor(@Value("${task.details.threads:16}") int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("task.details.threads must be positive");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "task-details-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.test.ManageSystem.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Set;
+
+/**
+ * Конфигурация сериализации JSON.
+ * DTO с параметром {@code fields} помечены {@code @JsonFilter}; по умолчанию фильтры выводят все поля,
+ * а для ответа с запрошенными полями контроллер оборачивает тело методом {@link #withFields}.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Регистрирует фильтр по умолчанию, выводящий все поля, чтобы DTO с {@code @JsonFilter}
+     * сериализовались и без явно заданных фильтров.
+     *
+     * @return настройка построителя {@link com.fasterxml.jackson.databind.ObjectMapper}
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer defaultPropertyFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * Оборачивает тело ответа так, чтобы объекты с фильтром {@code filterId} выводили только указанные поля.
+     *
+     * @param body       тело ответа
+     * @param filterId   идентификатор JSON-фильтра
+     * @param properties имена выводимых полей или {@code null}, если выводятся все поля
+     * @return тело ответа с настроенными фильтрами
+     */
+    public static MappingJacksonValue withFields(Object body, String filterId, Set<String> properties) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (properties != null) {
+            value.setFilters(new SimpleFilterProvider()
+                    .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                    .addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+        }
+        return value;
+    }
+}
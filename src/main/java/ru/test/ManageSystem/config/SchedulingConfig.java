@@ -0,0 +1,13 @@
+package ru.test.ManageSystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает фоновые задачи по расписанию ({@link org.springframework.scheduling.annotation.Scheduled}),
+ * например перераспределение ключей порядка доски в {@link ru.test.ManageSystem.service.BoardService}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
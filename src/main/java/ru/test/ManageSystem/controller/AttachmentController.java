@@ -0,0 +1,192 @@
+package ru.test.ManageSystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import ru.test.ManageSystem.DTO.AttachmentDto;
+import ru.test.ManageSystem.attachment.AttachmentStore;
+import ru.test.ManageSystem.attachment.ByteRange;
+import ru.test.ManageSystem.entity.TaskAttachment;
+import ru.test.ManageSystem.service.AttachmentService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Контроллер для управления вложениями задач.
+ * Содержимое загружается телом запроса как есть и отдаётся с поддержкой заголовков {@code Range},
+ * {@code If-Range} и {@code If-None-Match}.
+ */
+@RestController
+@RequestMapping("/api/tasks/{taskId}/attachments")
+@RequiredArgsConstructor
+@Tag(name = "Attachments", description = "API для управления вложениями задач")
+public class AttachmentController {
+
+    private final AttachmentService attachmentService;
+    private final AttachmentStore attachmentStore;
+
+    /**
+     * Загружает вложение к задаче. Тело запроса — содержимое файла, заголовок {@code Content-Type} — его тип.
+     * Доступно только для пользователей с ролями ADMIN или USER, которые являются автором
+     * или исполнителем задачи.
+     *
+     * @param taskId      идентификатор задачи
+     * @param fileName    имя файла
+     * @param contentType тип содержимого
+     * @param content     поток тела запроса
+     * @return ResponseEntity с объектом {@link AttachmentDto}, представляющим сохранённое вложение
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Загрузить вложение",
+            description = "Сохраняет тело запроса как вложение задачи; одинаковое содержимое хранится один раз")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Вложение сохранено"),
+            @ApiResponse(responseCode = "400", description = "Некорректное имя файла или превышен размер вложения"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<AttachmentDto> uploadAttachment(
+            @PathVariable Long taskId,
+            @RequestParam String fileName,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream content) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(attachmentService.upload(taskId, fileName, contentType, content));
+    }
+
+    /**
+     * Возвращает вложения задачи в порядке загрузки.
+     * Доступно только для пользователей с ролями ADMIN или USER, которые являются автором
+     * или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @return ResponseEntity со списком объектов {@link AttachmentDto}
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить вложения задачи", description = "Возвращает метаданные вложений задачи")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Вложения успешно получены"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<List<AttachmentDto>> getAttachments(@PathVariable Long taskId) {
+        return ResponseEntity.ok(attachmentService.getAttachments(taskId));
+    }
+
+    /**
+     * Отдаёт содержимое вложения. Тег {@code ETag} — SHA-256 содержимого, поэтому при совпадении
+     * {@code If-None-Match} возвращается 304 без тела. Один диапазон из {@code Range} отдаётся со статусом 206,
+     * если {@code If-Range} не задан или совпадает с тегом; несколько диапазонов отдаются как всё содержимое.
+     * Доступно только для пользователей с ролями ADMIN или USER, которые являются автором
+     * или исполнителем задачи.
+     *
+     * @param taskId       идентификатор задачи
+     * @param attachmentId идентификатор вложения
+     * @param request      текущий запрос
+     * @param response     текущий ответ
+     */
+    @GetMapping("/{attachmentId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Скачать вложение",
+            description = "Отдаёт содержимое вложения целиком или диапазон байт из заголовка Range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Содержимое вложения"),
+            @ApiResponse(responseCode = "206", description = "Диапазон содержимого вложения"),
+            @ApiResponse(responseCode = "304", description = "Содержимое совпадает с закешированным клиентом"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача или вложение не найдены"),
+            @ApiResponse(responseCode = "416", description = "Диапазон не пересекается с содержимым")
+    })
+    public void downloadAttachment(@PathVariable Long taskId, @PathVariable Long attachmentId,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TaskAttachment attachment = attachmentService.getAttachment(taskId, attachmentId);
+        String etag = "\"" + attachment.getSha256() + "\"";
+        long size = attachment.getSize();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        ByteRange range = ifRange == null || ifRange.trim().equals(etag)
+                ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size) : null;
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+        response.setContentType(attachment.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString());
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + range.end() + "/" + size);
+            start = range.start();
+            length = range.length();
+        }
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            response.setContentLengthLong(length);
+            return;
+        }
+        attachmentStore.transfer(attachment.getSha256(), start, length, request, response);
+    }
+
+    /**
+     * Удаляет вложение задачи.
+     * Доступно только для пользователей с ролями ADMIN или USER, которые являются автором
+     * или исполнителем задачи.
+     *
+     * @param taskId       идентификатор задачи
+     * @param attachmentId идентификатор вложения
+     * @return ResponseEntity без содержимого
+     */
+    @DeleteMapping("/{attachmentId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Удалить вложение", description = "Удаляет вложение задачи")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Вложение успешно удалено"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача или вложение не найдены")
+    })
+    public ResponseEntity<Void> deleteAttachment(@PathVariable Long taskId, @PathVariable Long attachmentId) {
+        attachmentService.deleteAttachment(taskId, attachmentId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Проверяет, совпадает ли тег со списком тегов из {@code If-None-Match} по слабому сравнению.
+     */
+    private static boolean matchesAny(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
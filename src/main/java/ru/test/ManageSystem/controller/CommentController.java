@@ -7,13 +7,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import ru.test.ManageSystem.DTO.CommentCreateDto;
 import ru.test.ManageSystem.DTO.CommentDto;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.config.JacksonConfig;
+import ru.test.ManageSystem.enums.CommentField;
 import ru.test.ManageSystem.service.CommentService;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Контроллер для управления комментариями к задачам.
@@ -41,15 +46,18 @@ public class CommentController {
      */
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
-    @Operation(summary = "Создать комментарий", description = "Добавляет новый комментарий к задаче")
+    @Operation(summary = "Создать комментарий",
+            description = "Добавляет новый комментарий к задаче или ответ на комментарий, если указан parentId")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Комментарий успешно создан"),
+            @ApiResponse(responseCode = "400", description = "Родительский комментарий относится к другой задаче "
+                    + "или достигнута максимальная глубина ответов"),
             @ApiResponse(responseCode = "403", description = "Нет доступа"),
-            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+            @ApiResponse(responseCode = "404", description = "Задача или родительский комментарий не найдены")
     })
     public ResponseEntity<CommentDto> createComment(@PathVariable Long taskId,
                                                     @Valid @RequestBody CommentCreateDto dto) {
-        return ResponseEntity.ok(commentService.createComment(taskId, dto.getContent()));
+        return ResponseEntity.ok(commentService.createComment(taskId, dto.getContent(), dto.getParentId()));
     }
 
     /**
@@ -105,20 +113,93 @@ public class CommentController {
      * Доступно только для пользователей с ролями ADMIN или USER, которые являются автором
      * или исполнителем задачи.
      *
+     * Параметр {@code fields}, например {@code id,content}, ограничивает комментарии в ответе указанными полями;
+     * автор загружается только при запросе поля {@code author}.
+     *
      * @param taskId идентификатор задачи, для которой запрашиваются комментарии
+     * @param fields имена возвращаемых полей комментария через запятую; если не задан, возвращаются все поля
      * @return ResponseEntity со списком объектов {@link CommentDto}, представляющих комментарии
      * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
      * @throws jakarta.persistence.EntityNotFoundException если задача не найдена
+     * @throws IllegalArgumentException если указано неизвестное поле
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
     @Operation(summary = "Получить комментарии задачи", description = "Возвращает все комментарии для указанной задачи")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список комментариев успешно получен"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<MappingJacksonValue> getCommentsByTaskId(@PathVariable Long taskId,
+                                                                   @RequestParam(required = false) String fields) {
+        Set<CommentField> commentFields = CommentField.parse(fields);
+        return ResponseEntity.ok(JacksonConfig.withFields(commentService.getCommentsByTaskId(taskId, commentFields),
+                CommentField.FILTER_ID, commentFields != null ? CommentField.properties(commentFields) : null));
+    }
+
+    /**
+     * Возвращает страницу комментариев задачи с листанием по курсору.
+     * Без курсора возвращаются самые новые комментарии; {@code nextCursor} ведёт к более старым,
+     * а {@code prevCursor} первой страницы — к комментариям, появившимся после неё.
+     * Доступно только для пользователей с ролями ADMIN или USER, которые являются автором
+     * или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи, для которой запрашиваются комментарии
+     * @param cursor курсор из предыдущей страницы
+     * @param size   размер страницы, от 1 до 100
+     * @return ResponseEntity с объектом {@link CursorPageDto}, содержащим комментарии и курсоры
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить страницу комментариев",
+            description = "Возвращает комментарии задачи от новых к старым с листанием по курсору")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница комментариев получена"),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы"),
             @ApiResponse(responseCode = "403", description = "Нет доступа"),
             @ApiResponse(responseCode = "404", description = "Задача не найдена")
     })
-    public ResponseEntity<List<CommentDto>> getCommentsByTaskId(@PathVariable Long taskId) {
-        return ResponseEntity.ok(commentService.getCommentsByTaskId(taskId));
+    public ResponseEntity<CursorPageDto<CommentDto>> getCommentPage(@PathVariable Long taskId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getCommentPage(taskId, cursor, size));
+    }
+
+    /**
+     * Возвращает ветку обсуждения: комментарий и все ответы на него в порядке обхода в глубину,
+     * с листанием по курсору.
+     * Доступно только для пользователей с ролями ADMIN или USER, которые являются автором
+     * или исполнителем задачи.
+     *
+     * @param taskId    идентификатор задачи, к которой относится комментарий
+     * @param commentId идентификатор комментария, с которого начинается ветка
+     * @param cursor    курсор из предыдущей страницы
+     * @param size      размер страницы, от 1 до 100
+     * @return ResponseEntity с объектом {@link CursorPageDto}, содержащим комментарии ветки и курсор
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если комментарий не найден
+     * @throws IllegalArgumentException если комментарий относится к другой задаче, курсор повреждён
+     *                                  или размер страницы вне допустимого диапазона
+     */
+    @GetMapping("/{commentId}/thread")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить ветку обсуждения",
+            description = "Возвращает комментарий и все ответы на него в порядке обхода в глубину")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ветка обсуждения получена"),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор, размер страницы или задача"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Комментарий не найден")
+    })
+    public ResponseEntity<CursorPageDto<CommentDto>> getThread(@PathVariable Long taskId,
+                                                               @PathVariable Long commentId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(commentService.getThread(taskId, commentId, cursor, size));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package ru.test.ManageSystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.InboxItemDto;
+import ru.test.ManageSystem.DTO.InboxUnreadDto;
+import ru.test.ManageSystem.service.InboxService;
+
+/**
+ * Контроллер входящих текущего пользователя: назначений ему задач и новых комментариев к его задачам.
+ */
+@RestController
+@RequestMapping("/api/inbox")
+@RequiredArgsConstructor
+@Tag(name = "Inbox", description = "API для входящих пользователя")
+public class InboxController {
+
+    private final InboxService inboxService;
+
+    /**
+     * Возвращает число непрочитанных элементов входящих текущего пользователя.
+     * Значение читается из памяти без запросов к базе данных.
+     *
+     * @return ResponseEntity с объектом {@link InboxUnreadDto}
+     */
+    @GetMapping("/unread")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Получить число непрочитанных",
+            description = "Возвращает число непрочитанных элементов входящих и границу прочтения")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Число непрочитанных получено"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<InboxUnreadDto> getUnread() {
+        return ResponseEntity.ok(inboxService.getUnread());
+    }
+
+    /**
+     * Возвращает страницу входящих текущего пользователя от новых элементов к старым с листанием по курсору.
+     *
+     * @param cursor курсор из предыдущей страницы
+     * @param size   размер страницы, от 1 до 100
+     * @return ResponseEntity с объектом {@link CursorPageDto}, содержащим элементы входящих и курсор
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Получить входящие",
+            description = "Возвращает элементы входящих от новых к старым с признаком прочтения")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница входящих получена"),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<CursorPageDto<InboxItemDto>> getInbox(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(inboxService.getInbox(cursor, size));
+    }
+
+    /**
+     * Отмечает прочитанными элементы входящих текущего пользователя до элемента {@code upTo} включительно,
+     * а без параметра — все элементы. Чтобы не отметить элементы, появившиеся после загрузки страницы,
+     * клиенту стоит передавать идентификатор самого нового показанного элемента.
+     *
+     * @param upTo идентификатор последнего прочитанного элемента
+     * @return ResponseEntity с объектом {@link InboxUnreadDto} после отметки
+     * @throws IllegalArgumentException если {@code upTo} отрицателен
+     */
+    @PostMapping("/read")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Отметить прочитанными",
+            description = "Отмечает прочитанными элементы входящих до указанного включительно или все элементы")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Элементы отмечены прочитанными"),
+            @ApiResponse(responseCode = "400", description = "Неверная граница"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<InboxUnreadDto> markRead(@RequestParam(required = false) Long upTo) {
+        return ResponseEntity.ok(inboxService.markRead(upTo));
+    }
+}
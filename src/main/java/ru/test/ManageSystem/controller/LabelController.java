@@ -0,0 +1,90 @@
+package ru.test.ManageSystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import ru.test.ManageSystem.DTO.LabelCreateDto;
+import ru.test.ManageSystem.DTO.LabelDto;
+import ru.test.ManageSystem.service.LabelService;
+
+import java.util.List;
+
+/**
+ * Контроллер для управления справочником меток задач.
+ * Назначение меток конкретной задаче выполняется через {@link TaskController}.
+ */
+@RestController
+@RequestMapping("/api/labels")
+@RequiredArgsConstructor
+@Tag(name = "Labels", description = "API для управления метками задач")
+public class LabelController {
+
+    private final LabelService labelService;
+
+    /**
+     * Создаёт новую метку.
+     * Доступно для пользователей с ролями ADMIN или USER.
+     *
+     * @param dto объект {@link LabelCreateDto} с именем метки
+     * @return ResponseEntity с объектом {@link LabelDto}, представляющим созданную метку
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если метка с таким именем уже существует
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Создать метку", description = "Создает новую метку; имя приводится к нижнему регистру")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Метка успешно создана"),
+            @ApiResponse(responseCode = "400", description = "Неверное имя или метка уже существует"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<LabelDto> createLabel(@Valid @RequestBody LabelCreateDto dto) {
+        return ResponseEntity.ok(labelService.createLabel(dto.getName()));
+    }
+
+    /**
+     * Возвращает все метки.
+     * Доступно для пользователей с ролями ADMIN или USER.
+     *
+     * @return ResponseEntity со списком объектов {@link LabelDto}, упорядоченных по имени
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Получить метки", description = "Возвращает все метки, упорядоченные по имени")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список меток успешно получен"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<List<LabelDto>> getLabels() {
+        return ResponseEntity.ok(labelService.getLabels());
+    }
+
+    /**
+     * Удаляет метку и снимает её со всех задач.
+     * Доступно только для пользователей с ролью ADMIN.
+     *
+     * @param labelId идентификатор метки
+     * @return ResponseEntity без содержимого
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если метка не найдена
+     */
+    @DeleteMapping("/{labelId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Удалить метку", description = "Удаляет метку и снимает её со всех задач")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Метка успешно удалена"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Метка не найдена")
+    })
+    public ResponseEntity<Void> deleteLabel(@PathVariable Long labelId) {
+        labelService.deleteLabel(labelId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.test.ManageSystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Контроллер для просмотра внутренних метрик приложения.
+ * Собирает значения со всех бинов {@link MetricsSource}.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@Tag(name = "Metrics", description = "API для просмотра внутренних метрик")
+public class MetricsController {
+
+    private final List<MetricsSource> sources;
+
+    /**
+     * Возвращает метрики всех источников, сгруппированные по имени источника.
+     * Доступно только для пользователей с ролью ADMIN.
+     *
+     * @return ResponseEntity с отображением имени источника в его метрики
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Получить метрики", description = "Возвращает внутренние метрики кэшей и индексов")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Метрики успешно получены"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<Map<String, Map<String, Object>>> getMetrics() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (MetricsSource source : sources) {
+            result.put(source.getMetricsName(), source.getMetrics());
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -6,18 +6,44 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.LabelDto;
+import ru.test.ManageSystem.DTO.PageDto;
+import ru.test.ManageSystem.DTO.RecurrenceCreateDto;
+import ru.test.ManageSystem.DTO.RecurrenceDto;
+import ru.test.ManageSystem.DTO.TaskBatchItemDto;
 import ru.test.ManageSystem.DTO.TaskCreateDto;
+import ru.test.ManageSystem.DTO.TaskDetailsDto;
 import ru.test.ManageSystem.DTO.TaskDto;
 import ru.test.ManageSystem.DTO.TaskFilterDto;
+import ru.test.ManageSystem.DTO.TaskHistoryDto;
+import ru.test.ManageSystem.DTO.TaskLabelsUpdateDto;
+import ru.test.ManageSystem.DTO.TaskMoveDto;
+import ru.test.ManageSystem.DTO.TaskRankDto;
+import ru.test.ManageSystem.DTO.TaskRollupDto;
+import ru.test.ManageSystem.DTO.TaskSuggestionDto;
+import ru.test.ManageSystem.config.JacksonConfig;
+import ru.test.ManageSystem.enums.CountMode;
+import ru.test.ManageSystem.enums.TaskField;
 import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.service.BoardService;
+import ru.test.ManageSystem.service.LabelService;
+import ru.test.ManageSystem.service.RecurrenceService;
+import ru.test.ManageSystem.service.TaskDependencyService;
+import ru.test.ManageSystem.service.TaskDetailsService;
+import ru.test.ManageSystem.service.TaskHistoryService;
+import ru.test.ManageSystem.service.TaskQueueService;
 import ru.test.ManageSystem.service.TaskService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Контроллер для управления задачами.
@@ -31,6 +57,13 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final LabelService labelService;
+    private final TaskDetailsService taskDetailsService;
+    private final TaskDependencyService taskDependencyService;
+    private final BoardService boardService;
+    private final TaskQueueService taskQueueService;
+    private final RecurrenceService recurrenceService;
+    private final TaskHistoryService taskHistoryService;
 
     /**
      * Создаёт новую задачу от имени текущего пользователя.
@@ -118,25 +151,560 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Возвращает задачи по списку идентификаторов одним запросом, например для доски задач.
+     * Доступно для пользователей с ролями ADMIN или USER. Для каждого идентификатора возвращается
+     * результат со статусом {@code OK}, {@code FORBIDDEN} (пользователь не является автором или исполнителем)
+     * или {@code NOT_FOUND}.
+     *
+     * @param ids идентификаторы задач через запятую, не более 200
+     * @return ResponseEntity со списком объектов {@link TaskBatchItemDto} в порядке запроса
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если список пуст или слишком велик
+     */
+    @GetMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Получить задачи по списку ID", description = "Возвращает задачи по списку ID с отметкой недоступных и ненайденных")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты по каждому ID успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком длинный список ID"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<List<TaskBatchItemDto>> getTasksByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(taskService.getTasksByIds(ids));
+    }
+
     /**
      * Возвращает задачу по её идентификатору.
      * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
      *
+     * Параметр {@code fields}, например {@code id,title,status}, ограничивает ответ указанными полями.
+     *
      * @param taskId идентификатор задачи
+     * @param fields имена возвращаемых полей через запятую; если не задан, возвращаются все поля
      * @return ResponseEntity с объектом {@link TaskDto}, представляющим задачу
      * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
      * @throws jakarta.persistence.EntityNotFoundException если задача не найдена
+     * @throws IllegalArgumentException если указано неизвестное поле
      */
     @GetMapping("/{taskId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
     @Operation(summary = "Получить задачу", description = "Возвращает задачу по ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Задача найдена"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<MappingJacksonValue> getTaskById(@PathVariable Long taskId,
+                                                           @RequestParam(required = false) String fields) {
+        Set<TaskField> taskFields = TaskField.parse(fields);
+        return ResponseEntity.ok(JacksonConfig.withFields(taskService.getTaskById(taskId, taskFields),
+                TaskField.FILTER_ID, taskFields != null ? TaskField.properties(taskFields) : null));
+    }
+
+    /**
+     * Возвращает карточку задачи одним запросом: задачу, самые новые комментарии с авторами,
+     * автора и исполнителя задачи. Части загружаются параллельно после единой проверки прав.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId       идентификатор задачи
+     * @param commentsSize количество самых новых комментариев, от 1 до 100
+     * @return ResponseEntity с объектом {@link TaskDetailsDto}
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException если размер страницы комментариев вне допустимого диапазона
+     */
+    @GetMapping("/{taskId}/details")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Получить карточку задачи",
+            description = "Возвращает задачу, первые комментарии, автора и исполнителя одним запросом")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Карточка задачи получена"),
+            @ApiResponse(responseCode = "400", description = "Неверный размер страницы комментариев"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "503", description = "Части карточки не загрузились вовремя")
+    })
+    public ResponseEntity<TaskDetailsDto> getTaskDetails(@PathVariable Long taskId,
+                                                         @RequestParam(defaultValue = "20") int commentsSize) {
+        return ResponseEntity.ok(taskDetailsService.getTaskDetails(taskId, commentsSize));
+    }
+
+    /**
+     * Возвращает метки задачи.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @return ResponseEntity со списком объектов {@link LabelDto}, упорядоченных по имени
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     */
+    @GetMapping("/{taskId}/labels")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить метки задачи", description = "Возвращает метки задачи по ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Метки задачи успешно получены"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<List<LabelDto>> getTaskLabels(@PathVariable Long taskId) {
+        return ResponseEntity.ok(labelService.getTaskLabels(taskId));
+    }
+
+    /**
+     * Заменяет набор меток задачи.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @param dto    объект {@link TaskLabelsUpdateDto} с идентификаторами новых меток
+     * @return ResponseEntity со списком объектов {@link LabelDto}, представляющих метки задачи
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача или метка не найдена
+     */
+    @PutMapping("/{taskId}/labels")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Изменить метки задачи", description = "Заменяет набор меток задачи")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Метки задачи успешно изменены"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача или метка не найдена")
+    })
+    public ResponseEntity<List<LabelDto>> setTaskLabels(@PathVariable Long taskId,
+                                                        @Valid @RequestBody TaskLabelsUpdateDto dto) {
+        return ResponseEntity.ok(labelService.setTaskLabels(taskId, dto.getLabelIds()));
+    }
+
+    /**
+     * Перемещает задачу вместе с подзадачами под другого родителя или на верхний уровень.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор перемещаемой задачи
+     * @param dto    объект {@link TaskMoveDto} с идентификатором нового родителя
+     * @return ResponseEntity с объектом {@link TaskDto}, представляющим перемещённую задачу
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача или новый родитель не найдены
+     * @throws IllegalArgumentException если новый родитель — сама задача или её подзадача
+     */
+    @PutMapping("/{taskId}/parent")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Переместить задачу", description = "Делает задачу подзадачей другой задачи или задачей верхнего уровня")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача успешно перемещена"),
+            @ApiResponse(responseCode = "400", description = "Перемещение создаёт цикл"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача или новый родитель не найдены")
+    })
+    public ResponseEntity<TaskDto> moveTask(@PathVariable Long taskId, @RequestBody TaskMoveDto dto) {
+        return ResponseEntity.ok(taskService.moveTask(taskId, dto.getParentId()));
+    }
+
+    /**
+     * Возвращает подзадачи всех уровней, начиная с непосредственных, постранично.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId   идентификатор корня поддерева
+     * @param depth    максимальная глубина относительно задачи; {@code 1} — только непосредственные подзадачи
+     * @param pageable объект {@link Pageable} для настройки пагинации; сортировка не учитывается
+     * @return ResponseEntity с объектом {@link PageDto} без общего количества, содержащим список {@link TaskDto}
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException если глубина меньше 1
+     */
+    @GetMapping("/{taskId}/subtasks")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить подзадачи", description = "Возвращает подзадачи всех уровней по уровням от ближних к дальним")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Подзадачи успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Неверная глубина"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<PageDto<TaskDto>> getSubtasks(@PathVariable Long taskId,
+                                                        @RequestParam(defaultValue = "2147483647") int depth,
+                                                        Pageable pageable) {
+        return ResponseEntity.ok(taskService.getSubtasks(taskId, depth, pageable));
+    }
+
+    /**
+     * Возвращает цепочку предков задачи от корня иерархии к непосредственному родителю.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @return ResponseEntity со списком объектов {@link TaskDto}, представляющих предков задачи
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     */
+    @GetMapping("/{taskId}/ancestors")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить предков задачи", description = "Возвращает цепочку родительских задач от корня")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Предки задачи успешно получены"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<List<TaskDto>> getAncestors(@PathVariable Long taskId) {
+        return ResponseEntity.ok(taskService.getAncestors(taskId));
+    }
+
+    /**
+     * Возвращает сводку по поддереву задачи: количество подзадач всех уровней по статусам.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор корня поддерева
+     * @return ResponseEntity с объектом {@link TaskRollupDto}
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     */
+    @GetMapping("/{taskId}/rollup")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить сводку по подзадачам", description = "Возвращает количество подзадач всех уровней по статусам")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Сводка успешно получена"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<TaskRollupDto> getRollup(@PathVariable Long taskId) {
+        return ResponseEntity.ok(taskService.getRollup(taskId));
+    }
+
+    /**
+     * Перемещает задачу внутри колонки доски её статуса. Изменяется только ключ порядка самой задачи.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор перемещаемой задачи
+     * @param dto    объект {@link TaskRankDto} с задачей, после которой нужно поставить задачу
+     * @return ResponseEntity с объектом {@link TaskDto}, представляющим перемещённую задачу
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача или задача-ориентир не найдены
+     * @throws IllegalArgumentException если задача-ориентир — сама задача или задача из другой колонки
+     */
+    @PutMapping("/{taskId}/rank")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Переместить задачу на доске", description = "Ставит задачу после другой задачи той же колонки или в начало колонки")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача успешно перемещена"),
+            @ApiResponse(responseCode = "400", description = "Задача-ориентир из другой колонки"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<TaskDto> rankTask(@PathVariable Long taskId, @RequestBody TaskRankDto dto) {
+        return ResponseEntity.ok(boardService.moveTask(taskId, dto.getAfterTaskId()));
+    }
+
+    /**
+     * Возвращает задачи, блокирующие указанную задачу.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @return ResponseEntity со списком объектов {@link TaskDto}, представляющих блокирующие задачи
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     */
+    @GetMapping("/{taskId}/blockers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить блокирующие задачи", description = "Возвращает задачи, от которых зависит задача")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Блокирующие задачи успешно получены"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<List<TaskDto>> getBlockers(@PathVariable Long taskId) {
+        return ResponseEntity.ok(taskDependencyService.getBlockers(taskId));
+    }
+
+    /**
+     * Добавляет зависимость: задача {@code blockerId} блокирует задачу {@code taskId}.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId    идентификатор заблокированной задачи
+     * @param blockerId идентификатор блокирующей задачи
+     * @return ResponseEntity со списком объектов {@link TaskDto}, представляющих все блокирующие задачи
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если одна из задач не найдена
+     * @throws IllegalArgumentException если зависимость создаёт цикл
+     */
+    @PutMapping("/{taskId}/blockers/{blockerId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Добавить блокирующую задачу", description = "Делает задачу зависимой от другой задачи")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Зависимость успешно добавлена"),
+            @ApiResponse(responseCode = "400", description = "Зависимость создаёт цикл"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "503", description = "Граф зависимостей перестраивается")
+    })
+    public ResponseEntity<List<TaskDto>> addBlocker(@PathVariable Long taskId, @PathVariable Long blockerId) {
+        return ResponseEntity.ok(taskDependencyService.addBlocker(taskId, blockerId));
+    }
+
+    /**
+     * Удаляет зависимость между задачами.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId    идентификатор заблокированной задачи
+     * @param blockerId идентификатор блокирующей задачи
+     * @return ResponseEntity без содержимого
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     */
+    @DeleteMapping("/{taskId}/blockers/{blockerId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Удалить блокирующую задачу", description = "Удаляет зависимость задачи от другой задачи")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Зависимость успешно удалена"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<Void> removeBlocker(@PathVariable Long taskId, @PathVariable Long blockerId) {
+        taskDependencyService.removeBlocker(taskId, blockerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Возвращает критический путь задачи: самую длинную цепочку незавершённых блокирующих задач.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @return ResponseEntity со списком объектов {@link TaskDto} от первой задачи цепочки к самой задаче
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     */
+    @GetMapping("/{taskId}/critical-path")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить критический путь", description = "Возвращает самую длинную цепочку незавершённых блокирующих задач")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Критический путь успешно получен"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "503", description = "Граф зависимостей перестраивается")
+    })
+    public ResponseEntity<List<TaskDto>> getCriticalPath(@PathVariable Long taskId) {
+        return ResponseEntity.ok(taskDependencyService.getCriticalPath(taskId));
+    }
+
+    /**
+     * Возвращает задачи текущего пользователя, которые можно начать: все их блокирующие задачи завершены.
+     * Доступно для пользователей с ролями ADMIN или USER.
+     *
+     * @param limit максимальное количество задач, от 1 до 100
+     * @return ResponseEntity со списком объектов {@link TaskDto} от новых к старым
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона
+     */
+    @GetMapping("/ready")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Получить готовые к работе задачи", description = "Возвращает незавершённые задачи текущего пользователя без незавершённых блокирующих задач")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задачи успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Неверный лимит"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "503", description = "Граф зависимостей перестраивается")
+    })
+    public ResponseEntity<List<TaskDto>> getReadyTasks(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(taskDependencyService.getReadyTasks(limit));
+    }
+
+    /**
+     * Возвращает следующую ожидающую задачу текущего пользователя: задачу в статусе PENDING, где он исполнитель,
+     * с наивысшим приоритетом, а среди них — самую старую.
+     * Доступно для пользователей с ролями ADMIN или USER.
+     *
+     * @return ResponseEntity с объектом {@link TaskDto} или пустой ответ 204, если ожидающих задач нет
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     */
+    @GetMapping("/next")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Получить следующую задачу", description = "Возвращает ожидающую задачу текущего пользователя с наивысшим приоритетом, а среди них — самую старую")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача успешно получена"),
+            @ApiResponse(responseCode = "204", description = "Ожидающих задач нет"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "503", description = "Очереди задач перестраиваются")
+    })
+    public ResponseEntity<TaskDto> getNextTask() {
+        return taskQueueService.getNextTask()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Берёт в работу следующую ожидающую задачу текущего пользователя, переводя её в статус IN_PROGRESS.
+     * Одновременные запросы получают разные задачи.
+     * Доступно для пользователей с ролями ADMIN или USER.
+     *
+     * @return ResponseEntity с объектом {@link TaskDto}, представляющим взятую задачу,
+     * или пустой ответ 204, если ожидающих задач нет
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     */
+    @PostMapping("/next/claim")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Взять следующую задачу в работу", description = "Переводит следующую ожидающую задачу текущего пользователя в статус IN_PROGRESS")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача взята в работу"),
+            @ApiResponse(responseCode = "204", description = "Ожидающих задач нет"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "503", description = "Очереди задач перестраиваются")
+    })
+    public ResponseEntity<TaskDto> claimNextTask() {
+        return taskQueueService.claimNextTask()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Возвращает историю изменений задачи и её комментариев от новых к старым с листанием по курсору.
+     * История читается из журнала по индексу задачи без запросов к базе данных, кроме проверки доступа.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @param cursor курсор из предыдущей страницы
+     * @param size   размер страницы, от 1 до 100
+     * @return ResponseEntity с объектом {@link CursorPageDto}, содержащим записи истории и курсор
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    @GetMapping("/{taskId}/history")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить историю задачи",
+            description = "Возвращает изменения полей задачи и её комментариев от новых к старым")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "История получена"),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы"),
             @ApiResponse(responseCode = "403", description = "Нет доступа"),
             @ApiResponse(responseCode = "404", description = "Задача не найдена")
     })
-    public ResponseEntity<TaskDto> getTaskById(@PathVariable Long taskId) {
-        return ResponseEntity.ok(taskService.getTaskById(taskId));
+    public ResponseEntity<CursorPageDto<TaskHistoryDto>> getTaskHistory(@PathVariable Long taskId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(taskHistoryService.getHistory(taskId, cursor, size));
+    }
+
+    /**
+     * Возвращает правило повторения задачи-шаблона.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи-шаблона
+     * @return ResponseEntity с объектом {@link RecurrenceDto}
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если у задачи нет правила повторения
+     */
+    @GetMapping("/{taskId}/recurrence")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Получить правило повторения", description = "Возвращает правило повторения задачи-шаблона")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Правило успешно получено"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Правило не найдено")
+    })
+    public ResponseEntity<RecurrenceDto> getRecurrence(@PathVariable Long taskId) {
+        return ResponseEntity.ok(recurrenceService.getRecurrence(taskId));
+    }
+
+    /**
+     * Делает задачу шаблоном повторяющейся задачи или заменяет её правило повторения.
+     * Экземпляры создаются фоновым генератором заранее, перед наступлением их срока;
+     * уже созданные экземпляры не пересоздаются.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи-шаблона
+     * @param dto    объект {@link RecurrenceCreateDto} с параметрами правила
+     * @return ResponseEntity с объектом {@link RecurrenceDto}, представляющим сохранённое правило
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException если правило недопустимо или задача сама является экземпляром
+     */
+    @PutMapping("/{taskId}/recurrence")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Задать правило повторения", description = "Делает задачу шаблоном повторяющейся задачи или заменяет её правило")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Правило успешно сохранено"),
+            @ApiResponse(responseCode = "400", description = "Недопустимое правило"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    public ResponseEntity<RecurrenceDto> setRecurrence(@PathVariable Long taskId,
+                                                       @Valid @RequestBody RecurrenceCreateDto dto) {
+        return ResponseEntity.ok(recurrenceService.setRecurrence(taskId, dto));
+    }
+
+    /**
+     * Удаляет правило повторения задачи. Уже созданные экземпляры остаются обычными задачами.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId идентификатор задачи-шаблона
+     * @return ResponseEntity без содержимого
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если у задачи нет правила повторения
+     */
+    @DeleteMapping("/{taskId}/recurrence")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Удалить правило повторения", description = "Прекращает создание экземпляров задачи-шаблона")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Правило успешно удалено"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Правило не найдено")
+    })
+    public ResponseEntity<Void> deleteRecurrence(@PathVariable Long taskId) {
+        recurrenceService.deleteRecurrence(taskId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Создаёт ещё не созданные экземпляры повторяющейся задачи со сроком до указанного момента включительно,
+     * не дожидаясь фонового генератора.
+     * Доступно для пользователей с ролями ADMIN или USER, которые являются автором или исполнителем задачи.
+     *
+     * @param taskId  идентификатор задачи-шаблона
+     * @param through последний срок создаваемых экземпляров
+     * @return ResponseEntity со списком объектов {@link TaskDto}, представляющих созданные экземпляры
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws ru.test.ManageSystem.exception.ResourceNotFoundException если у задачи нет правила повторения
+     * @throws IllegalArgumentException если пришлось бы создать больше 1000 экземпляров
+     */
+    @PostMapping("/{taskId}/recurrence/materialize")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER') and @taskService.isTaskAssigneeOrAuthor(#taskId)")
+    @Operation(summary = "Создать экземпляры повторяющейся задачи", description = "Создаёт экземпляры со сроком до указанного момента включительно")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Экземпляры успешно созданы"),
+            @ApiResponse(responseCode = "400", description = "Слишком много экземпляров"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "404", description = "Правило не найдено")
+    })
+    public ResponseEntity<List<TaskDto>> materializeRecurrence(
+            @PathVariable Long taskId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime through) {
+        return ResponseEntity.ok(recurrenceService.materialize(taskId, through));
+    }
+
+    /**
+     * Возвращает незавершённые задачи текущего пользователя со сроком в диапазоне {@code [from, to)} по возрастанию
+     * срока, включая ещё не созданные экземпляры повторяющихся задач. Такие экземпляры возвращаются без
+     * идентификатора, с идентификатором правила в поле {@code recurrenceId}, и в базе не сохраняются.
+     * Доступно для пользователей с ролями ADMIN или USER; пользователи видят только задачи,
+     * где они являются автором или исполнителем.
+     *
+     * @param from  начало диапазона сроков включительно
+     * @param to    конец диапазона сроков не включительно
+     * @param limit максимальное количество задач, от 1 до 100
+     * @return ResponseEntity со списком объектов {@link TaskDto}
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если диапазон пуст или лимит вне допустимого диапазона
+     */
+    @GetMapping("/upcoming")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Предстоящие задачи", description = "Возвращает задачи со сроком в диапазоне, включая ещё не созданные экземпляры повторяющихся задач")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задачи успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Неверный диапазон или лимит"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<List<TaskDto>> getUpcomingTasks(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(recurrenceService.getUpcoming(from, to, limit));
     }
 
     /**
@@ -157,23 +725,173 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getAllTasks());
     }
 
+    /**
+     * Выполняет полнотекстовый поиск задач по заголовку, описанию и комментариям.
+     * Доступно для пользователей с ролями ADMIN или USER; пользователи видят только задачи,
+     * где они являются автором или исполнителем. Слова запроса приводятся к основе (русский и английский),
+     * в результат попадают задачи, содержащие все слова запроса.
+     *
+     * @param q     текст запроса
+     * @param limit максимальное количество результатов, от 1 до 100
+     * @return ResponseEntity со списком объектов {@link TaskDto}, упорядоченных от новых задач к старым
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если запрос пуст или ограничение вне допустимого диапазона
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Полнотекстовый поиск задач", description = "Ищет задачи по заголовку, описанию и комментариям")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты поиска успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Пустой запрос или неверное ограничение"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "503", description = "Поисковый индекс перестраивается")
+    })
+    public ResponseEntity<List<TaskDto>> searchTasks(@RequestParam String q,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(taskService.searchTasks(q, limit));
+    }
+
+    /**
+     * Возвращает подсказки для поля быстрого перехода к задаче по началу заголовка или любого слова в нём.
+     * Доступно для пользователей с ролями ADMIN или USER; пользователи видят только задачи,
+     * где они являются автором или исполнителем.
+     *
+     * @param prefix введённый текст
+     * @param limit  максимальное количество подсказок, от 1 до 10
+     * @return ResponseEntity со списком объектов {@link TaskSuggestionDto}, упорядоченных по времени изменения задачи
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если ограничение вне допустимого диапазона
+     */
+    @GetMapping("/autocomplete")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Подсказки по заголовку задачи", description = "Возвращает задачи, заголовок которых начинается с введённого текста")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Подсказки успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Неверное ограничение"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "503", description = "Индекс подсказок перестраивается")
+    })
+    public ResponseEntity<List<TaskSuggestionDto>> autocompleteTasks(@RequestParam String prefix,
+                                                                     @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(taskService.autocompleteTasks(prefix, limit));
+    }
+
+    /**
+     * Возвращает задачи, подходящие под булево выражение над метками, статусом, приоритетом,
+     * исполнителем и автором, например {@code backend AND urgent AND NOT blocked}
+     * или {@code (status:PENDING OR status:IN_PROGRESS) AND assignee:none}.
+     * Доступно для пользователей с ролями ADMIN или USER; пользователи видят только задачи,
+     * где они являются автором или исполнителем.
+     *
+     * @param expression булево выражение фильтра
+     * @param page       номер страницы, начиная с 0
+     * @param size       размер страницы, от 1 до 100
+     * @return ResponseEntity с объектом {@link PageDto}, содержащим задачи от новых к старым и точное общее количество
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если выражение содержит ошибку или неизвестную метку
+     */
+    @GetMapping("/query")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Фильтр задач по выражению", description = "Возвращает задачи, подходящие под булево выражение над метками и атрибутами")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач успешно получен"),
+            @ApiResponse(responseCode = "400", description = "Ошибка в выражении или неверные параметры страницы"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа"),
+            @ApiResponse(responseCode = "503", description = "Индекс фильтрации перестраивается")
+    })
+    public ResponseEntity<PageDto<TaskDto>> queryTasks(@RequestParam String expression,
+                                                       @RequestParam(defaultValue = "0") int page,
+                                                       @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskService.queryTasks(expression, page, size));
+    }
+
     /**
      * Возвращает отфильтрованный список задач с пагинацией.
      * Доступно для пользователей с ролями ADMIN или USER.
+     * Параметр {@code count} выбирает стоимость подсчёта общего количества: {@code exact} — точный подсчёт,
+     * {@code estimate} — оценка по статистике СУБД (ответ помечается {@code totalApproximate = true}),
+     * {@code none} — без подсчёта.
+     * Параметр {@code fields}, например {@code id,title,status}, ограничивает задачи в ответе указанными полями;
+     * из базы данных при этом выбираются только их колонки.
      *
      * @param filter   объект {@link TaskFilterDto} с параметрами фильтрации
+     * @param count    режим подсчёта общего количества задач: exact, estimate или none
+     * @param fields   имена возвращаемых полей задачи через запятую; если не задан, возвращаются все поля
      * @param pageable объект {@link Pageable} для настройки пагинации и сортировки
-     * @return ResponseEntity с объектом {@link Page} содержащим список {@link TaskDto}
+     * @return ResponseEntity с объектом {@link PageDto} содержащим список {@link TaskDto}
      * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если режим подсчёта не поддерживается или указано неизвестное поле
      */
     @GetMapping("/filter")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Получить задачи с фильтрацией", description = "Возвращает отфильтрованный список задач с пагинацией")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список задач успешно получен"),
+            @ApiResponse(responseCode = "400", description = "Неверный режим подсчёта или неизвестное поле"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<MappingJacksonValue> getTasks(@ModelAttribute TaskFilterDto filter,
+                                                        @RequestParam(defaultValue = "exact") String count,
+                                                        @RequestParam(required = false) String fields,
+                                                        Pageable pageable) {
+        Set<TaskField> taskFields = TaskField.parse(fields);
+        PageDto<TaskDto> page = taskService.getTasks(filter, pageable, CountMode.fromParam(count), taskFields);
+        return ResponseEntity.ok(JacksonConfig.withFields(page, TaskField.FILTER_ID,
+                taskFields != null ? TaskField.properties(taskFields) : null));
+    }
+
+    /**
+     * Возвращает задачи, удовлетворяющие фильтру, от недавно изменённых к давно изменённым,
+     * например изменения за неделю: {@code ?updatedFrom=2024-05-06T00:00:00&updatedTo=2024-05-13T00:00:00}.
+     * Доступно для пользователей с ролями ADMIN или USER; пользователи видят только задачи,
+     * где они являются автором или исполнителем. Страницы выбираются по ключу: следующая страница
+     * запрашивается с параметром {@code cursor} из предыдущего ответа.
+     *
+     * @param filter объект {@link TaskFilterDto} с параметрами фильтрации
+     * @param cursor курсор следующей страницы из предыдущего ответа
+     * @param size   размер страницы, от 1 до 100
+     * @return ResponseEntity с объектом {@link CursorPageDto} содержащим список {@link TaskDto}
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Недавно изменённые задачи", description = "Возвращает задачи по убыванию времени изменения с постраничной выборкой по курсору")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач успешно получен"),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы"),
+            @ApiResponse(responseCode = "403", description = "Нет доступа")
+    })
+    public ResponseEntity<CursorPageDto<TaskDto>> getRecentlyUpdatedTasks(@ModelAttribute TaskFilterDto filter,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taskService.getRecentlyUpdatedTasks(filter, cursor, size));
+    }
+
+    /**
+     * Возвращает колонку доски — задачи одного статуса в ручном порядке.
+     * Доступно для пользователей с ролями ADMIN или USER; пользователи видят только задачи,
+     * где они являются автором или исполнителем. Следующая страница запрашивается с параметром
+     * {@code cursor} из предыдущего ответа.
+     *
+     * @param status статус задач колонки
+     * @param cursor курсор следующей страницы из предыдущего ответа
+     * @param size   размер страницы, от 1 до 100
+     * @return ResponseEntity с объектом {@link CursorPageDto} содержащим список {@link TaskDto}
+     * @throws org.springframework.security.access.AccessDeniedException если у пользователя нет прав
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    @GetMapping("/board")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Колонка доски", description = "Возвращает задачи одного статуса в ручном порядке с постраничной выборкой по курсору")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задачи колонки успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы"),
             @ApiResponse(responseCode = "403", description = "Нет доступа")
     })
-    public ResponseEntity<Page<TaskDto>> getTasks(@ModelAttribute TaskFilterDto filter, Pageable pageable) {
-        return ResponseEntity.ok(taskService.getTasks(filter, pageable));
+    public ResponseEntity<CursorPageDto<TaskDto>> getBoardColumn(@RequestParam TaskStatus status,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(boardService.getBoardColumn(status, cursor, size));
     }
 }
\ No newline at end of file
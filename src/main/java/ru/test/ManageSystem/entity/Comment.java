@@ -6,13 +6,17 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import ru.test.ManageSystem.entity.Task;
 import ru.test.ManageSystem.entity.User;
 
@@ -20,12 +24,26 @@ import java.time.LocalDateTime;
 
 // entity/Comment.java
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_task_created_at_id", columnList = "task_id, created_at, id"),
+        @Index(name = "idx_comments_task_path", columnList = "task_id, path")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Comment {
+
+    /**
+     * Количество цифр идентификатора в одном сегменте материализованного пути.
+     */
+    public static final int PATH_SEGMENT_LENGTH = 12;
+
+    /**
+     * Максимальное количество сегментов пути, то есть уровней вложенности ответов.
+     */
+    public static final int MAX_DEPTH = 16;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -42,4 +60,37 @@ public class Comment {
     private User author;
 
     private LocalDateTime createdAt;
+
+    /**
+     * Комментарий, на который дан ответ, или {@code null} для комментария верхнего уровня.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Comment parent;
+
+    /**
+     * Материализованный путь: идентификаторы предков и самого комментария, каждый дополнен нулями
+     * до {@link #PATH_SEGMENT_LENGTH} цифр. Сортировка по пути даёт ветку в порядке обхода в глубину,
+     * а поддерево комментария — это диапазон путей, начинающихся с его пути.
+     */
+    @Column(length = PATH_SEGMENT_LENGTH * MAX_DEPTH)
+    private String path;
+
+    /**
+     * Глубина вложенности: 0 для комментария верхнего уровня.
+     */
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int depth = 0;
+
+    /**
+     * Количество прямых ответов. Поддерживается атомарными UPDATE в {@code CommentService}.
+     */
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "reply_count", nullable = false)
+    private int replyCount = 0;
 }
\ No newline at end of file
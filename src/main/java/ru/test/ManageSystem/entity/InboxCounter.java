@@ -0,0 +1,42 @@
+package ru.test.ManageSystem.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сохранённый счётчик непрочитанных элементов входящих пользователя. Строки пишет только периодическое
+ * сохранение {@code InboxService}: значение {@code unread} учитывает элементы с идентификатором
+ * не больше {@code countedUpTo}, более новые элементы досчитываются при загрузке.
+ */
+@Entity
+@Table(name = "inbox_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxCounter {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long unread;
+
+    /**
+     * Граница прочтения: элементы с идентификатором не больше неё прочитаны.
+     */
+    @Column(name = "read_up_to", nullable = false)
+    private long readUpTo;
+
+    /**
+     * Безопасная граница сохранения, до которой включительно учтены элементы в {@code unread}.
+     */
+    @Column(name = "counted_up_to", nullable = false)
+    private long countedUpTo;
+}
@@ -0,0 +1,51 @@
+package ru.test.ManageSystem.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.NotificationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Элемент входящих пользователя: назначение ему задачи или новый комментарий к его задаче.
+ * Элемент прочитан, если его идентификатор не больше границы прочтения пользователя в {@link InboxCounter},
+ * поэтому признак прочтения не хранится в строке и отметка прочтения не изменяет элементы.
+ * Задача указана идентификатором без внешнего ключа: элементы удалённой задачи остаются во входящих.
+ */
+@Entity
+@Table(name = "inbox_items", indexes = {
+        @Index(name = "idx_inbox_items_user_id", columnList = "user_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package ru.test.ManageSystem.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// entity/Label.java
+@Entity
+@Table(name = "labels")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Label {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Имя метки в нижнем регистре.
+     */
+    @Column(nullable = false, unique = true, length = 50)
+    private String name;
+}
@@ -9,24 +9,43 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.test.ManageSystem.enums.TaskPriority;
 import ru.test.ManageSystem.enums.TaskStatus;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 // entity/Task.java
 @Entity
-@Table(name = "tasks")
+@DynamicUpdate
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_last_comment_at", columnList = "last_comment_at"),
+        @Index(name = "idx_tasks_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_tasks_parent_id", columnList = "parent_id"),
+        @Index(name = "idx_tasks_status_board_rank", columnList = "status, board_rank, id"),
+        @Index(name = "idx_tasks_due_at_id", columnList = "due_at, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tasks_recurrence_occurrence", columnNames = {"recurrence_id", "occurrence_at"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -57,10 +76,96 @@ public class Task {
     @JoinColumn(name = "assignee_id")
     private User assignee;
 
+    /**
+     * Родительская задача или {@code null} для задачи верхнего уровня. Изменяется только через
+     * {@code TaskService}, который в той же транзакции обновляет таблицу замыкания {@link TaskClosure}.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Task parent;
+
     @Builder.Default
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL)
     private List<Comment> comments = new ArrayList<>();
 
+    /**
+     * Метки задачи. Изменяются через {@code LabelService}, фильтрация по ним выполняется
+     * индексом {@code TaskBitmapIndex} без обращения к таблице связей.
+     */
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "task_labels",
+            joinColumns = @JoinColumn(name = "task_id"),
+            inverseJoinColumns = @JoinColumn(name = "label_id"))
+    private Set<Label> labels = new HashSet<>();
+
+    /**
+     * Задачи, блокирующие эту задачу. Изменяются через {@code TaskDependencyService}, который проверяет
+     * отсутствие циклов по индексу {@code TaskDependencyIndex}.
+     */
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "task_dependencies",
+            joinColumns = @JoinColumn(name = "task_id"),
+            inverseJoinColumns = @JoinColumn(name = "blocker_id"),
+            indexes = @Index(name = "idx_task_dependencies_blocker_id", columnList = "blocker_id"))
+    private Set<Task> blockers = new HashSet<>();
+
+    /**
+     * Ключ ручного порядка задачи в колонке доски её статуса (см. {@code BoardRank}).
+     * Задаётся в {@code TaskService} при создании и смене статуса и в {@code BoardService} при перемещении.
+     */
+    @Column(name = "board_rank")
+    private String boardRank;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    /**
+     * Количество комментариев задачи. Поддерживается атомарными UPDATE в {@code CommentService}.
+     */
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount = 0;
+
+    /**
+     * Время последнего комментария или {@code null}, если комментариев нет.
+     */
+    @Column(name = "last_comment_at")
+    private LocalDateTime lastCommentAt;
+
+    /**
+     * Срок выполнения задачи или {@code null}, если срока нет.
+     */
+    @Column(name = "due_at")
+    private LocalDateTime dueAt;
+
+    /**
+     * Срок выполнения наступил, а задача не была завершена. Устанавливается один раз условным UPDATE
+     * в {@code DueDateService} и сбрасывается при изменении срока.
+     */
+    @Builder.Default
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean overdue = false;
+
+    /**
+     * Правило повторения {@link TaskRecurrence}, экземпляром которого является задача, или {@code null}.
+     */
+    @Column(name = "recurrence_id")
+    private Long recurrenceId;
+
+    /**
+     * Момент экземпляра по правилу повторения. В отличие от срока не изменяется, поэтому вместе
+     * с {@code recurrenceId} однозначно определяет экземпляр и не даёт создать его дважды.
+     */
+    @Column(name = "occurrence_at")
+    private LocalDateTime occurrenceAt;
 }
\ No newline at end of file
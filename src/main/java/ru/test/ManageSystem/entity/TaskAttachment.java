@@ -0,0 +1,59 @@
+package ru.test.ManageSystem.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Вложение задачи. Содержимое хранится на диске под именем из SHA-256 содержимого, поэтому одинаковые файлы
+ * разных вложений хранятся один раз; файл удаляется, когда на него не ссылается ни одно вложение.
+ * Вложения удалённой задачи удаляются в той же транзакции.
+ */
+@Entity
+@Table(name = "task_attachments", indexes = {
+        @Index(name = "idx_task_attachments_task_id", columnList = "task_id, id"),
+        @Index(name = "idx_task_attachments_sha256", columnList = "sha256")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskAttachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    /**
+     * SHA-256 содержимого в шестнадцатеричном виде; по нему строится имя файла содержимого.
+     */
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "uploaded_by", nullable = false)
+    private Long uploadedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
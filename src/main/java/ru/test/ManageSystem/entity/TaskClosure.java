@@ -0,0 +1,64 @@
+package ru.test.ManageSystem.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.io.Serializable;
+
+/**
+ * Строка таблицы замыкания иерархии задач: задача {@code ancestorId} является предком задачи
+ * {@code descendantId} на расстоянии {@code depth} уровней. Каждая задача хранит строку на саму себя
+ * с глубиной 0, поэтому поддерево и цепочка предков читаются одним запросом по индексу без рекурсии.
+ * Статус потомка продублирован в строке, чтобы сводка по статусам поддерева не соединялась с {@code tasks}.
+ * Таблица поддерживается в {@code TaskService} в той же транзакции, что и изменение задачи.
+ */
+@Entity
+@Table(name = "task_closure", indexes = {
+        @Index(name = "idx_task_closure_ancestor_depth", columnList = "ancestor_id, depth, descendant_id"),
+        @Index(name = "idx_task_closure_ancestor_status", columnList = "ancestor_id, descendant_status, depth"),
+        @Index(name = "idx_task_closure_descendant", columnList = "descendant_id, depth")
+})
+@IdClass(TaskClosure.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskClosure {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "descendant_status", nullable = false)
+    private TaskStatus descendantStatus;
+
+    /**
+     * Составной ключ строки: пара предок — потомок.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.test.ManageSystem.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.test.ManageSystem.enums.RecurrenceFrequency;
+
+import java.time.LocalDateTime;
+
+/**
+ * Правило повторения задачи-шаблона: экземпляры создаются в моменты
+ * {@code startAt + k * repeatInterval * frequency} до {@code untilAt} включительно как копии шаблона.
+ * Экземпляры с моментом раньше {@code generatedUntil} уже созданы в {@code tasks}, остальные существуют
+ * только виртуально и вычисляются по правилу при чтении.
+ */
+@Entity
+@Table(name = "task_recurrences", indexes = {
+        @Index(name = "idx_task_recurrences_generated_until", columnList = "generated_until")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskRecurrence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "template_id", nullable = false, unique = true)
+    private Long templateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "repeat_interval", nullable = false)
+    private int repeatInterval;
+
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(name = "until_at")
+    private LocalDateTime untilAt;
+
+    /**
+     * Граница созданных экземпляров, не включительно.
+     */
+    @Column(name = "generated_until", nullable = false)
+    private LocalDateTime generatedUntil;
+}
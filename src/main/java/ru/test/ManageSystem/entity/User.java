@@ -1,10 +1,7 @@
 package ru.test.ManageSystem.entity;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -16,9 +13,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import ru.test.ManageSystem.enums.Role;
 
-
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -41,14 +38,51 @@ public class User {
     @Size(min = 6, max = 100, message = "Пароль должен быть от 6 до 100 символов")
     private String password;
 
-    @Builder.Default
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_roles")
-    private Set<String> roles = new HashSet<>();
+    /**
+     * Роли пользователя в виде битовой маски (см. {@link Role#mask()}).
+     */
+    @ColumnDefault("0")
+    @Column(name = "role_mask", nullable = false)
+    private int roleMask;
 
     @OneToMany(mappedBy = "author")
     private List<Task> createdTasks;
 
     @OneToMany(mappedBy = "assignee")
     private List<Task> assignedTasks;
-}
\ No newline at end of file
+
+    /**
+     * Возвращает роли пользователя, восстановленные из битовой маски.
+     *
+     * @return изменяемый набор ролей пользователя
+     */
+    public Set<Role> getRoles() {
+        return Role.fromMask(roleMask);
+    }
+
+    /**
+     * Устанавливает роли пользователя, сворачивая их в битовую маску.
+     *
+     * @param roles набор ролей
+     */
+    public void setRoles(Set<Role> roles) {
+        this.roleMask = Role.toMask(roles);
+    }
+
+    /**
+     * Проверяет наличие роли у пользователя битовой операцией над маской.
+     *
+     * @param role проверяемая роль
+     * @return {@code true}, если роль есть у пользователя
+     */
+    public boolean hasRole(Role role) {
+        return role.isIn(roleMask);
+    }
+
+    public static class UserBuilder {
+        public UserBuilder roles(Set<Role> roles) {
+            this.roleMask = Role.toMask(roles);
+            return this;
+        }
+    }
+}
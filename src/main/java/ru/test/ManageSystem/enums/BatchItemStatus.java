@@ -0,0 +1,19 @@
+package ru.test.ManageSystem.enums;
+
+/**
+ * Результат обработки одного идентификатора в пакетном запросе.
+ */
+public enum BatchItemStatus {
+    /**
+     * Объект найден и доступен текущему пользователю.
+     */
+    OK,
+    /**
+     * Объект существует, но недоступен текущему пользователю.
+     */
+    FORBIDDEN,
+    /**
+     * Объект не найден.
+     */
+    NOT_FOUND
+}
@@ -0,0 +1,151 @@
+package ru.test.ManageSystem.enums;
+
+import ru.test.ManageSystem.DTO.CommentDto;
+import ru.test.ManageSystem.DTO.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Поля комментария, которые можно запросить параметром {@code fields}.
+ * Каждое поле знает своё имя в JSON, выражения JPQL выбираемых колонок и способ заполнить {@link CommentDto}.
+ * Поле {@code author} выбирает идентификатор, email и маску ролей автора; соединение с таблицей {@code users}
+ * выполняется только при запросе этого поля.
+ */
+public enum CommentField {
+    ID("id", "c.id") {
+        @Override
+        public void apply(CommentDto comment, Object[] row, int offset) {
+            comment.setId((Long) row[offset]);
+        }
+    },
+    CONTENT("content", "c.content") {
+        @Override
+        public void apply(CommentDto comment, Object[] row, int offset) {
+            comment.setContent((String) row[offset]);
+        }
+    },
+    AUTHOR("author", "a.id", "a.email", "a.roleMask") {
+        @Override
+        public void apply(CommentDto comment, Object[] row, int offset) {
+            comment.setAuthor(UserDto.builder()
+                    .id((Long) row[offset])
+                    .email((String) row[offset + 1])
+                    .roles(Role.fromMask((Integer) row[offset + 2]))
+                    .build());
+        }
+    },
+    CREATED_AT("createdAt", "c.createdAt") {
+        @Override
+        public void apply(CommentDto comment, Object[] row, int offset) {
+            comment.setCreatedAt((LocalDateTime) row[offset]);
+        }
+    },
+    PARENT_ID("parentId", "c.parent.id") {
+        @Override
+        public void apply(CommentDto comment, Object[] row, int offset) {
+            comment.setParentId((Long) row[offset]);
+        }
+    },
+    DEPTH("depth", "c.depth") {
+        @Override
+        public void apply(CommentDto comment, Object[] row, int offset) {
+            comment.setDepth((Integer) row[offset]);
+        }
+    },
+    REPLY_COUNT("replyCount", "c.replyCount") {
+        @Override
+        public void apply(CommentDto comment, Object[] row, int offset) {
+            comment.setReplyCount((Integer) row[offset]);
+        }
+    };
+
+    /**
+     * Идентификатор JSON-фильтра {@link CommentDto}.
+     */
+    public static final String FILTER_ID = "commentFields";
+
+    private final String property;
+    private final String[] columns;
+
+    CommentField(String property, String... columns) {
+        this.property = property;
+        this.columns = columns;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Возвращает выражения JPQL колонок поля.
+     *
+     * @return выражения колонок в порядке чтения из строки результата
+     */
+    public String[] getColumns() {
+        return columns.clone();
+    }
+
+    /**
+     * Возвращает количество колонок, занимаемых полем в строке результата.
+     *
+     * @return количество колонок
+     */
+    public int getWidth() {
+        return columns.length;
+    }
+
+    /**
+     * Записывает значения колонок поля в комментарий.
+     *
+     * @param comment заполняемый комментарий
+     * @param row     строка результата
+     * @param offset  индекс первой колонки поля в строке
+     */
+    public abstract void apply(CommentDto comment, Object[] row, int offset);
+
+    /**
+     * Разбирает значение параметра {@code fields}, например {@code id,content,createdAt}.
+     * Поле {@code id} добавляется всегда.
+     *
+     * @param fields имена полей через запятую или {@code null}
+     * @return набор полей или {@code null}, если параметр не задан и нужны все поля
+     * @throws IllegalArgumentException если указано неизвестное поле
+     */
+    public static Set<CommentField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<CommentField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(fromProperty(trimmed));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает имена полей в JSON.
+     *
+     * @param fields набор полей
+     * @return имена полей
+     */
+    public static Set<String> properties(Set<CommentField> fields) {
+        return fields.stream().map(CommentField::getProperty).collect(Collectors.toSet());
+    }
+
+    private static CommentField fromProperty(String property) {
+        for (CommentField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown comment field: " + property.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,35 @@
+package ru.test.ManageSystem.enums;
+
+/**
+ * Способ вычисления общего количества элементов при постраничной выдаче.
+ */
+public enum CountMode {
+    /**
+     * Точный подсчёт запросом {@code count(*)}.
+     */
+    EXACT,
+    /**
+     * Оценка по статистике планировщика СУБД; значение приблизительное.
+     */
+    ESTIMATE,
+    /**
+     * Общее количество не вычисляется, возвращается только признак наличия следующей страницы.
+     */
+    NONE;
+
+    /**
+     * Преобразует значение параметра запроса в режим подсчёта без учёта регистра.
+     *
+     * @param value значение параметра, например {@code exact}
+     * @return режим подсчёта
+     * @throws IllegalArgumentException если значение не соответствует ни одному режиму
+     */
+    public static CountMode fromParam(String value) {
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported count mode: " + value);
+    }
+}
@@ -0,0 +1,8 @@
+package ru.test.ManageSystem.enums;
+
+/**
+ * Вид уведомления пользователя о событии задачи.
+ */
+public enum NotificationType {
+    ASSIGNED, STATUS_CHANGED, COMMENTED, OVERDUE
+}
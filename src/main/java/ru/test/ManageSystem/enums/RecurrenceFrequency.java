@@ -0,0 +1,22 @@
+package ru.test.ManageSystem.enums;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Единица периода повторения задачи.
+ */
+public enum RecurrenceFrequency {
+    DAILY(ChronoUnit.DAYS),
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    RecurrenceFrequency(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.test.ManageSystem.enums;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Роли пользователей.
+ * Каждой роли соответствует один бит в маске, которая хранится в колонке {@code users.role_mask}.
+ * Порядок констант фиксирован: новые роли добавляются только в конец.
+ */
+public enum Role {
+    USER, ADMIN;
+
+    private static final Role[] VALUES = values();
+
+    /**
+     * Количество различных значений маски ролей.
+     */
+    public static final int MASK_COUNT = 1 << VALUES.length;
+
+    /**
+     * Возвращает бит роли в маске.
+     *
+     * @return маска с единственным установленным битом данной роли
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Проверяет, установлен ли бит данной роли в маске.
+     *
+     * @param roleMask маска ролей
+     * @return {@code true}, если роль присутствует в маске
+     */
+    public boolean isIn(int roleMask) {
+        return (roleMask & mask()) != 0;
+    }
+
+    /**
+     * Преобразует набор ролей в битовую маску.
+     *
+     * @param roles набор ролей, может быть {@code null}
+     * @return битовая маска ролей
+     */
+    public static int toMask(Collection<Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                mask |= role.mask();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Преобразует битовую маску в набор ролей.
+     *
+     * @param roleMask битовая маска ролей
+     * @return изменяемый {@link EnumSet} с ролями из маски
+     */
+    public static Set<Role> fromMask(int roleMask) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : VALUES) {
+            if (role.isIn(roleMask)) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.test.ManageSystem.enums;
+
+import ru.test.ManageSystem.DTO.TaskDto;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Поля задачи, которые можно запросить параметром {@code fields}.
+ * Каждое поле знает своё имя в JSON, выражение JPQL для выборки одной колонки и способ заполнить {@link TaskDto}.
+ * Идентификаторы автора и исполнителя выбираются из внешних ключей без соединения с таблицей {@code users}.
+ */
+public enum TaskField {
+    ID("id", "t.id", (task, value) -> task.setId((Long) value)),
+    TITLE("title", "t.title", (task, value) -> task.setTitle((String) value)),
+    DESCRIPTION("description", "t.description", (task, value) -> task.setDescription((String) value)),
+    STATUS("status", "t.status", (task, value) -> task.setStatus((TaskStatus) value)),
+    PRIORITY("priority", "t.priority", (task, value) -> task.setPriority((TaskPriority) value)),
+    AUTHOR_ID("authorId", "t.author.id", (task, value) -> task.setAuthorId((Long) value)),
+    ASSIGNEE_ID("assigneeId", "t.assignee.id", (task, value) -> task.setAssigneeId((Long) value)),
+    CREATED_AT("createdAt", "t.createdAt", (task, value) -> task.setCreatedAt((LocalDateTime) value)),
+    UPDATED_AT("updatedAt", "t.updatedAt", (task, value) -> task.setUpdatedAt((LocalDateTime) value)),
+    COMMENT_COUNT("commentCount", "t.commentCount", (task, value) -> task.setCommentCount((Integer) value)),
+    LAST_COMMENT_AT("lastCommentAt", "t.lastCommentAt",
+            (task, value) -> task.setLastCommentAt((LocalDateTime) value)),
+    PARENT_ID("parentId", "t.parent.id", (task, value) -> task.setParentId((Long) value)),
+    DUE_AT("dueAt", "t.dueAt", (task, value) -> task.setDueAt((LocalDateTime) value)),
+    OVERDUE("overdue", "t.overdue", (task, value) -> task.setOverdue((Boolean) value)),
+    RECURRENCE_ID("recurrenceId", "t.recurrenceId", (task, value) -> task.setRecurrenceId((Long) value));
+
+    /**
+     * Идентификатор JSON-фильтра {@link TaskDto}.
+     */
+    public static final String FILTER_ID = "taskFields";
+
+    private final String property;
+    private final String jpql;
+    private final BiConsumer<TaskDto, Object> setter;
+
+    TaskField(String property, String jpql, BiConsumer<TaskDto, Object> setter) {
+        this.property = property;
+        this.jpql = jpql;
+        this.setter = setter;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    /**
+     * Записывает значение колонки в соответствующее поле задачи.
+     *
+     * @param task  заполняемая задача
+     * @param value значение колонки
+     */
+    public void apply(TaskDto task, Object value) {
+        setter.accept(task, value);
+    }
+
+    /**
+     * Разбирает значение параметра {@code fields}, например {@code id,title,status}.
+     * Поле {@code id} добавляется всегда.
+     *
+     * @param fields имена полей через запятую или {@code null}
+     * @return набор полей или {@code null}, если параметр не задан и нужны все поля
+     * @throws IllegalArgumentException если указано неизвестное поле
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<TaskField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(fromProperty(trimmed));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает имена полей в JSON.
+     *
+     * @param fields набор полей
+     * @return имена полей
+     */
+    public static Set<String> properties(Set<TaskField> fields) {
+        return fields.stream().map(TaskField::getProperty).collect(Collectors.toSet());
+    }
+
+    private static TaskField fromProperty(String property) {
+        for (TaskField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task field: " + property.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,40 @@
+package ru.test.ManageSystem.enums;
+
+/**
+ * Вид записи истории задачи. Код записывается в журнал вместо порядкового номера,
+ * поэтому новые значения добавляются с новыми кодами, а существующие коды не меняются.
+ */
+public enum TaskHistoryAction {
+    TASK_CREATED(1),
+    TASK_UPDATED(2),
+    TASK_DELETED(3),
+    COMMENT_CREATED(4),
+    COMMENT_UPDATED(5),
+    COMMENT_DELETED(6);
+
+    private final byte code;
+
+    TaskHistoryAction(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Возвращает вид записи по коду из журнала.
+     *
+     * @param code код вида записи
+     * @return вид записи
+     * @throws IllegalArgumentException если код неизвестен
+     */
+    public static TaskHistoryAction fromCode(byte code) {
+        for (TaskHistoryAction action : values()) {
+            if (action.code == code) {
+                return action;
+            }
+        }
+        throw new IllegalArgumentException("Unknown history action code: " + code);
+    }
+}
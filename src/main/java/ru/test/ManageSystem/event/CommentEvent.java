@@ -0,0 +1,31 @@
+package ru.test.ManageSystem.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие изменения комментария. Публикуется {@code CommentService} внутри транзакции;
+ * слушатели получают его через {@code @TransactionalEventListener} после фиксации.
+ *
+ * @param type            вид изменения
+ * @param commentId       идентификатор комментария
+ * @param taskId          идентификатор задачи, к которой относится комментарий
+ * @param authorId        идентификатор автора комментария
+ * @param content         текст комментария после изменения или {@code null} для удалённого комментария
+ * @param createdAt       время создания комментария
+ * @param previousContent текст комментария до изменения или {@code null} для созданного комментария
+ */
+public record CommentEvent(Type type, Long commentId, Long taskId, Long authorId, String content,
+                           LocalDateTime createdAt, String previousContent) {
+
+    public CommentEvent(Type type, Long commentId, Long taskId, Long authorId, String content,
+                        LocalDateTime createdAt) {
+        this(type, commentId, taskId, authorId, content, createdAt, null);
+    }
+
+    /**
+     * Вид изменения комментария.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
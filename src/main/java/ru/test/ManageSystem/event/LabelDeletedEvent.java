@@ -0,0 +1,10 @@
+package ru.test.ManageSystem.event;
+
+/**
+ * Событие удаления метки вместе со всеми её связями с задачами. Публикуется {@code LabelService}
+ * внутри транзакции; слушатели получают его через {@code @TransactionalEventListener} после фиксации.
+ *
+ * @param labelId идентификатор удалённой метки
+ */
+public record LabelDeletedEvent(Long labelId) {
+}
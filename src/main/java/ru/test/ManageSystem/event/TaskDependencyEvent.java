@@ -0,0 +1,20 @@
+package ru.test.ManageSystem.event;
+
+/**
+ * Событие изменения зависимости между задачами. Публикуется {@code TaskDependencyService} внутри транзакции.
+ * Добавленная зависимость попадает в индекс зависимостей сразу, вместе с проверкой на цикл, и удаляется
+ * из него при откате транзакции; удалённая — убирается из индекса после фиксации.
+ *
+ * @param type      вид изменения
+ * @param taskId    идентификатор заблокированной задачи
+ * @param blockerId идентификатор блокирующей задачи
+ */
+public record TaskDependencyEvent(Type type, Long taskId, Long blockerId) {
+
+    /**
+     * Вид изменения зависимости.
+     */
+    public enum Type {
+        ADDED, REMOVED
+    }
+}
@@ -0,0 +1,42 @@
+package ru.test.ManageSystem.event;
+
+import ru.test.ManageSystem.DTO.TaskDto;
+
+/**
+ * Событие изменения задачи. Публикуется {@code TaskService} внутри транзакции;
+ * слушатели получают его через {@code @TransactionalEventListener} после фиксации.
+ *
+ * @param type   вид изменения
+ * @param before состояние задачи до изменения или {@code null} для созданной задачи
+ * @param after  состояние задачи после изменения или {@code null} для удалённой задачи
+ */
+public record TaskEvent(Type type, TaskDto before, TaskDto after) {
+
+    /**
+     * Вид изменения задачи.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static TaskEvent created(TaskDto after) {
+        return new TaskEvent(Type.CREATED, null, after);
+    }
+
+    public static TaskEvent updated(TaskDto before, TaskDto after) {
+        return new TaskEvent(Type.UPDATED, before, after);
+    }
+
+    public static TaskEvent deleted(TaskDto before) {
+        return new TaskEvent(Type.DELETED, before, null);
+    }
+
+    /**
+     * Возвращает идентификатор задачи, к которой относится событие.
+     *
+     * @return идентификатор задачи
+     */
+    public Long taskId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,13 @@
+package ru.test.ManageSystem.event;
+
+import java.util.Set;
+
+/**
+ * Событие замены набора меток задачи. Публикуется {@code LabelService} внутри транзакции;
+ * слушатели получают его через {@code @TransactionalEventListener} после фиксации.
+ *
+ * @param taskId   идентификатор задачи
+ * @param labelIds новый набор идентификаторов меток задачи
+ */
+public record TaskLabelsEvent(Long taskId, Set<Long> labelIds) {
+}
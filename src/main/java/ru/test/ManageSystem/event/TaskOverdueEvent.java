@@ -0,0 +1,16 @@
+package ru.test.ManageSystem.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие наступления срока незавершённой задачи. Публикуется {@code DueDateService} внутри транзакции,
+ * установившей признак просрочки, поэтому для каждого срока публикуется ровно один раз;
+ * слушатели получают его через {@code @TransactionalEventListener} после фиксации.
+ *
+ * @param taskId     идентификатор задачи
+ * @param authorId   идентификатор автора задачи
+ * @param assigneeId идентификатор исполнителя задачи или {@code null}
+ * @param dueAt      наступивший срок
+ */
+public record TaskOverdueEvent(Long taskId, Long authorId, Long assigneeId, LocalDateTime dueAt) {
+}
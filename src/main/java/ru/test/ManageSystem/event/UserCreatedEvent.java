@@ -0,0 +1,11 @@
+package ru.test.ManageSystem.event;
+
+/**
+ * Событие создания пользователя. Публикуется {@code UserService} внутри транзакции;
+ * слушатели получают его через {@code @TransactionalEventListener} после фиксации.
+ *
+ * @param userId   идентификатор созданного пользователя
+ * @param roleMask битовая маска ролей пользователя
+ */
+public record UserCreatedEvent(Long userId, int roleMask) {
+}
@@ -0,0 +1,7 @@
+package ru.test.ManageSystem.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
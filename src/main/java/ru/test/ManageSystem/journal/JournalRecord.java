@@ -0,0 +1,138 @@
+package ru.test.ManageSystem.journal;
+
+import ru.test.ManageSystem.enums.TaskHistoryAction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запись журнала истории задачи: одно изменение задачи или её комментария с изменёнными полями.
+ * <p>
+ * Двоичный формат записи (big-endian): идентификатор задачи {@code long}, время изменения как секунды
+ * {@code long} и наносекунды {@code int}, инициатор {@code long} (0 — неизвестен), код вида {@code byte},
+ * комментарий {@code long} (0 — нет), число изменений {@code short} и для каждого изменения имя поля
+ * ({@code short} длина и UTF-8), старое и новое значения ({@code int} длина, -1 для {@code null}, и UTF-8).
+ * Идентификатор задачи записан первым, чтобы восстановление строило индекс без разбора всей записи.
+ *
+ * @param taskId    идентификатор задачи
+ * @param at        время изменения
+ * @param actorId   идентификатор инициатора или {@code null}
+ * @param action    вид изменения
+ * @param commentId идентификатор комментария или {@code null}
+ * @param changes   изменённые поля
+ */
+public record JournalRecord(long taskId, LocalDateTime at, Long actorId, TaskHistoryAction action, Long commentId,
+                            List<Change> changes) {
+
+    private static final int HEADER_SIZE = Long.BYTES * 2 + Integer.BYTES + Long.BYTES + 1 + Long.BYTES + Short.BYTES;
+
+    /**
+     * Изменение поля.
+     *
+     * @param field    имя поля
+     * @param oldValue значение до изменения или {@code null}
+     * @param newValue значение после изменения или {@code null}
+     */
+    public record Change(String field, String oldValue, String newValue) {
+    }
+
+    /**
+     * Кодирует запись в двоичный формат.
+     *
+     * @return байты записи
+     * @throws IllegalArgumentException если изменений или длина имени поля больше допустимого
+     */
+    public byte[] encode() {
+        if (changes.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many changes in journal record");
+        }
+        List<byte[]> strings = new ArrayList<>(changes.size() * 3);
+        int size = HEADER_SIZE;
+        for (Change change : changes) {
+            byte[] field = change.field().getBytes(StandardCharsets.UTF_8);
+            if (field.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Field name is too long");
+            }
+            strings.add(field);
+            strings.add(bytes(change.oldValue()));
+            strings.add(bytes(change.newValue()));
+            size += Short.BYTES + field.length + Integer.BYTES * 2 + length(strings.get(strings.size() - 2))
+                    + length(strings.get(strings.size() - 1));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(taskId);
+        buffer.putLong(at.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(at.getNano());
+        buffer.putLong(actorId != null ? actorId : 0);
+        buffer.put(action.getCode());
+        buffer.putLong(commentId != null ? commentId : 0);
+        buffer.putShort((short) changes.size());
+        for (int i = 0; i < strings.size(); i += 3) {
+            buffer.putShort((short) strings.get(i).length);
+            buffer.put(strings.get(i));
+            putString(buffer, strings.get(i + 1));
+            putString(buffer, strings.get(i + 2));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Разбирает запись из двоичного формата.
+     *
+     * @param payload байты записи от текущей позиции до предела буфера
+     * @return запись
+     * @throws IllegalArgumentException если формат записи нарушен
+     */
+    public static JournalRecord decode(ByteBuffer payload) {
+        try {
+            long taskId = payload.getLong();
+            LocalDateTime at = LocalDateTime.ofEpochSecond(payload.getLong(), payload.getInt(), ZoneOffset.UTC);
+            long actorId = payload.getLong();
+            TaskHistoryAction action = TaskHistoryAction.fromCode(payload.get());
+            long commentId = payload.getLong();
+            int count = payload.getShort();
+            List<Change> changes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] field = new byte[payload.getShort()];
+                payload.get(field);
+                changes.add(new Change(new String(field, StandardCharsets.UTF_8), getString(payload),
+                        getString(payload)));
+            }
+            return new JournalRecord(taskId, at, actorId != 0 ? actorId : null, action,
+                    commentId != 0 ? commentId : null, changes);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed journal record", e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        payload.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,200 @@
+package ru.test.ManageSystem.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Файл сегмента журнала, отображённый в память целиком. Файл создаётся сразу полного размера и заполнен нулями,
+ * поэтому нулевая длина кадра означает конец записанных данных.
+ * <p>
+ * Кадр записи: длина данных {@code int}, контрольная сумма CRC32C данных {@code int} и данные
+ * {@link JournalRecord}. Запись и чтение используют только абсолютные операции над буфером, поэтому чтение
+ * уже записанных кадров безопасно из любых потоков, а дописывание выполняется под блокировкой журнала.
+ */
+final class JournalSegment implements Closeable {
+
+    static final int FRAME_HEADER = Integer.BYTES * 2;
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".journal";
+    private static final int ZERO_CHUNK = 64 * 1024;
+
+    private final long ordinal;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int writeOffset;
+
+    private JournalSegment(long ordinal, FileChannel channel, int capacity) throws IOException {
+        this.ordinal = ordinal;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Создаёт новый сегмент заданного размера.
+     */
+    static JournalSegment create(Path dir, long ordinal, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path(dir, ordinal), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new JournalSegment(ordinal, channel, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Открывает существующий сегмент. Позиция дописывания устанавливается {@link #recover(FrameVisitor)}.
+     */
+    static JournalSegment open(Path dir, long ordinal) throws IOException {
+        FileChannel channel = FileChannel.open(path(dir, ordinal), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE || size < FRAME_HEADER) {
+                throw new IOException("Unexpected journal segment size " + size + ": " + path(dir, ordinal));
+            }
+            return new JournalSegment(ordinal, channel, (int) size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static Path path(Path dir, long ordinal) {
+        return dir.resolve(String.format("%s%016d%s", PREFIX, ordinal, SUFFIX));
+    }
+
+    /**
+     * Возвращает порядковый номер сегмента по имени файла или -1, если файл не является сегментом.
+     */
+    static long ordinal(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    long ordinal() {
+        return ordinal;
+    }
+
+    int writeOffset() {
+        return writeOffset;
+    }
+
+    /**
+     * Просматривает кадры с начала сегмента и проверяет их длину и контрольную сумму. Просмотр останавливается
+     * на нулевой длине или первом повреждённом кадре; позиция дописывания устанавливается на его начало.
+     *
+     * @param visitor получатель смещений и идентификаторов задач целых кадров
+     * @return {@code true}, если просмотр остановлен повреждённым кадром
+     */
+    boolean recover(FrameVisitor visitor) {
+        int offset = 0;
+        boolean corrupt = false;
+        CRC32C crc = new CRC32C();
+        while (offset + FRAME_HEADER <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            if (length < Long.BYTES || length > capacity - offset - FRAME_HEADER) {
+                corrupt = true;
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(offset + FRAME_HEADER, length));
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                corrupt = true;
+                break;
+            }
+            visitor.accept(offset, buffer.getLong(offset + FRAME_HEADER));
+            offset += FRAME_HEADER + length;
+        }
+        writeOffset = offset;
+        return corrupt;
+    }
+
+    /**
+     * Заполняет нулями сегмент от позиции дописывания до конца, чтобы остатки повреждённого кадра
+     * не были приняты за данные при следующем просмотре.
+     *
+     * @return количество обнулённых байт
+     */
+    int zeroTail() {
+        byte[] zeros = new byte[Math.min(ZERO_CHUNK, capacity - writeOffset)];
+        for (int offset = writeOffset; offset < capacity; offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, capacity - offset));
+        }
+        buffer.force();
+        return capacity - writeOffset;
+    }
+
+    boolean fits(int payloadLength) {
+        return payloadLength <= capacity - writeOffset - FRAME_HEADER;
+    }
+
+    /**
+     * Дописывает кадр в конец сегмента. Вызывающий проверяет место через {@link #fits(int)}.
+     *
+     * @param payload данные записи
+     * @return смещение кадра
+     */
+    int append(byte[] payload) {
+        int offset = writeOffset;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        buffer.put(offset + FRAME_HEADER, payload);
+        buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(offset, payload.length);
+        writeOffset = offset + FRAME_HEADER + payload.length;
+        return offset;
+    }
+
+    /**
+     * Читает запись кадра по смещению.
+     *
+     * @param offset смещение кадра
+     * @return запись
+     */
+    JournalRecord read(int offset) {
+        int length = buffer.getInt(offset);
+        return JournalRecord.decode(buffer.slice(offset + FRAME_HEADER, length));
+    }
+
+    /**
+     * Сбрасывает на диск изменённые страницы в диапазоне {@code [from, to)}.
+     */
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Получатель целых кадров при восстановлении.
+     */
+    @FunctionalInterface
+    interface FrameVisitor {
+        void accept(int offset, long taskId);
+    }
+}
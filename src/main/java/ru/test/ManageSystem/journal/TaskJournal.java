@@ -0,0 +1,392 @@
+package ru.test.ManageSystem.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Журнал истории задач: последовательность записей {@link JournalRecord} в файлах-сегментах каталога
+ * {@code journal.dir}, отображённых в память. Записи только дописываются; когда запись не помещается в текущий
+ * сегмент размером {@code journal.segment-size}, он сбрасывается на диск и начинается следующий.
+ * <p>
+ * Групповая фиксация: дописывание только копирует кадр в отображённую память под блокировкой, а сброс на диск
+ * выполняет один фоновый поток — он ждёт {@code journal.commit-window}, чтобы накопить записи из других потоков,
+ * и сбрасывает их одним {@code msync}. При {@code journal.sync = true} дописывающий поток ждёт этого сброса,
+ * так что запись переживает аварийную остановку, как только {@link #append(JournalRecord)} вернул управление.
+ * <p>
+ * Для каждой задачи в памяти хранится упорядоченный список позиций её записей, поэтому история задачи читается
+ * без просмотра журнала. Индекс строится при запуске просмотром всех сегментов с проверкой контрольных сумм;
+ * повреждённый хвост последнего сегмента (недописанный при аварии кадр) обнуляется, и дописывание продолжается
+ * с его начала. Каталог журнала блокируется файлом {@code journal.lock}: писать в него может один процесс.
+ */
+@Slf4j
+@Component
+public class TaskJournal implements MetricsSource {
+
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+    private static final long SYNC_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long STOP_TIMEOUT_MILLIS = 5_000;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final long commitWindowNanos;
+    private final boolean sync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final TreeMap<Long, JournalSegment> segments = new TreeMap<>();
+    private final Map<Long, LongList> index = new HashMap<>();
+    private JournalSegment current;
+    private int forcedOffset;
+    private long appendedPosition;
+    private long durablePosition;
+    private volatile boolean running;
+
+    private FileChannel lockChannel;
+    private FileLock fileLock;
+    private Thread flusher;
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong truncatedBytes = new AtomicLong();
+    private final AtomicLong syncTimeouts = new AtomicLong();
+
+    public TaskJournal(@Value("${journal.dir:journal}") Path dir,
+                       @Value("${journal.segment-size:64MB}") DataSize segmentSize,
+                       @Value("${journal.commit-window:PT0.002S}") Duration commitWindow,
+                       @Value("${journal.sync:true}") boolean sync) {
+        if (segmentSize.toBytes() < MIN_SEGMENT_SIZE || segmentSize.toBytes() > Integer.MAX_VALUE
+                || commitWindow.isNegative()) {
+            throw new IllegalArgumentException("journal.segment-size must be between 64KB and 2GB, "
+                    + "journal.commit-window must not be negative");
+        }
+        this.dir = dir;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.commitWindowNanos = commitWindow.toNanos();
+        this.sync = sync;
+    }
+
+    /**
+     * Блокирует каталог журнала, восстанавливает сегменты и индекс и запускает поток групповой фиксации.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(dir);
+        lockChannel = FileChannel.open(dir.resolve("journal.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        fileLock = lockChannel.tryLock();
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal directory is used by another process: " + dir);
+        }
+        List<Long> ordinals;
+        try (Stream<Path> files = Files.list(dir)) {
+            ordinals = files.map(JournalSegment::ordinal).filter(ordinal -> ordinal >= 0).sorted().toList();
+        }
+        for (int i = 0; i < ordinals.size(); i++) {
+            JournalSegment segment = JournalSegment.open(dir, ordinals.get(i));
+            segments.put(segment.ordinal(), segment);
+            long ordinal = segment.ordinal();
+            boolean corrupt = segment.recover((offset, taskId) -> {
+                index.computeIfAbsent(taskId, id -> new LongList()).add(position(ordinal, offset));
+                recovered.incrementAndGet();
+            });
+            if (corrupt && i == ordinals.size() - 1) {
+                truncatedBytes.addAndGet(segment.zeroTail());
+                log.warn("Truncated torn tail of journal segment {} at offset {}", ordinal, segment.writeOffset());
+            } else if (corrupt) {
+                log.warn("Journal segment {} is corrupt at offset {}, the rest of the segment is skipped",
+                        ordinal, segment.writeOffset());
+            }
+        }
+        current = segments.isEmpty() ? createSegment(0) : segments.lastEntry().getValue();
+        forcedOffset = current.writeOffset();
+        appendedPosition = position(current.ordinal(), current.writeOffset());
+        durablePosition = appendedPosition;
+        running = true;
+        flusher = new Thread(this::flushLoop, "task-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Task journal recovered {} records of {} tasks from {} segments", recovered.get(), index.size(),
+                segments.size());
+    }
+
+    /**
+     * Останавливает поток групповой фиксации, сбрасывает журнал на диск и освобождает каталог.
+     */
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(STOP_TIMEOUT_MILLIS);
+        lock.lock();
+        try {
+            current.force(forcedOffset, current.writeOffset());
+            for (JournalSegment segment : segments.values()) {
+                segment.close();
+            }
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        fileLock.release();
+        lockChannel.close();
+    }
+
+    /**
+     * Дописывает запись в журнал. При {@code journal.sync = true} возвращает управление после сброса записи на диск.
+     *
+     * @param record запись
+     * @throws IOException              если не удалось создать следующий сегмент
+     * @throws IllegalArgumentException если запись больше сегмента
+     * @throws IllegalStateException    если журнал остановлен
+     */
+    public void append(JournalRecord record) throws IOException {
+        byte[] payload = record.encode();
+        if (payload.length > segmentSize - JournalSegment.FRAME_HEADER) {
+            throw new IllegalArgumentException("Journal record of " + payload.length
+                    + " bytes does not fit into a segment");
+        }
+        long end;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Task journal is stopped");
+            }
+            if (!current.fits(payload.length)) {
+                roll();
+            }
+            int offset = current.append(payload);
+            index.computeIfAbsent(record.taskId(), id -> new LongList()).add(position(current.ordinal(), offset));
+            end = position(current.ordinal(), current.writeOffset());
+            appendedPosition = end;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        records.incrementAndGet();
+        bytes.addAndGet(JournalSegment.FRAME_HEADER + payload.length);
+        if (sync) {
+            awaitDurable(end);
+        }
+    }
+
+    /**
+     * Читает записи задачи от новых к старым, начиная с записи перед позицией {@code before}.
+     *
+     * @param taskId идентификатор задачи
+     * @param before позиция, до которой читаются записи, не включается; {@link Long#MAX_VALUE} для самых новых
+     * @param limit  наибольшее количество записей
+     * @return записи с позициями от новых к старым
+     */
+    public List<Entry> read(long taskId, long before, int limit) {
+        long[] positions;
+        JournalSegment[] owners;
+        lock.lock();
+        try {
+            LongList list = index.get(taskId);
+            if (list == null) {
+                return List.of();
+            }
+            int to = list.lowerBound(before);
+            int from = Math.max(0, to - limit);
+            positions = Arrays.copyOfRange(list.values, from, to);
+            owners = new JournalSegment[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                owners[i] = segments.get(positions[i] >>> 32);
+            }
+        } finally {
+            lock.unlock();
+        }
+        List<Entry> entries = new ArrayList<>(positions.length);
+        for (int i = positions.length - 1; i >= 0; i--) {
+            entries.add(new Entry(positions[i], owners[i].read((int) positions[i])));
+        }
+        return entries;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "journal";
+    }
+
+    /**
+     * Возвращает число сегментов и задач в индексе, число записей и байт, дописанных с запуска, число групповых
+     * фиксаций и среднее число записей в одной, число восстановленных записей, обнулённых байт повреждённого хвоста
+     * и ожиданий фиксации, прерванных по тайм-ауту.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            metrics.put("segments", segments.size());
+            metrics.put("indexedTasks", index.size());
+        } finally {
+            lock.unlock();
+        }
+        long commitCount = commits.get();
+        metrics.put("records", records.get());
+        metrics.put("bytes", bytes.get());
+        metrics.put("commits", commitCount);
+        metrics.put("recordsPerCommit", commitCount > 0 ? (double) records.get() / commitCount : 0.0);
+        metrics.put("recovered", recovered.get());
+        metrics.put("truncatedBytes", truncatedBytes.get());
+        metrics.put("syncTimeouts", syncTimeouts.get());
+        return metrics;
+    }
+
+    /**
+     * Сбрасывает текущий сегмент на диск и начинает следующий. Вызывается под блокировкой.
+     */
+    private void roll() throws IOException {
+        current.force(forcedOffset, current.writeOffset());
+        durablePosition = Math.max(durablePosition, position(current.ordinal(), current.writeOffset()));
+        durable.signalAll();
+        current = createSegment(current.ordinal() + 1);
+        forcedOffset = 0;
+    }
+
+    private JournalSegment createSegment(long ordinal) throws IOException {
+        JournalSegment segment = JournalSegment.create(dir, ordinal, segmentSize);
+        segments.put(ordinal, segment);
+        log.debug("Started journal segment {}", ordinal);
+        return segment;
+    }
+
+    private void awaitDurable(long position) {
+        long deadline = System.nanoTime() + SYNC_TIMEOUT_NANOS;
+        lock.lock();
+        try {
+            while (durablePosition < position && running) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    syncTimeouts.incrementAndGet();
+                    return;
+                }
+                durable.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            JournalSegment segment;
+            int from;
+            int to;
+            long target;
+            lock.lock();
+            try {
+                while (running && appendedPosition == durablePosition) {
+                    appended.awaitUninterruptibly();
+                }
+                if (appendedPosition == durablePosition) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (commitWindowNanos > 0 && running) {
+                LockSupport.parkNanos(commitWindowNanos);
+            }
+            lock.lock();
+            try {
+                segment = current;
+                from = forcedOffset;
+                to = segment.writeOffset();
+                target = appendedPosition;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                segment.force(from, to);
+            } catch (RuntimeException e) {
+                log.error("Failed to force journal segment {}", segment.ordinal(), e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                continue;
+            }
+            lock.lock();
+            try {
+                if (segment == current) {
+                    forcedOffset = Math.max(forcedOffset, to);
+                }
+                durablePosition = Math.max(durablePosition, target);
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            commits.incrementAndGet();
+        }
+    }
+
+    private static long position(long ordinal, int offset) {
+        return ordinal << 32 | offset;
+    }
+
+    /**
+     * Запись журнала и её позиция: порядковый номер сегмента в старших 32 битах и смещение кадра в младших.
+     * Позиции растут в порядке дописывания.
+     *
+     * @param position позиция записи
+     * @param record   запись
+     */
+    public record Entry(long position, JournalRecord record) {
+    }
+
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Возвращает количество значений меньше {@code bound}.
+         */
+        int lowerBound(long bound) {
+            int index = Arrays.binarySearch(values, 0, size, bound);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.test.ManageSystem.mapper;
+
+import ru.test.ManageSystem.DTO.AttachmentDto;
+import ru.test.ManageSystem.entity.TaskAttachment;
+
+/**
+ * Утилитный класс для преобразования вложений задач {@link TaskAttachment}.
+ */
+public class AttachmentMapper {
+
+    /**
+     * Преобразует сущность {@link TaskAttachment} в объект {@link AttachmentDto}.
+     *
+     * @param attachment сущность вложения
+     * @return объект {@link AttachmentDto} с данными вложения
+     */
+    public static AttachmentDto toDto(TaskAttachment attachment) {
+        return AttachmentDto.builder()
+                .id(attachment.getId())
+                .taskId(attachment.getTaskId())
+                .fileName(attachment.getFileName())
+                .contentType(attachment.getContentType())
+                .size(attachment.getSize())
+                .sha256(attachment.getSha256())
+                .uploadedBy(attachment.getUploadedBy())
+                .createdAt(attachment.getCreatedAt())
+                .build();
+    }
+}
@@ -2,6 +2,9 @@ package ru.test.ManageSystem.mapper;
 
 import ru.test.ManageSystem.DTO.CommentDto;
 import ru.test.ManageSystem.entity.Comment;
+import ru.test.ManageSystem.enums.CommentField;
+
+import java.util.List;
 
 /**
  * Утилитный класс для преобразования сущности {@link Comment} в объект передачи данных {@link CommentDto}.
@@ -10,7 +13,8 @@ public class CommentMapper {
 
     /**
      * Преобразует сущность {@link Comment} в объект {@link CommentDto}.
-     * Копирует идентификатор, содержимое, автора и время создания комментария.
+     * Копирует идентификатор, содержимое, автора, время создания комментария, а также родителя,
+     * глубину и количество прямых ответов.
      *
      * @param comment сущность {@link Comment}, представляющая комментарий
      * @return объект {@link CommentDto} с данными комментария
@@ -21,6 +25,27 @@ public class CommentMapper {
                 .content(comment.getContent())
                 .author(UserMapper.toDto(comment.getAuthor()))
                 .createdAt(comment.getCreatedAt())
+                .parentId(comment.getParent() != null ? comment.getParent().getId() : null)
+                .depth(comment.getDepth())
+                .replyCount(comment.getReplyCount())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Преобразует строку выборки отдельных колонок в объект {@link CommentDto}.
+     * Заполняются только запрошенные поля, остальные остаются {@code null}.
+     *
+     * @param row    строка результата
+     * @param fields поля комментария в порядке колонок строки
+     * @return объект {@link CommentDto} с запрошенными полями комментария
+     */
+    public static CommentDto toDto(Object[] row, List<CommentField> fields) {
+        CommentDto comment = new CommentDto();
+        int offset = 0;
+        for (CommentField field : fields) {
+            field.apply(comment, row, offset);
+            offset += field.getWidth();
+        }
+        return comment;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.test.ManageSystem.mapper;
+
+import ru.test.ManageSystem.DTO.InboxItemDto;
+import ru.test.ManageSystem.entity.InboxItem;
+
+/**
+ * Утилитный класс для преобразования элементов входящих {@link InboxItem}.
+ */
+public class InboxMapper {
+
+    /**
+     * Преобразует сущность {@link InboxItem} в объект {@link InboxItemDto}.
+     *
+     * @param item     сущность элемента входящих
+     * @param readUpTo граница прочтения пользователя
+     * @return объект {@link InboxItemDto} с данными элемента
+     */
+    public static InboxItemDto toDto(InboxItem item, long readUpTo) {
+        return InboxItemDto.builder()
+                .id(item.getId())
+                .type(item.getType())
+                .taskId(item.getTaskId())
+                .createdAt(item.getCreatedAt())
+                .read(item.getId() <= readUpTo)
+                .build();
+    }
+}
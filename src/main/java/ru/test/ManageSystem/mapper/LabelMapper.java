@@ -0,0 +1,23 @@
+package ru.test.ManageSystem.mapper;
+
+import ru.test.ManageSystem.DTO.LabelDto;
+import ru.test.ManageSystem.entity.Label;
+
+/**
+ * Утилитный класс для преобразования сущности {@link Label} в объект передачи данных {@link LabelDto}.
+ */
+public class LabelMapper {
+
+    /**
+     * Преобразует сущность {@link Label} в объект {@link LabelDto}.
+     *
+     * @param label сущность {@link Label}, представляющая метку
+     * @return объект {@link LabelDto} с данными метки
+     */
+    public static LabelDto toDto(Label label) {
+        return LabelDto.builder()
+                .id(label.getId())
+                .name(label.getName())
+                .build();
+    }
+}
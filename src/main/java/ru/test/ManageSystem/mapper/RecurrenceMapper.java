@@ -0,0 +1,40 @@
+package ru.test.ManageSystem.mapper;
+
+import ru.test.ManageSystem.DTO.RecurrenceDto;
+import ru.test.ManageSystem.entity.TaskRecurrence;
+import ru.test.ManageSystem.service.RecurrenceRule;
+
+/**
+ * Утилитный класс для преобразования правила повторения {@link TaskRecurrence}.
+ */
+public class RecurrenceMapper {
+
+    /**
+     * Преобразует сущность {@link TaskRecurrence} в объект {@link RecurrenceDto}.
+     *
+     * @param recurrence сущность правила повторения
+     * @return объект {@link RecurrenceDto} с данными правила
+     */
+    public static RecurrenceDto toDto(TaskRecurrence recurrence) {
+        return RecurrenceDto.builder()
+                .id(recurrence.getId())
+                .templateId(recurrence.getTemplateId())
+                .frequency(recurrence.getFrequency())
+                .interval(recurrence.getRepeatInterval())
+                .startAt(recurrence.getStartAt())
+                .untilAt(recurrence.getUntilAt())
+                .generatedUntil(recurrence.getGeneratedUntil())
+                .build();
+    }
+
+    /**
+     * Преобразует сущность {@link TaskRecurrence} в вычисляемое правило {@link RecurrenceRule}.
+     *
+     * @param recurrence сущность правила повторения
+     * @return правило для вычисления моментов экземпляров
+     */
+    public static RecurrenceRule toRule(TaskRecurrence recurrence) {
+        return new RecurrenceRule(recurrence.getFrequency(), recurrence.getRepeatInterval(),
+                recurrence.getStartAt(), recurrence.getUntilAt());
+    }
+}
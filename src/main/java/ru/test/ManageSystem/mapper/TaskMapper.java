@@ -2,6 +2,11 @@ package ru.test.ManageSystem.mapper;
 
 import ru.test.ManageSystem.DTO.TaskDto;
 import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.enums.TaskField;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Утилитный класс для преобразования сущности {@link Task} в объект передачи данных {@link TaskDto}.
@@ -11,7 +16,8 @@ public class TaskMapper {
     /**
      * Преобразует сущность {@link Task} в объект {@link TaskDto}.
      * Копирует идентификатор, заголовок, описание, статус, приоритет, идентификаторы автора и исполнителя,
-     * а также время создания и обновления задачи.
+     * время создания и обновления задачи, количество комментариев, время последнего комментария,
+     * идентификатор родительской задачи, срок выполнения, признак просрочки и идентификатор правила повторения.
      *
      * @param task сущность {@link Task}, представляющая задачу
      * @return объект {@link TaskDto} с данными задачи
@@ -27,6 +33,50 @@ public class TaskMapper {
                 .assigneeId(task.getAssignee() != null ? task.getAssignee().getId() : null)
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
+                .commentCount(task.getCommentCount())
+                .lastCommentAt(task.getLastCommentAt())
+                .parentId(task.getParent() != null ? task.getParent().getId() : null)
+                .dueAt(task.getDueAt())
+                .overdue(task.isOverdue())
+                .recurrenceId(task.getRecurrenceId())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Строит виртуальный экземпляр повторяющейся задачи, ещё не созданный в базе данных:
+     * копию шаблона без идентификатора со сроком в момент экземпляра.
+     *
+     * @param template     задача-шаблон
+     * @param recurrenceId идентификатор правила повторения
+     * @param occurrenceAt момент экземпляра
+     * @return объект {@link TaskDto} с {@code id == null}
+     */
+    public static TaskDto toOccurrenceDto(Task template, Long recurrenceId, LocalDateTime occurrenceAt) {
+        return TaskDto.builder()
+                .title(template.getTitle())
+                .description(template.getDescription())
+                .status(TaskStatus.PENDING)
+                .priority(template.getPriority())
+                .authorId(template.getAuthor().getId())
+                .assigneeId(template.getAssignee() != null ? template.getAssignee().getId() : null)
+                .dueAt(occurrenceAt)
+                .recurrenceId(recurrenceId)
+                .build();
+    }
+
+    /**
+     * Преобразует строку выборки отдельных колонок в объект {@link TaskDto}.
+     * Заполняются только запрошенные поля, остальные остаются {@code null}.
+     *
+     * @param row    строка результата, по одному значению на поле
+     * @param fields поля задачи в порядке колонок строки
+     * @return объект {@link TaskDto} с запрошенными полями задачи
+     */
+    public static TaskDto toDto(Object[] row, List<TaskField> fields) {
+        TaskDto task = new TaskDto();
+        for (int i = 0; i < fields.size(); i++) {
+            fields.get(i).apply(task, row[i]);
+        }
+        return task;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.test.ManageSystem.metrics;
+
+import java.util.Map;
+
+/**
+ * Источник внутренних метрик приложения (размеры кэшей и индексов, доли попаданий и т.п.).
+ * Все бины, реализующие интерфейс, публикуются через {@link ru.test.ManageSystem.controller.MetricsController}.
+ */
+public interface MetricsSource {
+
+    /**
+     * Возвращает имя группы метрик.
+     *
+     * @return уникальное имя источника метрик
+     */
+    String getMetricsName();
+
+    /**
+     * Возвращает текущие значения метрик.
+     *
+     * @return отображение имени метрики в её значение
+     */
+    Map<String, Object> getMetrics();
+}
@@ -0,0 +1,24 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Заполняет пустой {@code comments.path} у комментариев, созданных до появления ответов:
+ * все они становятся комментариями верхнего уровня с путём из одного сегмента — идентификатора,
+ * дополненного нулями слева до {@link ru.test.ManageSystem.entity.Comment#PATH_SEGMENT_LENGTH} цифр.
+ */
+@Component
+public class CommentPathBackfillMigration implements SchemaMigration {
+
+    @Override
+    public String getId() {
+        return "039-comment-paths";
+    }
+
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("UPDATE comments SET path = LPAD(CAST(id AS VARCHAR(12)), 12, '0'), depth = 0"
+                + " WHERE path IS NULL");
+    }
+}
@@ -0,0 +1,79 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import ru.test.ManageSystem.enums.Role;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Переносит роли из устаревшей таблицы {@code user_roles} (element collection из строк)
+ * в колонку {@code users.role_mask}.
+ * Обновляются только пользователи с пустой маской, неизвестные названия ролей пропускаются.
+ * Сама таблица {@code user_roles} не удаляется и может быть удалена вручную после проверки.
+ */
+@Component
+public class RoleMaskMigration implements SchemaMigration {
+
+    private static final String LEGACY_TABLE = "user_roles";
+
+    @Override
+    public String getId() {
+        return "026-role-mask-from-user-roles";
+    }
+
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        if (!legacyTableExists(jdbcTemplate)) {
+            return;
+        }
+        Map<Long, Integer> masks = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, roles FROM " + LEGACY_TABLE, (ResultSet rs) -> {
+            Role role = parseRole(rs.getString(2));
+            if (role != null) {
+                masks.merge(rs.getLong(1), role.mask(), (a, b) -> a | b);
+            }
+        });
+
+        List<Object[]> batch = new ArrayList<>(masks.size());
+        masks.forEach((userId, mask) -> batch.add(new Object[]{mask, userId}));
+        jdbcTemplate.batchUpdate("UPDATE users SET role_mask = ? WHERE id = ? AND role_mask = 0", batch);
+    }
+
+    private boolean legacyTableExists(JdbcTemplate jdbcTemplate) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), metaData -> {
+                for (String name : new String[]{LEGACY_TABLE, LEGACY_TABLE.toUpperCase()}) {
+                    try (ResultSet tables = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                        if (tables.next()) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot read database metadata", e);
+        }
+    }
+
+    private Role parseRole(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toUpperCase();
+        if (normalized.startsWith("ROLE_")) {
+            normalized = normalized.substring("ROLE_".length());
+        }
+        try {
+            return Role.valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
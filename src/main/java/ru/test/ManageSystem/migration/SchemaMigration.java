@@ -0,0 +1,37 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Одноразовый шаг миграции данных.
+ * Схема таблиц создаётся Hibernate ({@code ddl-auto}), а шаги миграции переносят существующие данные
+ * и создают объекты, которые нельзя описать аннотациями JPA (например, специфичные для PostgreSQL индексы).
+ * Каждый шаг выполняется не более одного раза, факт выполнения фиксируется в таблице {@code schema_migrations}.
+ */
+public interface SchemaMigration {
+
+    /**
+     * Возвращает уникальный идентификатор шага. Шаги выполняются в порядке сортировки идентификаторов.
+     *
+     * @return идентификатор шага миграции
+     */
+    String getId();
+
+    /**
+     * Проверяет, применим ли шаг к текущей базе данных.
+     * Неприменимые шаги не выполняются и не отмечаются как выполненные.
+     *
+     * @param databaseProductName название СУБД из метаданных JDBC
+     * @return {@code true}, если шаг нужно выполнить
+     */
+    default boolean supports(String databaseProductName) {
+        return true;
+    }
+
+    /**
+     * Выполняет шаг миграции. Вызывается внутри транзакции.
+     *
+     * @param jdbcTemplate шаблон для выполнения SQL
+     */
+    void apply(JdbcTemplate jdbcTemplate);
+}
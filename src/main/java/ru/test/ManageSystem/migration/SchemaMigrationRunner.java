@@ -0,0 +1,69 @@
+package ru.test.ManageSystem.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Выполняет зарегистрированные шаги {@link SchemaMigration} при старте приложения.
+ * Запускается раньше остальных стартовых задач, чтобы они работали с уже перенесёнными данными.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SchemaMigrationRunner implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<SchemaMigration> migrations;
+
+    /**
+     * Создаёт таблицу учёта миграций при необходимости и выполняет ещё не применённые шаги.
+     *
+     * @param args аргументы запуска приложения
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations ("
+                + "id VARCHAR(100) PRIMARY KEY, applied_at TIMESTAMP NOT NULL)");
+        Set<String> applied = new HashSet<>(
+                jdbcTemplate.queryForList("SELECT id FROM schema_migrations", String.class));
+        String product = getDatabaseProductName();
+
+        migrations.stream()
+                .sorted(Comparator.comparing(SchemaMigration::getId))
+                .filter(migration -> !applied.contains(migration.getId()))
+                .filter(migration -> migration.supports(product))
+                .forEach(migration -> transactionTemplate.executeWithoutResult(status -> {
+                    log.info("Applying schema migration {}", migration.getId());
+                    migration.apply(jdbcTemplate);
+                    jdbcTemplate.update("INSERT INTO schema_migrations (id, applied_at) VALUES (?, ?)",
+                            migration.getId(), Timestamp.valueOf(LocalDateTime.now()));
+                }));
+    }
+
+    private String getDatabaseProductName() {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot read database metadata", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Переводит {@code tasks.board_rank} на побайтовое сравнение (collation {@code "C"}): порядок ключей
+ * {@link ru.test.ManageSystem.service.BoardRank} не зависит от локали базы данных, а сравнение дешевле.
+ * Индекс {@code idx_tasks_status_board_rank} перестраивается вместе с колонкой.
+ * Collation специфична для PostgreSQL и не описывается аннотациями JPA.
+ */
+@Component
+public class TaskBoardRankCollationMigration implements SchemaMigration {
+
+    @Override
+    public String getId() {
+        return "042-task-board-rank-collation";
+    }
+
+    @Override
+    public boolean supports(String databaseProductName) {
+        return "PostgreSQL".equalsIgnoreCase(databaseProductName);
+    }
+
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("ALTER TABLE tasks ALTER COLUMN board_rank TYPE VARCHAR(255) COLLATE \"C\"");
+    }
+}
@@ -0,0 +1,41 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.service.BoardRank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Заполняет ключи порядка доски {@code tasks.board_rank} у существующих задач: в каждой колонке статуса
+ * задачи получают равномерно распределённые ключи в порядке создания (по идентификатору).
+ */
+@Component
+public class TaskBoardRankMigration implements SchemaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public String getId() {
+        return "042-task-board-rank";
+    }
+
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        for (TaskStatus status : TaskStatus.values()) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM tasks WHERE status = ? ORDER BY board_rank NULLS LAST, id", Long.class,
+                    status.name());
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < ids.size(); i++) {
+                batch.add(new Object[]{BoardRank.spread(i, ids.size()), ids.get(i)});
+                if (batch.size() == BATCH_SIZE || i == ids.size() - 1) {
+                    jdbcTemplate.batchUpdate("UPDATE tasks SET board_rank = ? WHERE id = ?", batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
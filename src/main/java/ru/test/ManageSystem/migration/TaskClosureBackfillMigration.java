@@ -0,0 +1,24 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Добавляет в таблицу замыкания {@code task_closure} строку «задача — сама задача» для задач,
+ * созданных до появления иерархии. Все такие задачи — задачи верхнего уровня, поэтому других строк не нужно.
+ */
+@Component
+public class TaskClosureBackfillMigration implements SchemaMigration {
+
+    @Override
+    public String getId() {
+        return "040-task-closure";
+    }
+
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO task_closure (ancestor_id, descendant_id, depth, descendant_status) "
+                + "SELECT t.id, t.id, 0, t.status FROM tasks t WHERE NOT EXISTS "
+                + "(SELECT 1 FROM task_closure c WHERE c.ancestor_id = t.id AND c.descendant_id = t.id)");
+    }
+}
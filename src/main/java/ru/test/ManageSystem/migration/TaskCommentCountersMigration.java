@@ -0,0 +1,24 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Заполняет денормализованные колонки {@code tasks.comment_count} и {@code tasks.last_comment_at}
+ * по уже существующим комментариям. Дальше они поддерживаются {@code CommentService}.
+ */
+@Component
+public class TaskCommentCountersMigration implements SchemaMigration {
+
+    @Override
+    public String getId() {
+        return "030-task-comment-counters";
+    }
+
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("UPDATE tasks SET "
+                + "comment_count = (SELECT COUNT(*) FROM comments c WHERE c.task_id = tasks.id), "
+                + "last_comment_at = (SELECT MAX(c.created_at) FROM comments c WHERE c.task_id = tasks.id)");
+    }
+}
@@ -0,0 +1,29 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Создаёт BRIN-индекс по {@code tasks.created_at}. Задачи добавляются в порядке создания, поэтому
+ * диапазоны страниц таблицы хорошо совпадают с диапазонами времени, и индекс в несколько страниц
+ * отсекает большую часть таблицы в фильтрах {@code createdFrom}/{@code createdTo}.
+ * Индекс специфичен для PostgreSQL и не описывается аннотациями JPA.
+ */
+@Component
+public class TaskCreatedAtBrinIndexMigration implements SchemaMigration {
+
+    @Override
+    public String getId() {
+        return "034-task-created-at-brin";
+    }
+
+    @Override
+    public boolean supports(String databaseProductName) {
+        return "PostgreSQL".equalsIgnoreCase(databaseProductName);
+    }
+
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tasks_created_at_brin ON tasks USING brin (created_at)");
+    }
+}
@@ -0,0 +1,22 @@
+package ru.test.ManageSystem.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Заполняет пустое {@code tasks.updated_at} временем создания задачи, чтобы такие задачи не выпадали
+ * из выборки по ключу ({@code updated_at}, {@code id}) и из фильтров по времени изменения.
+ */
+@Component
+public class TaskUpdatedAtBackfillMigration implements SchemaMigration {
+
+    @Override
+    public String getId() {
+        return "034-task-updated-at-backfill";
+    }
+
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("UPDATE tasks SET updated_at = created_at WHERE updated_at IS NULL");
+    }
+}
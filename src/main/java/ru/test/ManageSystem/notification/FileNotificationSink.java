@@ -0,0 +1,45 @@
+package ru.test.ManageSystem.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Канал уведомлений, дописывающий сводки в локальный файл по одной JSON-строке на сводку.
+ * Пачка записывается одной операцией. Включается свойством {@code notification.sinks.file.enabled=true},
+ * путь к файлу — {@code notification.sinks.file.path}.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sinks.file.enabled", havingValue = "true")
+public class FileNotificationSink implements NotificationSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileNotificationSink(ObjectMapper objectMapper,
+                                @Value("${notification.sinks.file.path:notifications.jsonl}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void deliver(List<NotificationDigest> digests) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (NotificationDigest digest : digests) {
+            lines.append(objectMapper.writeValueAsString(digest)).append('\n');
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(lines.toString());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.test.ManageSystem.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Канал уведомлений, записывающий сводки в журнал приложения.
+ * Включён по умолчанию; отключается свойством {@code notification.sinks.log.enabled=false}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.sinks.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LogNotificationSink implements NotificationSink {
+
+    @Override
+    public void deliver(List<NotificationDigest> digests) {
+        for (NotificationDigest digest : digests) {
+            log.info("Notification for user {}: {}", digest.recipientId(), digest.items());
+        }
+    }
+}
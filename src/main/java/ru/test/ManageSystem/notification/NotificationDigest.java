@@ -0,0 +1,30 @@
+package ru.test.ManageSystem.notification;
+
+import ru.test.ManageSystem.enums.NotificationType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сводка уведомлений одного получателя, накопленных за окно {@code notification.window}.
+ * Однотипные уведомления об одной задаче схлопываются в один элемент со счётчиком.
+ *
+ * @param recipientId идентификатор получателя
+ * @param items       элементы сводки в порядке первого появления
+ */
+public record NotificationDigest(Long recipientId, List<Item> items) {
+
+    /**
+     * Элемент сводки: однотипные уведомления об одной задаче.
+     *
+     * @param type    вид уведомления
+     * @param taskId  идентификатор задачи
+     * @param count   количество схлопнутых уведомлений
+     * @param detail  подробности последнего уведомления: заголовок задачи, новый статус, текст комментария или срок
+     * @param firstAt время первого уведомления
+     * @param lastAt  время последнего уведомления
+     */
+    public record Item(NotificationType type, Long taskId, int count, String detail, LocalDateTime firstAt,
+                       LocalDateTime lastAt) {
+    }
+}
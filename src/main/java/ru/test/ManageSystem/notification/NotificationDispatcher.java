@@ -0,0 +1,425 @@
+package ru.test.ManageSystem.notification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
+import ru.test.ManageSystem.enums.NotificationType;
+import ru.test.ManageSystem.event.CommentEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.event.TaskOverdueEvent;
+import ru.test.ManageSystem.metrics.MetricsSource;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Рассылка уведомлений о назначении задачи, смене её статуса, новых комментариях и наступлении срока.
+ * <p>
+ * Слушатели событий вызываются после фиксации транзакции в потоке запроса и только кладут уведомление
+ * в ограниченную очередь ёмкостью {@code notification.queue-capacity} без ожидания: при переполнении
+ * уведомление отбрасывается и учитывается в метрике {@code dropped}. Всё остальное выполняет один фоновый поток:
+ * он забирает уведомления пачками по {@code notification.batch-size}, одним запросом на пачку определяет участников
+ * задач для уведомлений о комментариях, не уведомляет пользователя о его собственных действиях и копит
+ * уведомления каждого получателя в сводке. Сводка доставляется во все {@link NotificationSink} через
+ * {@code notification.window} после первого уведомления в ней; однотипные уведомления об одной задаче за это время
+ * схлопываются в один элемент — например, пять комментариев за минуту становятся одним элементом со счётчиком 5.
+ * <p>
+ * Доставка не более чем однократная: при переполнении очереди, ошибке канала или аварийной остановке
+ * уведомления теряются. При штатной остановке накопленные сводки доставляются сразу.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher implements MetricsSource {
+
+    private static final String PARTICIPANTS = "SELECT id, author_id, assignee_id FROM tasks WHERE id IN (";
+    private static final int MAX_DETAIL_LENGTH = 200;
+    private static final long IDLE_POLL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long STOP_TIMEOUT_MILLIS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserSnapshotCache userSnapshotCache;
+    private final List<NotificationSink> sinks;
+    private final BlockingQueue<Pending> queue;
+    private final int maxOpen;
+    private final long windowNanos;
+    private final int batchSize;
+    private final Thread worker;
+
+    /**
+     * Накапливаемые сводки по получателям в порядке открытия. Доступны только фоновому потоку.
+     */
+    private final LinkedHashMap<Long, OpenDigest> open = new LinkedHashMap<>();
+    private volatile int openRecipients;
+    private volatile boolean running;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public NotificationDispatcher(JdbcTemplate jdbcTemplate, UserSnapshotCache userSnapshotCache,
+                                  ObjectProvider<NotificationSink> sinks,
+                                  @Value("${notification.queue-capacity:10000}") int capacity,
+                                  @Value("${notification.window:PT1M}") Duration window,
+                                  @Value("${notification.batch-size:100}") int batchSize) {
+        if (capacity <= 0 || window.isNegative() || batchSize <= 0) {
+            throw new IllegalArgumentException("notification.queue-capacity and notification.batch-size must be "
+                    + "positive, notification.window must not be negative");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.userSnapshotCache = userSnapshotCache;
+        this.sinks = sinks.orderedStream().toList();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxOpen = capacity;
+        this.windowNanos = window.toNanos();
+        this.batchSize = batchSize;
+        this.worker = new Thread(this::work, "notification-dispatcher");
+        this.worker.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker.start();
+    }
+
+    /**
+     * Останавливает фоновый поток и доставляет оставшиеся уведомления.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(STOP_TIMEOUT_MILLIS);
+        if (worker.isAlive()) {
+            log.warn("Notification dispatcher did not stop in time, pending notifications are lost");
+            return;
+        }
+        try {
+            drain(System.nanoTime());
+            flush(System.nanoTime(), true);
+        } catch (RuntimeException e) {
+            log.warn("Failed to deliver pending notifications on shutdown", e);
+        }
+    }
+
+    /**
+     * Уведомляет нового исполнителя о назначении задачи, а автора и исполнителя — о смене её статуса.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public void onTaskEvent(TaskEvent event) {
+        TaskDto before = event.before();
+        TaskDto after = event.after();
+        if (after == null) {
+            return;
+        }
+        String actor = currentActor();
+        LocalDateTime now = LocalDateTime.now();
+        Long assigneeId = after.getAssigneeId();
+        if (assigneeId != null && (before == null || !assigneeId.equals(before.getAssigneeId()))) {
+            offer(new Pending(NotificationType.ASSIGNED, after.getId(), assigneeId, null, actor,
+                    after.getTitle(), now));
+        }
+        if (before != null && before.getStatus() != after.getStatus()) {
+            for (Long recipientId : distinct(after.getAuthorId(), assigneeId)) {
+                offer(new Pending(NotificationType.STATUS_CHANGED, after.getId(), recipientId, null, actor,
+                        after.getStatus().name(), now));
+            }
+        }
+    }
+
+    /**
+     * Уведомляет автора и исполнителя задачи о новом комментарии.
+     *
+     * @param event событие изменения комментария
+     */
+    @TransactionalEventListener
+    public void onCommentEvent(CommentEvent event) {
+        if (event.type() != CommentEvent.Type.CREATED) {
+            return;
+        }
+        String content = event.content();
+        if (content != null && content.length() > MAX_DETAIL_LENGTH) {
+            content = content.substring(0, MAX_DETAIL_LENGTH);
+        }
+        offer(new Pending(NotificationType.COMMENTED, event.taskId(), null, event.authorId(), null, content,
+                event.createdAt() != null ? event.createdAt() : LocalDateTime.now()));
+    }
+
+    /**
+     * Уведомляет автора и исполнителя задачи о наступлении её срока.
+     *
+     * @param event событие наступления срока
+     */
+    @TransactionalEventListener
+    public void onTaskOverdueEvent(TaskOverdueEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long recipientId : distinct(event.authorId(), event.assigneeId())) {
+            offer(new Pending(NotificationType.OVERDUE, event.taskId(), recipientId, null, null,
+                    String.valueOf(event.dueAt()), now));
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "notifications";
+    }
+
+    /**
+     * Возвращает число принятых, отброшенных при переполнении очереди и схлопнутых уведомлений,
+     * число переданных в каналы сводок и сводок, которые канал не смог доставить, а также текущие размеры
+     * очереди и числа накапливаемых сводок.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queued", queued.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("delivered", delivered.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("queueSize", queue.size());
+        metrics.put("openDigests", openRecipients);
+        metrics.put("sinks", sinks.size());
+        return metrics;
+    }
+
+    /**
+     * Забирает все уведомления из очереди и доставляет сводки, окно которых истекло к моменту {@code nowNanos}.
+     * Вызывается фоновым потоком; в тестах — вместо него.
+     *
+     * @param nowNanos текущий момент по {@link System#nanoTime()}
+     */
+    void drain(long nowNanos) {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            accept(batch, nowNanos);
+            batch.clear();
+        }
+        flush(nowNanos, false);
+    }
+
+    private void offer(Pending pending) {
+        if (queue.offer(pending)) {
+            queued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void work() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Pending first = queue.poll(pollTimeoutNanos(System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    accept(batch, System.nanoTime());
+                    batch.clear();
+                }
+                flush(System.nanoTime(), false);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                failed.add(batch.size());
+                batch.clear();
+                log.warn("Failed to dispatch notifications", e);
+            }
+        }
+    }
+
+    private long pollTimeoutNanos(long nowNanos) {
+        if (open.isEmpty()) {
+            return IDLE_POLL_NANOS;
+        }
+        long openedNanos = open.values().iterator().next().openedNanos;
+        return Math.max(0, Math.min(IDLE_POLL_NANOS, openedNanos + windowNanos - nowNanos));
+    }
+
+    /**
+     * Определяет получателей пачки уведомлений и добавляет уведомления в их сводки.
+     * Участники задач загружаются одним запросом на пачку, пользователи-инициаторы — через кэш.
+     */
+    private void accept(List<Pending> batch, long nowNanos) {
+        Set<Long> taskIds = new LinkedHashSet<>();
+        for (Pending pending : batch) {
+            if (pending.recipientId() == null) {
+                taskIds.add(pending.taskId());
+            }
+        }
+        Map<Long, List<Long>> participants = loadParticipants(taskIds);
+        Map<String, Long> actors = new HashMap<>();
+        for (Pending pending : batch) {
+            Long actorId = pending.actorId();
+            if (actorId == null && pending.actorEmail() != null) {
+                actorId = actors.computeIfAbsent(pending.actorEmail(),
+                        email -> userSnapshotCache.get(email).map(UserSnapshot::getId).orElse(null));
+            }
+            List<Long> recipients = pending.recipientId() != null
+                    ? List.of(pending.recipientId())
+                    : participants.getOrDefault(pending.taskId(), List.of());
+            for (Long recipientId : recipients) {
+                if (!recipientId.equals(actorId)) {
+                    OpenDigest digest = open.computeIfAbsent(recipientId, id -> new OpenDigest(nowNanos));
+                    if (digest.add(pending)) {
+                        coalesced.increment();
+                    }
+                }
+            }
+        }
+        openRecipients = open.size();
+    }
+
+    private Map<Long, List<Long>> loadParticipants(Set<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<Long>> participants = new HashMap<>();
+        String sql = PARTICIPANTS + String.join(", ", Collections.nCopies(taskIds.size(), "?")) + ")";
+        jdbcTemplate.query(sql, rs -> {
+            Long authorId = rs.getLong("author_id");
+            long assigneeId = rs.getLong("assignee_id");
+            participants.put(rs.getLong("id"), distinct(authorId, rs.wasNull() ? null : assigneeId));
+        }, taskIds.toArray());
+        return participants;
+    }
+
+    /**
+     * Доставляет сводки, окно которых истекло, а при {@code all} — все накопленные сводки.
+     * Если число накапливаемых сводок превысило ёмкость очереди, самые старые доставляются досрочно.
+     */
+    private void flush(long nowNanos, boolean all) {
+        List<NotificationDigest> due = new ArrayList<>();
+        Iterator<Map.Entry<Long, OpenDigest>> entries = open.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, OpenDigest> entry = entries.next();
+            if (!all && nowNanos - entry.getValue().openedNanos < windowNanos && open.size() <= maxOpen) {
+                break;
+            }
+            due.add(entry.getValue().toDigest(entry.getKey()));
+            entries.remove();
+            if (due.size() == batchSize) {
+                deliver(due);
+                due = new ArrayList<>();
+            }
+        }
+        if (!due.isEmpty()) {
+            deliver(due);
+        }
+        openRecipients = open.size();
+    }
+
+    private void deliver(List<NotificationDigest> digests) {
+        List<NotificationDigest> batch = Collections.unmodifiableList(digests);
+        for (NotificationSink sink : sinks) {
+            try {
+                sink.deliver(batch);
+            } catch (Exception e) {
+                failed.add(batch.size());
+                log.warn("Notification sink {} failed to deliver {} digests", sink.getClass().getSimpleName(),
+                        batch.size(), e);
+            }
+        }
+        delivered.add(batch.size());
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    private static List<Long> distinct(Long authorId, Long assigneeId) {
+        return assigneeId == null || assigneeId.equals(authorId) ? List.of(authorId) : List.of(authorId, assigneeId);
+    }
+
+    /**
+     * Уведомление в очереди. Получатель {@code null} означает автора и исполнителя задачи, которые определяются
+     * фоновым потоком. Инициатор задаётся идентификатором или email текущего пользователя и не получает уведомление.
+     */
+    private record Pending(NotificationType type, Long taskId, Long recipientId, Long actorId, String actorEmail,
+                           String detail, LocalDateTime at) {
+    }
+
+    private record ItemKey(NotificationType type, Long taskId) {
+    }
+
+    /**
+     * Накапливаемая сводка одного получателя.
+     */
+    private static final class OpenDigest {
+
+        private final long openedNanos;
+        private final LinkedHashMap<ItemKey, OpenItem> items = new LinkedHashMap<>();
+
+        OpenDigest(long openedNanos) {
+            this.openedNanos = openedNanos;
+        }
+
+        /**
+         * @return {@code true}, если уведомление схлопнуто с уже накопленным
+         */
+        boolean add(Pending pending) {
+            ItemKey key = new ItemKey(pending.type(), pending.taskId());
+            OpenItem item = items.get(key);
+            if (item == null) {
+                items.put(key, new OpenItem(pending));
+                return false;
+            }
+            item.count++;
+            item.detail = pending.detail();
+            item.lastAt = pending.at();
+            return true;
+        }
+
+        NotificationDigest toDigest(Long recipientId) {
+            List<NotificationDigest.Item> result = new ArrayList<>(items.size());
+            for (Map.Entry<ItemKey, OpenItem> entry : items.entrySet()) {
+                OpenItem item = entry.getValue();
+                result.add(new NotificationDigest.Item(entry.getKey().type(), entry.getKey().taskId(), item.count,
+                        item.detail, item.firstAt, item.lastAt));
+            }
+            return new NotificationDigest(recipientId, List.copyOf(result));
+        }
+    }
+
+    private static final class OpenItem {
+
+        private final LocalDateTime firstAt;
+        private int count = 1;
+        private String detail;
+        private LocalDateTime lastAt;
+
+        OpenItem(Pending pending) {
+            this.firstAt = pending.at();
+            this.detail = pending.detail();
+            this.lastAt = pending.at();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.test.ManageSystem.notification;
+
+import java.util.List;
+
+/**
+ * Канал доставки уведомлений. Все бины, реализующие интерфейс, получают сводки от {@link NotificationDispatcher}
+ * в его фоновом потоке пачками не больше {@code notification.batch-size}.
+ * Ошибка канала не влияет на другие каналы; недоставленные сводки не доставляются повторно.
+ */
+public interface NotificationSink {
+
+    /**
+     * Доставляет пачку сводок.
+     *
+     * @param digests сводки уведомлений, по одной на получателя
+     * @throws Exception если доставка не удалась
+     */
+    void deliver(List<NotificationDigest> digests) throws Exception;
+}
@@ -1,12 +1,123 @@
 package ru.test.ManageSystem.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.test.ManageSystem.entity.Comment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
     List<Comment> findByTaskId(Long taskId);
-}
\ No newline at end of file
+
+    /**
+     * Возвращает самые новые комментарии задачи от новых к старым вместе с авторами.
+     * Выборка идёт по индексу {@code (task_id, created_at, id)}.
+     *
+     * @param taskId   идентификатор задачи
+     * @param pageable ограничение количества строк; сортировка задана запросом
+     * @return комментарии с загруженными авторами
+     */
+    @Query("select c from Comment c join fetch c.author where c.task.id = :taskId "
+            + "order by c.createdAt desc, c.id desc")
+    List<Comment> findNewestByTaskId(@Param("taskId") Long taskId, Pageable pageable);
+
+    /**
+     * Возвращает комментарии задачи, созданные раньше ключа ({@code createdAt}, {@code id}), от новых к старым.
+     *
+     * @param taskId    идентификатор задачи
+     * @param createdAt время создания комментария-ключа
+     * @param id        идентификатор комментария-ключа
+     * @param pageable  ограничение количества строк; сортировка задана запросом
+     * @return комментарии с загруженными авторами
+     */
+    @Query("select c from Comment c join fetch c.author where c.task.id = :taskId "
+            + "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) "
+            + "order by c.createdAt desc, c.id desc")
+    List<Comment> findOlderByTaskId(@Param("taskId") Long taskId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает комментарии задачи, созданные позже ключа ({@code createdAt}, {@code id}), от старых к новым.
+     *
+     * @param taskId    идентификатор задачи
+     * @param createdAt время создания комментария-ключа
+     * @param id        идентификатор комментария-ключа
+     * @param pageable  ограничение количества строк; сортировка задана запросом
+     * @return комментарии с загруженными авторами
+     */
+    @Query("select c from Comment c join fetch c.author where c.task.id = :taskId "
+            + "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) "
+            + "order by c.createdAt asc, c.id asc")
+    List<Comment> findNewerByTaskId(@Param("taskId") Long taskId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Возвращает комментарии задачи с путями в диапазоне {@code [from, to)} в порядке пути вместе с авторами.
+     * Для поддерева комментария диапазон начинается с его пути, поэтому ветка читается одним проходом
+     * по индексу {@code (task_id, path)} в порядке обхода в глубину.
+     *
+     * @param taskId   идентификатор задачи
+     * @param from     нижняя граница пути включительно
+     * @param to       верхняя граница пути, не включается
+     * @param pageable ограничение количества строк; сортировка задана запросом
+     * @return комментарии с загруженными авторами
+     */
+    @Query("select c from Comment c join fetch c.author where c.task.id = :taskId "
+            + "and c.path >= :from and c.path < :to order by c.path")
+    List<Comment> findByPathRange(@Param("taskId") Long taskId, @Param("from") String from, @Param("to") String to,
+                                  Pageable pageable);
+
+    /**
+     * Атомарно изменяет счётчик прямых ответов комментария.
+     *
+     * @param commentId идентификатор комментария
+     * @param delta     изменение счётчика
+     * @return количество обновлённых строк
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Comment c set c.replyCount = c.replyCount + :delta where c.id = :commentId")
+    int addReplyCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    /**
+     * Обнуляет ссылки на родителей у всех ответов задачи, чтобы комментарии задачи можно было удалять
+     * в любом порядке.
+     *
+     * @param taskId идентификатор задачи
+     * @return количество обновлённых строк
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Comment c set c.parent = null where c.task.id = :taskId and c.parent is not null")
+    int detachRepliesByTaskId(@Param("taskId") Long taskId);
+
+    /**
+     * Обнуляет ссылки на родителей у комментариев задачи с путями в диапазоне {@code [from, to)},
+     * чтобы затем удалить их одним запросом без нарушения внешнего ключа {@code parent_id}.
+     *
+     * @param taskId идентификатор задачи
+     * @param from   нижняя граница пути включительно
+     * @param to     верхняя граница пути, не включается
+     * @return количество обновлённых строк
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Comment c set c.parent = null where c.task.id = :taskId and c.path >= :from and c.path < :to")
+    int detachByPathRange(@Param("taskId") Long taskId, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * Удаляет комментарии задачи с путями в диапазоне {@code [from, to)}.
+     * Вызывается после {@link #detachByPathRange}.
+     *
+     * @param taskId идентификатор задачи
+     * @param from   нижняя граница пути включительно
+     * @param to     верхняя граница пути, не включается
+     * @return количество удалённых комментариев
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Comment c where c.task.id = :taskId and c.path >= :from and c.path < :to")
+    int deleteByPathRange(@Param("taskId") Long taskId, @Param("from") String from, @Param("to") String to);
+}
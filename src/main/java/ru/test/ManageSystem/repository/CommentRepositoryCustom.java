@@ -0,0 +1,21 @@
+package ru.test.ManageSystem.repository;
+
+import ru.test.ManageSystem.enums.CommentField;
+
+import java.util.List;
+
+/**
+ * Дополнительные методы {@link CommentRepository}, реализованные вручную в {@link CommentRepositoryImpl}.
+ */
+public interface CommentRepositoryCustom {
+
+    /**
+     * Возвращает строки с указанными полями комментариев задачи в порядке создания.
+     * Выбираются только колонки запрошенных полей, сущности не загружаются.
+     *
+     * @param taskId идентификатор задачи
+     * @param fields поля комментария в порядке колонок строки результата
+     * @return строки комментариев, колонки каждого поля идут подряд
+     */
+    List<Object[]> findColumnsByTaskId(Long taskId, List<CommentField> fields);
+}
@@ -0,0 +1,40 @@
+package ru.test.ManageSystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import ru.test.ManageSystem.enums.CommentField;
+
+import java.util.List;
+
+/**
+ * Реализация {@link CommentRepositoryCustom}.
+ * Соединение с автором добавляется в запрос только при запросе поля {@link CommentField#AUTHOR}.
+ */
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> findColumnsByTaskId(Long taskId, List<CommentField> fields) {
+        StringBuilder jpql = new StringBuilder("select ");
+        boolean first = true;
+        for (CommentField field : fields) {
+            for (String column : field.getColumns()) {
+                if (!first) {
+                    jpql.append(", ");
+                }
+                jpql.append(column);
+                first = false;
+            }
+        }
+        jpql.append(" from Comment c");
+        if (fields.contains(CommentField.AUTHOR)) {
+            jpql.append(" join c.author a");
+        }
+        jpql.append(" where c.task.id = :taskId order by c.id");
+        return entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("taskId", taskId)
+                .getResultList();
+    }
+}
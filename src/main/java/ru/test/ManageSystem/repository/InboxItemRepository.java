@@ -0,0 +1,37 @@
+package ru.test.ManageSystem.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.test.ManageSystem.entity.InboxItem;
+
+import java.util.List;
+
+@Repository
+public interface InboxItemRepository extends JpaRepository<InboxItem, Long> {
+
+    /**
+     * Возвращает элементы входящих пользователя с идентификатором меньше ключа от новых к старым.
+     * Выборка идёт по индексу {@code (user_id, id)}.
+     *
+     * @param userId   идентификатор пользователя
+     * @param beforeId идентификатор-ключ, не включается
+     * @param pageable ограничение количества строк; сортировка задана запросом
+     * @return элементы входящих
+     */
+    @Query("select i from InboxItem i where i.userId = :userId and i.id < :beforeId order by i.id desc")
+    List<InboxItem> findOlder(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Считает элементы входящих пользователя с идентификатором в диапазоне {@code (fromId, toId]}.
+     *
+     * @param userId идентификатор пользователя
+     * @param fromId нижняя граница, не включается
+     * @param toId   верхняя граница включительно
+     * @return количество элементов
+     */
+    @Query("select count(i) from InboxItem i where i.userId = :userId and i.id > :fromId and i.id <= :toId")
+    long countInRange(@Param("userId") Long userId, @Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -0,0 +1,31 @@
+package ru.test.ManageSystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.test.ManageSystem.entity.Label;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LabelRepository extends JpaRepository<Label, Long> {
+
+    boolean existsByName(String name);
+
+    List<Label> findByNameIn(Collection<String> names);
+
+    List<Label> findAllByOrderByNameAsc();
+
+    /**
+     * Удаляет метку у всех задач одним запросом к таблице связей.
+     *
+     * @param labelId идентификатор метки
+     * @return количество удалённых связей
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_labels WHERE label_id = :labelId", nativeQuery = true)
+    int detachFromTasks(@Param("labelId") Long labelId);
+}
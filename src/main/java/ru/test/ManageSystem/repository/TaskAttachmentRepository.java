@@ -0,0 +1,37 @@
+package ru.test.ManageSystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.test.ManageSystem.entity.TaskAttachment;
+
+import java.util.List;
+
+@Repository
+public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, Long> {
+
+    List<TaskAttachment> findByTaskIdOrderById(Long taskId);
+
+    boolean existsBySha256(String sha256);
+
+    /**
+     * Возвращает хеши содержимого вложений задачи без повторов.
+     *
+     * @param taskId идентификатор задачи
+     * @return хеши содержимого
+     */
+    @Query("select distinct a.sha256 from TaskAttachment a where a.taskId = :taskId")
+    List<String> findContentHashesByTaskId(@Param("taskId") Long taskId);
+
+    /**
+     * Удаляет все вложения задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @return количество удалённых вложений
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TaskAttachment a where a.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
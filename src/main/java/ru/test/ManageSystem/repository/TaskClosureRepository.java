@@ -0,0 +1,170 @@
+package ru.test.ManageSystem.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.TaskClosure;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.util.List;
+
+/**
+ * Репозиторий таблицы замыкания иерархии задач {@link TaskClosure}.
+ * Каждая операция над поддеревом — один запрос по индексам таблицы, независимо от глубины иерархии.
+ */
+@Repository
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosure.Key> {
+
+    /**
+     * Проверяет, лежит ли задача {@code descendantId} в поддереве задачи {@code ancestorId} (включая её саму).
+     */
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    /**
+     * Добавляет строку задачи на саму себя. Вызывается при создании каждой задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @param status статус задачи
+     * @return количество добавленных строк
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO task_closure (ancestor_id, descendant_id, depth, descendant_status)
+            VALUES (:taskId, :taskId, 0, :status)""", nativeQuery = true)
+    int insertSelf(@Param("taskId") Long taskId, @Param("status") String status);
+
+    /**
+     * Связывает новую задачу со всеми предками родителя (и с самим родителем).
+     *
+     * @param taskId   идентификатор новой задачи
+     * @param parentId идентификатор родительской задачи
+     * @param status   статус новой задачи
+     * @return количество добавленных строк
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO task_closure (ancestor_id, descendant_id, depth, descendant_status)
+            SELECT ancestor_id, :taskId, depth + 1, :status FROM task_closure WHERE descendant_id = :parentId""",
+            nativeQuery = true)
+    int insertAncestors(@Param("taskId") Long taskId, @Param("parentId") Long parentId,
+                        @Param("status") String status);
+
+    /**
+     * Отрывает поддерево задачи от её предков: удаляет строки, связывающие узлы поддерева
+     * с предками задачи. Строки внутри поддерева не изменяются.
+     *
+     * @param taskId идентификатор корня перемещаемого поддерева
+     * @return количество удалённых строк
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            delete from TaskClosure c
+            where c.descendantId in (select s.descendantId from TaskClosure s where s.ancestorId = :taskId)
+              and c.ancestorId in (select p.ancestorId from TaskClosure p
+                                   where p.descendantId = :taskId and p.depth > 0)""")
+    int detachSubtree(@Param("taskId") Long taskId);
+
+    /**
+     * Подвешивает оторванное поддерево задачи под нового родителя: каждый предок родителя (и сам родитель)
+     * связывается с каждым узлом поддерева.
+     *
+     * @param taskId   идентификатор корня поддерева
+     * @param parentId идентификатор нового родителя
+     * @return количество добавленных строк
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO task_closure (ancestor_id, descendant_id, depth, descendant_status)
+            SELECT p.ancestor_id, s.descendant_id, p.depth + s.depth + 1, s.descendant_status
+            FROM task_closure p CROSS JOIN task_closure s
+            WHERE p.descendant_id = :parentId AND s.ancestor_id = :taskId""", nativeQuery = true)
+    int attachSubtree(@Param("taskId") Long taskId, @Param("parentId") Long parentId);
+
+    /**
+     * Обновляет продублированный статус задачи во всех строках, где она является потомком.
+     *
+     * @param taskId идентификатор задачи
+     * @param status новый статус
+     * @return количество обновлённых строк
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update TaskClosure c set c.descendantStatus = :status where c.descendantId = :taskId")
+    int updateStatus(@Param("taskId") Long taskId, @Param("status") TaskStatus status);
+
+    /**
+     * Удаляет все строки, где задача является потомком. Вызывается при удалении задачи без подзадач.
+     *
+     * @param taskId идентификатор задачи
+     * @return количество удалённых строк
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TaskClosure c where c.descendantId = :taskId")
+    int deleteByDescendantId(@Param("taskId") Long taskId);
+
+    /**
+     * Возвращает подзадачи всех уровней до {@code maxDepth} включительно, по уровням от ближних к дальним.
+     *
+     * @param taskId          идентификатор корня поддерева
+     * @param maxDepth        максимальная глубина относительно корня
+     * @param visibleToUserId пользователь, которому возвращаются только задачи, где он автор или исполнитель;
+     *                        {@code null} — без ограничения
+     * @param pageable        параметры страницы
+     * @return срез подзадач
+     */
+    @Query("""
+            select t from TaskClosure c join Task t on t.id = c.descendantId
+            where c.ancestorId = :taskId and c.depth between 1 and :maxDepth
+              and (:userId is null or t.author.id = :userId or t.assignee.id = :userId)
+            order by c.depth, c.descendantId""")
+    Slice<Task> findDescendants(@Param("taskId") Long taskId, @Param("maxDepth") int maxDepth,
+                                @Param("userId") Long visibleToUserId, Pageable pageable);
+
+    /**
+     * Возвращает предков задачи от корня иерархии к непосредственному родителю.
+     *
+     * @param taskId          идентификатор задачи
+     * @param visibleToUserId пользователь, которому возвращаются только задачи, где он автор или исполнитель;
+     *                        {@code null} — без ограничения
+     * @return список предков
+     */
+    @Query("""
+            select t from TaskClosure c join Task t on t.id = c.ancestorId
+            where c.descendantId = :taskId and c.depth > 0
+              and (:userId is null or t.author.id = :userId or t.assignee.id = :userId)
+            order by c.depth desc""")
+    List<Task> findAncestors(@Param("taskId") Long taskId, @Param("userId") Long visibleToUserId);
+
+    /**
+     * Считает подзадачи всех уровней по статусам. Читает только индекс
+     * {@code (ancestor_id, descendant_status, depth)} без соединения с таблицей задач.
+     *
+     * @param taskId идентификатор корня поддерева
+     * @return пары статус — количество
+     */
+    @Query("""
+            select c.descendantStatus, count(c) from TaskClosure c
+            where c.ancestorId = :taskId and c.depth > 0
+            group by c.descendantStatus""")
+    List<Object[]> countDescendantsByStatus(@Param("taskId") Long taskId);
+
+    /**
+     * Считает по статусам подзадачи всех уровней, где пользователь является автором или исполнителем.
+     * В отличие от {@link #countDescendantsByStatus(Long)} соединяется с таблицей задач.
+     *
+     * @param taskId          идентификатор корня поддерева
+     * @param visibleToUserId идентификатор пользователя
+     * @return пары статус — количество
+     */
+    @Query("""
+            select c.descendantStatus, count(c) from TaskClosure c join Task t on t.id = c.descendantId
+            where c.ancestorId = :taskId and c.depth > 0
+              and (t.author.id = :userId or t.assignee.id = :userId)
+            group by c.descendantStatus""")
+    List<Object[]> countVisibleDescendantsByStatus(@Param("taskId") Long taskId,
+                                                   @Param("userId") Long visibleToUserId);
+}
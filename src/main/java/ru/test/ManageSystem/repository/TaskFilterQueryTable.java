@@ -0,0 +1,269 @@
+package ru.test.ManageSystem.repository;
+
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+import ru.test.ManageSystem.DTO.TaskFilterDto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Таблица заранее сгенерированных JPQL-запросов для фильтрации задач.
+ * Каждой комбинации заполненных полей {@link TaskFilterDto} и признаку ограничения видимости
+ * соответствует индекс в таблице (битовая маска). Строки запросов строятся один раз при создании таблицы,
+ * поэтому на запрос не тратится время на построение Criteria-дерева, а Hibernate всегда находит
+ * план запроса в своём кэше по одной и той же строке.
+ * Все условия сравнивают внешние ключи с идентификаторами и не требуют соединения с таблицей {@code users}.
+ * Для каждой маски также хранятся запросы постраничной выборки по ключу ({@code updatedAt}, {@code id})
+ * от недавно изменённых задач к давно изменённым, которые обходят индекс {@code idx_tasks_updated_at_id}
+ * без {@code OFFSET}.
+ */
+public final class TaskFilterQueryTable {
+
+    /**
+     * Условия фильтрации. Порядок констант определяет номер бита в маске.
+     */
+    enum Clause {
+        STATUS("t.status", "=", "status", "status", TaskFilterDto::getStatus),
+        PRIORITY("t.priority", "=", "priority", "priority", TaskFilterDto::getPriority),
+        AUTHOR("t.author.id", "=", "authorId", "author_id", TaskFilterDto::getAuthorId),
+        ASSIGNEE("t.assignee.id", "=", "assigneeId", "assignee_id", TaskFilterDto::getAssigneeId),
+        MIN_COMMENT_COUNT("t.commentCount", ">=", "minCommentCount", "comment_count",
+                TaskFilterDto::getMinCommentCount),
+        COMMENTED_AFTER("t.lastCommentAt", ">=", "commentedAfter", "last_comment_at",
+                TaskFilterDto::getCommentedAfter),
+        CREATED_FROM("t.createdAt", ">=", "createdFrom", "created_at", TaskFilterDto::getCreatedFrom),
+        CREATED_TO("t.createdAt", "<", "createdTo", "created_at", TaskFilterDto::getCreatedTo),
+        UPDATED_FROM("t.updatedAt", ">=", "updatedFrom", "updated_at", TaskFilterDto::getUpdatedFrom),
+        UPDATED_TO("t.updatedAt", "<", "updatedTo", "updated_at", TaskFilterDto::getUpdatedTo),
+        OVERDUE("t.overdue", "=", "overdue", "overdue", TaskFilterDto::getOverdue);
+
+        private final String jpql;
+        private final String operator;
+        private final String parameter;
+        private final String column;
+        private final Function<TaskFilterDto, Object> extractor;
+
+        Clause(String path, String operator, String parameter, String column,
+               Function<TaskFilterDto, Object> extractor) {
+            this.jpql = path + " " + operator + " :" + parameter;
+            this.operator = operator;
+            this.parameter = parameter;
+            this.column = column;
+            this.extractor = extractor;
+        }
+    }
+
+    private static final Clause[] CLAUSES = Clause.values();
+    private static final DateTimeFormatter SQL_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+    private static final int VISIBILITY_BIT = 1 << CLAUSES.length;
+    private static final String VISIBILITY_JPQL = "(t.author.id = :userId or t.assignee.id = :userId)";
+    private static final String KEYSET_JPQL = "(t.updatedAt < :afterUpdatedAt"
+            + " or (t.updatedAt = :afterUpdatedAt and t.id < :afterId))";
+    private static final String KEYSET_ORDER = " order by t.updatedAt desc, t.id desc";
+
+    /**
+     * Свойства задачи, по которым разрешена сортировка, и соответствующие им JPQL-выражения.
+     */
+    private static final Map<String, String> SORTABLE = Map.ofEntries(
+            Map.entry("id", "t.id"),
+            Map.entry("title", "t.title"),
+            Map.entry("status", "t.status"),
+            Map.entry("priority", "t.priority"),
+            Map.entry("createdAt", "t.createdAt"),
+            Map.entry("updatedAt", "t.updatedAt"),
+            Map.entry("commentCount", "t.commentCount"),
+            Map.entry("lastCommentAt", "t.lastCommentAt"),
+            Map.entry("dueAt", "t.dueAt"));
+
+    private final String[] wheres;
+    private final String[] selects;
+    private final String[] counts;
+    private final String[] keysetFirst;
+    private final String[] keysetNext;
+
+    public TaskFilterQueryTable() {
+        int size = VISIBILITY_BIT << 1;
+        wheres = new String[size];
+        selects = new String[size];
+        counts = new String[size];
+        keysetFirst = new String[size];
+        keysetNext = new String[size];
+        for (int mask = 0; mask < size; mask++) {
+            String where = buildWhere(mask);
+            wheres[mask] = where;
+            selects[mask] = "select t from Task t" + where;
+            counts[mask] = "select count(t) from Task t" + where;
+            keysetFirst[mask] = selects[mask] + KEYSET_ORDER;
+            keysetNext[mask] = selects[mask] + (where.isEmpty() ? " where " : " and ") + KEYSET_JPQL + KEYSET_ORDER;
+        }
+    }
+
+    /**
+     * Вычисляет индекс запроса в таблице для фильтра.
+     *
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId идентификатор пользователя, задачами которого ограничена выборка,
+     *                        или {@code null}, если ограничения нет
+     * @return индекс запроса в таблице
+     */
+    public int maskOf(TaskFilterDto filter, Long visibleToUserId) {
+        int mask = visibleToUserId != null ? VISIBILITY_BIT : 0;
+        for (Clause clause : CLAUSES) {
+            if (clause.extractor.apply(filter) != null) {
+                mask |= 1 << clause.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Возвращает JPQL-запрос выборки задач с сортировкой.
+     *
+     * @param mask индекс запроса из {@link #maskOf(TaskFilterDto, Long)}
+     * @param sort сортировка, допускаются только свойства из белого списка
+     * @return строка JPQL-запроса
+     * @throws IllegalArgumentException если сортировка задана по неподдерживаемому свойству
+     */
+    public String select(int mask, Sort sort) {
+        return orderBy(selects[mask], sort);
+    }
+
+    /**
+     * Возвращает JPQL-запрос выборки отдельных колонок задач с сортировкой.
+     * Строка проекции не кэшируется: она зависит от набора запрошенных полей, а не от маски фильтра.
+     *
+     * @param mask       индекс запроса из {@link #maskOf(TaskFilterDto, Long)}
+     * @param sort       сортировка, допускаются только свойства из белого списка
+     * @param projection список выражений JPQL через запятую, например {@code t.id, t.title}
+     * @return строка JPQL-запроса
+     * @throws IllegalArgumentException если сортировка задана по неподдерживаемому свойству
+     */
+    public String select(int mask, Sort sort, String projection) {
+        return orderBy("select " + projection + " from Task t" + wheres[mask], sort);
+    }
+
+    private static String orderBy(String select, Sort sort) {
+        if (sort.isUnsorted()) {
+            return select;
+        }
+        StringBuilder jpql = new StringBuilder(select).append(" order by ");
+        boolean first = true;
+        for (Sort.Order order : sort) {
+            String path = SORTABLE.get(order.getProperty());
+            if (path == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            if (!first) {
+                jpql.append(", ");
+            }
+            jpql.append(path).append(order.isAscending() ? " asc" : " desc");
+            first = false;
+        }
+        return jpql.toString();
+    }
+
+    /**
+     * Возвращает JPQL-запрос выборки задач по ключу от недавно изменённых к давно изменённым.
+     * Запрос продолжения содержит параметры {@code afterUpdatedAt} и {@code afterId} — ключ последней
+     * задачи предыдущей страницы.
+     *
+     * @param mask         индекс запроса из {@link #maskOf(TaskFilterDto, Long)}
+     * @param continuation {@code true} для запроса продолжения, {@code false} для первой страницы
+     * @return строка JPQL-запроса
+     */
+    public String keysetSelect(int mask, boolean continuation) {
+        return continuation ? keysetNext[mask] : keysetFirst[mask];
+    }
+
+    /**
+     * Возвращает JPQL-запрос подсчёта задач.
+     *
+     * @param mask индекс запроса из {@link #maskOf(TaskFilterDto, Long)}
+     * @return строка JPQL-запроса
+     */
+    public String count(int mask) {
+        return counts[mask];
+    }
+
+    /**
+     * Привязывает значения параметров фильтра к запросу, построенному по той же маске.
+     *
+     * @param query           запрос выборки или подсчёта
+     * @param mask            индекс запроса
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @param <T>             тип результата запроса
+     * @return тот же запрос с привязанными параметрами
+     */
+    public <T> TypedQuery<T> bind(TypedQuery<T> query, int mask, TaskFilterDto filter, Long visibleToUserId) {
+        for (Clause clause : CLAUSES) {
+            if ((mask & (1 << clause.ordinal())) != 0) {
+                query.setParameter(clause.parameter, clause.extractor.apply(filter));
+            }
+        }
+        if ((mask & VISIBILITY_BIT) != 0) {
+            query.setParameter("userId", visibleToUserId);
+        }
+        return query;
+    }
+
+    /**
+     * Строит SQL-запрос по таблице {@code tasks} с подставленными значениями фильтра.
+     * Используется только для получения оценки числа строк от планировщика СУБД ({@code EXPLAIN}).
+     * Подставляются лишь имена перечислений, числа, логические значения и отформатированные даты,
+     * поэтому внедрение SQL невозможно.
+     *
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @return строка SQL-запроса
+     */
+    public String nativeSelect(TaskFilterDto filter, Long visibleToUserId) {
+        StringBuilder sql = new StringBuilder("SELECT id FROM tasks");
+        String separator = " WHERE ";
+        for (Clause clause : CLAUSES) {
+            Object value = clause.extractor.apply(filter);
+            if (value != null) {
+                sql.append(separator).append(clause.column).append(' ').append(clause.operator).append(' ')
+                        .append(literal(value));
+                separator = " AND ";
+            }
+        }
+        if (visibleToUserId != null) {
+            sql.append(separator).append("(author_id = ").append(visibleToUserId.longValue())
+                    .append(" OR assignee_id = ").append(visibleToUserId.longValue()).append(')');
+        }
+        return sql.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof Enum<?> constant) {
+            return "'" + constant.name() + "'";
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return Long.toString(((Number) value).longValue());
+        }
+        if (value instanceof Boolean flag) {
+            return flag ? "TRUE" : "FALSE";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return "TIMESTAMP '" + SQL_TIMESTAMP.format(dateTime) + "'";
+        }
+        throw new IllegalArgumentException("Unsupported filter value type: " + value.getClass());
+    }
+
+    private static String buildWhere(int mask) {
+        StringBuilder where = new StringBuilder();
+        for (Clause clause : CLAUSES) {
+            if ((mask & (1 << clause.ordinal())) != 0) {
+                where.append(where.length() == 0 ? " where " : " and ").append(clause.jpql);
+            }
+        }
+        if ((mask & VISIBILITY_BIT) != 0) {
+            where.append(where.length() == 0 ? " where " : " and ").append(VISIBILITY_JPQL);
+        }
+        return where.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.test.ManageSystem.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.test.ManageSystem.entity.TaskRecurrence;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskRecurrenceRepository extends JpaRepository<TaskRecurrence, Long> {
+
+    Optional<TaskRecurrence> findByTemplateId(Long templateId);
+
+    /**
+     * Загружает правило повторения шаблона с блокировкой строки до конца транзакции, чтобы экземпляры
+     * не создавались одновременно фоновым генератором и по запросу.
+     *
+     * @param templateId идентификатор задачи-шаблона
+     * @return правило или пустой результат, если у задачи нет правила
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from TaskRecurrence r where r.templateId = :templateId")
+    Optional<TaskRecurrence> findByTemplateIdForUpdate(@Param("templateId") Long templateId);
+
+    @Modifying
+    @Query("delete from TaskRecurrence r where r.templateId = :templateId")
+    int deleteByTemplateId(@Param("templateId") Long templateId);
+
+    /**
+     * Возвращает шаблоны правил, экземпляры которых до {@code horizon} ещё не созданы, начиная с наиболее отстающих.
+     * Выборка идёт по индексу {@code generated_until}.
+     *
+     * @param horizon  граница, до которой должны быть созданы экземпляры
+     * @param pageable размер пачки
+     * @return идентификаторы задач-шаблонов
+     */
+    @Query("""
+            select r.templateId from TaskRecurrence r
+            where r.generatedUntil < :horizon
+              and (r.untilAt is null or r.generatedUntil <= r.untilAt)
+            order by r.generatedUntil""")
+    List<Long> findBehind(@Param("horizon") LocalDateTime horizon, Pageable pageable);
+
+    /**
+     * Возвращает правила с виртуальными экземплярами в диапазоне {@code [from, to)} вместе с их шаблонами.
+     *
+     * @param from начало диапазона
+     * @param to   конец диапазона
+     * @return пары правило — шаблон
+     */
+    @Query("""
+            select r, t from TaskRecurrence r join Task t on t.id = r.templateId
+            where r.generatedUntil < :to and (r.untilAt is null or r.untilAt >= :from)""")
+    List<Object[]> findVirtualInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Возвращает правила с виртуальными экземплярами в диапазоне {@code [from, to)} вместе с их шаблонами,
+     * ограничиваясь шаблонами, где пользователь является автором или исполнителем.
+     *
+     * @param from   начало диапазона
+     * @param to     конец диапазона
+     * @param userId идентификатор пользователя
+     * @return пары правило — шаблон
+     */
+    @Query("""
+            select r, t from TaskRecurrence r join Task t on t.id = r.templateId
+            where r.generatedUntil < :to and (r.untilAt is null or r.untilAt >= :from)
+              and (t.author.id = :userId or t.assignee.id = :userId)""")
+    List<Object[]> findVirtualInRangeVisibleTo(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                               @Param("userId") Long userId);
+}
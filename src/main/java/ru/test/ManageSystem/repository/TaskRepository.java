@@ -1,17 +1,101 @@
 package ru.test.ManageSystem.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.test.ManageSystem.entity.Task;
 import ru.test.ManageSystem.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskRepositoryCustom {
 
     List<Task> findByAuthorOrAssignee(User author, User assignee);
+
+    boolean existsByParentId(Long parentId);
+
+    /**
+     * Загружает задачу с блокировкой строки до конца транзакции.
+     *
+     * @param id идентификатор задачи
+     * @return задача или пустой результат, если задача не найдена
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Переводит задачу в работу, только если она всё ещё ожидает и назначена исполнителю.
+     * Из нескольких одновременных попыток взять одну задачу строку обновляет только одна.
+     *
+     * @param taskId     идентификатор задачи
+     * @param assigneeId идентификатор исполнителя
+     * @param boardRank  ключ порядка задачи в колонке {@code IN_PROGRESS} доски
+     * @param claimedAt  время взятия задачи в работу
+     * @return количество обновлённых строк: 1, если задача взята, иначе 0
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Task t
+            set t.status = ru.test.ManageSystem.enums.TaskStatus.IN_PROGRESS,
+                t.boardRank = :boardRank,
+                t.updatedAt = :claimedAt
+            where t.id = :taskId
+              and t.status = ru.test.ManageSystem.enums.TaskStatus.PENDING
+              and t.assignee.id = :assigneeId""")
+    int claim(@Param("taskId") Long taskId, @Param("assigneeId") Long assigneeId,
+              @Param("boardRank") String boardRank, @Param("claimedAt") LocalDateTime claimedAt);
+
+    /**
+     * Удаляет все зависимости, в которых участвует задача, одним запросом к таблице связей.
+     *
+     * @param taskId идентификатор задачи
+     * @return количество удалённых зависимостей
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_dependencies WHERE task_id = :taskId OR blocker_id = :taskId", nativeQuery = true)
+    int deleteDependencies(@Param("taskId") Long taskId);
+
+    /**
+     * Атомарно увеличивает счётчик комментариев задачи и обновляет время последнего комментария.
+     *
+     * @param taskId      идентификатор задачи
+     * @param commentedAt время создания нового комментария
+     * @return количество обновлённых строк
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Task t
+            set t.commentCount = t.commentCount + 1,
+                t.lastCommentAt = case when t.lastCommentAt is null or t.lastCommentAt < :commentedAt
+                                       then :commentedAt else t.lastCommentAt end
+            where t.id = :taskId""")
+    int incrementCommentCount(@Param("taskId") Long taskId, @Param("commentedAt") LocalDateTime commentedAt);
+
+    /**
+     * Атомарно уменьшает счётчик комментариев задачи на количество удалённых комментариев
+     * и пересчитывает время последнего комментария по оставшимся комментариям.
+     *
+     * @param taskId  идентификатор задачи
+     * @param removed количество удалённых комментариев
+     * @return количество обновлённых строк
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Task t
+            set t.commentCount = case when t.commentCount > :removed then t.commentCount - :removed else 0 end,
+                t.lastCommentAt = (select max(c.createdAt) from Comment c where c.task.id = :taskId)
+            where t.id = :taskId""")
+    int decrementCommentCount(@Param("taskId") Long taskId, @Param("removed") int removed);
 }
\ No newline at end of file
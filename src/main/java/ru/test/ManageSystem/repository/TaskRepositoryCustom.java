@@ -0,0 +1,167 @@
+package ru.test.ManageSystem.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.test.ManageSystem.DTO.TaskFilterDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.enums.TaskField;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Дополнительные методы {@link TaskRepository}, реализованные вручную в {@link TaskRepositoryImpl}.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Возвращает страницу задач, удовлетворяющих фильтру, с точным подсчётом общего количества.
+     *
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId если задан, выборка ограничивается задачами, где пользователь
+     *                        является автором или исполнителем
+     * @param pageable        параметры пагинации и сортировки
+     * @return страница задач
+     */
+    Page<Task> findFiltered(TaskFilterDto filter, Long visibleToUserId, Pageable pageable);
+
+    /**
+     * Возвращает срез задач, удовлетворяющих фильтру, без запроса {@code count}.
+     * Наличие следующей страницы определяется выборкой одной лишней строки.
+     *
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @param pageable        параметры пагинации и сортировки
+     * @return срез задач
+     */
+    Slice<Task> findFilteredSlice(TaskFilterDto filter, Long visibleToUserId, Pageable pageable);
+
+    /**
+     * Возвращает страницу строк с указанными полями задач, удовлетворяющих фильтру, с точным подсчётом.
+     * Выбираются только колонки запрошенных полей, сущности не загружаются.
+     *
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @param pageable        параметры пагинации и сортировки
+     * @param fields          поля задачи в порядке колонок строки результата
+     * @return страница строк, по одному значению на поле
+     */
+    Page<Object[]> findFilteredColumns(TaskFilterDto filter, Long visibleToUserId, Pageable pageable,
+                                       List<TaskField> fields);
+
+    /**
+     * Возвращает срез строк с указанными полями задач, удовлетворяющих фильтру, без запроса {@code count}.
+     *
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @param pageable        параметры пагинации и сортировки
+     * @param fields          поля задачи в порядке колонок строки результата
+     * @return срез строк, по одному значению на поле
+     */
+    Slice<Object[]> findFilteredColumnsSlice(TaskFilterDto filter, Long visibleToUserId, Pageable pageable,
+                                             List<TaskField> fields);
+
+    /**
+     * Возвращает строку с указанными полями задачи.
+     *
+     * @param id     идентификатор задачи
+     * @param fields поля задачи в порядке колонок строки результата
+     * @return строка, по одному значению на поле, или пустой результат, если задача не найдена
+     */
+    Optional<Object[]> findColumnsById(Long id, List<TaskField> fields);
+
+    /**
+     * Оценивает количество задач, удовлетворяющих фильтру, по статистике планировщика PostgreSQL.
+     * Для других СУБД выполняет точный подсчёт.
+     *
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @return оценка количества задач
+     */
+    CountEstimate estimateFiltered(TaskFilterDto filter, Long visibleToUserId);
+
+    /**
+     * Возвращает задачи, удовлетворяющие фильтру, от недавно изменённых к давно изменённым,
+     * начиная после заданного ключа. Выборка идёт по индексу ({@code updated_at}, {@code id})
+     * без {@code OFFSET}, поэтому стоимость страницы не зависит от её номера.
+     *
+     * @param filter          параметры фильтрации
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @param after           ключ последней задачи предыдущей страницы или {@code null} для первой страницы
+     * @param limit           максимальное количество задач
+     * @return список задач
+     */
+    List<Task> findFilteredByUpdatedAt(TaskFilterDto filter, Long visibleToUserId, UpdatedAtKey after, int limit);
+
+    /**
+     * Возвращает задачи колонки доски в ручном порядке, начиная после заданного ключа.
+     * Выборка — один упорядоченный проход по индексу ({@code status}, {@code board_rank}, {@code id}).
+     *
+     * @param status          статус задач колонки
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @param after           ключ последней задачи предыдущей страницы или {@code null} для первой страницы
+     * @param limit           максимальное количество задач
+     * @return список задач
+     */
+    List<Task> findBoardColumn(TaskStatus status, Long visibleToUserId, BoardKey after, int limit);
+
+    /**
+     * Возвращает ключ порядка задачи, следующей в колонке за заданным ключом.
+     *
+     * @param status     статус задач колонки
+     * @param after      ключ задачи, после которой ищется следующая, или {@code null} для начала колонки
+     * @param excludedId идентификатор задачи, которая не учитывается (перемещаемой задачи)
+     * @return ключ порядка или пустой результат, если дальше задач нет
+     */
+    Optional<String> findNextBoardRank(TaskStatus status, BoardKey after, Long excludedId);
+
+    /**
+     * Возвращает наибольший ключ порядка в колонке.
+     *
+     * @param status статус задач колонки
+     * @return ключ порядка или пустой результат, если колонка пуста
+     */
+    Optional<String> findLastBoardRank(TaskStatus status);
+
+    /**
+     * Возвращает незавершённые задачи со сроком в диапазоне {@code [from, to)} по возрастанию срока.
+     * Выборка — один упорядоченный проход по индексу ({@code due_at}, {@code id}).
+     *
+     * @param from            начало диапазона включительно
+     * @param to              конец диапазона не включительно
+     * @param visibleToUserId идентификатор пользователя для ограничения видимости или {@code null}
+     * @param limit           максимальное количество задач
+     * @return список задач
+     */
+    List<Task> findUpcoming(LocalDateTime from, LocalDateTime to, Long visibleToUserId, int limit);
+
+    /**
+     * Результат оценки количества строк.
+     *
+     * @param count       количество строк
+     * @param approximate {@code true}, если значение получено из статистики и является приблизительным
+     */
+    record CountEstimate(long count, boolean approximate) {
+    }
+
+    /**
+     * Ключ задачи в порядке {@link #findFilteredByUpdatedAt}.
+     *
+     * @param updatedAt время последнего изменения задачи
+     * @param id        идентификатор задачи
+     */
+    record UpdatedAtKey(LocalDateTime updatedAt, Long id) {
+    }
+
+    /**
+     * Ключ задачи в порядке колонки доски.
+     *
+     * @param rank ключ ручного порядка задачи
+     * @param id   идентификатор задачи
+     */
+    record BoardKey(String rank, Long id) {
+    }
+}
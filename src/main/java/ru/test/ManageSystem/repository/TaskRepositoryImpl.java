@@ -0,0 +1,221 @@
+package ru.test.ManageSystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import ru.test.ManageSystem.DTO.TaskFilterDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.enums.TaskField;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Реализация {@link TaskRepositoryCustom} поверх заранее сгенерированных запросов {@link TaskFilterQueryTable}.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\"\\s*:\\s*(\\d+)");
+    private static final String BOARD_WHERE = " from Task t where t.status = :status and t.boardRank is not null";
+    private static final String VISIBILITY = " and (t.author.id = :userId or t.assignee.id = :userId)";
+    /**
+     * Условие продолжения колонки доски. Условие {@code t.boardRank >= :afterRank} задаёт нижнюю границу
+     * прохода по индексу, остальное лишь отсекает задачи с равным ключом до {@code afterId}.
+     */
+    private static final String BOARD_AFTER = " and t.boardRank >= :afterRank"
+            + " and (t.boardRank > :afterRank or t.id > :afterId)";
+    private static final String BOARD_ORDER = " order by t.boardRank, t.id";
+
+    private final TaskFilterQueryTable queryTable = new TaskFilterQueryTable();
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TaskRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Page<Task> findFiltered(TaskFilterDto filter, Long visibleToUserId, Pageable pageable) {
+        int mask = queryTable.maskOf(filter, visibleToUserId);
+        List<Task> content = selectQuery(queryTable.select(mask, pageable.getSort()), Task.class,
+                filter, visibleToUserId, pageable, mask, 0).getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> countExact(filter, visibleToUserId, mask));
+    }
+
+    @Override
+    public Slice<Task> findFilteredSlice(TaskFilterDto filter, Long visibleToUserId, Pageable pageable) {
+        int mask = queryTable.maskOf(filter, visibleToUserId);
+        return toSlice(selectQuery(queryTable.select(mask, pageable.getSort()), Task.class,
+                filter, visibleToUserId, pageable, mask, 1).getResultList(), pageable);
+    }
+
+    @Override
+    public Page<Object[]> findFilteredColumns(TaskFilterDto filter, Long visibleToUserId, Pageable pageable,
+                                              List<TaskField> fields) {
+        int mask = queryTable.maskOf(filter, visibleToUserId);
+        List<Object[]> content = selectQuery(queryTable.select(mask, pageable.getSort(), projection(fields)),
+                Object[].class, filter, visibleToUserId, pageable, mask, 0).getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> countExact(filter, visibleToUserId, mask));
+    }
+
+    @Override
+    public Slice<Object[]> findFilteredColumnsSlice(TaskFilterDto filter, Long visibleToUserId, Pageable pageable,
+                                                    List<TaskField> fields) {
+        int mask = queryTable.maskOf(filter, visibleToUserId);
+        return toSlice(selectQuery(queryTable.select(mask, pageable.getSort(), projection(fields)),
+                Object[].class, filter, visibleToUserId, pageable, mask, 1).getResultList(), pageable);
+    }
+
+    @Override
+    public Optional<Object[]> findColumnsById(Long id, List<TaskField> fields) {
+        return entityManager.createQuery("select " + projection(fields) + " from Task t where t.id = :id",
+                        Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public CountEstimate estimateFiltered(TaskFilterDto filter, Long visibleToUserId) {
+        if (isPostgres()) {
+            String plan = jdbcTemplate.queryForObject(
+                    "EXPLAIN (FORMAT JSON) " + queryTable.nativeSelect(filter, visibleToUserId), String.class);
+            Matcher matcher = PLAN_ROWS.matcher(plan != null ? plan : "");
+            if (matcher.find()) {
+                return new CountEstimate(Long.parseLong(matcher.group(1)), true);
+            }
+        }
+        return new CountEstimate(countExact(filter, visibleToUserId, queryTable.maskOf(filter, visibleToUserId)), false);
+    }
+
+    @Override
+    public List<Task> findFilteredByUpdatedAt(TaskFilterDto filter, Long visibleToUserId, UpdatedAtKey after,
+                                              int limit) {
+        int mask = queryTable.maskOf(filter, visibleToUserId);
+        TypedQuery<Task> query = queryTable.bind(
+                entityManager.createQuery(queryTable.keysetSelect(mask, after != null), Task.class),
+                mask, filter, visibleToUserId);
+        if (after != null) {
+            query.setParameter("afterUpdatedAt", after.updatedAt());
+            query.setParameter("afterId", after.id());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Task> findBoardColumn(TaskStatus status, Long visibleToUserId, BoardKey after, int limit) {
+        TypedQuery<Task> query = entityManager.createQuery("select t" + BOARD_WHERE
+                        + (visibleToUserId != null ? VISIBILITY : "")
+                        + (after != null ? BOARD_AFTER : "") + BOARD_ORDER, Task.class)
+                .setParameter("status", status);
+        if (visibleToUserId != null) {
+            query.setParameter("userId", visibleToUserId);
+        }
+        return bindBoardKey(query, after).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Optional<String> findNextBoardRank(TaskStatus status, BoardKey after, Long excludedId) {
+        TypedQuery<String> query = entityManager.createQuery("select t.boardRank" + BOARD_WHERE
+                        + " and t.id <> :excludedId" + (after != null ? BOARD_AFTER : "") + BOARD_ORDER, String.class)
+                .setParameter("status", status)
+                .setParameter("excludedId", excludedId);
+        return bindBoardKey(query, after).setMaxResults(1).getResultStream().findFirst();
+    }
+
+    @Override
+    public Optional<String> findLastBoardRank(TaskStatus status) {
+        return entityManager.createQuery("select t.boardRank" + BOARD_WHERE + " order by t.boardRank desc, t.id desc",
+                        String.class)
+                .setParameter("status", status)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Task> findUpcoming(LocalDateTime from, LocalDateTime to, Long visibleToUserId, int limit) {
+        TypedQuery<Task> query = entityManager.createQuery("select t from Task t"
+                        + " where t.dueAt >= :from and t.dueAt < :to and t.status <> :completed"
+                        + (visibleToUserId != null ? VISIBILITY : "") + " order by t.dueAt, t.id", Task.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("completed", TaskStatus.COMPLETED);
+        if (visibleToUserId != null) {
+            query.setParameter("userId", visibleToUserId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static <T> TypedQuery<T> bindBoardKey(TypedQuery<T> query, BoardKey after) {
+        if (after != null) {
+            query.setParameter("afterRank", after.rank());
+            query.setParameter("afterId", after.id());
+        }
+        return query;
+    }
+
+    private <T> TypedQuery<T> selectQuery(String jpql, Class<T> type, TaskFilterDto filter, Long visibleToUserId,
+                                          Pageable pageable, int mask, int extraRows) {
+        TypedQuery<T> query = queryTable.bind(entityManager.createQuery(jpql, type), mask, filter, visibleToUserId);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize() + extraRows);
+        }
+        return query;
+    }
+
+    private static <T> Slice<T> toSlice(List<T> content, Pageable pageable) {
+        boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static String projection(List<TaskField> fields) {
+        StringBuilder projection = new StringBuilder();
+        for (TaskField field : fields) {
+            if (projection.length() > 0) {
+                projection.append(", ");
+            }
+            projection.append(field.getJpql());
+        }
+        return projection.toString();
+    }
+
+    private long countExact(TaskFilterDto filter, Long visibleToUserId, int mask) {
+        return queryTable.bind(entityManager.createQuery(queryTable.count(mask), Long.class),
+                mask, filter, visibleToUserId).getSingleResult();
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                        DatabaseMetaData::getDatabaseProductName);
+                result = "PostgreSQL".equalsIgnoreCase(product);
+            } catch (Exception e) {
+                result = false;
+            }
+            postgres = result;
+        }
+        return result;
+    }
+}
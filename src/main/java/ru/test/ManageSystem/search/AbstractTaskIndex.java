@@ -0,0 +1,130 @@
+package ru.test.ManageSystem.search;
+
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Общая часть индексов задач в памяти, которые перестраиваются из базы данных при старте
+ * (см. {@link TaskSearchIndexLoader}) и обновляются событиями после фиксации транзакций.
+ * Чтение выполняется под блокировкой чтения, изменения — под блокировкой записи.
+ * Пока индекс перестраивается, запросы к нему отклоняются, а изменения из событий откладываются
+ * и применяются по порядку после загрузки.
+ */
+abstract class AbstractTaskIndex {
+
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private boolean ready;
+    private long rebuildMillis;
+
+    /**
+     * Очищает индекс перед перестроением.
+     */
+    final void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет в индекс задачи, прочитанные из базы данных при перестроении.
+     *
+     * @param tasks задачи, упорядоченные по возрастанию идентификатора
+     */
+    final void load(List<IndexedTask> tasks) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedTask task : tasks) {
+                loadTask(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Применяет отложенные во время перестроения изменения и открывает индекс для запросов.
+     *
+     * @param elapsedMillis длительность перестроения в миллисекундах
+     */
+    final void finishRebuild(long elapsedMillis) {
+        lock.writeLock().lock();
+        try {
+            afterLoad();
+            pending.forEach(Runnable::run);
+            pending.clear();
+            rebuildMillis = elapsedMillis;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Применяет изменение под блокировкой записи или откладывает его до конца перестроения.
+     *
+     * @param change изменение индекса
+     */
+    protected final void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                change.run();
+            } else {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Проверяет, что индекс готов к запросам. Вызывается под блокировкой чтения.
+     *
+     * @throws ServiceUnavailableException если индекс ещё перестраивается
+     */
+    protected final void checkReady() {
+        if (!ready) {
+            throw new ServiceUnavailableException(getClass().getSimpleName() + " is being rebuilt");
+        }
+    }
+
+    /**
+     * Добавляет в метрики состояние перестроения. Вызывается под блокировкой чтения.
+     *
+     * @param metrics метрики индекса
+     */
+    protected final void putRebuildMetrics(Map<String, Object> metrics) {
+        metrics.put("ready", ready);
+        metrics.put("pendingEvents", pending.size());
+        metrics.put("rebuildMillis", rebuildMillis);
+    }
+
+    /**
+     * Удаляет всё содержимое индекса. Вызывается под блокировкой записи.
+     */
+    protected abstract void clear();
+
+    /**
+     * Добавляет задачу при перестроении. Вызывается под блокировкой записи.
+     *
+     * @param task задача, прочитанная из базы данных
+     */
+    protected abstract void loadTask(IndexedTask task);
+
+    /**
+     * Завершает перестроение после загрузки всех задач, до применения отложенных изменений.
+     * Нужен индексам, которым для связей между задачами нужны обе задачи. Вызывается под блокировкой записи.
+     */
+    protected void afterLoad() {
+    }
+}
@@ -0,0 +1,250 @@
+package ru.test.ManageSystem.search;
+
+import java.util.Arrays;
+
+/**
+ * Иерархическое колесо таймеров для сроков задач. Время разбито на такты длиной {@code tickMillis};
+ * колесо состоит из {@value #LEVELS} уровней по {@value #SLOTS} ячеек, ячейка уровня {@code l} покрывает
+ * {@code 64^l} тактов. Срок кладётся на уровень старшего разряда, которым номер его такта отличается
+ * от текущего, поэтому постановка и отмена выполняются за {@code O(1)}: узел вставляется в двусвязный
+ * список ячейки или вырезается из него.
+ * <p>
+ * Когда текущий такт пересекает границу ячейки уровня {@code l}, узлы этой ячейки перекладываются
+ * на нижние уровни; каждый узел перекладывается не более {@value #LEVELS} раз. Сроки дальше
+ * {@code 64^4} тактов хранятся в отдельном списке и перекладываются при обороте верхнего уровня.
+ * <p>
+ * Узлы хранятся в плотных массивах с общим списком свободных ячеек, идентификатор задачи отображается
+ * в номер узла через {@link IntIntMap}, поэтому миллионы сроков не создают объектов.
+ * Не потокобезопасно.
+ */
+public final class DeadlineWheel {
+
+    static final int LEVELS = 4;
+    static final int SLOTS = 64;
+    private static final int BITS = 6;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int DUE = LEVELS * SLOTS;
+    private static final int OVERFLOW = DUE + 1;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final long tickMillis;
+    private final int[] heads = new int[OVERFLOW + 1];
+    private final IntIntMap nodes = new IntIntMap(INITIAL_CAPACITY);
+
+    private int[] taskIds = new int[INITIAL_CAPACITY];
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] prev = new int[INITIAL_CAPACITY];
+    private int[] lists = new int[INITIAL_CAPACITY];
+    private int allocated;
+    private int free = NONE;
+    private long currentTick;
+    private long cascades;
+    private long[] expired = new long[SLOTS];
+    private int expiredCount;
+
+    /**
+     * @param tickMillis  длина такта в миллисекундах
+     * @param startMillis момент времени, с которого колесо отсчитывает такты
+     */
+    public DeadlineWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Ставит срок задачи, заменяя прежний. Срок округляется вверх до такта, поэтому никогда не наступает раньше
+     * указанного момента; уже прошедший срок наступит при следующем {@link #advance(long)}.
+     *
+     * @param taskId         идентификатор задачи
+     * @param deadlineMillis момент наступления срока в миллисекундах эпохи
+     */
+    public void schedule(long taskId, long deadlineMillis) {
+        int id = Math.toIntExact(taskId);
+        int node = nodes.get(id, NONE);
+        if (node == NONE) {
+            node = allocate(id);
+            nodes.put(id, node);
+        } else {
+            unlink(node);
+        }
+        deadlines[node] = -Math.floorDiv(-deadlineMillis, tickMillis);
+        place(node);
+    }
+
+    /**
+     * Снимает срок задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @return {@code true}, если срок был поставлен
+     */
+    public boolean cancel(long taskId) {
+        int node = nodes.remove(Math.toIntExact(taskId), NONE);
+        if (node == NONE) {
+            return false;
+        }
+        unlink(node);
+        release(node);
+        return true;
+    }
+
+    public boolean contains(long taskId) {
+        return nodes.get(Math.toIntExact(taskId), NONE) != NONE;
+    }
+
+    /**
+     * Продвигает колесо до момента {@code nowMillis} и снимает наступившие сроки.
+     *
+     * @param nowMillis текущий момент в миллисекундах эпохи
+     * @return идентификаторы задач, сроки которых наступили
+     */
+    public long[] advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        expiredCount = 0;
+        drain(DUE);
+        if (nodes.size() == 0) {
+            currentTick = Math.max(currentTick, target);
+        }
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            drain(DUE);
+            drain((int) (currentTick & SLOT_MASK));
+        }
+        long[] result = Arrays.copyOf(expired, expiredCount);
+        if (expired.length > SLOTS * 16) {
+            expired = new long[SLOTS];
+        }
+        return result;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Возвращает число перекладываний узлов с верхних уровней на нижние с момента создания колеса.
+     */
+    public long cascades() {
+        return cascades;
+    }
+
+    /**
+     * Возвращает приблизительный объём памяти массивов колеса в байтах.
+     */
+    public long byteSize() {
+        return (long) taskIds.length * (Integer.BYTES * 4 + Long.BYTES) + nodes.byteSize();
+    }
+
+    /**
+     * Перекладывает ячейки уровней, границу которых пересёк текущий такт, начиная с верхнего уровня:
+     * узел с верхнего уровня может попасть в ячейку нижнего уровня, которую предстоит переложить на этом же такте.
+     * Узлы со сроком в текущем такте попадают в список наступивших сроков.
+     */
+    private void cascade() {
+        if ((currentTick & SLOT_MASK) != 0) {
+            return;
+        }
+        int level = 1;
+        while (level < LEVELS && ((currentTick >>> (BITS * (level + 1))) << (BITS * (level + 1))) == currentTick) {
+            level++;
+        }
+        if (level == LEVELS) {
+            relink(OVERFLOW);
+            level--;
+        }
+        for (; level >= 1; level--) {
+            relink(level * SLOTS + (int) ((currentTick >>> (BITS * level)) & SLOT_MASK));
+        }
+    }
+
+    private void relink(int list) {
+        int node = heads[list];
+        heads[list] = NONE;
+        while (node != NONE) {
+            int following = next[node];
+            place(node);
+            cascades++;
+            node = following;
+        }
+    }
+
+    private void drain(int list) {
+        int node = heads[list];
+        heads[list] = NONE;
+        while (node != NONE) {
+            int following = next[node];
+            if (expiredCount == expired.length) {
+                expired = Arrays.copyOf(expired, expiredCount * 2);
+            }
+            expired[expiredCount++] = taskIds[node];
+            nodes.remove(taskIds[node], NONE);
+            release(node);
+            node = following;
+        }
+    }
+
+    private void place(int node) {
+        long deadline = deadlines[node];
+        int list;
+        if (deadline <= currentTick) {
+            list = DUE;
+        } else {
+            int level = (63 - Long.numberOfLeadingZeros(deadline ^ currentTick)) / BITS;
+            list = level < LEVELS ? level * SLOTS + (int) ((deadline >>> (BITS * level)) & SLOT_MASK) : OVERFLOW;
+        }
+        link(node, list);
+    }
+
+    private void link(int node, int list) {
+        int head = heads[list];
+        next[node] = head;
+        prev[node] = NONE;
+        if (head != NONE) {
+            prev[head] = node;
+        }
+        heads[list] = node;
+        lists[node] = list;
+    }
+
+    private void unlink(int node) {
+        if (prev[node] != NONE) {
+            next[prev[node]] = next[node];
+        } else {
+            heads[lists[node]] = next[node];
+        }
+        if (next[node] != NONE) {
+            prev[next[node]] = prev[node];
+        }
+    }
+
+    private int allocate(int taskId) {
+        int node;
+        if (free != NONE) {
+            node = free;
+            free = next[node];
+        } else {
+            if (allocated == taskIds.length) {
+                int capacity = allocated * 2;
+                taskIds = Arrays.copyOf(taskIds, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+                next = Arrays.copyOf(next, capacity);
+                prev = Arrays.copyOf(prev, capacity);
+                lists = Arrays.copyOf(lists, capacity);
+            }
+            node = allocated++;
+        }
+        taskIds[node] = taskId;
+        return node;
+    }
+
+    private void release(int node) {
+        next[node] = free;
+        free = node;
+    }
+}
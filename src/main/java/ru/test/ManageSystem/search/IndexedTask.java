@@ -0,0 +1,28 @@
+package ru.test.ManageSystem.search;
+
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Задача, подготовленная к загрузке в индексы {@link AbstractTaskIndex} при перестроении.
+ *
+ * @param id           идентификатор задачи
+ * @param title        заголовок задачи
+ * @param createdAt    время создания задачи
+ * @param updatedAt    время последнего изменения задачи
+ * @param status       статус задачи
+ * @param priority     приоритет задачи
+ * @param authorId     идентификатор автора
+ * @param assigneeId   идентификатор исполнителя или {@code null}
+ * @param labelIds     идентификаторы меток задачи
+ * @param blockerIds   идентификаторы задач, блокирующих задачу
+ * @param terms        отсортированные термы заголовка и описания
+ * @param commentTerms отсортированные термы комментариев по идентификатору комментария
+ */
+record IndexedTask(Long id, String title, LocalDateTime createdAt, LocalDateTime updatedAt, TaskStatus status,
+                   TaskPriority priority, Long authorId, Long assigneeId, long[] labelIds, long[] blockerIds,
+                   String[] terms, Map<Long, String[]> commentTerms) {
+}
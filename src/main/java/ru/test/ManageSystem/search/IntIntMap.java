@@ -0,0 +1,151 @@
+package ru.test.ManageSystem.search;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с открытой адресацией из {@code int} в {@code int} без упаковки ключей и значений.
+ * Используется индексами для отображения идентификатора задачи в номер её ячейки в плотных массивах.
+ * Удаление выполняется сдвигом следующих элементов цепочки, поэтому «надгробий» нет.
+ * Не потокобезопасна.
+ */
+final class IntIntMap {
+
+    private static final int FREE = 0;
+
+    private int[] keys;
+    private int[] values;
+    private boolean hasFreeKey;
+    private int freeValue;
+    private int size;
+    private int mask;
+
+    IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Возвращает значение по ключу или {@code missing}, если ключа нет.
+     */
+    int get(int key, int missing) {
+        if (key == FREE) {
+            return hasFreeKey ? freeValue : missing;
+        }
+        for (int i = hash(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == FREE) {
+                return missing;
+            }
+        }
+    }
+
+    void put(int key, int value) {
+        if (key == FREE) {
+            size += hasFreeKey ? 0 : 1;
+            hasFreeKey = true;
+            freeValue = value;
+            return;
+        }
+        for (int i = hash(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == FREE) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Удаляет ключ и возвращает его значение или {@code missing}, если ключа не было.
+     */
+    int remove(int key, int missing) {
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                return missing;
+            }
+            hasFreeKey = false;
+            size--;
+            return freeValue;
+        }
+        for (int i = hash(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == FREE) {
+                return missing;
+            }
+            if (k == key) {
+                int value = values[i];
+                shiftKeys(i);
+                size--;
+                return value;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        hasFreeKey = false;
+        size = 0;
+    }
+
+    long byteSize() {
+        return (long) keys.length * Integer.BYTES * 2;
+    }
+
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            int k;
+            while (true) {
+                k = keys[pos];
+                if (k == FREE) {
+                    keys[last] = FREE;
+                    return;
+                }
+                int slot = hash(k);
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = hasFreeKey ? 1 : 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
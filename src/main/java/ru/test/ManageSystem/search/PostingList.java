@@ -0,0 +1,135 @@
+package ru.test.ManageSystem.search;
+
+import java.util.Arrays;
+
+/**
+ * Упорядоченный по возрастанию список идентификаторов документов, сжатый разностным кодированием
+ * с переменной длиной (varint): первое значение хранится как есть, остальные — как разность с предыдущим,
+ * по 7 бит на байт. Добавление идентификатора больше последнего выполняется дозаписью в конец,
+ * остальные изменения перекодируют список целиком. Класс не потокобезопасен.
+ */
+final class PostingList {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[] data = EMPTY;
+    private int length;
+    private int size;
+    private int last = -1;
+
+    /**
+     * Добавляет идентификатор документа.
+     *
+     * @param id неотрицательный идентификатор документа
+     * @return {@code true}, если идентификатора ещё не было в списке
+     */
+    boolean add(int id) {
+        if (id > last) {
+            append(id);
+            return true;
+        }
+        if (id == last) {
+            return false;
+        }
+        int[] ids = toArray();
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return false;
+        }
+        int insertAt = -position - 1;
+        int[] updated = new int[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        encode(updated, updated.length);
+        return true;
+    }
+
+    /**
+     * Удаляет идентификатор документа.
+     *
+     * @param id идентификатор документа
+     * @return {@code true}, если идентификатор присутствовал в списке
+     */
+    boolean remove(int id) {
+        if (id > last) {
+            return false;
+        }
+        int[] ids = toArray();
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, ids.length - position - 1);
+        encode(ids, ids.length - 1);
+        return true;
+    }
+
+    /**
+     * Распаковывает список в массив.
+     *
+     * @return отсортированный по возрастанию массив идентификаторов
+     */
+    int[] toArray() {
+        int[] ids = new int[size];
+        int offset = 0;
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            int value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = data[offset++];
+                value |= (current & 0x7F) << shift;
+                shift += 7;
+            } while (current < 0);
+            previous += value;
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает количество байт, занятых сжатым представлением.
+     *
+     * @return размер сжатых данных в байтах
+     */
+    int byteSize() {
+        return length;
+    }
+
+    private void append(int id) {
+        int delta = size == 0 ? id : id - last;
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(8, Math.max(length + 5, data.length + (data.length >> 1))));
+        }
+        while ((delta & ~0x7F) != 0) {
+            data[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        last = id;
+        size++;
+    }
+
+    private void encode(int[] ids, int count) {
+        data = EMPTY;
+        length = 0;
+        size = 0;
+        last = -1;
+        for (int i = 0; i < count; i++) {
+            append(ids[i]);
+        }
+        if (data.length > length) {
+            data = Arrays.copyOf(data, length);
+        }
+    }
+}
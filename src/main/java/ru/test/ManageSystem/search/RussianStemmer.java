@@ -0,0 +1,112 @@
+package ru.test.ManageSystem.search;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Стеммер для русского языка по алгоритму Портера (Snowball).
+ * Ожидает слово в нижнем регистре, состоящее только из русских букв, с заменой «ё» на «е».
+ */
+final class RussianStemmer {
+
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final Pattern PERFECTIVE_GERUND = Pattern.compile(
+            "((ив|ивши|ившись|ыв|ывши|ывшись)|((?<=[ая])(в|вши|вшись)))$");
+    private static final Pattern REFLEXIVE = Pattern.compile("(ся|сь)$");
+    private static final Pattern ADJECTIVE = Pattern.compile(
+            "(ее|ие|ые|ое|ими|ыми|ей|ий|ый|ой|ем|им|ым|ом|его|ого|ему|ому|их|ых|ую|юю|ая|яя|ою|ею)$");
+    private static final Pattern PARTICIPLE = Pattern.compile(
+            "((ивш|ывш|ующ)|((?<=[ая])(ем|нн|вш|ющ|щ)))$");
+    private static final Pattern VERB = Pattern.compile(
+            "((ила|ыла|ена|ейте|уйте|ите|или|ыли|ей|уй|ил|ыл|им|ым|ен|ило|ыло|ено|ят|ует|уют|ит|ыт|ены|ить"
+                    + "|ыть|ишь|ую|ю)|((?<=[ая])(ла|на|ете|йте|ли|й|л|ем|н|ло|но|ет|ют|ны|ть|ешь|нно)))$");
+    private static final Pattern NOUN = Pattern.compile(
+            "(а|ев|ов|ие|ье|е|иями|ями|ами|еи|ии|и|ией|ей|ой|ий|й|иям|ям|ием|ем|ам|ом|о|у|ах|иях|ях|ы|ь|ию|ью|ю"
+                    + "|ия|ья|я)$");
+    private static final Pattern DERIVATIONAL = Pattern.compile("(ость|ост)$");
+    private static final Pattern SUPERLATIVE = Pattern.compile("(ейше|ейш)$");
+
+    private RussianStemmer() {
+    }
+
+    /**
+     * Возвращает основу слова.
+     *
+     * @param word слово в нижнем регистре
+     * @return основа слова
+     */
+    static String stem(String word) {
+        int rv = afterFirstVowel(word, 0);
+        if (rv >= word.length()) {
+            return word;
+        }
+        int r2 = afterVowelConsonant(word, afterVowelConsonant(word, 0));
+        String prefix = word.substring(0, rv);
+        String region = word.substring(rv);
+
+        String stripped = strip(PERFECTIVE_GERUND, region);
+        if (stripped != null) {
+            region = stripped;
+        } else {
+            stripped = strip(REFLEXIVE, region);
+            if (stripped != null) {
+                region = stripped;
+            }
+            stripped = strip(ADJECTIVE, region);
+            if (stripped != null) {
+                String participle = strip(PARTICIPLE, stripped);
+                region = participle != null ? participle : stripped;
+            } else if ((stripped = strip(VERB, region)) != null) {
+                region = stripped;
+            } else if ((stripped = strip(NOUN, region)) != null) {
+                region = stripped;
+            }
+        }
+
+        if (region.endsWith("и")) {
+            region = region.substring(0, region.length() - 1);
+        }
+
+        Matcher derivational = DERIVATIONAL.matcher(region);
+        if (derivational.find() && rv + derivational.start() >= r2) {
+            region = region.substring(0, derivational.start());
+        }
+
+        if (region.endsWith("нн")) {
+            region = region.substring(0, region.length() - 1);
+        } else if ((stripped = strip(SUPERLATIVE, region)) != null) {
+            region = stripped.endsWith("нн") ? stripped.substring(0, stripped.length() - 1) : stripped;
+        } else if (region.endsWith("ь")) {
+            region = region.substring(0, region.length() - 1);
+        }
+        return prefix + region;
+    }
+
+    private static String strip(Pattern suffix, String region) {
+        Matcher matcher = suffix.matcher(region);
+        return matcher.find() ? region.substring(0, matcher.start()) : null;
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+
+    private static int afterFirstVowel(String word, int from) {
+        for (int i = from; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static int afterVowelConsonant(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+}
@@ -0,0 +1,308 @@
+package ru.test.ManageSystem.search;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.LabelDeletedEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.event.TaskLabelsEvent;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Индекс задач в памяти для фильтрации булевыми выражениями (см. {@link TaskQueryParser}).
+ * Для каждой метки, статуса, приоритета, исполнителя и автора хранится сжатое множество
+ * идентификаторов задач ({@link CompressedBitmap}), поэтому выражение вычисляется пересечениями,
+ * объединениями и разностями множеств без обращения к таблице связей задач и меток.
+ * Индекс обновляется слушателями {@link TaskEvent}, {@link TaskLabelsEvent} и {@link LabelDeletedEvent}
+ * после фиксации транзакции и перестраивается при старте (см. {@link TaskSearchIndexLoader}).
+ */
+@Component
+public class TaskBitmapIndex extends AbstractTaskIndex implements MetricsSource {
+
+    private static final long[] NO_LABELS = new long[0];
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final Map<Long, CompressedBitmap> labels = new HashMap<>();
+    private final Map<TaskStatus, CompressedBitmap> statuses = new EnumMap<>(TaskStatus.class);
+    private final Map<TaskPriority, CompressedBitmap> priorities = new EnumMap<>(TaskPriority.class);
+    private final Map<Long, CompressedBitmap> assignees = new HashMap<>();
+    private final CompressedBitmap unassigned = new CompressedBitmap();
+    private final Map<Long, CompressedBitmap> authors = new HashMap<>();
+
+    /**
+     * Результат вычисления выражения.
+     *
+     * @param ids   идентификаторы задач запрошенной страницы от новых к старым
+     * @param total общее количество подходящих задач
+     */
+    public record Result(List<Long> ids, long total) {
+    }
+
+    /**
+     * Вычисляет выражение и возвращает страницу идентификаторов подходящих задач.
+     *
+     * @param query           разобранное выражение
+     * @param labelIds        идентификаторы меток по именам, упомянутым в выражении
+     * @param visibleToUserId идентификатор пользователя, задачами которого (автор или исполнитель)
+     *                        ограничен результат, или {@code null}, если ограничения нет
+     * @param offset          количество пропускаемых задач
+     * @param limit           максимальное количество возвращаемых идентификаторов
+     * @return идентификаторы задач страницы и общее количество подходящих задач
+     * @throws ServiceUnavailableException если индекс ещё перестраивается
+     */
+    public Result query(TaskQuery query, Map<String, Long> labelIds, Long visibleToUserId, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            checkReady();
+            CompressedBitmap matched = evaluate(query, labelIds);
+            if (visibleToUserId != null) {
+                matched = CompressedBitmap.and(matched, CompressedBitmap.or(
+                        bitmap(authors, visibleToUserId), bitmap(assignees, visibleToUserId)));
+            }
+            int[] values = matched.toArray();
+            List<Long> ids = new ArrayList<>(Math.min(limit, values.length));
+            for (long i = values.length - 1 - offset; i >= 0 && ids.size() < limit; i--) {
+                ids.add((long) values[(int) i]);
+            }
+            return new Result(ids, values.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Обновляет статус, приоритет, автора и исполнителя задачи после фиксации её изменения.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public void onTaskEvent(TaskEvent event) {
+        int id = Math.toIntExact(event.taskId());
+        if (event.type() == TaskEvent.Type.DELETED) {
+            apply(() -> removeTask(id));
+        } else {
+            TaskDto task = event.after();
+            apply(() -> upsertTask(id, task.getStatus(), task.getPriority(), task.getAuthorId(),
+                    task.getAssigneeId()));
+        }
+    }
+
+    /**
+     * Заменяет набор меток задачи после фиксации изменения.
+     *
+     * @param event событие замены меток задачи
+     */
+    @TransactionalEventListener
+    public void onTaskLabelsEvent(TaskLabelsEvent event) {
+        int id = Math.toIntExact(event.taskId());
+        long[] labelIds = event.labelIds().stream().mapToLong(Long::longValue).toArray();
+        apply(() -> setLabels(id, labelIds));
+    }
+
+    /**
+     * Удаляет метку из индекса после фиксации её удаления.
+     *
+     * @param event событие удаления метки
+     */
+    @TransactionalEventListener
+    public void onLabelDeletedEvent(LabelDeletedEvent event) {
+        apply(() -> removeLabel(event.labelId()));
+    }
+
+    @Override
+    protected void clear() {
+        entries.clear();
+        all.clear();
+        labels.clear();
+        statuses.clear();
+        priorities.clear();
+        assignees.clear();
+        unassigned.clear();
+        authors.clear();
+    }
+
+    @Override
+    protected void loadTask(IndexedTask task) {
+        int id = Math.toIntExact(task.id());
+        upsertTask(id, task.status(), task.priority(), task.authorId(), task.assigneeId());
+        setLabels(id, task.labelIds());
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "taskBitmapIndex";
+    }
+
+    /**
+     * Возвращает размеры индекса и оценку памяти, занимаемой множествами идентификаторов.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        lock.readLock().lock();
+        try {
+            long bytes = all.byteSize() + unassigned.byteSize() + byteSize(labels) + byteSize(statuses)
+                    + byteSize(priorities) + byteSize(assignees) + byteSize(authors);
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            putRebuildMetrics(metrics);
+            metrics.put("tasks", entries.size());
+            metrics.put("labels", labels.size());
+            metrics.put("assignees", assignees.size());
+            metrics.put("authors", authors.size());
+            metrics.put("bitmapBytes", bytes);
+            return metrics;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CompressedBitmap evaluate(TaskQuery query, Map<String, Long> labelIds) {
+        if (query instanceof TaskQuery.Label label) {
+            Long labelId = labelIds.get(label.name());
+            return labelId != null ? bitmap(labels, labelId) : new CompressedBitmap();
+        }
+        if (query instanceof TaskQuery.Status status) {
+            return bitmap(statuses, status.status());
+        }
+        if (query instanceof TaskQuery.Priority priority) {
+            return bitmap(priorities, priority.priority());
+        }
+        if (query instanceof TaskQuery.Assignee assignee) {
+            return assignee.assigneeId() == null ? unassigned : bitmap(assignees, assignee.assigneeId());
+        }
+        if (query instanceof TaskQuery.Author author) {
+            return bitmap(authors, author.authorId());
+        }
+        if (query instanceof TaskQuery.And and) {
+            if (and.right() instanceof TaskQuery.Not not) {
+                return CompressedBitmap.andNot(evaluate(and.left(), labelIds), evaluate(not.operand(), labelIds));
+            }
+            if (and.left() instanceof TaskQuery.Not not) {
+                return CompressedBitmap.andNot(evaluate(and.right(), labelIds), evaluate(not.operand(), labelIds));
+            }
+            return CompressedBitmap.and(evaluate(and.left(), labelIds), evaluate(and.right(), labelIds));
+        }
+        if (query instanceof TaskQuery.Or or) {
+            return CompressedBitmap.or(evaluate(or.left(), labelIds), evaluate(or.right(), labelIds));
+        }
+        TaskQuery.Not not = (TaskQuery.Not) query;
+        return CompressedBitmap.andNot(all, evaluate(not.operand(), labelIds));
+    }
+
+    private void upsertTask(int id, TaskStatus status, TaskPriority priority, Long authorId, Long assigneeId) {
+        Entry previous = entries.get(id);
+        long[] labelIds = NO_LABELS;
+        if (previous != null) {
+            removeAttributes(id, previous);
+            labelIds = previous.labelIds;
+        }
+        Entry entry = new Entry(status, priority, authorId, assigneeId, labelIds);
+        entries.put(id, entry);
+        all.add(id);
+        add(statuses, status, id);
+        add(priorities, priority, id);
+        add(authors, authorId, id);
+        if (assigneeId == null) {
+            unassigned.add(id);
+        } else {
+            add(assignees, assigneeId, id);
+        }
+    }
+
+    private void setLabels(int id, long[] labelIds) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return;
+        }
+        for (long labelId : entry.labelIds) {
+            remove(labels, labelId, id);
+        }
+        long[] sorted = labelIds.clone();
+        Arrays.sort(sorted);
+        for (long labelId : sorted) {
+            add(labels, labelId, id);
+        }
+        entries.put(id, entry.withLabels(sorted));
+    }
+
+    private void removeTask(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        removeAttributes(id, entry);
+        for (long labelId : entry.labelIds) {
+            remove(labels, labelId, id);
+        }
+        all.remove(id);
+    }
+
+    private void removeLabel(long labelId) {
+        CompressedBitmap tasks = labels.remove(labelId);
+        if (tasks == null) {
+            return;
+        }
+        for (int id : tasks.toArray()) {
+            Entry entry = entries.get(id);
+            long[] remaining = Arrays.stream(entry.labelIds).filter(value -> value != labelId).toArray();
+            entries.put(id, entry.withLabels(remaining));
+        }
+    }
+
+    private void removeAttributes(int id, Entry entry) {
+        remove(statuses, entry.status, id);
+        remove(priorities, entry.priority, id);
+        remove(authors, entry.authorId, id);
+        if (entry.assigneeId == null) {
+            unassigned.remove(id);
+        } else {
+            remove(assignees, entry.assigneeId, id);
+        }
+    }
+
+    private static <K> CompressedBitmap bitmap(Map<K, CompressedBitmap> bitmaps, K key) {
+        CompressedBitmap bitmap = bitmaps.get(key);
+        return bitmap != null ? bitmap : new CompressedBitmap();
+    }
+
+    private static <K> void add(Map<K, CompressedBitmap> bitmaps, K key, int id) {
+        bitmaps.computeIfAbsent(key, k -> new CompressedBitmap()).add(id);
+    }
+
+    private static <K> void remove(Map<K, CompressedBitmap> bitmaps, K key, int id) {
+        CompressedBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    private static long byteSize(Map<?, CompressedBitmap> bitmaps) {
+        long bytes = 0;
+        for (CompressedBitmap bitmap : bitmaps.values()) {
+            bytes += bitmap.byteSize();
+        }
+        return bytes;
+    }
+
+    /**
+     * Индексируемые атрибуты задачи, нужные для её удаления из множеств при изменении.
+     */
+    private record Entry(TaskStatus status, TaskPriority priority, Long authorId, Long assigneeId,
+                         long[] labelIds) {
+
+        Entry withLabels(long[] labelIds) {
+            return new Entry(status, priority, authorId, assigneeId, labelIds);
+        }
+    }
+}
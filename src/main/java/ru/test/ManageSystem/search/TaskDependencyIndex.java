@@ -0,0 +1,633 @@
+package ru.test.ManageSystem.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskDependencyEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Граф зависимостей задач в памяти: ребро «блокирующая задача → заблокированная задача».
+ * Задачи хранятся в плотных массивах по номеру ячейки, идентификатор задачи отображается в ячейку
+ * через {@link IntIntMap}, списки смежности — массивы {@code int} без упаковки.
+ * <p>
+ * Для графа поддерживается топологический порядок по алгоритму Пирса — Келли: новое ребро, не нарушающее
+ * порядок, добавляется без обхода, а при нарушении обходятся только задачи между концами ребра в текущем
+ * порядке, и они же переупорядочиваются. Цикл обнаруживается этим же обходом.
+ * <p>
+ * Для каждой задачи хранится число незавершённых блокирующих задач; задачи, у которых оно равно нулю
+ * и которые сами не завершены, образуют множество готовых к работе задач, разбитое по исполнителям.
+ * Множество обновляется при смене статуса задачи из {@link TaskEvent}, без пересчёта графа.
+ */
+@Slf4j
+@Component
+public class TaskDependencyIndex extends AbstractTaskIndex implements MetricsSource {
+
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int[] NO_EDGES = new int[0];
+
+    private final IntIntMap slots = new IntIntMap(INITIAL_CAPACITY);
+    private int[] taskIds = new int[INITIAL_CAPACITY];
+    private boolean[] completed = new boolean[INITIAL_CAPACITY];
+    private long[] assignees = new long[INITIAL_CAPACITY];
+    private int[] pendingBlockers = new int[INITIAL_CAPACITY];
+    private int[][] blockers = new int[INITIAL_CAPACITY][];
+    private int[] blockerCounts = new int[INITIAL_CAPACITY];
+    private int[][] blocked = new int[INITIAL_CAPACITY][];
+    private int[] blockedCounts = new int[INITIAL_CAPACITY];
+    private int[] marks = new int[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    private int[] position = new int[INITIAL_CAPACITY];
+    private int[] slotAt = new int[INITIAL_CAPACITY];
+    private int nextPosition;
+
+    private final CompressedBitmap ready = new CompressedBitmap();
+    private final Map<Long, CompressedBitmap> readyByAssignee = new HashMap<>();
+    private final List<long[]> loadedEdges = new ArrayList<>();
+    private int epoch;
+    private long edges;
+    private long reorders;
+
+    /**
+     * Добавляет зависимость: задача {@code blockerId} блокирует задачу {@code taskId}.
+     * Повторное добавление существующей зависимости ничего не меняет.
+     *
+     * @param taskId    идентификатор заблокированной задачи
+     * @param blockerId идентификатор блокирующей задачи
+     * @return {@code true}, если зависимость добавлена, {@code false}, если она уже была
+     * @throws IllegalArgumentException    если зависимость создаёт цикл
+     * @throws ResourceNotFoundException   если одной из задач нет в индексе
+     * @throws ServiceUnavailableException если индекс ещё перестраивается
+     */
+    public boolean addDependency(Long taskId, Long blockerId) {
+        lock.writeLock().lock();
+        try {
+            checkReady();
+            int task = slot(taskId);
+            int blocker = slot(blockerId);
+            if (contains(blocked[blocker], blockedCounts[blocker], task)) {
+                return false;
+            }
+            link(blocker, task, true);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает задачи исполнителя, которые можно начать: незавершённые задачи, все блокирующие задачи
+     * которых завершены.
+     *
+     * @param assigneeId идентификатор исполнителя
+     * @param limit      максимальное количество идентификаторов
+     * @return идентификаторы задач от новых к старым
+     * @throws ServiceUnavailableException если индекс ещё перестраивается
+     */
+    public List<Long> readyFor(Long assigneeId, int limit) {
+        lock.readLock().lock();
+        try {
+            checkReady();
+            CompressedBitmap tasks = readyByAssignee.get(assigneeId);
+            if (tasks == null) {
+                return List.of();
+            }
+            int[] values = tasks.toArray();
+            List<Long> ids = new ArrayList<>(Math.min(limit, values.length));
+            for (int i = values.length - 1; i >= 0 && ids.size() < limit; i--) {
+                ids.add((long) values[i]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает критический путь задачи: самую длинную цепочку незавершённых блокирующих задач,
+     * которая заканчивается этой задачей. Обходятся только незавершённые предшественники задачи,
+     * длины цепочек считаются в топологическом порядке.
+     *
+     * @param taskId идентификатор задачи
+     * @return идентификаторы задач цепочки от первой к самой задаче
+     * @throws ResourceNotFoundException   если задачи нет в индексе
+     * @throws ServiceUnavailableException если индекс ещё перестраивается
+     */
+    public List<Long> criticalPath(Long taskId) {
+        lock.readLock().lock();
+        try {
+            checkReady();
+            int target = slot(taskId);
+            IntIntMap local = new IntIntMap(16);
+            int[] stack = new int[16];
+            int[] found = new int[16];
+            int size = 0;
+            int top = 0;
+            local.put(target, 0);
+            found[size++] = target;
+            stack[top++] = target;
+            while (top > 0) {
+                int node = stack[--top];
+                int[] list = blockers[node];
+                for (int i = 0; i < blockerCounts[node]; i++) {
+                    int blocker = list[i];
+                    if (completed[blocker] || local.get(blocker, NONE) != NONE) {
+                        continue;
+                    }
+                    local.put(blocker, size);
+                    found = grow(found, size);
+                    found[size++] = blocker;
+                    stack = grow(stack, top);
+                    stack[top++] = blocker;
+                }
+            }
+
+            long[] ordered = new long[size];
+            for (int i = 0; i < size; i++) {
+                ordered[i] = (long) position[found[i]] << 32 | i;
+            }
+            Arrays.sort(ordered);
+            int[] length = new int[size];
+            int[] previous = new int[size];
+            for (long entry : ordered) {
+                int index = (int) entry;
+                int node = found[index];
+                length[index] = 1;
+                previous[index] = NONE;
+                int[] list = blockers[node];
+                for (int i = 0; i < blockerCounts[node]; i++) {
+                    int blocker = local.get(list[i], NONE);
+                    if (blocker != NONE && length[blocker] + 1 > length[index]) {
+                        length[index] = length[blocker] + 1;
+                        previous[index] = blocker;
+                    }
+                }
+            }
+
+            Long[] path = new Long[length[0]];
+            for (int index = 0, i = path.length - 1; index != NONE; index = previous[index], i--) {
+                path[i] = (long) taskIds[found[index]];
+            }
+            return List.of(path);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет, обновляет или удаляет задачу после фиксации её изменения.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public void onTaskEvent(TaskEvent event) {
+        int id = Math.toIntExact(event.taskId());
+        if (event.type() == TaskEvent.Type.DELETED) {
+            apply(() -> removeTask(id));
+        } else {
+            TaskDto task = event.after();
+            boolean done = task.getStatus() == TaskStatus.COMPLETED;
+            long assignee = task.getAssigneeId() != null ? task.getAssigneeId() : 0;
+            apply(() -> upsertTask(id, done, assignee));
+        }
+    }
+
+    /**
+     * Удаляет зависимость из индекса после фиксации её удаления. Добавленная зависимость уже есть в индексе;
+     * её повторно добавляют, только если индекс успел перестроиться до фиксации и не увидел её.
+     *
+     * @param event событие изменения зависимости
+     */
+    @TransactionalEventListener
+    public void onDependencyCommitted(TaskDependencyEvent event) {
+        if (event.type() == TaskDependencyEvent.Type.REMOVED) {
+            apply(() -> unlink(event.taskId(), event.blockerId()));
+        } else {
+            apply(() -> relink(event.taskId(), event.blockerId()));
+        }
+    }
+
+    /**
+     * Убирает из индекса зависимость, добавленную в откаченной транзакции.
+     *
+     * @param event событие изменения зависимости
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onDependencyRolledBack(TaskDependencyEvent event) {
+        if (event.type() == TaskDependencyEvent.Type.ADDED) {
+            apply(() -> unlink(event.taskId(), event.blockerId()));
+        }
+    }
+
+    @Override
+    protected void clear() {
+        slots.clear();
+        Arrays.fill(blockers, 0, slotCount, null);
+        Arrays.fill(blocked, 0, slotCount, null);
+        freeCount = 0;
+        slotCount = 0;
+        nextPosition = 0;
+        ready.clear();
+        readyByAssignee.clear();
+        loadedEdges.clear();
+        edges = 0;
+        reorders = 0;
+    }
+
+    @Override
+    protected void loadTask(IndexedTask task) {
+        int id = Math.toIntExact(task.id());
+        addTask(id, task.status() == TaskStatus.COMPLETED, task.assigneeId() != null ? task.assigneeId() : 0);
+        for (long blockerId : task.blockerIds()) {
+            loadedEdges.add(new long[]{blockerId, id});
+        }
+    }
+
+    /**
+     * Добавляет загруженные зависимости и вычисляет топологический порядок один раз для всего графа
+     * (алгоритм Кана), вместо проверки каждого ребра.
+     */
+    @Override
+    protected void afterLoad() {
+        for (long[] edge : loadedEdges) {
+            int blocker = slots.get(Math.toIntExact(edge[0]), NONE);
+            int task = slots.get(Math.toIntExact(edge[1]), NONE);
+            if (blocker != NONE && task != NONE && blocker != task
+                    && !contains(blocked[blocker], blockedCounts[blocker], task)) {
+                link(blocker, task, false);
+            }
+        }
+        loadedEdges.clear();
+
+        int[] indegree = Arrays.copyOf(blockerCounts, slotCount);
+        int[] queue = new int[slotCount];
+        int head = 0;
+        int tail = 0;
+        for (int position = 0; position < nextPosition; position++) {
+            int slot = slotAt[position];
+            if (slot != NONE && indegree[slot] == 0) {
+                queue[tail++] = slot;
+            }
+        }
+        nextPosition = 0;
+        while (head < tail) {
+            int slot = queue[head++];
+            place(slot);
+            for (int i = 0; i < blockedCounts[slot]; i++) {
+                int next = blocked[slot][i];
+                if (--indegree[next] == 0) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+        if (tail < slots.size()) {
+            log.warn("Task dependencies contain a cycle; {} tasks are ordered arbitrarily", slots.size() - tail);
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (taskIds[slot] != NONE && indegree[slot] > 0) {
+                    place(slot);
+                }
+            }
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (taskIds[slot] != NONE) {
+                refreshReady(slot);
+            }
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "taskDependencyIndex";
+    }
+
+    /**
+     * Возвращает размеры графа, количество готовых задач и число рёбер, потребовавших переупорядочивания.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            putRebuildMetrics(metrics);
+            metrics.put("tasks", slots.size());
+            metrics.put("edges", edges);
+            metrics.put("readyTasks", ready.cardinality());
+            metrics.put("reorders", reorders);
+            return metrics;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int slot(Long taskId) {
+        int slot = slots.get(Math.toIntExact(taskId), NONE);
+        if (slot == NONE) {
+            throw new ResourceNotFoundException("Task not found");
+        }
+        return slot;
+    }
+
+    private void upsertTask(int id, boolean done, long assignee) {
+        int slot = slots.get(id, NONE);
+        if (slot == NONE) {
+            addTask(id, done, assignee);
+            return;
+        }
+        if (assignees[slot] != assignee) {
+            setReady(slot, false);
+            assignees[slot] = assignee;
+        }
+        if (completed[slot] != done) {
+            completed[slot] = done;
+            int delta = done ? -1 : 1;
+            for (int i = 0; i < blockedCounts[slot]; i++) {
+                int next = blocked[slot][i];
+                pendingBlockers[next] += delta;
+                refreshReady(next);
+            }
+        }
+        refreshReady(slot);
+    }
+
+    private void addTask(int id, boolean done, long assignee) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        ensureSlotCapacity(slotCount);
+        taskIds[slot] = id;
+        completed[slot] = done;
+        assignees[slot] = assignee;
+        pendingBlockers[slot] = 0;
+        blockers[slot] = NO_EDGES;
+        blockerCounts[slot] = 0;
+        blocked[slot] = NO_EDGES;
+        blockedCounts[slot] = 0;
+        slots.put(id, slot);
+        place(slot);
+        refreshReady(slot);
+    }
+
+    private void removeTask(int id) {
+        int slot = slots.remove(id, NONE);
+        if (slot == NONE) {
+            return;
+        }
+        for (int i = 0; i < blockedCounts[slot]; i++) {
+            int next = blocked[slot][i];
+            blockerCounts[next] = removeValue(blockers[next], blockerCounts[next], slot);
+            if (!completed[slot]) {
+                pendingBlockers[next]--;
+                refreshReady(next);
+            }
+            edges--;
+        }
+        for (int i = 0; i < blockerCounts[slot]; i++) {
+            int previous = blockers[slot][i];
+            blockedCounts[previous] = removeValue(blocked[previous], blockedCounts[previous], slot);
+            edges--;
+        }
+        setReady(slot, false);
+        slotAt[position[slot]] = NONE;
+        taskIds[slot] = NONE;
+        blockers[slot] = null;
+        blocked[slot] = null;
+        freeSlots = grow(freeSlots, freeCount);
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void link(int blocker, int task, boolean keepOrder) {
+        if (keepOrder && position[blocker] > position[task]) {
+            reorder(blocker, task);
+        } else if (blocker == task) {
+            throw new IllegalArgumentException("Dependency would create a cycle");
+        }
+        blocked[blocker] = grow(blocked[blocker], blockedCounts[blocker]);
+        blocked[blocker][blockedCounts[blocker]++] = task;
+        blockers[task] = grow(blockers[task], blockerCounts[task]);
+        blockers[task][blockerCounts[task]++] = blocker;
+        edges++;
+        if (!completed[blocker]) {
+            pendingBlockers[task]++;
+            refreshReady(task);
+        }
+    }
+
+    private void relink(Long taskId, Long blockerId) {
+        int task = slots.get(Math.toIntExact(taskId), NONE);
+        int blocker = slots.get(Math.toIntExact(blockerId), NONE);
+        if (task == NONE || blocker == NONE || contains(blocked[blocker], blockedCounts[blocker], task)) {
+            return;
+        }
+        try {
+            link(blocker, task, true);
+        } catch (IllegalArgumentException e) {
+            log.warn("Committed dependency {} -> {} creates a cycle and is skipped", blockerId, taskId);
+        }
+    }
+
+    private void unlink(Long taskId, Long blockerId) {
+        int task = slots.get(Math.toIntExact(taskId), NONE);
+        int blocker = slots.get(Math.toIntExact(blockerId), NONE);
+        if (task == NONE || blocker == NONE || !contains(blocked[blocker], blockedCounts[blocker], task)) {
+            return;
+        }
+        blockedCounts[blocker] = removeValue(blocked[blocker], blockedCounts[blocker], task);
+        blockerCounts[task] = removeValue(blockers[task], blockerCounts[task], blocker);
+        edges--;
+        if (!completed[blocker]) {
+            pendingBlockers[task]--;
+            refreshReady(task);
+        }
+    }
+
+    /**
+     * Восстанавливает топологический порядок перед добавлением ребра {@code blocker → task}, если блокирующая
+     * задача стоит в порядке позже заблокированной. Обходит вперёд от {@code task} и назад от {@code blocker}
+     * только задачи, стоящие между ними, и раздаёт найденным задачам их же позиции: сначала предшественникам
+     * {@code blocker}, затем потомкам {@code task}.
+     *
+     * @throws IllegalArgumentException если {@code blocker} достижим из {@code task}
+     */
+    private void reorder(int blocker, int task) {
+        int lower = position[task];
+        int upper = position[blocker];
+        int[] forward = visit(task, blocked, blockedCounts, lower, upper, blocker);
+        int[] backward = visit(blocker, blockers, blockerCounts, lower, upper, NONE);
+        sortByPosition(forward);
+        sortByPosition(backward);
+
+        int[] positions = new int[forward.length + backward.length];
+        int count = 0;
+        for (int slot : backward) {
+            positions[count++] = position[slot];
+        }
+        for (int slot : forward) {
+            positions[count++] = position[slot];
+        }
+        Arrays.sort(positions);
+        count = 0;
+        for (int slot : backward) {
+            position[slot] = positions[count];
+            slotAt[positions[count++]] = slot;
+        }
+        for (int slot : forward) {
+            position[slot] = positions[count];
+            slotAt[positions[count++]] = slot;
+        }
+        reorders++;
+    }
+
+    /**
+     * Обходит в глубину задачи, достижимые из {@code start} по спискам {@code adjacency}, с позициями
+     * в отрезке {@code [lower, upper]}.
+     *
+     * @param cycle задача, достижение которой означает цикл, или {@link #NONE}
+     * @return найденные задачи, включая {@code start}
+     */
+    private int[] visit(int start, int[][] adjacency, int[] counts, int lower, int upper, int cycle) {
+        int mark = nextEpoch();
+        int[] found = new int[8];
+        int[] stack = new int[8];
+        int size = 0;
+        int top = 0;
+        marks[start] = mark;
+        found[size++] = start;
+        stack[top++] = start;
+        while (top > 0) {
+            int node = stack[--top];
+            for (int i = 0; i < counts[node]; i++) {
+                int next = adjacency[node][i];
+                if (next == cycle) {
+                    throw new IllegalArgumentException("Dependency would create a cycle");
+                }
+                if (marks[next] == mark || position[next] < lower || position[next] > upper) {
+                    continue;
+                }
+                marks[next] = mark;
+                found = grow(found, size);
+                found[size++] = next;
+                stack = grow(stack, top);
+                stack[top++] = next;
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    private void sortByPosition(int[] nodes) {
+        long[] keys = new long[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            keys[i] = (long) position[nodes[i]] << 32 | nodes[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = (int) keys[i];
+        }
+    }
+
+    private int nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    /**
+     * Ставит задачу в конец топологического порядка. Если массив позиций заполнен, а заметная часть
+     * позиций освобождена удалёнными задачами, позиции сначала уплотняются с сохранением порядка.
+     */
+    private void place(int slot) {
+        if (nextPosition == slotAt.length) {
+            int live = 0;
+            for (int i = 0; i < nextPosition; i++) {
+                if (slotAt[i] != NONE) {
+                    position[slotAt[i]] = live;
+                    slotAt[live++] = slotAt[i];
+                }
+            }
+            nextPosition = live;
+            if (live * 2 > slotAt.length) {
+                slotAt = Arrays.copyOf(slotAt, slotAt.length * 2);
+            }
+        }
+        position[slot] = nextPosition;
+        slotAt[nextPosition++] = slot;
+    }
+
+    private void refreshReady(int slot) {
+        setReady(slot, !completed[slot] && pendingBlockers[slot] == 0);
+    }
+
+    private void setReady(int slot, boolean value) {
+        int id = taskIds[slot];
+        long assignee = assignees[slot];
+        if (value) {
+            if (ready.add(id) && assignee != 0) {
+                readyByAssignee.computeIfAbsent(assignee, key -> new CompressedBitmap()).add(id);
+            }
+        } else if (ready.remove(id) && assignee != 0) {
+            CompressedBitmap tasks = readyByAssignee.get(assignee);
+            if (tasks != null && tasks.remove(id) && tasks.isEmpty()) {
+                readyByAssignee.remove(assignee);
+            }
+        }
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity <= taskIds.length) {
+            return;
+        }
+        int length = taskIds.length * 2;
+        taskIds = Arrays.copyOf(taskIds, length);
+        completed = Arrays.copyOf(completed, length);
+        assignees = Arrays.copyOf(assignees, length);
+        pendingBlockers = Arrays.copyOf(pendingBlockers, length);
+        blockers = Arrays.copyOf(blockers, length);
+        blockerCounts = Arrays.copyOf(blockerCounts, length);
+        blocked = Arrays.copyOf(blocked, length);
+        blockedCounts = Arrays.copyOf(blockedCounts, length);
+        marks = Arrays.copyOf(marks, length);
+        position = Arrays.copyOf(position, length);
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет значение, переставляя на его место последний элемент, и возвращает новый размер.
+     */
+    private static int removeValue(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                values[i] = values[size - 1];
+                return size - 1;
+            }
+        }
+        return size;
+    }
+
+    private static int[] grow(int[] values, int size) {
+        return size < values.length ? values : Arrays.copyOf(values, Math.max(4, values.length * 2));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.test.ManageSystem.search;
+
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.util.Set;
+
+/**
+ * Разобранное булево выражение фильтра задач (см. {@link TaskQueryParser}).
+ * Выражение вычисляется индексом {@link TaskBitmapIndex} операциями над битовыми картами.
+ */
+public sealed interface TaskQuery {
+
+    /**
+     * Собирает имена меток, упомянутых в выражении.
+     *
+     * @param names множество, в которое добавляются имена
+     */
+    void collectLabels(Set<String> names);
+
+    /**
+     * Задачи с меткой.
+     *
+     * @param name имя метки в нижнем регистре
+     */
+    record Label(String name) implements TaskQuery {
+        @Override
+        public void collectLabels(Set<String> names) {
+            names.add(name);
+        }
+    }
+
+    /**
+     * Задачи в статусе.
+     *
+     * @param status статус задачи
+     */
+    record Status(TaskStatus status) implements TaskQuery {
+        @Override
+        public void collectLabels(Set<String> names) {
+        }
+    }
+
+    /**
+     * Задачи с приоритетом.
+     *
+     * @param priority приоритет задачи
+     */
+    record Priority(TaskPriority priority) implements TaskQuery {
+        @Override
+        public void collectLabels(Set<String> names) {
+        }
+    }
+
+    /**
+     * Задачи исполнителя.
+     *
+     * @param assigneeId идентификатор исполнителя или {@code null} для задач без исполнителя
+     */
+    record Assignee(Long assigneeId) implements TaskQuery {
+        @Override
+        public void collectLabels(Set<String> names) {
+        }
+    }
+
+    /**
+     * Задачи автора.
+     *
+     * @param authorId идентификатор автора
+     */
+    record Author(Long authorId) implements TaskQuery {
+        @Override
+        public void collectLabels(Set<String> names) {
+        }
+    }
+
+    record And(TaskQuery left, TaskQuery right) implements TaskQuery {
+        @Override
+        public void collectLabels(Set<String> names) {
+            left.collectLabels(names);
+            right.collectLabels(names);
+        }
+    }
+
+    record Or(TaskQuery left, TaskQuery right) implements TaskQuery {
+        @Override
+        public void collectLabels(Set<String> names) {
+            left.collectLabels(names);
+            right.collectLabels(names);
+        }
+    }
+
+    record Not(TaskQuery operand) implements TaskQuery {
+        @Override
+        public void collectLabels(Set<String> names) {
+            operand.collectLabels(names);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.test.ManageSystem.search;
+
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Разбирает булево выражение фильтра задач, например {@code backend AND urgent AND NOT blocked}.
+ * <p>
+ * Операторы {@code OR}, {@code AND} и {@code NOT} перечислены по возрастанию приоритета и не зависят
+ * от регистра; соседние условия без оператора объединяются через {@code AND}, порядок вычисления
+ * меняется скобками. Условия:
+ * <ul>
+ *     <li>{@code имя} или {@code label:имя} — задачи с меткой;</li>
+ *     <li>{@code status:IN_PROGRESS} — задачи в статусе;</li>
+ *     <li>{@code priority:HIGH} — задачи с приоритетом;</li>
+ *     <li>{@code assignee:42} или {@code assignee:none} — задачи исполнителя или задачи без исполнителя;</li>
+ *     <li>{@code author:42} — задачи автора.</li>
+ * </ul>
+ */
+public final class TaskQueryParser {
+
+    /**
+     * Максимальное количество лексем в выражении.
+     */
+    public static final int MAX_TOKENS = 100;
+
+    private static final Pattern TOKEN = Pattern.compile("\\(|\\)|[^\\s()]+");
+
+    private final List<String> tokens;
+    private int position;
+
+    private TaskQueryParser(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Разбирает выражение.
+     *
+     * @param expression текст выражения
+     * @return дерево выражения
+     * @throws IllegalArgumentException если выражение пусто, слишком длинно или содержит ошибку
+     */
+    public static TaskQuery parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Query expression must not be blank");
+        }
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(expression);
+        while (matcher.find()) {
+            if (tokens.size() == MAX_TOKENS) {
+                throw new IllegalArgumentException("Query expression must contain at most " + MAX_TOKENS + " tokens");
+            }
+            tokens.add(matcher.group());
+        }
+        TaskQueryParser parser = new TaskQueryParser(tokens);
+        TaskQuery query = parser.parseOr();
+        if (parser.position < tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + tokens.get(parser.position) + "' in query expression");
+        }
+        return query;
+    }
+
+    private TaskQuery parseOr() {
+        TaskQuery query = parseAnd();
+        while (accept("OR")) {
+            query = new TaskQuery.Or(query, parseAnd());
+        }
+        return query;
+    }
+
+    private TaskQuery parseAnd() {
+        TaskQuery query = parseNot();
+        while (true) {
+            if (accept("AND")) {
+                query = new TaskQuery.And(query, parseNot());
+            } else if (position < tokens.size() && !peek(")") && !peek("OR")) {
+                query = new TaskQuery.And(query, parseNot());
+            } else {
+                return query;
+            }
+        }
+    }
+
+    private TaskQuery parseNot() {
+        if (accept("NOT")) {
+            return new TaskQuery.Not(parseNot());
+        }
+        if (accept("(")) {
+            TaskQuery query = parseOr();
+            if (!accept(")")) {
+                throw new IllegalArgumentException("Missing ')' in query expression");
+            }
+            return query;
+        }
+        if (position == tokens.size()) {
+            throw new IllegalArgumentException("Unexpected end of query expression");
+        }
+        String token = tokens.get(position);
+        if (token.equals(")") || isKeyword(token)) {
+            throw new IllegalArgumentException("Unexpected '" + token + "' in query expression");
+        }
+        position++;
+        return term(token);
+    }
+
+    private static TaskQuery term(String token) {
+        int colon = token.indexOf(':');
+        if (colon < 0) {
+            return label(token);
+        }
+        String key = token.substring(0, colon).toLowerCase(Locale.ROOT);
+        String value = token.substring(colon + 1);
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing value for '" + key + "' in query expression");
+        }
+        return switch (key) {
+            case "label" -> label(value);
+            case "status" -> new TaskQuery.Status(constant(TaskStatus.class, value));
+            case "priority" -> new TaskQuery.Priority(constant(TaskPriority.class, value));
+            case "assignee" -> new TaskQuery.Assignee(
+                    value.equalsIgnoreCase("none") ? null : userId(key, value));
+            case "author" -> new TaskQuery.Author(userId(key, value));
+            default -> throw new IllegalArgumentException("Unknown query field: " + key);
+        };
+    }
+
+    private static TaskQuery label(String name) {
+        return new TaskQuery.Label(name.toLowerCase(Locale.ROOT));
+    }
+
+    private static <E extends Enum<E>> E constant(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + ": " + value);
+        }
+    }
+
+    private static Long userId(String key, String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid user id for '" + key + "': " + value);
+        }
+    }
+
+    private boolean accept(String token) {
+        if (peek(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean peek(String token) {
+        return position < tokens.size() && tokens.get(position).equalsIgnoreCase(token);
+    }
+
+    private static boolean isKeyword(String token) {
+        return token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR") || token.equalsIgnoreCase("NOT");
+    }
+}
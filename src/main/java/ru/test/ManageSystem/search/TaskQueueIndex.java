@@ -0,0 +1,168 @@
+package ru.test.ManageSystem.search;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Очереди ожидающих задач по исполнителям: задачи в статусе {@link TaskStatus#PENDING}, упорядоченные
+ * по приоритету (сначала {@link TaskPriority#HIGH}), затем по времени создания (сначала старые), затем
+ * по идентификатору. Каждая очередь — сбалансированное дерево, поэтому следующая задача исполнителя находится,
+ * добавляется и удаляется за {@code O(log n)}.
+ * <p>
+ * Очереди обновляются событиями {@link TaskEvent} после фиксации транзакций этого узла. Изменения, сделанные
+ * другими узлами, очередь видит только после перестроения, поэтому взятие задачи в работу проверяется
+ * условным обновлением в базе данных, а задача, которую взять не удалось, убирается из очереди
+ * методом {@link #discard(Long)}.
+ */
+@Component
+public class TaskQueueIndex extends AbstractTaskIndex implements MetricsSource {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::priority)
+            .thenComparing(Entry::createdAt)
+            .thenComparingLong(Entry::id);
+
+    private final Map<Long, NavigableSet<Entry>> queues = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long discarded;
+
+    /**
+     * Возвращает первые задачи очереди исполнителя.
+     *
+     * @param assigneeId идентификатор исполнителя
+     * @param limit      максимальное количество идентификаторов
+     * @return идентификаторы задач в порядке очереди
+     * @throws ServiceUnavailableException если индекс ещё перестраивается
+     */
+    public List<Long> peek(Long assigneeId, int limit) {
+        lock.readLock().lock();
+        try {
+            checkReady();
+            NavigableSet<Entry> queue = queues.get(assigneeId);
+            if (queue == null) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(Math.min(limit, queue.size()));
+            for (Entry entry : queue) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(entry.id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Убирает из очереди задачу, которая по данным базы данных уже не ожидает исполнителя
+     * (её взял в работу или изменил другой узел). Следующее событие по задаче вернёт её в очередь,
+     * если она снова станет ожидающей.
+     *
+     * @param taskId идентификатор задачи
+     */
+    public void discard(Long taskId) {
+        apply(() -> {
+            if (remove(taskId)) {
+                discarded++;
+            }
+        });
+    }
+
+    /**
+     * Добавляет, перемещает или удаляет задачу после фиксации её изменения.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public void onTaskEvent(TaskEvent event) {
+        Long id = event.taskId();
+        if (event.type() == TaskEvent.Type.DELETED) {
+            apply(() -> remove(id));
+        } else {
+            TaskDto task = event.after();
+            apply(() -> {
+                remove(id);
+                add(id, task.getStatus(), task.getPriority(), task.getCreatedAt(), task.getAssigneeId());
+            });
+        }
+    }
+
+    @Override
+    protected void clear() {
+        queues.clear();
+        entries.clear();
+        discarded = 0;
+    }
+
+    @Override
+    protected void loadTask(IndexedTask task) {
+        add(task.id(), task.status(), task.priority(), task.createdAt(), task.assigneeId());
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "taskQueueIndex";
+    }
+
+    /**
+     * Возвращает количество ожидающих задач, исполнителей с непустой очередью и задач, убранных из очереди
+     * после неудачного взятия в работу.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            putRebuildMetrics(metrics);
+            metrics.put("tasks", entries.size());
+            metrics.put("assignees", queues.size());
+            metrics.put("discarded", discarded);
+            return metrics;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long id, TaskStatus status, TaskPriority priority, LocalDateTime createdAt, Long assigneeId) {
+        if (status != TaskStatus.PENDING || assigneeId == null) {
+            return;
+        }
+        Entry entry = new Entry(priority.ordinal(), createdAt != null ? createdAt : LocalDateTime.MIN, id,
+                assigneeId);
+        entries.put(id, entry);
+        queues.computeIfAbsent(assigneeId, key -> new TreeSet<>(ORDER)).add(entry);
+    }
+
+    private boolean remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        NavigableSet<Entry> queue = queues.get(entry.assigneeId());
+        queue.remove(entry);
+        if (queue.isEmpty()) {
+            queues.remove(entry.assigneeId());
+        }
+        return true;
+    }
+
+    private record Entry(int priority, LocalDateTime createdAt, long id, long assigneeId) {
+    }
+}
@@ -0,0 +1,272 @@
+package ru.test.ManageSystem.search;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.event.CommentEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Инвертированный индекс задач в памяти по заголовку, описанию и комментариям.
+ * Каждому терму (см. {@link TextAnalyzer}) соответствует сжатый {@link PostingList} идентификаторов задач,
+ * для каждой задачи хранятся её термы, автор и исполнитель, чтобы обновлять индекс инкрементально
+ * и проверять видимость результатов без обращения к базе данных.
+ * Индекс обновляется слушателями событий {@link TaskEvent} и {@link CommentEvent} после фиксации транзакции
+ * и перестраивается из базы данных при старте (см. {@link TaskSearchIndexLoader}).
+ */
+@Component
+public class TaskSearchIndex extends AbstractTaskIndex implements MetricsSource {
+
+    private static final String[] NO_TERMS = new String[0];
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+
+    /**
+     * Ищет задачи, содержащие все термы запроса в заголовке, описании или комментариях.
+     * Результаты упорядочены от новых задач к старым.
+     *
+     * @param query           текст запроса
+     * @param visibleToUserId идентификатор пользователя, задачами которого (автор или исполнитель)
+     *                        ограничен результат, или {@code null}, если ограничения нет
+     * @param limit           максимальное количество результатов
+     * @return идентификаторы найденных задач
+     * @throws ServiceUnavailableException если индекс ещё перестраивается
+     */
+    public List<Long> search(String query, Long visibleToUserId, int limit) {
+        Set<String> terms = TextAnalyzer.terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            checkReady();
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            int[] matches = lists.get(0).toArray();
+            int count = matches.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = intersect(matches, count, lists.get(i).toArray());
+            }
+
+            List<Long> result = new ArrayList<>(Math.min(count, limit));
+            for (int i = count - 1; i >= 0 && result.size() < limit; i--) {
+                Document document = documents.get(matches[i]);
+                if (document != null && document.isVisibleTo(visibleToUserId)) {
+                    result.add((long) matches[i]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Обновляет индекс после фиксации изменения задачи.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public void onTaskEvent(TaskEvent event) {
+        if (event.type() == TaskEvent.Type.DELETED) {
+            apply(() -> removeTask(docId(event.taskId())));
+        } else {
+            TaskDto task = event.after();
+            String[] terms = TextAnalyzer.sortedTerms(task.getTitle(), task.getDescription());
+            apply(() -> upsertTask(docId(task.getId()), task.getAuthorId(), task.getAssigneeId(), terms));
+        }
+    }
+
+    /**
+     * Обновляет индекс после фиксации изменения комментария.
+     *
+     * @param event событие изменения комментария
+     */
+    @TransactionalEventListener
+    public void onCommentEvent(CommentEvent event) {
+        int taskId = docId(event.taskId());
+        if (event.type() == CommentEvent.Type.DELETED) {
+            apply(() -> removeComment(taskId, event.commentId()));
+        } else {
+            String[] terms = TextAnalyzer.sortedTerms(event.content());
+            apply(() -> upsertComment(taskId, event.commentId(), terms));
+        }
+    }
+
+    @Override
+    protected void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    @Override
+    protected void loadTask(IndexedTask task) {
+        int id = docId(task.id());
+        upsertTask(id, task.authorId(), task.assigneeId(), task.terms());
+        task.commentTerms().forEach((commentId, terms) -> upsertComment(id, commentId, terms));
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "taskSearchIndex";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        lock.readLock().lock();
+        try {
+            long entries = 0;
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                entries += list.size();
+                bytes += list.byteSize();
+            }
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            putRebuildMetrics(metrics);
+            metrics.put("documents", documents.size());
+            metrics.put("terms", postings.size());
+            metrics.put("postings", entries);
+            metrics.put("postingBytes", bytes);
+            return metrics;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsertTask(int id, Long authorId, Long assigneeId, String[] terms) {
+        Document document = documents.get(id);
+        if (document == null) {
+            document = new Document();
+            documents.put(id, document);
+        }
+        String[] previous = document.terms;
+        document.authorId = authorId;
+        document.assigneeId = assigneeId;
+        document.terms = terms;
+        addTerms(id, terms, previous);
+        removeTerms(id, document, previous, terms);
+    }
+
+    private void removeTask(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        removeTerms(id, null, document.terms, NO_TERMS);
+        for (String[] terms : document.comments.values()) {
+            removeTerms(id, null, terms, NO_TERMS);
+        }
+    }
+
+    private void upsertComment(int taskId, Long commentId, String[] terms) {
+        Document document = documents.get(taskId);
+        if (document == null) {
+            return;
+        }
+        String[] previous = document.comments.put(commentId, terms);
+        if (previous == null) {
+            previous = NO_TERMS;
+        }
+        addTerms(taskId, terms, previous);
+        removeTerms(taskId, document, previous, terms);
+    }
+
+    private void removeComment(int taskId, Long commentId) {
+        Document document = documents.get(taskId);
+        if (document == null) {
+            return;
+        }
+        String[] previous = document.comments.remove(commentId);
+        if (previous != null) {
+            removeTerms(taskId, document, previous, NO_TERMS);
+        }
+    }
+
+    private void addTerms(int id, String[] terms, String[] previous) {
+        for (String term : terms) {
+            if (Arrays.binarySearch(previous, term) < 0) {
+                postings.computeIfAbsent(term, key -> new PostingList()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Удаляет задачу из списков термов, которые пропали из изменённой части документа
+     * и не встречаются в остальных его частях.
+     */
+    private void removeTerms(int id, Document document, String[] previous, String[] current) {
+        for (String term : previous) {
+            if (Arrays.binarySearch(current, term) >= 0 || document != null && document.contains(term)) {
+                continue;
+            }
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(id) && list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static int docId(Long taskId) {
+        return Math.toIntExact(taskId);
+    }
+
+    /**
+     * Термы, автор и исполнитель проиндексированной задачи. Массивы термов отсортированы.
+     */
+    private static final class Document {
+        private Long authorId;
+        private Long assigneeId;
+        private String[] terms = NO_TERMS;
+        private final Map<Long, String[]> comments = new HashMap<>();
+
+        private boolean isVisibleTo(Long userId) {
+            return userId == null || userId.equals(authorId) || userId.equals(assigneeId);
+        }
+
+        private boolean contains(String term) {
+            if (Arrays.binarySearch(terms, term) >= 0) {
+                return true;
+            }
+            for (String[] commentTerms : comments.values()) {
+                if (Arrays.binarySearch(commentTerms, term) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static int intersect(int[] target, int count, int[] other) {
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < other.length; i++) {
+            int value = target[i];
+            while (j < other.length && other[j] < value) {
+                j++;
+            }
+            if (j < other.length && other[j] == value) {
+                target[size++] = value;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.test.ManageSystem.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Перестраивает индексы задач в памяти ({@link TaskSearchIndex}, {@link TitleAutocompleteIndex},
+ * {@link TaskBitmapIndex}, {@link TaskDependencyIndex}, {@link TaskQueueIndex}) из базы данных
+ * при старте приложения.
+ * Диапазон идентификаторов задач делится на отрезки, которые читаются и разбиваются на термы параллельно;
+ * готовые отрезки загружаются в индексы по порядку, поэтому списки идентификаторов только дописываются.
+ * Выполняется после миграций {@link ru.test.ManageSystem.migration.SchemaMigrationRunner}.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndexLoader implements ApplicationRunner {
+
+    private final List<AbstractTaskIndex> indexes;
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int threads;
+
+    public TaskSearchIndexLoader(List<AbstractTaskIndex> indexes, JdbcTemplate jdbcTemplate,
+                                 @Value("${search.rebuild.chunk-size:1000}") int chunkSize,
+                                 @Value("${search.rebuild.threads:0}") int threads) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("search.rebuild.chunk-size must be positive");
+        }
+        this.indexes = indexes;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException, ExecutionException {
+        rebuild();
+    }
+
+    /**
+     * Полностью перестраивает индексы.
+     *
+     * @throws InterruptedException если поток был прерван во время ожидания отрезков
+     * @throws ExecutionException   если чтение отрезка завершилось ошибкой
+     */
+    public void rebuild() throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        indexes.forEach(AbstractTaskIndex::beginRebuild);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class);
+        long chunks = (maxId + chunkSize - 1) / chunkSize;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<IndexedTask>>> futures = new ArrayList<>();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = chunk * chunkSize;
+                long to = from + chunkSize;
+                futures.add(executor.submit(() -> readChunk(from, to)));
+            }
+            int tasks = 0;
+            for (Future<List<IndexedTask>> future : futures) {
+                List<IndexedTask> chunk = future.get();
+                indexes.forEach(index -> index.load(chunk));
+                tasks += chunk.size();
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            indexes.forEach(index -> index.finishRebuild(elapsedMillis));
+            log.info("Task indexes rebuilt: {} tasks in {} chunks, {} ms", tasks, chunks, elapsedMillis);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Читает задачи с идентификаторами в полуинтервале {@code (from, to]} вместе с их комментариями, метками
+     * и блокирующими задачами.
+     */
+    private List<IndexedTask> readChunk(long from, long to) {
+        Map<Long, List<Long>> labels = new HashMap<>();
+        jdbcTemplate.query("SELECT task_id, label_id FROM task_labels WHERE task_id > ? AND task_id <= ?",
+                rs -> {
+                    labels.computeIfAbsent(rs.getLong("task_id"), key -> new ArrayList<>()).add(rs.getLong("label_id"));
+                }, from, to);
+        Map<Long, List<Long>> blockers = new HashMap<>();
+        jdbcTemplate.query("SELECT task_id, blocker_id FROM task_dependencies WHERE task_id > ? AND task_id <= ?",
+                rs -> {
+                    blockers.computeIfAbsent(rs.getLong("task_id"), key -> new ArrayList<>())
+                            .add(rs.getLong("blocker_id"));
+                }, from, to);
+        Map<Long, Map<Long, String[]>> comments = new HashMap<>();
+        jdbcTemplate.query("SELECT id, task_id, content FROM comments WHERE task_id > ? AND task_id <= ?",
+                rs -> {
+                    comments.computeIfAbsent(rs.getLong("task_id"), key -> new LinkedHashMap<>())
+                            .put(rs.getLong("id"), TextAnalyzer.sortedTerms(rs.getString("content")));
+                }, from, to);
+        return jdbcTemplate.query(
+                "SELECT id, title, description, status, priority, created_at, updated_at, author_id, assignee_id FROM tasks "
+                        + "WHERE id > ? AND id <= ? ORDER BY id",
+                (rs, rowNum) -> {
+                    long id = rs.getLong("id");
+                    Long assigneeId = rs.getObject("assignee_id", Long.class);
+                    String title = rs.getString("title");
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    return new IndexedTask(id, title, createdAt != null ? createdAt.toLocalDateTime() : null,
+                            updatedAt != null ? updatedAt.toLocalDateTime() : null,
+                            TaskStatus.valueOf(rs.getString("status")),
+                            TaskPriority.valueOf(rs.getString("priority")),
+                            rs.getLong("author_id"), assigneeId,
+                            labels.getOrDefault(id, List.of()).stream().mapToLong(Long::longValue).toArray(),
+                            blockers.getOrDefault(id, List.of()).stream().mapToLong(Long::longValue).toArray(),
+                            TextAnalyzer.sortedTerms(title, rs.getString("description")),
+                            comments.getOrDefault(id, Map.of()));
+                }, from, to);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.test.ManageSystem.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Разбивает текст на термы для полнотекстового индекса.
+ * Текст приводится к нижнему регистру, «ё» заменяется на «е», разделителями считаются все символы,
+ * кроме букв и цифр. Стоп-слова и однобуквенные слова отбрасываются, русские и английские слова
+ * приводятся к основе, смешанные и цифровые токены сохраняются как есть.
+ */
+public final class TextAnalyzer {
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "во", "не", "что", "он", "на", "я", "с", "со", "как", "а", "то", "все", "она", "так",
+            "его", "но", "да", "ты", "к", "у", "же", "вы", "за", "бы", "по", "ее", "мне", "было", "вот", "от",
+            "меня", "еще", "нет", "о", "из", "ему", "ли", "если", "уже", "или", "ни", "быть", "был", "до",
+            "вас", "нибудь", "уж", "вам", "там", "потом", "себя", "ей", "может", "они", "тут", "где", "есть",
+            "для", "мы", "тебя", "их", "чем", "была", "сам", "чтоб", "без", "будто", "чего", "раз", "тоже",
+            "себе", "под", "будет", "ж", "тогда", "кто", "этот", "того", "потому", "этого", "какой", "при",
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they",
+            "this", "to", "was", "will", "with");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Возвращает различные термы текста в порядке первого появления.
+     *
+     * @param text исходный текст, может быть {@code null}
+     * @return набор термов
+     */
+    public static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        collect(text, terms);
+        return terms;
+    }
+
+    /**
+     * Возвращает отсортированный массив различных термов нескольких фрагментов текста.
+     *
+     * @param texts фрагменты текста, отдельные фрагменты могут быть {@code null}
+     * @return отсортированный массив термов
+     */
+    public static String[] sortedTerms(String... texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            collect(text, terms);
+        }
+        String[] sorted = terms.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static void collect(String text, Set<String> terms) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.append(c == 'ё' || c == 'Ё' ? 'е' : Character.toLowerCase(c));
+                }
+            } else if (token.length() > 0) {
+                String term = normalize(token.toString());
+                if (term != null) {
+                    terms.add(term);
+                }
+                token.setLength(0);
+            }
+        }
+    }
+
+    private static String normalize(String token) {
+        if (STOP_WORDS.contains(token)) {
+            return null;
+        }
+        if (token.length() < 2 && !Character.isDigit(token.charAt(0))) {
+            return null;
+        }
+        if (isAll(token, 'а', 'я')) {
+            return RussianStemmer.stem(token);
+        }
+        if (isAll(token, 'a', 'z')) {
+            return EnglishStemmer.stem(token);
+        }
+        return token;
+    }
+
+    private static boolean isAll(String token, char from, char to) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < from || c > to) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
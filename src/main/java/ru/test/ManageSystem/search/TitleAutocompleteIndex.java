@@ -0,0 +1,614 @@
+package ru.test.ManageSystem.search;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.DTO.TaskSuggestionDto;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Тернарное префиксное дерево нормализованных заголовков задач для автодополнения.
+ * Ключами служат заголовок и его окончания, начинающиеся с каждого слова, поэтому подсказка находится
+ * по началу любого слова. Каждый узел хранит до {@link #TOP_K} идентификаторов задач с наиболее поздним
+ * {@code updatedAt} в своём поддереве, так что ответ на типичный запрос не требует обхода поддерева.
+ * При изменении задачи она переставляется внутри списков узлов, через которые проходят и старые, и новые ключи.
+ * Узел помечается устаревшим и пересчитывается при следующем обращении, только если задача покидает
+ * заполненный список и её место могла бы занять задача вне списка. Если после фильтрации по видимости
+ * подсказок не хватает, обходится поддерево, но не более {@link #MAX_SCAN_TASKS} задач.
+ * Дерево обновляется слушателем {@link TaskEvent} после фиксации транзакции и перестраивается при старте
+ * (см. {@link TaskSearchIndexLoader}).
+ */
+@Component
+public class TitleAutocompleteIndex extends AbstractTaskIndex implements MetricsSource {
+
+    /**
+     * Максимальное количество подсказок, хранимых в узле и возвращаемых за один запрос.
+     */
+    public static final int TOP_K = 10;
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_KEYS_PER_TASK = 8;
+
+    /**
+     * Максимальное количество задач, просматриваемых при обходе поддерева; при превышении
+     * возвращаются подсказки из уже просмотренных задач.
+     */
+    static final int MAX_SCAN_TASKS = 1000;
+    private static final int[] NO_IDS = new int[0];
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private Node root;
+    private int nodes;
+
+    /**
+     * Возвращает подсказки для начала заголовка или начала любого слова в нём.
+     *
+     * @param prefix          введённый текст
+     * @param visibleToUserId идентификатор пользователя, задачами которого (автор или исполнитель)
+     *                        ограничен результат, или {@code null}, если ограничения нет
+     * @param limit           максимальное количество подсказок, не больше {@link #TOP_K}
+     * @return подсказки от недавно изменённых задач к давно изменённым
+     * @throws ServiceUnavailableException если дерево ещё перестраивается
+     */
+    public List<TaskSuggestionDto> suggest(String prefix, Long visibleToUserId, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            checkReady();
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+            if (node.stale) {
+                lock.readLock().unlock();
+                lock.writeLock().lock();
+                try {
+                    node = find(key);
+                    if (node != null && node.stale) {
+                        refill(node);
+                    }
+                } finally {
+                    lock.readLock().lock();
+                    lock.writeLock().unlock();
+                }
+                if (node == null) {
+                    return List.of();
+                }
+            }
+
+            List<TaskSuggestionDto> result = new ArrayList<>(limit);
+            for (int i = 0; i < node.topSize && result.size() < limit; i++) {
+                Entry entry = entries.get(node.top[i]);
+                if (entry.isVisibleTo(visibleToUserId)) {
+                    result.add(entry.toSuggestion());
+                }
+            }
+            if (result.size() < limit && node.count > node.topSize) {
+                return scan(node, visibleToUserId, limit);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Обновляет дерево после фиксации изменения задачи.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public void onTaskEvent(TaskEvent event) {
+        int id = Math.toIntExact(event.taskId());
+        if (event.type() == TaskEvent.Type.DELETED) {
+            apply(() -> remove(id));
+        } else {
+            TaskDto task = event.after();
+            Entry entry = new Entry(id, task.getTitle(), rank(task.getUpdatedAt()), task.getAuthorId(),
+                    task.getAssigneeId());
+            apply(() -> put(entry));
+        }
+    }
+
+    @Override
+    protected void clear() {
+        entries.clear();
+        root = null;
+        nodes = 0;
+    }
+
+    @Override
+    protected void loadTask(IndexedTask task) {
+        put(new Entry(Math.toIntExact(task.id()), task.title(), rank(task.updatedAt()), task.authorId(),
+                task.assigneeId()));
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "titleAutocomplete";
+    }
+
+    /**
+     * Возвращает размеры дерева и оценку занимаемой памяти. Оценка учитывает узлы, списки подсказок
+     * и записи задач с заголовками при сжатых заголовках объектов (12 байт) и ссылках по 4 байта.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        lock.readLock().lock();
+        try {
+            long[] footprint = new long[2];
+            measure(root, footprint);
+            long entryBytes = 0;
+            int keys = 0;
+            for (Entry entry : entries.values()) {
+                entryBytes += Entry.SHALLOW_BYTES + stringBytes(entry.title) + arrayBytes(entry.keys.length, 4);
+                for (String key : entry.keys) {
+                    entryBytes += stringBytes(key);
+                }
+                keys += entry.keys.length;
+            }
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            putRebuildMetrics(metrics);
+            metrics.put("tasks", entries.size());
+            metrics.put("keys", keys);
+            metrics.put("nodes", nodes);
+            metrics.put("staleNodes", footprint[1]);
+            metrics.put("estimatedBytes", footprint[0] + entryBytes);
+            return metrics;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Entry entry) {
+        Entry previous = entries.put(entry.id, entry);
+        String[] previousKeys = previous != null ? previous.keys : new String[0];
+        Set<Node> previousPath = path(previousKeys);
+        for (String key : entry.keys) {
+            if (!contains(previousKeys, key)) {
+                insert(key, entry.id);
+            }
+        }
+        for (Node node : path(entry.keys)) {
+            if (previousPath.remove(node)) {
+                move(node, previous, entry);
+            } else {
+                node.count++;
+                offer(node, entry.id);
+            }
+        }
+        for (Node node : previousPath) {
+            node.count--;
+            drop(node, entry.id);
+        }
+        for (String key : previousKeys) {
+            if (!contains(entry.keys, key)) {
+                root = remove(root, key, 0, entry.id);
+            }
+        }
+    }
+
+    private void remove(int id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return;
+        }
+        for (Node node : path(entry.keys)) {
+            node.count--;
+            drop(node, id);
+        }
+        for (String key : entry.keys) {
+            root = remove(root, key, 0, id);
+        }
+        entries.remove(id);
+    }
+
+    private void insert(String key, int id) {
+        if (root == null) {
+            root = newNode(key.charAt(0));
+        }
+        Node node = root;
+        int i = 0;
+        while (true) {
+            char c = key.charAt(i);
+            if (c < node.c) {
+                if (node.lo == null) {
+                    node.lo = newNode(c);
+                }
+                node = node.lo;
+            } else if (c > node.c) {
+                if (node.hi == null) {
+                    node.hi = newNode(c);
+                }
+                node = node.hi;
+            } else {
+                node.keys++;
+                if (++i == key.length()) {
+                    node.terminals = append(node.terminals, id);
+                    return;
+                }
+                if (node.eq == null) {
+                    node.eq = newNode(key.charAt(i));
+                }
+                node = node.eq;
+            }
+        }
+    }
+
+    /**
+     * Удаляет ключ задачи из поддерева и возвращает новый корень поддерева.
+     * Узлы, через которые больше не проходит ни один ключ, исключаются из дерева.
+     */
+    private Node remove(Node node, String key, int i, int id) {
+        if (node == null) {
+            return null;
+        }
+        char c = key.charAt(i);
+        if (c < node.c) {
+            node.lo = remove(node.lo, key, i, id);
+            return node;
+        }
+        if (c > node.c) {
+            node.hi = remove(node.hi, key, i, id);
+            return node;
+        }
+        node.keys--;
+        if (i + 1 == key.length()) {
+            node.terminals = without(node.terminals, id);
+        } else {
+            node.eq = remove(node.eq, key, i + 1, id);
+        }
+        if (node.keys > 0) {
+            return node;
+        }
+        nodes--;
+        if (node.lo == null) {
+            return node.hi;
+        }
+        if (node.hi == null) {
+            return node.lo;
+        }
+        Node max = node.lo;
+        while (max.hi != null) {
+            max = max.hi;
+        }
+        max.hi = node.hi;
+        return node.lo;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        int i = 0;
+        while (node != null) {
+            char c = key.charAt(i);
+            if (c < node.c) {
+                node = node.lo;
+            } else if (c > node.c) {
+                node = node.hi;
+            } else if (++i == key.length()) {
+                return node;
+            } else {
+                node = node.eq;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Собирает узлы, соответствующие префиксам ключей; узел, общий для нескольких ключей, входит один раз.
+     */
+    private Set<Node> path(String[] keys) {
+        Set<Node> path = new HashSet<>();
+        for (String key : keys) {
+            Node node = root;
+            int i = 0;
+            while (node != null && i < key.length()) {
+                char c = key.charAt(i);
+                if (c < node.c) {
+                    node = node.lo;
+                } else if (c > node.c) {
+                    node = node.hi;
+                } else {
+                    path.add(node);
+                    i++;
+                    node = node.eq;
+                }
+            }
+        }
+        return path;
+    }
+
+    private void offer(Node node, int id) {
+        if (node.top == null) {
+            node.top = new int[TOP_K];
+        }
+        if (indexOf(node, id) >= 0) {
+            return;
+        }
+        Entry entry = entries.get(id);
+        int position = node.topSize;
+        while (position > 0 && entry.ranksAbove(entries.get(node.top[position - 1]))) {
+            position--;
+        }
+        if (position == TOP_K) {
+            return;
+        }
+        int last = Math.min(node.topSize, TOP_K - 1);
+        System.arraycopy(node.top, position, node.top, position + 1, last - position);
+        node.top[position] = id;
+        if (node.topSize < TOP_K) {
+            node.topSize++;
+        }
+    }
+
+    private void drop(Node node, int id) {
+        int i = indexOf(node, id);
+        if (i < 0) {
+            return;
+        }
+        if (node.topSize == TOP_K) {
+            node.stale = true;
+        }
+        System.arraycopy(node.top, i + 1, node.top, i, node.topSize - i - 1);
+        node.topSize--;
+    }
+
+    /**
+     * Переставляет изменённую задачу в списке подсказок узла, через который проходят и старые, и новые ключи.
+     * Узел помечается устаревшим, только если задача с понизившимся рангом оказалась последней в заполненном
+     * списке: её могла обогнать задача вне списка.
+     */
+    private void move(Node node, Entry previous, Entry entry) {
+        int i = indexOf(node, entry.id);
+        if (i < 0) {
+            offer(node, entry.id);
+            return;
+        }
+        System.arraycopy(node.top, i + 1, node.top, i, node.topSize - i - 1);
+        node.topSize--;
+        offer(node, entry.id);
+        if (node.topSize == TOP_K && node.top[TOP_K - 1] == entry.id && node.count > TOP_K
+                && previous.ranksAbove(entry)) {
+            node.stale = true;
+        }
+    }
+
+    private static int indexOf(Node node, int id) {
+        for (int i = 0; i < node.topSize; i++) {
+            if (node.top[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Пересчитывает список подсказок узла по всему его поддереву.
+     */
+    private void refill(Node node) {
+        node.topSize = 0;
+        for (int id : collect(node, Integer.MAX_VALUE)) {
+            offer(node, id);
+        }
+        node.stale = false;
+    }
+
+    private List<TaskSuggestionDto> scan(Node node, Long visibleToUserId, int limit) {
+        List<Entry> visible = new ArrayList<>();
+        for (int id : collect(node, MAX_SCAN_TASKS)) {
+            Entry entry = entries.get(id);
+            if (entry.isVisibleTo(visibleToUserId)) {
+                visible.add(entry);
+            }
+        }
+        visible.sort((a, b) -> a.ranksAbove(b) ? -1 : b.ranksAbove(a) ? 1 : 0);
+        List<TaskSuggestionDto> result = new ArrayList<>(Math.min(limit, visible.size()));
+        for (int i = 0; i < visible.size() && i < limit; i++) {
+            result.add(visible.get(i).toSuggestion());
+        }
+        return result;
+    }
+
+    /**
+     * Собирает различные идентификаторы задач, ключи которых начинаются с префикса данного узла,
+     * останавливаясь после {@code max} задач.
+     */
+    private static Set<Integer> collect(Node node, int max) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        addTerminals(node, ids, max);
+        collectSubtree(node.eq, ids, max);
+        return ids;
+    }
+
+    private static void collectSubtree(Node node, Set<Integer> ids, int max) {
+        while (node != null && ids.size() < max) {
+            addTerminals(node, ids, max);
+            collectSubtree(node.lo, ids, max);
+            collectSubtree(node.eq, ids, max);
+            node = node.hi;
+        }
+    }
+
+    private static void addTerminals(Node node, Set<Integer> ids, int max) {
+        for (int i = 0; i < node.terminals.length && ids.size() < max; i++) {
+            ids.add(node.terminals[i]);
+        }
+    }
+
+    private static void measure(Node node, long[] footprint) {
+        while (node != null) {
+            footprint[0] += Node.SHALLOW_BYTES + arrayBytes(node.terminals.length, 4)
+                    + (node.top != null ? arrayBytes(TOP_K, 4) : 0);
+            if (node.stale) {
+                footprint[1]++;
+            }
+            measure(node.lo, footprint);
+            measure(node.eq, footprint);
+            node = node.hi;
+        }
+    }
+
+    private Node newNode(char c) {
+        nodes++;
+        return new Node(c);
+    }
+
+    private static int[] append(int[] ids, int id) {
+        int[] result = new int[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, ids.length);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static boolean contains(String[] keys, String key) {
+        for (String candidate : keys) {
+            if (candidate.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] without(int[] ids, int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                if (ids.length == 1) {
+                    return NO_IDS;
+                }
+                int[] result = new int[ids.length - 1];
+                System.arraycopy(ids, 0, result, 0, i);
+                System.arraycopy(ids, i + 1, result, i, ids.length - i - 1);
+                return result;
+            }
+        }
+        return ids;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return align(16L + (long) length * elementBytes);
+    }
+
+    private static long stringBytes(String value) {
+        return align(24) + arrayBytes(value.length(), value.chars().allMatch(c -> c < 256) ? 1 : 2);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static long rank(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    /**
+     * Нормализует текст: нижний регистр, «ё» заменяется на «е», последовательности символов,
+     * отличных от букв и цифр, заменяются одним пробелом.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && result.length() > 0) {
+                    result.append(' ');
+                }
+                space = false;
+                result.append(c == 'ё' || c == 'Ё' ? 'е' : Character.toLowerCase(c));
+            } else {
+                space = true;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Ключи задачи: нормализованный заголовок и его окончания, начинающиеся с каждого следующего слова.
+     */
+    private static String[] keysOf(String title) {
+        String normalized = normalize(title);
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        int start = 0;
+        while (start >= 0 && keys.size() < MAX_KEYS_PER_TASK) {
+            keys.add(normalized.substring(start, Math.min(normalized.length(), start + MAX_KEY_LENGTH)));
+            int space = normalized.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static final class Node {
+        private static final long SHALLOW_BYTES = 48;
+
+        private final char c;
+        private Node lo;
+        private Node eq;
+        private Node hi;
+        /** Количество ключей, проходящих через узел; узел без ключей исключается из дерева. */
+        private int keys;
+        /** Количество различных задач, хотя бы один ключ которых проходит через узел. */
+        private int count;
+        private int[] terminals = NO_IDS;
+        private int[] top;
+        private int topSize;
+        private boolean stale;
+
+        private Node(char c) {
+            this.c = c;
+        }
+    }
+
+    private static final class Entry {
+        private static final long SHALLOW_BYTES = 48;
+
+        private final int id;
+        private final String title;
+        private final long rank;
+        private final Long authorId;
+        private final Long assigneeId;
+        private final String[] keys;
+
+        private Entry(int id, String title, long rank, Long authorId, Long assigneeId) {
+            this.id = id;
+            this.title = title;
+            this.rank = rank;
+            this.authorId = authorId;
+            this.assigneeId = assigneeId;
+            this.keys = keysOf(title);
+        }
+
+        private boolean ranksAbove(Entry other) {
+            return rank != other.rank ? rank > other.rank : id > other.id;
+        }
+
+        private boolean isVisibleTo(Long userId) {
+            return userId == null || userId.equals(authorId) || userId.equals(assigneeId);
+        }
+
+        private TaskSuggestionDto toSuggestion() {
+            return new TaskSuggestionDto((long) id, title);
+        }
+    }
+}
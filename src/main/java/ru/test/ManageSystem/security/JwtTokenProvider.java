@@ -5,17 +5,13 @@ import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
+import ru.test.ManageSystem.enums.Role;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Провайдер для работы с JWT-токенами.
@@ -25,6 +21,18 @@ import java.util.stream.Collectors;
 @Component
 public class JwtTokenProvider {
 
+    /**
+     * Имя claim, в котором хранится битовая маска ролей пользователя.
+     */
+    private static final String ROLE_MASK_CLAIM = "rm";
+
+    /**
+     * Имя claim, в котором токены до перехода на маску ролей хранят роли строкой вида {@code ROLE_USER,ROLE_ADMIN}.
+     * Читается только для токенов без {@link #ROLE_MASK_CLAIM}; после истечения таких токенов поддержку можно убрать.
+     */
+    private static final String LEGACY_ROLES_CLAIM = "roles";
+    private static final String ROLE_PREFIX = "ROLE_";
+
     @Value("${jwt.secret:your-256-bit-secret}")
     private String secretKey;
 
@@ -42,7 +50,7 @@ public class JwtTokenProvider {
 
     /**
      * Генерирует JWT-токен на основе данных аутентификации.
-     * Включает имя пользователя и роли в токен, устанавливает время создания и истечения.
+     * Включает имя пользователя и битовую маску ролей в токен, устанавливает время создания и истечения.
      *
      * @param authentication объект {@link Authentication} с данными аутентифицированного пользователя
      * @return строка с сгенерированным JWT-токеном
@@ -54,9 +62,7 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .setSubject(userDetails.getUsername())
-                .claim("roles", userDetails.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .collect(Collectors.joining(",")))
+                .claim(ROLE_MASK_CLAIM, userDetails.getRoleMask())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
@@ -100,7 +106,8 @@ public class JwtTokenProvider {
 
     /**
      * Создаёт объект аутентификации на основе данных из JWT-токена.
-     * Извлекает имя пользователя и роли, формирует объект {@link UserDetailsImpl}.
+     * Извлекает имя пользователя и маску ролей, формирует объект {@link UserDetailsImpl}.
+     * Для токенов старого формата без маски маска собирается из списка ролей.
      *
      * @param token строка с JWT-токеном
      * @return объект {@link Authentication} для использования в Spring Security
@@ -113,16 +120,35 @@ public class JwtTokenProvider {
                 .parseClaimsJws(token)
                 .getBody();
 
-        List<SimpleGrantedAuthority> authorities = Arrays.stream(claims.get("roles").toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        Integer roleMask = claims.get(ROLE_MASK_CLAIM, Integer.class);
+        UserDetailsImpl userDetails = UserDetailsImpl.build(claims.getSubject(), "",
+                roleMask != null ? roleMask : legacyRoleMask(claims.get(LEGACY_ROLES_CLAIM, String.class)));
 
-        UserDetailsImpl userDetails = UserDetailsImpl.builder()
-                .email(claims.getSubject())
-                .password("")
-                .authorities(authorities)
-                .build();
+        return new UsernamePasswordAuthenticationToken(userDetails, token, userDetails.getAuthorities());
+    }
 
-        return new UsernamePasswordAuthenticationToken(userDetails, token, authorities);
+    /**
+     * Собирает маску ролей из claim старого формата. Неизвестные роли пропускаются.
+     *
+     * @param roles роли через запятую с префиксом {@code ROLE_}, может быть {@code null}
+     * @return битовая маска ролей
+     */
+    private static int legacyRoleMask(String roles) {
+        if (roles == null) {
+            return 0;
+        }
+        int mask = 0;
+        for (String authority : roles.split(",")) {
+            String name = authority.trim();
+            if (name.startsWith(ROLE_PREFIX)) {
+                name = name.substring(ROLE_PREFIX.length());
+            }
+            try {
+                mask |= Role.valueOf(name).mask();
+            } catch (IllegalArgumentException e) {
+                // роль, которой больше нет, не даёт прав
+            }
+        }
+        return mask;
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ru.test.ManageSystem.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ru.test.ManageSystem.enums.Role;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Заранее построенные неизменяемые списки прав доступа для каждого значения маски ролей.
+ * Позволяет не создавать строки и объекты {@link SimpleGrantedAuthority} при каждой аутентификации.
+ */
+public final class RoleAuthorities {
+
+    private static final List<List<GrantedAuthority>> BY_MASK = buildAll();
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * Возвращает неизменяемый список прав доступа для маски ролей.
+     * Биты, не соответствующие известным ролям, игнорируются.
+     *
+     * @param roleMask битовая маска ролей
+     * @return неизменяемый список объектов {@link GrantedAuthority} с префиксом "ROLE_"
+     */
+    public static List<GrantedAuthority> of(int roleMask) {
+        return BY_MASK.get(roleMask & (Role.MASK_COUNT - 1));
+    }
+
+    private static List<List<GrantedAuthority>> buildAll() {
+        SimpleGrantedAuthority[] single = new SimpleGrantedAuthority[Role.values().length];
+        for (Role role : Role.values()) {
+            single[role.ordinal()] = new SimpleGrantedAuthority("ROLE_" + role.name());
+        }
+        List<List<GrantedAuthority>> all = new ArrayList<>(Role.MASK_COUNT);
+        for (int mask = 0; mask < Role.MASK_COUNT; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role role : Role.values()) {
+                if (role.isIn(mask)) {
+                    authorities.add(single[role.ordinal()]);
+                }
+            }
+            all.add(List.copyOf(authorities));
+        }
+        return List.copyOf(all);
+    }
+}
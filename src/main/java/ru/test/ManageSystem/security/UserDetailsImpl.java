@@ -3,17 +3,14 @@ package ru.test.ManageSystem.security;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import ru.test.ManageSystem.entity.User;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Реализация интерфейса {@link UserDetails} для предоставления данных пользователя
- * в Spring Security. Содержит email, пароль и роли пользователя.
+ * в Spring Security. Содержит email, пароль и маску ролей пользователя.
  */
 @Data
 @Builder
@@ -21,23 +18,34 @@ public class UserDetailsImpl implements UserDetails {
 
     private String email;
     private String password;
+    private int roleMask;
     private Collection<? extends GrantedAuthority> authorities;
 
     /**
      * Создаёт объект {@link UserDetailsImpl} на основе сущности {@link User}.
-     * Преобразует роли пользователя в объекты {@link GrantedAuthority}, добавляя префикс "ROLE_".
+     * Права доступа берутся из заранее построенных списков {@link RoleAuthorities} по маске ролей.
      *
      * @param user объект {@link User} с данными пользователя
      * @return новый экземпляр {@link UserDetailsImpl}
      */
     public static UserDetailsImpl build(User user) {
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
+        return build(user.getEmail(), user.getPassword(), user.getRoleMask());
+    }
+
+    /**
+     * Создаёт объект {@link UserDetailsImpl} по email, паролю и маске ролей.
+     *
+     * @param email    email пользователя
+     * @param password хэш пароля или пустая строка, если пароль не нужен
+     * @param roleMask битовая маска ролей
+     * @return новый экземпляр {@link UserDetailsImpl}
+     */
+    public static UserDetailsImpl build(String email, String password, int roleMask) {
         return UserDetailsImpl.builder()
-                .email(user.getEmail())
-                .password(user.getPassword())
-                .authorities(authorities)
+                .email(email)
+                .password(password)
+                .roleMask(roleMask)
+                .authorities(RoleAuthorities.of(roleMask))
                 .build();
     }
 
@@ -0,0 +1,42 @@
+package ru.test.ManageSystem.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.test.ManageSystem.entity.User;
+
+/**
+ * Неизменяемый снимок пользователя для кэша: идентификатор, email, маска ролей и хэш пароля.
+ * Хэш пароля используется только при входе в систему и не попадает в {@link #toUser()}.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSnapshot {
+    private final Long id;
+    private final String email;
+    private final int roleMask;
+    private final String passwordHash;
+
+    /**
+     * Создаёт снимок из сущности {@link User}.
+     *
+     * @param user сущность пользователя
+     * @return снимок пользователя
+     */
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getEmail(), user.getRoleMask(), user.getPassword());
+    }
+
+    /**
+     * Создаёт отсоединённую сущность {@link User} без пароля.
+     * Подходит для проверки прав и в качестве ссылки на пользователя в связях других сущностей.
+     *
+     * @return новый экземпляр {@link User}
+     */
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .roleMask(roleMask)
+                .build();
+    }
+}
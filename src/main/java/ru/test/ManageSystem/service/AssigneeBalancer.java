@@ -0,0 +1,292 @@
+package ru.test.ManageSystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.event.UserCreatedEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.metrics.MetricsSource;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нагрузка пользователей для автоматического назначения задач: количество незавершённых задач каждого
+ * пользователя с ролью {@link Role#USER}. Пользователи хранятся в индексированной двоичной куче по нагрузке
+ * (при равной нагрузке — по идентификатору), позиция пользователя в куче известна, поэтому выбор наименее
+ * загруженного пользователя и изменение нагрузки выполняются за {@code O(log n)} без запросов к базе данных.
+ * <p>
+ * Нагрузка меняется по {@link TaskEvent} после фиксации транзакций. Назначение сразу резервирует задачу
+ * за выбранным пользователем, чтобы одновременные назначения распределялись по разным пользователям;
+ * событие создания задачи этого пользователя погашает резерв вместо увеличения нагрузки.
+ * Изменения других узлов и расхождения после сбоев исправляет периодическая сверка с базой данных
+ * ({@code assignment.reconcile-interval}).
+ */
+@Slf4j
+@Component
+public class AssigneeBalancer implements MetricsSource {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final Map<Long, Integer> reserved = new HashMap<>();
+    private long[] users = new long[INITIAL_CAPACITY];
+    private long[] loads = new long[INITIAL_CAPACITY];
+    private int size;
+    private boolean ready;
+    private long assignments;
+    private long reconciles;
+    private long lastDrift;
+    private long lastReconcileMillis;
+
+    public AssigneeBalancer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Выбирает наименее загруженного пользователя и резервирует за ним одну задачу.
+     *
+     * @return идентификатор выбранного пользователя
+     * @throws ResourceNotFoundException   если нет пользователей, которым можно назначить задачу
+     * @throws ServiceUnavailableException если нагрузка ещё не загружена из базы данных
+     */
+    public synchronized Long assign() {
+        if (!ready) {
+            throw new ServiceUnavailableException("Assignee loads are not loaded yet");
+        }
+        if (size == 0) {
+            throw new ResourceNotFoundException("No users available for assignment");
+        }
+        long userId = users[0];
+        loads[0]++;
+        siftDown(0);
+        reserved.merge(userId, 1, Integer::sum);
+        assignments++;
+        return userId;
+    }
+
+    /**
+     * Возвращает текущую нагрузку пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество незавершённых задач пользователя или {@code -1}, если пользователю нельзя назначать задачи
+     */
+    public synchronized long loadOf(Long userId) {
+        Integer position = positions.get(userId);
+        return position != null ? loads[position] : -1;
+    }
+
+    /**
+     * Обновляет нагрузку исполнителей задачи после фиксации её изменения.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public synchronized void onTaskEvent(TaskEvent event) {
+        Long before = openAssignee(event.before());
+        Long after = openAssignee(event.after());
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        if (before != null) {
+            change(before, -1);
+        }
+        if (after != null && !(event.type() == TaskEvent.Type.CREATED && release(after))) {
+            change(after, 1);
+        }
+    }
+
+    /**
+     * Снимает резерв, если транзакция создания задачи откатилась.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public synchronized void onTaskRolledBack(TaskEvent event) {
+        Long assignee = openAssignee(event.after());
+        if (event.type() == TaskEvent.Type.CREATED && assignee != null && release(assignee)) {
+            change(assignee, -1);
+        }
+    }
+
+    /**
+     * Добавляет созданного пользователя с ролью {@link Role#USER} с нулевой нагрузкой.
+     *
+     * @param event событие создания пользователя
+     */
+    @TransactionalEventListener
+    public synchronized void onUserCreated(UserCreatedEvent event) {
+        if (Role.USER.isIn(event.roleMask()) && !positions.containsKey(event.userId())) {
+            insert(event.userId(), 0);
+        }
+    }
+
+    /**
+     * Заменяет нагрузку пользователей значениями из базы данных. Выполняется при старте приложения
+     * и затем с периодом {@code assignment.reconcile-interval}.
+     */
+    @Scheduled(fixedDelayString = "${assignment.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT assignee_id, COUNT(*) AS open_tasks FROM tasks "
+                        + "WHERE assignee_id IS NOT NULL AND status <> ? GROUP BY assignee_id",
+                rs -> {
+                    counts.put(rs.getLong("assignee_id"), rs.getLong("open_tasks"));
+                }, TaskStatus.COMPLETED.name());
+        List<Long> eligible = jdbcTemplate.query("SELECT id, role_mask FROM users",
+                (rs, rowNum) -> Role.USER.isIn(rs.getInt("role_mask")) ? rs.getLong("id") : null);
+
+        synchronized (this) {
+            long drift = 0;
+            Map<Long, Long> previous = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                previous.put(users[i], loads[i]);
+            }
+            positions.clear();
+            reserved.clear();
+            size = 0;
+            for (Long userId : eligible) {
+                if (userId != null) {
+                    long load = counts.getOrDefault(userId, 0L);
+                    drift += Math.abs(load - previous.getOrDefault(userId, load));
+                    insert(userId, load);
+                }
+            }
+            lastDrift = drift;
+            lastReconcileMillis = System.currentTimeMillis() - start;
+            reconciles++;
+            if (ready && drift > 0) {
+                log.info("Assignee loads reconciled: {} users, drift {}", size, drift);
+            }
+            ready = true;
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "assigneeBalancer";
+    }
+
+    /**
+     * Возвращает количество пользователей, минимальную нагрузку, число назначений и расхождение
+     * с базой данных при последней сверке.
+     */
+    @Override
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("ready", ready);
+        metrics.put("users", size);
+        metrics.put("minLoad", size > 0 ? loads[0] : 0);
+        metrics.put("reserved", reserved.values().stream().mapToInt(Integer::intValue).sum());
+        metrics.put("assignments", assignments);
+        metrics.put("reconciles", reconciles);
+        metrics.put("lastDrift", lastDrift);
+        metrics.put("lastReconcileMillis", lastReconcileMillis);
+        return metrics;
+    }
+
+    private static Long openAssignee(TaskDto task) {
+        return task != null && task.getStatus() != TaskStatus.COMPLETED ? task.getAssigneeId() : null;
+    }
+
+    /**
+     * Погашает один резерв пользователя.
+     *
+     * @return {@code true}, если у пользователя был резерв
+     */
+    private boolean release(Long userId) {
+        Integer count = reserved.get(userId);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            reserved.remove(userId);
+        } else {
+            reserved.put(userId, count - 1);
+        }
+        return true;
+    }
+
+    private void change(Long userId, long delta) {
+        Integer position = positions.get(userId);
+        if (position == null) {
+            return;
+        }
+        loads[position] = Math.max(0, loads[position] + delta);
+        if (delta > 0) {
+            siftDown(position);
+        } else {
+            siftUp(position);
+        }
+    }
+
+    private void insert(long userId, long load) {
+        if (size == users.length) {
+            users = Arrays.copyOf(users, size * 2);
+            loads = Arrays.copyOf(loads, size * 2);
+        }
+        users[size] = userId;
+        loads[size] = load;
+        positions.put(userId, size);
+        siftUp(size++);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!less(position, parent)) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && less(left, smallest)) {
+                smallest = left;
+            }
+            if (right < size && less(right, smallest)) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return loads[a] < loads[b] || loads[a] == loads[b] && users[a] < users[b];
+    }
+
+    private void swap(int a, int b) {
+        long user = users[a];
+        long load = loads[a];
+        users[a] = users[b];
+        loads[a] = loads[b];
+        users[b] = user;
+        loads[b] = load;
+        positions.put(users[a], a);
+        positions.put(users[b], b);
+    }
+}
@@ -0,0 +1,202 @@
+package ru.test.ManageSystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.AttachmentDto;
+import ru.test.ManageSystem.attachment.AttachmentStore;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
+import ru.test.ManageSystem.entity.TaskAttachment;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.mapper.AttachmentMapper;
+import ru.test.ManageSystem.repository.TaskAttachmentRepository;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Сервис вложений задач. Метаданные вложений хранятся в базе данных, содержимое — в {@link AttachmentStore}
+ * под именем из SHA-256, так что одинаковые файлы, загруженные к разным задачам, занимают место один раз.
+ * <p>
+ * Вложение сохраняется под блокировкой хеша содержимого: файл содержимого появляется до фиксации строки, а файл,
+ * на который больше не ссылается ни одна строка, удаляется после фиксации удаления под той же блокировкой.
+ * Поэтому файл не удаляется, пока его ждёт новое вложение, а прерванная загрузка оставляет только временный файл,
+ * который хранилище удаляет при запуске.
+ */
+@Slf4j
+@Service
+public class AttachmentService {
+
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final TaskAttachmentRepository attachmentRepository;
+    private final AttachmentStore attachmentStore;
+    private final UserSnapshotCache userSnapshotCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public AttachmentService(TaskAttachmentRepository attachmentRepository, AttachmentStore attachmentStore,
+                             UserSnapshotCache userSnapshotCache, PlatformTransactionManager transactionManager) {
+        this.attachmentRepository = attachmentRepository;
+        this.attachmentStore = attachmentStore;
+        this.userSnapshotCache = userSnapshotCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Сохраняет содержимое потока как вложение задачи. Поток копируется на диск без буферизации файла в памяти.
+     *
+     * @param taskId      идентификатор задачи
+     * @param fileName    имя файла; путь до последнего разделителя отбрасывается
+     * @param contentType тип содержимого или {@code null} для {@code application/octet-stream}
+     * @param content     поток содержимого
+     * @return объект {@link AttachmentDto} с данными сохранённого вложения
+     * @throws IllegalArgumentException  если имя файла пустое или длиннее 255 символов, или файл больше
+     *                                   {@code attachments.max-size}
+     * @throws ResourceNotFoundException если текущий пользователь не найден
+     */
+    public AttachmentDto upload(Long taskId, String fileName, String contentType, InputStream content)
+            throws IOException {
+        String name = sanitizeFileName(fileName);
+        long uploadedBy = currentUserId();
+        AttachmentStore.Upload upload = attachmentStore.write(content);
+        ReentrantLock lock = attachmentStore.lock(upload.sha256());
+        lock.lock();
+        try {
+            attachmentStore.commit(upload);
+            TaskAttachment saved = transactionTemplate.execute(status -> attachmentRepository.save(
+                    TaskAttachment.builder()
+                            .taskId(taskId)
+                            .fileName(name)
+                            .contentType(contentType == null || contentType.isBlank()
+                                    ? DEFAULT_CONTENT_TYPE : contentType)
+                            .size(upload.size())
+                            .sha256(upload.sha256())
+                            .uploadedBy(uploadedBy)
+                            .createdAt(LocalDateTime.now())
+                            .build()));
+            return AttachmentMapper.toDto(saved);
+        } catch (IOException | RuntimeException e) {
+            attachmentStore.discard(upload);
+            release(upload.sha256());
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает вложения задачи в порядке загрузки.
+     *
+     * @param taskId идентификатор задачи
+     * @return список объектов {@link AttachmentDto}
+     */
+    public List<AttachmentDto> getAttachments(Long taskId) {
+        return attachmentRepository.findByTaskIdOrderById(taskId).stream().map(AttachmentMapper::toDto).toList();
+    }
+
+    /**
+     * Возвращает вложение задачи.
+     *
+     * @param taskId       идентификатор задачи
+     * @param attachmentId идентификатор вложения
+     * @return сущность {@link TaskAttachment}
+     * @throws ResourceNotFoundException если вложение не найдено или относится к другой задаче
+     */
+    public TaskAttachment getAttachment(Long taskId, Long attachmentId) {
+        return attachmentRepository.findById(attachmentId)
+                .filter(attachment -> attachment.getTaskId().equals(taskId))
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found"));
+    }
+
+    /**
+     * Удаляет вложение задачи и, если на его содержимое больше не ссылается ни одно вложение, файл содержимого.
+     *
+     * @param taskId       идентификатор задачи
+     * @param attachmentId идентификатор вложения
+     * @throws ResourceNotFoundException если вложение не найдено или относится к другой задаче
+     */
+    public void deleteAttachment(Long taskId, Long attachmentId) {
+        TaskAttachment attachment = getAttachment(taskId, attachmentId);
+        transactionTemplate.executeWithoutResult(status -> attachmentRepository.deleteById(attachment.getId()));
+        release(attachment.getSha256());
+    }
+
+    /**
+     * Удаляет вложения удалённой задачи в транзакции удаления, а после её фиксации — файлы содержимого,
+     * на которые больше не ссылается ни одно вложение.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskEvent(TaskEvent event) {
+        if (event.type() != TaskEvent.Type.DELETED) {
+            return;
+        }
+        List<String> hashes = attachmentRepository.findContentHashesByTaskId(event.taskId());
+        if (hashes.isEmpty()) {
+            return;
+        }
+        attachmentRepository.deleteByTaskId(event.taskId());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hashes.forEach(AttachmentService.this::release);
+            }
+        });
+    }
+
+    /**
+     * Удаляет файл содержимого, если на него не ссылается ни одно вложение. Ошибка удаления только
+     * записывается в журнал: оставшийся файл займёт место, но не нарушит работу вложений.
+     */
+    private void release(String sha256) {
+        ReentrantLock lock = attachmentStore.lock(sha256);
+        lock.lock();
+        try {
+            Boolean referenced = transactionTemplate.execute(status -> attachmentRepository.existsBySha256(sha256));
+            if (!Boolean.TRUE.equals(referenced)) {
+                attachmentStore.delete(sha256);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to delete attachment content {}", sha256, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication != null ? authentication.getName() : null;
+        return userSnapshotCache.get(email).map(UserSnapshot::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+    }
+
+    private static String sanitizeFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.substring(Math.max(fileName.lastIndexOf('/'),
+                fileName.lastIndexOf('\\')) + 1);
+        name = name.chars().filter(c -> !Character.isISOControl(c))
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString().trim();
+        if (name.isEmpty() || name.length() > MAX_FILE_NAME_LENGTH) {
+            throw new IllegalArgumentException("File name must be between 1 and " + MAX_FILE_NAME_LENGTH
+                    + " characters");
+        }
+        return name;
+    }
+}
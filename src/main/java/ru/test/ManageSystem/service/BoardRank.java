@@ -0,0 +1,126 @@
+package ru.test.ManageSystem.service;
+
+/**
+ * Ключи ручного порядка задач в колонке доски — строки из цифр и строчных латинских букв,
+ * сравниваемые лексикографически, как дроби в системе счисления по основанию 36.
+ * Между любыми двумя различными ключами всегда есть ещё один, поэтому перемещение задачи меняет
+ * только её собственный ключ. Ключ никогда не оканчивается на {@code '0'}: иначе между ним
+ * и его префиксом не нашлось бы места.
+ * <p>
+ * Ключ для вставки между соседями удлиняется примерно на символ за пять вставок в одно место;
+ * ключ в конец колонки увеличивается на единицу без удлинения. Слишком длинные ключи колонки
+ * перераспределяются равномерно (см. {@link #spread(long, long)}).
+ */
+public final class BoardRank {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final int MIN_WIDTH = 6;
+    private static final int MAX_WIDTH = 12;
+    private static final long MIN_GAP = (long) BASE * BASE;
+
+    private BoardRank() {
+    }
+
+    /**
+     * Возвращает ключ строго между двумя ключами.
+     * Для пустой колонки (оба ключа {@code null}) возвращается ключ полной длины из {@link #spread(long, long)},
+     * чтобы последующие добавления в конец не удлиняли ключи.
+     *
+     * @param lower ключ сверху или {@code null} для начала колонки
+     * @param upper ключ снизу или {@code null} для конца колонки
+     * @return новый ключ
+     * @throws IllegalArgumentException если {@code lower} не меньше {@code upper} или ключ содержит недопустимые символы
+     */
+    public static String between(String lower, String upper) {
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Rank " + lower + " is not below " + upper);
+        }
+        if (upper == null) {
+            return lower != null ? after(lower) : spread(0, 1);
+        }
+        return midpoint(lower == null ? "" : lower, upper);
+    }
+
+    /**
+     * Возвращает ключ с номером {@code index} из {@code count} ключей, равномерно распределённых в нижней
+     * половине пространства ключей. Ключи одной длины, между соседними остаётся не меньше {@code 36²} значений,
+     * а верхняя половина остаётся для добавления задач в конец колонки.
+     *
+     * @param index номер ключа, от 0 до {@code count - 1}
+     * @param count количество ключей
+     * @return ключ
+     */
+    public static String spread(long index, long count) {
+        int width = MIN_WIDTH;
+        long range = pow(width);
+        while (range / 2 / (count + 1) < MIN_GAP && width < MAX_WIDTH) {
+            range = pow(++width);
+        }
+        long value = (index + 1) * (range / 2 / (count + 1));
+        if (value % BASE == 0) {
+            value++;
+        }
+        char[] key = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            key[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(key);
+    }
+
+    /**
+     * Возвращает ключ после {@code lower}: ключ той же длины, больший на единицу младшего разряда,
+     * а если такого нет — ключ на символ длиннее.
+     */
+    private static String after(String lower) {
+        char[] key = lower.toCharArray();
+        for (int i = key.length - 1; i >= 0; i--) {
+            int digit = digit(key[i]);
+            if (digit + 1 < BASE) {
+                key[i] = DIGITS.charAt(digit + 1);
+                if (i == key.length - 1) {
+                    return new String(key);
+                }
+                key[key.length - 1] = DIGITS.charAt(1);
+                return new String(key);
+            }
+            key[i] = DIGITS.charAt(0);
+        }
+        return midpoint(lower, null);
+    }
+
+    private static String midpoint(String lower, String upper) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; ; i++) {
+            int low = i < lower.length() ? digit(lower.charAt(i)) : 0;
+            int high = upper != null && i < upper.length() ? digit(upper.charAt(i)) : BASE;
+            if (low == high) {
+                key.append(DIGITS.charAt(low));
+                continue;
+            }
+            int middle = (low + high) / 2;
+            if (middle > low) {
+                return key.append(DIGITS.charAt(middle)).toString();
+            }
+            key.append(DIGITS.charAt(low));
+            upper = null;
+        }
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank character: " + c);
+        }
+        return digit;
+    }
+
+    private static long pow(int width) {
+        long value = 1;
+        for (int i = 0; i < width; i++) {
+            value *= BASE;
+        }
+        return value;
+    }
+}
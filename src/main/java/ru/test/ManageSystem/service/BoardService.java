@@ -0,0 +1,254 @@
+package ru.test.ManageSystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.mapper.TaskMapper;
+import ru.test.ManageSystem.metrics.MetricsSource;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.repository.TaskRepositoryCustom.BoardKey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис доски задач: колонки по статусам с ручным порядком задач внутри колонки.
+ * Порядок задаётся строковыми ключами {@link BoardRank} в колонке {@code tasks.board_rank}, поэтому
+ * перемещение задачи изменяет одну строку, а колонка читается одним проходом по индексу
+ * ({@code status}, {@code board_rank}, {@code id}).
+ * <p>
+ * Ключ длиннее {@code board.rebalance.max-length} помечает колонку, и фоновая задача с периодом
+ * {@code board.rebalance.interval} равномерно перераспределяет её ключи. Перераспределение блокирует строки
+ * колонки, а перемещение — строку перемещаемой задачи, поэтому перемещение не смешивает старые и новые ключи.
+ */
+@Slf4j
+@Service
+public class BoardService implements MetricsSource {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int REBALANCE_BATCH_SIZE = 1000;
+
+    private final TaskRepository taskRepository;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRankLength;
+
+    private final Set<TaskStatus> pendingRebalance = ConcurrentHashMap.newKeySet();
+    private final AtomicLong rebalances = new AtomicLong();
+    private final AtomicLong rebalancedTasks = new AtomicLong();
+    private volatile long lastRebalanceMillis;
+
+    public BoardService(TaskRepository taskRepository, UserService userService, JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${board.rebalance.max-length:24}") int maxRankLength) {
+        if (maxRankLength < 8) {
+            throw new IllegalArgumentException("board.rebalance.max-length must be at least 8");
+        }
+        this.taskRepository = taskRepository;
+        this.userService = userService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxRankLength = maxRankLength;
+    }
+
+    /**
+     * Возвращает задачи колонки доски в ручном порядке с постраничной выборкой по ключу.
+     * Для не-администраторов возвращает только задачи, где пользователь является автором или исполнителем.
+     *
+     * @param status статус задач колонки
+     * @param cursor курсор из предыдущей страницы или {@code null} для первой страницы
+     * @param size   размер страницы, от 1 до {@link #MAX_PAGE_SIZE}
+     * @return объект {@link CursorPageDto} со списком {@link TaskDto} и курсором следующей страницы
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> getBoardColumn(TaskStatus status, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        BoardKey after = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+        User currentUser = userService.getCurrentUser();
+        Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+
+        List<Task> tasks = taskRepository.findBoardColumn(status, visibleToUserId, after, size + 1);
+        boolean hasNext = tasks.size() > size;
+        if (hasNext) {
+            tasks = tasks.subList(0, size);
+        }
+        return CursorPageDto.<TaskDto>builder()
+                .content(tasks.stream().map(TaskMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(hasNext ? encodeCursor(tasks.get(tasks.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Перемещает задачу внутри её колонки: ставит её сразу после задачи {@code afterTaskId}
+     * или в начало колонки. Изменяется только ключ порядка самой задачи.
+     *
+     * @param taskId      идентификатор перемещаемой задачи
+     * @param afterTaskId идентификатор задачи, после которой нужно поставить задачу, или {@code null} для начала колонки
+     * @return объект {@link TaskDto}, представляющий перемещённую задачу
+     * @throws ResourceNotFoundException если задача или задача-ориентир не найдены
+     * @throws IllegalArgumentException  если задача-ориентир — сама задача или задача из другой колонки
+     */
+    @Transactional
+    public TaskDto moveTask(Long taskId, Long afterTaskId) {
+        Task task = taskRepository.findByIdForUpdate(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        BoardKey after = null;
+        if (afterTaskId != null) {
+            if (afterTaskId.equals(taskId)) {
+                throw new IllegalArgumentException("Task cannot be placed after itself");
+            }
+            Task anchor = taskRepository.findById(afterTaskId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Anchor task not found"));
+            if (anchor.getStatus() != task.getStatus() || anchor.getBoardRank() == null) {
+                throw new IllegalArgumentException("Tasks are in different board columns");
+            }
+            after = new BoardKey(anchor.getBoardRank(), anchor.getId());
+        }
+        String lower = after != null ? after.rank() : null;
+        String upper = taskRepository.findNextBoardRank(task.getStatus(), after, taskId).orElse(null);
+        String current = task.getBoardRank();
+        if (current != null && (lower == null || current.compareTo(lower) > 0)
+                && (upper == null || current.compareTo(upper) < 0)) {
+            return TaskMapper.toDto(task);
+        }
+
+        String rank;
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            // Одинаковые ключи у соседей остаются после одновременного добавления задач в конец колонки;
+            // задача ставится сразу за ними, а перераспределение сделает ключи различными.
+            pendingRebalance.add(task.getStatus());
+            rank = BoardRank.between(lower, null);
+        } else {
+            rank = BoardRank.between(lower, upper);
+        }
+        checkLength(task.getStatus(), rank);
+        task.setBoardRank(rank);
+        return TaskMapper.toDto(taskRepository.save(task));
+    }
+
+    /**
+     * Возвращает ключ для задачи, добавляемой в конец колонки. Вызывается при создании задачи
+     * и смене её статуса в транзакции вызывающего.
+     *
+     * @param status статус задач колонки
+     * @return ключ порядка
+     */
+    public String rankAtEnd(TaskStatus status) {
+        String rank = BoardRank.between(taskRepository.findLastBoardRank(status).orElse(null), null);
+        checkLength(status, rank);
+        return rank;
+    }
+
+    /**
+     * Перераспределяет ключи помеченных колонок. Ошибка перераспределения колонки оставляет её помеченной.
+     */
+    @Scheduled(fixedDelayString = "${board.rebalance.interval:PT1M}")
+    public void rebalancePending() {
+        for (TaskStatus status : TaskStatus.values()) {
+            if (pendingRebalance.remove(status)) {
+                try {
+                    rebalance(status);
+                } catch (RuntimeException e) {
+                    pendingRebalance.add(status);
+                    log.error("Board column {} rebalance failed", status, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Равномерно перераспределяет ключи колонки с сохранением порядка задач в одной транзакции.
+     * Сначала блокируются все строки колонки, затем порядок читается заново, чтобы учесть перемещения,
+     * зафиксированные во время ожидания блокировок.
+     *
+     * @param status статус задач колонки
+     * @return количество задач колонки
+     */
+    public int rebalance(TaskStatus status) {
+        long start = System.currentTimeMillis();
+        Integer count = transactionTemplate.execute(tx -> {
+            jdbcTemplate.query("SELECT id FROM tasks WHERE status = ? FOR UPDATE", rs -> {
+            }, status.name());
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM tasks WHERE status = ? ORDER BY board_rank NULLS LAST, id", Long.class,
+                    status.name());
+            List<Object[]> batch = new ArrayList<>(REBALANCE_BATCH_SIZE);
+            for (int i = 0; i < ids.size(); i++) {
+                batch.add(new Object[]{BoardRank.spread(i, ids.size()), ids.get(i)});
+                if (batch.size() == REBALANCE_BATCH_SIZE || i == ids.size() - 1) {
+                    jdbcTemplate.batchUpdate("UPDATE tasks SET board_rank = ? WHERE id = ?", batch);
+                    batch.clear();
+                }
+            }
+            return ids.size();
+        });
+        lastRebalanceMillis = System.currentTimeMillis() - start;
+        rebalances.incrementAndGet();
+        rebalancedTasks.addAndGet(count);
+        log.info("Rebalanced board column {}: {} tasks in {} ms", status, count, lastRebalanceMillis);
+        return count;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "board";
+    }
+
+    /**
+     * Возвращает колонки, ожидающие перераспределения, и статистику выполненных перераспределений.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pendingRebalance", pendingRebalance.stream().sorted().map(Enum::name).toList());
+        metrics.put("rebalances", rebalances.get());
+        metrics.put("rebalancedTasks", rebalancedTasks.get());
+        metrics.put("lastRebalanceMillis", lastRebalanceMillis);
+        return metrics;
+    }
+
+    private void checkLength(TaskStatus status, String rank) {
+        if (rank.length() > maxRankLength && pendingRebalance.add(status)) {
+            log.debug("Board column {} scheduled for rebalance: rank length {}", status, rank.length());
+        }
+    }
+
+    private static String encodeCursor(Task task) {
+        String key = task.getBoardRank() + "_" + task.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BoardKey decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('_');
+            return new BoardKey(key.substring(0, separator), Long.valueOf(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
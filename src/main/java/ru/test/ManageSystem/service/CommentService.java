@@ -1,37 +1,57 @@
 package ru.test.ManageSystem.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.test.ManageSystem.DTO.CommentDto;
+import ru.test.ManageSystem.DTO.CursorPageDto;
 import ru.test.ManageSystem.entity.Comment;
+import ru.test.ManageSystem.entity.Task;
 import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.CommentField;
+import ru.test.ManageSystem.event.CommentEvent;
 import ru.test.ManageSystem.exception.ResourceNotFoundException;
 import ru.test.ManageSystem.mapper.CommentMapper;
 import ru.test.ManageSystem.repository.CommentRepository;
 import ru.test.ManageSystem.repository.TaskRepository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Сервис для управления комментариями к задачам.
  * Предоставляет методы для создания, обновления, удаления и получения комментариев,
  * а также проверки авторства комментария.
+ * Каждое изменение комментария публикует {@link CommentEvent}, который слушатели обрабатывают
+ * после фиксации транзакции.
  */
 @Service
 @RequiredArgsConstructor
 public class CommentService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char NEWER = 'N';
+    private static final char OLDER = 'O';
+
     private final CommentRepository commentRepository;
     private final TaskRepository taskRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Создаёт новый комментарий к задаче.
-     * Связывает комментарий с задачей и текущим пользователем, устанавливает время создания.
+     * Связывает комментарий с задачей и текущим пользователем, устанавливает время создания,
+     * атомарно увеличивает счётчик комментариев задачи и время последнего комментария.
      *
      * @param taskId  идентификатор задачи, к которой добавляется комментарий
      * @param content текст комментария
@@ -40,14 +60,53 @@ public class CommentService {
      */
     @Transactional
     public CommentDto createComment(Long taskId, String content) {
+        return createComment(taskId, content, null);
+    }
+
+    /**
+     * Создаёт новый комментарий к задаче или ответ на комментарий.
+     * Путь комментария строится из пути родителя и собственного идентификатора, счётчик ответов
+     * родителя увеличивается атомарно.
+     *
+     * @param taskId   идентификатор задачи, к которой добавляется комментарий
+     * @param content  текст комментария
+     * @param parentId идентификатор комментария, на который дан ответ, или {@code null}
+     * @return объект {@link CommentDto}, представляющий созданный комментарий
+     * @throws ResourceNotFoundException если задача или родительский комментарий не найдены
+     * @throws IllegalArgumentException  если родительский комментарий относится к другой задаче
+     *                                   или достигнута максимальная глубина ответов
+     */
+    @Transactional
+    public CommentDto createComment(Long taskId, String content, Long parentId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        Comment parent = null;
+        if (parentId != null) {
+            parent = commentRepository.findById(parentId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Parent comment not found"));
+            if (!parent.getTask().getId().equals(taskId)) {
+                throw new IllegalArgumentException("Parent comment does not belong to this task");
+            }
+            if (parent.getDepth() + 1 >= Comment.MAX_DEPTH) {
+                throw new IllegalArgumentException("Reply depth limit of " + Comment.MAX_DEPTH + " reached");
+            }
+        }
         Comment comment = Comment.builder()
                 .content(content)
-                .task(taskRepository.findById(taskId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Task not found")))
+                .task(task)
                 .author(userService.getCurrentUser())
                 .createdAt(LocalDateTime.now())
+                .parent(parent)
+                .depth(parent != null ? parent.getDepth() + 1 : 0)
                 .build();
-        return CommentMapper.toDto(commentRepository.save(comment));
+        Comment saved = commentRepository.save(comment);
+        saved.setPath((parent != null ? parent.getPath() : "") + pathSegment(saved.getId()));
+        if (parent != null) {
+            commentRepository.addReplyCount(parentId, 1);
+        }
+        taskRepository.incrementCommentCount(taskId, comment.getCreatedAt());
+        publish(CommentEvent.Type.CREATED, saved, null);
+        return CommentMapper.toDto(saved);
     }
 
     /**
@@ -68,12 +127,17 @@ public class CommentService {
         if (!comment.getTask().getId().equals(taskId)) {
             throw new IllegalArgumentException("Comment does not belong to this task");
         }
+        String previousContent = comment.getContent();
         comment.setContent(content);
-        return CommentMapper.toDto(commentRepository.save(comment));
+        Comment saved = commentRepository.save(comment);
+        publish(CommentEvent.Type.UPDATED, saved, previousContent);
+        return CommentMapper.toDto(saved);
     }
 
     /**
-     * Удаляет комментарий по его идентификатору.
+     * Удаляет комментарий по его идентификатору вместе со всеми ответами на него.
+     * Ответы удаляются одним запросом по диапазону путей; счётчик ответов родителя и счётчик комментариев
+     * задачи уменьшаются атомарно, время последнего комментария задачи пересчитывается.
      *
      * @param commentId идентификатор комментария, который нужно удалить
      * @throws ResourceNotFoundException если комментарий не найден
@@ -82,7 +146,22 @@ public class CommentService {
     public void deleteComment(Long commentId) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
-        commentRepository.delete(comment);
+        Long taskId = comment.getTask().getId();
+        List<Comment> removed;
+        if (comment.getReplyCount() > 0 && comment.getPath() != null) {
+            String to = pathUpperBound(comment.getPath());
+            removed = commentRepository.findByPathRange(taskId, comment.getPath(), to, Pageable.unpaged());
+            commentRepository.detachByPathRange(taskId, comment.getPath(), to);
+            commentRepository.deleteByPathRange(taskId, comment.getPath(), to);
+        } else {
+            commentRepository.delete(comment);
+            removed = List.of(comment);
+        }
+        if (comment.getParent() != null) {
+            commentRepository.addReplyCount(comment.getParent().getId(), -1);
+        }
+        taskRepository.decrementCommentCount(taskId, removed.size());
+        removed.forEach(deleted -> publish(CommentEvent.Type.DELETED, deleted, deleted.getContent()));
     }
 
     /**
@@ -102,6 +181,129 @@ public class CommentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Возвращает комментарии указанной задачи, заполняя только указанные поля.
+     * Если поля заданы, из базы данных выбираются только их колонки без загрузки сущностей.
+     *
+     * @param taskId идентификатор задачи, для которой запрашиваются комментарии
+     * @param fields запрашиваемые поля или {@code null}, если нужны все поля
+     * @return список объектов {@link CommentDto}, представляющих комментарии
+     * @throws ResourceNotFoundException если задача не найдена
+     */
+    public List<CommentDto> getCommentsByTaskId(Long taskId, Set<CommentField> fields) {
+        if (fields == null) {
+            return getCommentsByTaskId(taskId);
+        }
+        if (!taskRepository.existsById(taskId)) {
+            throw new ResourceNotFoundException("Task not found");
+        }
+        List<CommentField> columns = List.copyOf(fields);
+        return commentRepository.findColumnsByTaskId(taskId, columns)
+                .stream()
+                .map(row -> CommentMapper.toDto(row, columns))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Возвращает страницу комментариев задачи с постраничной выборкой по ключу ({@code createdAt}, {@code id}).
+     * Без курсора возвращаются самые новые комментарии от новых к старым; {@code nextCursor} продолжает
+     * листание к более старым. {@code prevCursor} страницы указывает в обратную сторону: для первой страницы
+     * это курсор «новые комментарии после самого нового из показанных», страницы по нему идут от старых к новым,
+     * а их {@code nextCursor} не пропадает и в конце выборки, чтобы по нему можно было ждать новых комментариев.
+     * Каждая страница читает из индекса только своё окно, поэтому стоимость не зависит от числа комментариев.
+     *
+     * @param taskId идентификатор задачи
+     * @param cursor курсор из предыдущей страницы или {@code null} для самых новых комментариев
+     * @param size   размер страницы, от 1 до {@link #MAX_PAGE_SIZE}
+     * @return объект {@link CursorPageDto} со списком {@link CommentDto} и курсорами
+     * @throws ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException  если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    public CursorPageDto<CommentDto> getCommentPage(Long taskId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        CommentKey key = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+        if (!taskRepository.existsById(taskId)) {
+            throw new ResourceNotFoundException("Task not found");
+        }
+        Pageable limit = PageRequest.of(0, size + 1);
+        boolean newer = key != null && key.newer();
+        List<Comment> comments;
+        if (key == null) {
+            comments = commentRepository.findNewestByTaskId(taskId, limit);
+        } else if (newer) {
+            comments = commentRepository.findNewerByTaskId(taskId, key.createdAt(), key.id(), limit);
+        } else {
+            comments = commentRepository.findOlderByTaskId(taskId, key.createdAt(), key.id(), limit);
+        }
+        boolean hasNext = comments.size() > size;
+        if (hasNext) {
+            comments = comments.subList(0, size);
+        }
+
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!comments.isEmpty()) {
+            Comment last = comments.get(comments.size() - 1);
+            nextCursor = hasNext || newer ? encodeCursor(newer, last) : null;
+            prevCursor = encodeCursor(!newer, comments.get(0));
+        } else if (newer) {
+            nextCursor = cursor;
+        }
+        return CursorPageDto.<CommentDto>builder()
+                .content(comments.stream().map(CommentMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Возвращает ветку обсуждения: комментарий и все ответы на него в порядке обхода в глубину
+     * (каждый ответ следует сразу за своим родителем), с постраничной выборкой по пути.
+     * Ветка читается одним диапазоном индекса {@code (task_id, path)} без рекурсивных запросов,
+     * курсор кодирует путь последнего комментария страницы.
+     *
+     * @param taskId    идентификатор задачи
+     * @param commentId идентификатор комментария, с которого начинается ветка
+     * @param cursor    курсор из предыдущей страницы или {@code null} для первой страницы
+     * @param size      размер страницы, от 1 до {@link #MAX_PAGE_SIZE}
+     * @return объект {@link CursorPageDto} со списком {@link CommentDto} и курсором следующей страницы
+     * @throws ResourceNotFoundException если комментарий не найден
+     * @throws IllegalArgumentException  если комментарий относится к другой задаче, курсор повреждён
+     *                                   или размер страницы вне допустимого диапазона
+     */
+    public CursorPageDto<CommentDto> getThread(Long taskId, Long commentId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Comment root = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
+        if (!root.getTask().getId().equals(taskId)) {
+            throw new IllegalArgumentException("Comment does not belong to this task");
+        }
+        String from = root.getPath();
+        if (cursor != null && !cursor.isEmpty()) {
+            String after = decodePathCursor(cursor);
+            if (!after.startsWith(root.getPath())) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            from = after + "0";
+        }
+        List<Comment> comments = commentRepository.findByPathRange(taskId, from, pathUpperBound(root.getPath()),
+                PageRequest.of(0, size + 1));
+        boolean hasNext = comments.size() > size;
+        if (hasNext) {
+            comments = comments.subList(0, size);
+        }
+        return CursorPageDto.<CommentDto>builder()
+                .content(comments.stream().map(CommentMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(hasNext ? encodePathCursor(comments.get(comments.size() - 1).getPath()) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
     /**
      * Проверяет, является ли текущий пользователь автором комментария.
      *
@@ -115,4 +317,80 @@ public class CommentService {
         User currentUser = userService.getCurrentUser();
         return comment.getAuthor().getId().equals(currentUser.getId());
     }
-}
\ No newline at end of file
+
+    /**
+     * Возвращает сегмент пути для идентификатора: десятичная запись, дополненная нулями слева.
+     */
+    static String pathSegment(long id) {
+        String digits = Long.toString(id);
+        if (id <= 0 || digits.length() > Comment.PATH_SEGMENT_LENGTH
+                || digits.equals("9".repeat(Comment.PATH_SEGMENT_LENGTH))) {
+            throw new IllegalStateException("Comment id " + id + " does not fit into a path segment");
+        }
+        return "0".repeat(Comment.PATH_SEGMENT_LENGTH - digits.length()) + digits;
+    }
+
+    /**
+     * Возвращает наименьшую строку, большую всех путей с префиксом {@code path}: путь как десятичное число + 1.
+     * Переполнение невозможно, так как сегмент не может состоять из одних девяток.
+     */
+    static String pathUpperBound(String path) {
+        char[] digits = path.toCharArray();
+        int i = digits.length - 1;
+        while (digits[i] == '9') {
+            digits[i--] = '0';
+        }
+        digits[i]++;
+        return new String(digits);
+    }
+
+    private static String encodePathCursor(String path) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(path.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePathCursor(String cursor) {
+        String path;
+        try {
+            path = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (path.isEmpty() || path.length() % Comment.PATH_SEGMENT_LENGTH != 0
+                || !path.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return path;
+    }
+
+    private static String encodeCursor(boolean newer, Comment comment) {
+        String key = (newer ? NEWER : OLDER) + "_" + comment.getCreatedAt() + "_" + comment.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CommentKey decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String direction = key.substring(0, 2);
+            if (!direction.equals(NEWER + "_") && !direction.equals(OLDER + "_")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int separator = key.lastIndexOf('_');
+            return new CommentKey(key.charAt(0) == NEWER, LocalDateTime.parse(key.substring(2, separator)),
+                    Long.valueOf(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private void publish(CommentEvent.Type type, Comment comment, String previousContent) {
+        eventPublisher.publishEvent(new CommentEvent(type, comment.getId(), comment.getTask().getId(),
+                comment.getAuthor().getId(), type == CommentEvent.Type.DELETED ? null : comment.getContent(),
+                comment.getCreatedAt(), previousContent));
+    }
+
+    /**
+     * Ключ курсора: направление листания и ключ последнего прочитанного комментария.
+     */
+    private record CommentKey(boolean newer, LocalDateTime createdAt, Long id) {
+    }
+}
@@ -0,0 +1,271 @@
+package ru.test.ManageSystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.event.TaskOverdueEvent;
+import ru.test.ManageSystem.metrics.MetricsSource;
+import ru.test.ManageSystem.search.DeadlineWheel;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис сроков выполнения задач. Сроки незавершённых задач хранятся в колесе таймеров {@link DeadlineWheel},
+ * которое фоновая задача с периодом {@code due.tick} продвигает до текущего момента.
+ * <p>
+ * Колесо заполняется лениво: при первом такте загружаются сроки до {@code now + due.horizon} постраничным
+ * обходом индекса ({@code due_at}, {@code id}), включая сроки, наступившие пока приложение не работало;
+ * когда до границы загруженного окна остаётся меньше половины горизонта, загружается следующее окно.
+ * Изменения сроков внутри окна применяются по {@link TaskEvent} после фиксации транзакций.
+ * <p>
+ * Наступившие сроки обрабатываются пачками по {@code due.batch-size}: условный UPDATE устанавливает
+ * признак {@code overdue} только у незавершённой и ещё не просроченной задачи, срок которой действительно
+ * наступил, и лишь для таких задач публикуется {@link TaskOverdueEvent}. Поэтому каждый срок срабатывает
+ * ровно один раз при перезапусках и на нескольких узлах, а устаревшие узлы колеса безопасно пропускаются.
+ */
+@Slf4j
+@Service
+public class DueDateService implements MetricsSource {
+
+    private static final String OPEN_DEADLINES = "SELECT id, due_at FROM tasks WHERE due_at < ?"
+            + " AND overdue = FALSE AND status <> ?";
+    private static final String MARK_OVERDUE = "UPDATE tasks SET overdue = TRUE"
+            + " WHERE id = ? AND overdue = FALSE AND status <> ? AND due_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration horizon;
+    private final int batchSize;
+    private final DeadlineWheel wheel;
+
+    private LocalDateTime loadedUntil;
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile long lastLoadMillis;
+
+    public DueDateService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${due.tick:PT1S}") Duration tick,
+                          @Value("${due.horizon:P1D}") Duration horizon,
+                          @Value("${due.batch-size:500}") int batchSize) {
+        if (tick.toMillis() <= 0 || horizon.compareTo(tick) <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("due.tick, due.horizon and due.batch-size must be positive, "
+                    + "horizon longer than tick");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.wheel = new DeadlineWheel(tick.toMillis(), System.currentTimeMillis());
+    }
+
+    /**
+     * Загружает очередное окно сроков, если нужно, продвигает колесо до текущего момента
+     * и обрабатывает наступившие сроки.
+     */
+    @Scheduled(fixedDelayString = "${due.tick:PT1S}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        ensureLoaded(now);
+        long[] expired;
+        synchronized (this) {
+            expired = wheel.advance(toMillis(now));
+        }
+        for (int from = 0; from < expired.length; from += batchSize) {
+            List<Long> batch = new ArrayList<>(Math.min(batchSize, expired.length - from));
+            for (int i = from; i < Math.min(expired.length, from + batchSize); i++) {
+                batch.add(expired[i]);
+            }
+            fire(batch, now);
+        }
+    }
+
+    /**
+     * Ставит, переносит или снимает срок задачи после фиксации её изменения.
+     * Сроки за границей загруженного окна не ставятся: их загрузит следующее окно.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public synchronized void onTaskEvent(TaskEvent event) {
+        TaskDto task = event.after();
+        if (task != null && task.getDueAt() != null && !task.isOverdue() && task.getStatus() != TaskStatus.COMPLETED
+                && loadedUntil != null && task.getDueAt().isBefore(loadedUntil)) {
+            wheel.schedule(task.getId(), toMillis(task.getDueAt()));
+        } else {
+            wheel.cancel(event.taskId());
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "dueDates";
+    }
+
+    /**
+     * Возвращает количество сроков в колесе, границу загруженного окна, число загруженных, сработавших
+     * и пропущенных сроков и число перекладываний узлов колеса.
+     */
+    @Override
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("scheduled", wheel.size());
+        metrics.put("loadedUntil", loadedUntil != null ? loadedUntil.toString() : null);
+        metrics.put("loaded", loaded.get());
+        metrics.put("fired", fired.get());
+        metrics.put("skipped", skipped.get());
+        metrics.put("cascades", wheel.cascades());
+        metrics.put("wheelBytes", wheel.byteSize());
+        metrics.put("lastLoadMillis", lastLoadMillis);
+        return metrics;
+    }
+
+    /**
+     * Загружает сроки до {@code now + due.horizon}, если граница загруженного окна ближе половины горизонта.
+     * Граница сдвигается до чтения, поэтому события, зафиксированные во время загрузки, уже попадают в колесо;
+     * загрузка не заменяет сроки, поставленные событиями.
+     */
+    private void ensureLoaded(LocalDateTime now) {
+        LocalDateTime from;
+        LocalDateTime to;
+        synchronized (this) {
+            if (loadedUntil != null && loadedUntil.isAfter(now.plus(horizon.dividedBy(2)))) {
+                return;
+            }
+            from = loadedUntil;
+            to = (from != null && from.isAfter(now) ? from : now).plus(horizon);
+            loadedUntil = to;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            load(from, to);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loadedUntil = from;
+            }
+            throw e;
+        }
+        lastLoadMillis = System.currentTimeMillis() - start;
+        log.debug("Due dates loaded until {}", to);
+    }
+
+    private void load(LocalDateTime from, LocalDateTime to) {
+        String sql = OPEN_DEADLINES + (from != null ? " AND due_at >= ?" : "");
+        List<Object> bounds = new ArrayList<>(List.of(Timestamp.valueOf(to), TaskStatus.COMPLETED.name()));
+        if (from != null) {
+            bounds.add(Timestamp.valueOf(from));
+        }
+        Timestamp afterDueAt = null;
+        long afterId = 0;
+        while (true) {
+            List<Object> args = new ArrayList<>(bounds);
+            String page = sql;
+            if (afterDueAt != null) {
+                page += " AND (due_at > ? OR (due_at = ? AND id > ?))";
+                args.addAll(List.of(afterDueAt, afterDueAt, afterId));
+            }
+            args.add(batchSize);
+            List<Object[]> rows = jdbcTemplate.query(page + " ORDER BY due_at, id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong("id"), rs.getTimestamp("due_at")}, args.toArray());
+            synchronized (this) {
+                for (Object[] row : rows) {
+                    long taskId = (Long) row[0];
+                    if (!wheel.contains(taskId)) {
+                        wheel.schedule(taskId, ((Timestamp) row[1]).getTime());
+                    }
+                }
+            }
+            loaded.addAndGet(rows.size());
+            if (rows.size() < batchSize) {
+                return;
+            }
+            Object[] last = rows.get(rows.size() - 1);
+            afterId = (Long) last[0];
+            afterDueAt = (Timestamp) last[1];
+        }
+    }
+
+    /**
+     * Отмечает задачи пачки просроченными и публикует события для отмеченных задач в одной транзакции.
+     * Задачи, которые не удалось отметить, но срок которых ещё не наступил, снова ставятся в колесо.
+     */
+    private void fire(List<Long> taskIds, LocalDateTime now) {
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        List<Long> marked = transactionTemplate.execute(status -> {
+            List<Object[]> batch = new ArrayList<>(taskIds.size());
+            for (Long taskId : taskIds) {
+                batch.add(new Object[]{taskId, TaskStatus.COMPLETED.name(), nowTimestamp});
+            }
+            int[] counts = jdbcTemplate.batchUpdate(MARK_OVERDUE, batch);
+            List<Long> result = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    result.add(taskIds.get(i));
+                }
+            }
+            if (!result.isEmpty()) {
+                jdbcTemplate.query("SELECT id, author_id, assignee_id, due_at FROM tasks WHERE id IN ("
+                                + placeholders(result.size()) + ")",
+                        rs -> {
+                            long assigneeId = rs.getLong("assignee_id");
+                            Long assignee = rs.wasNull() ? null : assigneeId;
+                            eventPublisher.publishEvent(new TaskOverdueEvent(rs.getLong("id"),
+                                    rs.getLong("author_id"), assignee, rs.getTimestamp("due_at").toLocalDateTime()));
+                        }, result.toArray());
+            }
+            return result;
+        });
+        int markedCount = marked != null ? marked.size() : 0;
+        fired.addAndGet(markedCount);
+        if (markedCount == taskIds.size()) {
+            return;
+        }
+        List<Long> rest = new ArrayList<>(taskIds);
+        if (marked != null) {
+            rest.removeAll(marked);
+        }
+        skipped.addAndGet(rest.size());
+        List<Object> args = new ArrayList<>(rest);
+        args.add(TaskStatus.COMPLETED.name());
+        args.add(nowTimestamp);
+        List<Object[]> pending = jdbcTemplate.query("SELECT id, due_at FROM tasks WHERE id IN ("
+                        + placeholders(rest.size()) + ") AND overdue = FALSE AND status <> ? AND due_at > ?",
+                (rs, rowNum) -> new Object[]{rs.getLong("id"), rs.getTimestamp("due_at")}, args.toArray());
+        synchronized (this) {
+            for (Object[] row : pending) {
+                Timestamp dueAt = (Timestamp) row[1];
+                if (loadedUntil != null && dueAt.toLocalDateTime().isBefore(loadedUntil)) {
+                    wheel.schedule((Long) row[0], dueAt.getTime());
+                }
+            }
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
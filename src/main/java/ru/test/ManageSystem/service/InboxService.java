@@ -0,0 +1,390 @@
+package ru.test.ManageSystem.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.InboxItemDto;
+import ru.test.ManageSystem.DTO.InboxUnreadDto;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.cache.InboxCounters;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
+import ru.test.ManageSystem.entity.InboxItem;
+import ru.test.ManageSystem.enums.NotificationType;
+import ru.test.ManageSystem.event.CommentEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.mapper.InboxMapper;
+import ru.test.ManageSystem.metrics.MetricsSource;
+import ru.test.ManageSystem.repository.InboxItemRepository;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис входящих пользователя: назначений ему задач и новых комментариев к задачам, где он автор или исполнитель.
+ * <p>
+ * Элементы входящих вставляются в {@code inbox_items} в транзакции изменения задачи или комментария, а счётчики
+ * непрочитанных хранятся в памяти в {@link InboxCounters} и читаются за {@code O(1)} без запросов к базе данных.
+ * Счётчик увеличивается после фиксации транзакции. Изменённые счётчики сохраняются в {@code inbox_counters}
+ * с периодом {@code inbox.flush-interval} пачками по {@code inbox.batch-size} вместе с безопасной границей
+ * {@link InboxCounters#safeWatermark()}; при запуске счётчики загружаются из сохранённых строк, а элементы
+ * выше наибольшей сохранённой границы досчитываются одним агрегирующим запросом.
+ * <p>
+ * Отметка прочтения сдвигает границу прочтения пользователя: отметка всех элементов не обращается к базе данных,
+ * отметка до элемента считает одним запросом по индексу {@code (user_id, id)} непрочитанные элементы
+ * между ним и безопасной границей. Граница сохраняется вместе со счётчиком, поэтому отметки после последнего
+ * сохранения теряются при аварийной остановке и элементы снова считаются непрочитанными.
+ * <p>
+ * Счётчики предполагают, что элементы входящих вставляет один экземпляр приложения.
+ */
+@Slf4j
+@Service
+public class InboxService implements MetricsSource, SmartInitializingSingleton {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String PARTICIPANTS = "SELECT author_id, assignee_id FROM tasks WHERE id = ?";
+    private static final String UPDATE_COUNTER = "UPDATE inbox_counters SET unread = ?, read_up_to = ?,"
+            + " counted_up_to = ? WHERE user_id = ?";
+    private static final String INSERT_COUNTER = "INSERT INTO inbox_counters (unread, read_up_to, counted_up_to,"
+            + " user_id) VALUES (?, ?, ?, ?)";
+    private static final String REPLAY = "SELECT i.user_id, COUNT(*) FROM inbox_items i"
+            + " LEFT JOIN inbox_counters c ON c.user_id = i.user_id"
+            + " WHERE i.id > ? AND i.id > COALESCE(c.read_up_to, 0) GROUP BY i.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InboxItemRepository inboxItemRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final InboxCounters counters;
+    private final int batchSize;
+
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushMillis;
+
+    public InboxService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        InboxItemRepository inboxItemRepository, UserSnapshotCache userSnapshotCache,
+                        @Value("${inbox.stripes:64}") int stripes,
+                        @Value("${inbox.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("inbox.batch-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.inboxItemRepository = inboxItemRepository;
+        this.userSnapshotCache = userSnapshotCache;
+        this.counters = new InboxCounters(stripes);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Загружает счётчики после создания всех компонентов, до приёма запросов и запуска фоновых задач.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    /**
+     * Загружает сохранённые счётчики и досчитывает непрочитанные элементы выше наибольшей сохранённой границы.
+     * Досчитанные счётчики сохраняются при следующем сохранении.
+     */
+    void load() {
+        Map<Long, long[]> rows = new HashMap<>();
+        long[] countedUpTo = {0};
+        jdbcTemplate.query("SELECT user_id, unread, read_up_to, counted_up_to FROM inbox_counters", rs -> {
+            rows.put(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3)});
+            countedUpTo[0] = Math.max(countedUpTo[0], rs.getLong(4));
+        });
+        Map<Long, Long> delta = new HashMap<>();
+        jdbcTemplate.query(REPLAY, rs -> {
+            delta.put(rs.getLong(1), rs.getLong(2));
+        }, countedUpTo[0]);
+
+        rows.forEach((userId, row) -> counters.restore(userId, row[0] + delta.getOrDefault(userId, 0L), row[1],
+                delta.containsKey(userId)));
+        delta.forEach((userId, count) -> {
+            if (!rows.containsKey(userId)) {
+                counters.restore(userId, count, 0, true);
+            }
+            replayed.addAndGet(count);
+        });
+        Long maxItemId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM inbox_items", Long.class);
+        counters.inserted(maxItemId != null ? maxItemId : 0);
+        log.info("Inbox counters loaded: {} users, {} items replayed above {}", counters.size(), replayed.get(),
+                countedUpTo[0]);
+    }
+
+    /**
+     * Добавляет во входящие нового исполнителя задачи элемент о назначении, если он назначен не сам собой.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskEvent(TaskEvent event) {
+        TaskDto before = event.before();
+        TaskDto after = event.after();
+        if (after == null || after.getAssigneeId() == null
+                || (before != null && after.getAssigneeId().equals(before.getAssigneeId()))) {
+            return;
+        }
+        if (!after.getAssigneeId().equals(currentActorId())) {
+            insert(NotificationType.ASSIGNED, after.getId(), Set.of(after.getAssigneeId()));
+        }
+    }
+
+    /**
+     * Добавляет во входящие автора и исполнителя задачи, кроме автора комментария, элемент о новом комментарии.
+     *
+     * @param event событие изменения комментария
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCommentEvent(CommentEvent event) {
+        if (event.type() != CommentEvent.Type.CREATED) {
+            return;
+        }
+        Set<Long> recipients = new LinkedHashSet<>();
+        jdbcTemplate.query(PARTICIPANTS, rs -> {
+            recipients.add(rs.getLong(1));
+            long assigneeId = rs.getLong(2);
+            if (!rs.wasNull()) {
+                recipients.add(assigneeId);
+            }
+        }, event.taskId());
+        recipients.remove(event.authorId());
+        insert(NotificationType.COMMENTED, event.taskId(), recipients);
+    }
+
+    /**
+     * Возвращает число непрочитанных элементов входящих текущего пользователя без обращения к базе данных.
+     *
+     * @return объект {@link InboxUnreadDto} с числом непрочитанных элементов и границей прочтения
+     * @throws ResourceNotFoundException если текущий пользователь не найден
+     */
+    public InboxUnreadDto getUnread() {
+        long userId = currentUserId();
+        return new InboxUnreadDto(counters.unread(userId), counters.readUpTo(userId));
+    }
+
+    /**
+     * Возвращает страницу входящих текущего пользователя от новых элементов к старым.
+     *
+     * @param cursor курсор из предыдущей страницы или {@code null} для первой страницы
+     * @param size   размер страницы, от 1 до {@link #MAX_PAGE_SIZE}
+     * @return объект {@link CursorPageDto} со списком {@link InboxItemDto} и курсором следующей страницы
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     * @throws ResourceNotFoundException если текущий пользователь не найден
+     */
+    public CursorPageDto<InboxItemDto> getInbox(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long beforeId = cursor == null || cursor.isEmpty() ? Long.MAX_VALUE : decodeCursor(cursor);
+        long userId = currentUserId();
+        long readUpTo = counters.readUpTo(userId);
+        List<InboxItem> items = new ArrayList<>(inboxItemRepository.findOlder(userId, beforeId,
+                PageRequest.of(0, size + 1)));
+        boolean hasNext = items.size() > size;
+        if (hasNext) {
+            items.remove(size);
+        }
+        return CursorPageDto.<InboxItemDto>builder()
+                .content(items.stream().map(item -> InboxMapper.toDto(item, readUpTo)).toList())
+                .nextCursor(hasNext ? encodeCursor(items.get(items.size() - 1).getId()) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Отмечает прочитанными элементы входящих текущего пользователя с идентификатором не больше {@code upTo},
+     * а без {@code upTo} — все учтённые элементы. Граница прочтения только растёт: отметка до уже прочитанного
+     * элемента ничего не меняет.
+     *
+     * @param upTo идентификатор последнего прочитанного элемента или {@code null}
+     * @return объект {@link InboxUnreadDto} с числом непрочитанных элементов после отметки
+     * @throws IllegalArgumentException если {@code upTo} отрицателен
+     * @throws ResourceNotFoundException если текущий пользователь не найден
+     */
+    public InboxUnreadDto markRead(Long upTo) {
+        if (upTo != null && upTo < 0) {
+            throw new IllegalArgumentException("upTo must not be negative");
+        }
+        long userId = currentUserId();
+        long watermark = counters.safeWatermark();
+        long latest = counters.latest(userId, watermark);
+        long bound = upTo != null ? Math.min(upTo, latest) : latest;
+        long unreadBelow = bound < watermark && bound > counters.readUpTo(userId)
+                ? inboxItemRepository.countInRange(userId, bound, watermark) : 0;
+        long unread = counters.markRead(userId, bound, watermark, unreadBelow);
+        return new InboxUnreadDto(unread, counters.readUpTo(userId));
+    }
+
+    /**
+     * Сохраняет изменённые счётчики одной транзакцией пачками по {@code inbox.batch-size}: строки обновляются,
+     * а отсутствующие вставляются. При ошибке счётчики остаются изменёнными и сохраняются при следующем запуске.
+     */
+    @Scheduled(fixedDelayString = "${inbox.flush-interval:PT5S}")
+    public void flush() {
+        long watermark = counters.safeWatermark();
+        List<InboxCounters.Snapshot> snapshots = counters.snapshot(watermark);
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < snapshots.size(); from += batchSize) {
+                    write(snapshots.subList(from, Math.min(snapshots.size(), from + batchSize)));
+                }
+            });
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            log.warn("Failed to flush {} inbox counters", snapshots.size(), e);
+            return;
+        }
+        counters.flushed(snapshots);
+        flushes.incrementAndGet();
+        flushedRows.addAndGet(snapshots.size());
+        lastFlushMillis = System.currentTimeMillis() - started;
+    }
+
+    /**
+     * Сохраняет изменённые счётчики при штатной остановке.
+     */
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "inbox";
+    }
+
+    /**
+     * Возвращает число пользователей со счётчиками, активных резервов и вставленных элементов,
+     * безопасную границу, число досчитанных при загрузке элементов, число успешных и неудачных сохранений,
+     * сохранённых строк и длительность последнего сохранения.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("users", counters.size());
+        metrics.put("reservations", counters.reservations());
+        metrics.put("inserted", inserted.get());
+        metrics.put("watermark", counters.safeWatermark());
+        metrics.put("replayed", replayed.get());
+        metrics.put("flushes", flushes.get());
+        metrics.put("failedFlushes", failedFlushes.get());
+        metrics.put("flushedRows", flushedRows.get());
+        metrics.put("lastFlushMillis", lastFlushMillis);
+        return metrics;
+    }
+
+    /**
+     * Вставляет элементы входящих в текущей транзакции и учитывает их в счётчиках после её фиксации.
+     * Резерв безопасной границы берётся до вставки и снимается после учёта или отката, поэтому сохранение
+     * не отметит учтёнными элементы незавершённой транзакции.
+     */
+    private void insert(NotificationType type, Long taskId, Set<Long> recipients) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        InboxCounters.Reservation reservation = counters.reserve();
+        Map<Long, Long> items = new LinkedHashMap<>();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Long recipientId : recipients) {
+                InboxItem item = inboxItemRepository.save(InboxItem.builder()
+                        .userId(recipientId).type(type).taskId(taskId).createdAt(now).build());
+                counters.inserted(item.getId());
+                items.put(recipientId, item.getId());
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        items.forEach(counters::add);
+                        inserted.addAndGet(items.size());
+                    }
+                    counters.release(reservation);
+                }
+            });
+        } catch (RuntimeException e) {
+            counters.release(reservation);
+            throw e;
+        }
+    }
+
+    private Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return userSnapshotCache.get(authentication.getName()).map(UserSnapshot::getId).orElse(null);
+    }
+
+    private long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = authentication != null ? authentication.getName() : null;
+        return userSnapshotCache.get(email).map(UserSnapshot::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+    }
+
+    private static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private void write(List<InboxCounters.Snapshot> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (InboxCounters.Snapshot snapshot : batch) {
+            args.add(new Object[]{snapshot.unread(), snapshot.readUpTo(), snapshot.countedUpTo(), snapshot.userId()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_COUNTER, args);
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(args.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_COUNTER, missing);
+        }
+    }
+}
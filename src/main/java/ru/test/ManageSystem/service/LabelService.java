@@ -0,0 +1,123 @@
+package ru.test.ManageSystem.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.test.ManageSystem.DTO.LabelDto;
+import ru.test.ManageSystem.entity.Label;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.event.LabelDeletedEvent;
+import ru.test.ManageSystem.event.TaskLabelsEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.mapper.LabelMapper;
+import ru.test.ManageSystem.repository.LabelRepository;
+import ru.test.ManageSystem.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис для управления метками задач.
+ * Предоставляет методы для создания, удаления и получения меток, а также замены набора меток задачи.
+ * Изменения меток задач публикуют {@link TaskLabelsEvent} и {@link LabelDeletedEvent}, по которым
+ * после фиксации транзакции обновляется индекс фильтрации {@code TaskBitmapIndex}.
+ */
+@Service
+@RequiredArgsConstructor
+public class LabelService {
+
+    private final LabelRepository labelRepository;
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Создаёт новую метку. Имя приводится к нижнему регистру.
+     *
+     * @param name имя метки
+     * @return объект {@link LabelDto}, представляющий созданную метку
+     * @throws IllegalArgumentException если метка с таким именем уже существует
+     */
+    @Transactional
+    public LabelDto createLabel(String name) {
+        String normalized = name.toLowerCase(Locale.ROOT);
+        if (labelRepository.existsByName(normalized)) {
+            throw new IllegalArgumentException("Label already exists: " + normalized);
+        }
+        return LabelMapper.toDto(labelRepository.save(Label.builder().name(normalized).build()));
+    }
+
+    /**
+     * Возвращает все метки, упорядоченные по имени.
+     *
+     * @return список объектов {@link LabelDto}
+     */
+    public List<LabelDto> getLabels() {
+        return labelRepository.findAllByOrderByNameAsc().stream()
+                .map(LabelMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Удаляет метку и снимает её со всех задач.
+     *
+     * @param labelId идентификатор метки
+     * @throws ResourceNotFoundException если метка не найдена
+     */
+    @Transactional
+    public void deleteLabel(Long labelId) {
+        Label label = labelRepository.findById(labelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Label not found"));
+        labelRepository.detachFromTasks(labelId);
+        labelRepository.delete(label);
+        eventPublisher.publishEvent(new LabelDeletedEvent(labelId));
+    }
+
+    /**
+     * Заменяет набор меток задачи.
+     *
+     * @param taskId   идентификатор задачи
+     * @param labelIds идентификаторы новых меток задачи; пустой набор снимает все метки
+     * @return список объектов {@link LabelDto}, представляющих метки задачи, упорядоченные по имени
+     * @throws ResourceNotFoundException если задача или одна из меток не найдена
+     */
+    @Transactional
+    public List<LabelDto> setTaskLabels(Long taskId, Set<Long> labelIds) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        List<Label> labels = labelRepository.findAllById(labelIds);
+        if (labels.size() != labelIds.size()) {
+            throw new ResourceNotFoundException("Label not found");
+        }
+        task.getLabels().clear();
+        task.getLabels().addAll(labels);
+        taskRepository.save(task);
+        eventPublisher.publishEvent(new TaskLabelsEvent(taskId, Set.copyOf(labelIds)));
+        return toSortedDtos(labels);
+    }
+
+    /**
+     * Возвращает метки задачи.
+     *
+     * @param taskId идентификатор задачи
+     * @return список объектов {@link LabelDto}, упорядоченных по имени
+     * @throws ResourceNotFoundException если задача не найдена
+     */
+    @Transactional
+    public List<LabelDto> getTaskLabels(Long taskId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        return toSortedDtos(task.getLabels());
+    }
+
+    private static List<LabelDto> toSortedDtos(Iterable<Label> labels) {
+        List<LabelDto> result = new ArrayList<>();
+        labels.forEach(label -> result.add(LabelMapper.toDto(label)));
+        result.sort(Comparator.comparing(LabelDto::getName));
+        return result;
+    }
+}
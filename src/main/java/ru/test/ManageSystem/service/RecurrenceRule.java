@@ -0,0 +1,106 @@
+package ru.test.ManageSystem.service;
+
+import ru.test.ManageSystem.enums.RecurrenceFrequency;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Правило повторения задачи: моменты экземпляров {@code startAt + k * interval} единиц периода для
+ * {@code k = 0, 1, ...} до {@code untilAt} включительно. Каждый момент вычисляется от {@code startAt}, а не от
+ * предыдущего экземпляра, поэтому ежемесячное повторение с 31-го числа не смещается после коротких месяцев.
+ * Моменты в диапазоне перечисляются лениво, начиная с первого момента не раньше начала диапазона,
+ * без перебора предшествующих экземпляров.
+ */
+public final class RecurrenceRule {
+
+    public static final int MAX_INTERVAL = 1000;
+
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final LocalDateTime startAt;
+    private final LocalDateTime untilAt;
+
+    /**
+     * @param frequency единица периода
+     * @param interval  число единиц в периоде, от 1 до {@value #MAX_INTERVAL}
+     * @param startAt   момент первого экземпляра
+     * @param untilAt   последний допустимый момент экземпляра или {@code null}, если повторение бессрочное
+     * @throws IllegalArgumentException если параметры правила недопустимы
+     */
+    public RecurrenceRule(RecurrenceFrequency frequency, int interval, LocalDateTime startAt, LocalDateTime untilAt) {
+        if (frequency == null || startAt == null) {
+            throw new IllegalArgumentException("Recurrence frequency and start are required");
+        }
+        if (interval < 1 || interval > MAX_INTERVAL) {
+            throw new IllegalArgumentException("Recurrence interval must be between 1 and " + MAX_INTERVAL);
+        }
+        if (untilAt != null && untilAt.isBefore(startAt)) {
+            throw new IllegalArgumentException("Recurrence end must not be before its start");
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.startAt = startAt;
+        this.untilAt = untilAt;
+    }
+
+    /**
+     * Возвращает момент экземпляра с заданным номером без учёта {@code untilAt}.
+     *
+     * @param index номер экземпляра, начиная с 0
+     * @return момент экземпляра
+     */
+    public LocalDateTime occurrence(long index) {
+        return startAt.plus(index * interval, frequency.getUnit());
+    }
+
+    /**
+     * Перечисляет моменты экземпляров в диапазоне {@code [from, to)}, не позже {@code untilAt}, по возрастанию.
+     *
+     * @param from начало диапазона включительно
+     * @param to   конец диапазона не включительно
+     * @return ленивый итератор моментов
+     */
+    public Iterator<LocalDateTime> occurrences(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = untilAt != null && untilAt.isBefore(to) ? untilAt.plusNanos(1) : to;
+        long first = indexAtOrAfter(from);
+        return new Iterator<>() {
+            private long index = first;
+            private LocalDateTime next = occurrence(first);
+
+            @Override
+            public boolean hasNext() {
+                return next.isBefore(end);
+            }
+
+            @Override
+            public LocalDateTime next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LocalDateTime current = next;
+                next = occurrence(++index);
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Возвращает номер первого экземпляра не раньше {@code from}. Номер оценивается делением расстояния
+     * от {@code startAt} на период и уточняется на несколько шагов, поэтому стоимость не зависит от номера.
+     */
+    private long indexAtOrAfter(LocalDateTime from) {
+        if (!from.isAfter(startAt)) {
+            return 0;
+        }
+        long index = frequency.getUnit().between(startAt, from) / interval;
+        while (occurrence(index).isBefore(from)) {
+            index++;
+        }
+        while (index > 0 && !occurrence(index - 1).isBefore(from)) {
+            index--;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,361 @@
+package ru.test.ManageSystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.RecurrenceCreateDto;
+import ru.test.ManageSystem.DTO.RecurrenceDto;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.TaskRecurrence;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.mapper.RecurrenceMapper;
+import ru.test.ManageSystem.mapper.TaskMapper;
+import ru.test.ManageSystem.metrics.MetricsSource;
+import ru.test.ManageSystem.repository.TaskRecurrenceRepository;
+import ru.test.ManageSystem.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис повторяющихся задач. Правило повторения {@link TaskRecurrence} прикрепляется к задаче-шаблону,
+ * а экземпляры создаются как обычные задачи лениво: фоновая задача с периодом {@code recurrence.generate-interval}
+ * создаёт пачками экземпляры, момент которых наступит в пределах {@code recurrence.lead}, либо экземпляры до
+ * нужной даты создаются по запросу. Экземпляры после {@code generatedUntil} правила существуют только виртуально.
+ * <p>
+ * Список предстоящих задач сливает по сроку задачи из базы данных с виртуальными экземплярами всех правил,
+ * перечисляя моменты каждого правила лениво, и ничего не записывает.
+ * Создание экземпляров правила выполняется под блокировкой строки правила, поэтому экземпляр не создаётся
+ * дважды ни фоновой задачей на нескольких узлах, ни одновременным запросом.
+ */
+@Slf4j
+@Service
+public class RecurrenceService implements MetricsSource {
+
+    public static final int MAX_UPCOMING = 100;
+    /**
+     * Наибольшее число экземпляров, создаваемых по запросу за один вызов.
+     */
+    public static final int MAX_MATERIALIZED = 1000;
+    private static final int MAX_GENERATED_PER_RULE = 100;
+    /**
+     * Точность хранения моментов в базе данных. Моменты правила и границы созданных экземпляров округляются
+     * до неё заранее, чтобы сохранённая граница {@code generatedUntil} совпадала с вычисленной.
+     */
+    private static final ChronoUnit PRECISION = ChronoUnit.MICROS;
+
+    private final TaskRecurrenceRepository recurrenceRepository;
+    private final TaskRepository taskRepository;
+    private final TaskService taskService;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lead;
+    private final int batchSize;
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong generatorRuns = new AtomicLong();
+    private volatile long lastGenerateMillis;
+
+    public RecurrenceService(TaskRecurrenceRepository recurrenceRepository, TaskRepository taskRepository,
+                             TaskService taskService, UserService userService, TransactionTemplate transactionTemplate,
+                             @Value("${recurrence.lead:P7D}") Duration lead,
+                             @Value("${recurrence.batch-size:100}") int batchSize) {
+        if (lead.isNegative() || batchSize <= 0) {
+            throw new IllegalArgumentException(
+                    "recurrence.lead must not be negative and recurrence.batch-size must be positive");
+        }
+        this.recurrenceRepository = recurrenceRepository;
+        this.taskRepository = taskRepository;
+        this.taskService = taskService;
+        this.userService = userService;
+        this.transactionTemplate = transactionTemplate;
+        this.lead = lead;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Возвращает правило повторения задачи.
+     *
+     * @param templateId идентификатор задачи-шаблона
+     * @return объект {@link RecurrenceDto}
+     * @throws ResourceNotFoundException если у задачи нет правила повторения
+     */
+    @Transactional(readOnly = true)
+    public RecurrenceDto getRecurrence(Long templateId) {
+        return recurrenceRepository.findByTemplateId(templateId)
+                .map(RecurrenceMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurrence not found"));
+    }
+
+    /**
+     * Прикрепляет к задаче правило повторения или заменяет прежнее. Новое правило действует для ещё не созданных
+     * экземпляров: уже созданные не изменяются, экземпляры в прошлом не создаются.
+     *
+     * @param templateId идентификатор задачи-шаблона
+     * @param dto        объект {@link RecurrenceCreateDto} с параметрами правила
+     * @return объект {@link RecurrenceDto}, представляющий сохранённое правило
+     * @throws ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException  если задача сама является экземпляром или параметры правила недопустимы
+     */
+    @Transactional
+    public RecurrenceDto setRecurrence(Long templateId, RecurrenceCreateDto dto) {
+        Task template = taskRepository.findById(templateId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        if (template.getRecurrenceId() != null) {
+            throw new IllegalArgumentException("Task is an occurrence of another recurring task");
+        }
+        LocalDateTime startAt = dto.getStartAt() != null ? dto.getStartAt().truncatedTo(PRECISION) : null;
+        LocalDateTime untilAt = dto.getUntilAt() != null ? dto.getUntilAt().truncatedTo(PRECISION) : null;
+        new RecurrenceRule(dto.getFrequency(), dto.getInterval(), startAt, untilAt);
+
+        TaskRecurrence recurrence = recurrenceRepository.findByTemplateIdForUpdate(templateId)
+                .orElseGet(() -> TaskRecurrence.builder().templateId(templateId).build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(PRECISION);
+        LocalDateTime generatedUntil = startAt.isAfter(now) ? startAt : now;
+        if (recurrence.getGeneratedUntil() != null && recurrence.getGeneratedUntil().isAfter(generatedUntil)) {
+            generatedUntil = recurrence.getGeneratedUntil();
+        }
+        recurrence.setFrequency(dto.getFrequency());
+        recurrence.setRepeatInterval(dto.getInterval());
+        recurrence.setStartAt(startAt);
+        recurrence.setUntilAt(untilAt);
+        recurrence.setGeneratedUntil(generatedUntil);
+        return RecurrenceMapper.toDto(recurrenceRepository.save(recurrence));
+    }
+
+    /**
+     * Открепляет правило повторения от задачи. Созданные экземпляры остаются.
+     *
+     * @param templateId идентификатор задачи-шаблона
+     * @throws ResourceNotFoundException если у задачи нет правила повторения
+     */
+    @Transactional
+    public void deleteRecurrence(Long templateId) {
+        if (recurrenceRepository.deleteByTemplateId(templateId) == 0) {
+            throw new ResourceNotFoundException("Recurrence not found");
+        }
+    }
+
+    /**
+     * Создаёт ещё не созданные экземпляры правила с моментами до {@code through} включительно — например, чтобы
+     * работать с виртуальным экземпляром из списка предстоящих задач как с обычной задачей.
+     *
+     * @param templateId идентификатор задачи-шаблона
+     * @param through    последний момент создаваемых экземпляров
+     * @return созданные экземпляры по возрастанию срока
+     * @throws ResourceNotFoundException если у задачи нет правила повторения
+     * @throws IllegalArgumentException  если нужно создать больше {@value #MAX_MATERIALIZED} экземпляров
+     */
+    @Transactional
+    public List<TaskDto> materialize(Long templateId, LocalDateTime through) {
+        LocalDateTime until = through.truncatedTo(PRECISION).plus(1, PRECISION);
+        TaskRecurrence recurrence = recurrenceRepository.findByTemplateIdForUpdate(templateId)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurrence not found"));
+        Iterator<LocalDateTime> pending = RecurrenceMapper.toRule(recurrence)
+                .occurrences(recurrence.getGeneratedUntil(), until);
+        int count = 0;
+        while (pending.hasNext()) {
+            pending.next();
+            if (++count > MAX_MATERIALIZED) {
+                throw new IllegalArgumentException(
+                        "At most " + MAX_MATERIALIZED + " occurrences can be created at once");
+            }
+        }
+        Task template = taskRepository.findById(templateId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        return generate(recurrence, template, until, MAX_MATERIALIZED);
+    }
+
+    /**
+     * Создаёт экземпляры, момент которых наступит в пределах {@code recurrence.lead}, пачками по
+     * {@code recurrence.batch-size} правил начиная с наиболее отстающих. Каждое правило обрабатывается в своей
+     * транзакции; за проход по правилу создаётся не больше {@value #MAX_GENERATED_PER_RULE} экземпляров.
+     * Ошибка правила откладывает оставшиеся правила до следующего запуска.
+     */
+    @Scheduled(fixedDelayString = "${recurrence.generate-interval:PT1M}")
+    public void generateDue() {
+        long start = System.currentTimeMillis();
+        LocalDateTime horizon = LocalDateTime.now().plus(lead).truncatedTo(PRECISION);
+        List<Long> templateIds;
+        do {
+            templateIds = recurrenceRepository.findBehind(horizon, PageRequest.of(0, batchSize));
+            for (Long templateId : templateIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> generate(templateId, horizon));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to generate occurrences of task {}", templateId, e);
+                    return;
+                }
+            }
+        } while (templateIds.size() == batchSize);
+        generatorRuns.incrementAndGet();
+        lastGenerateMillis = System.currentTimeMillis() - start;
+    }
+
+    /**
+     * Возвращает незавершённые задачи и виртуальные экземпляры повторяющихся задач со сроком в диапазоне
+     * {@code [from, to)} по возрастанию срока. Виртуальные экземпляры не имеют идентификатора.
+     * Для не-администраторов учитываются только задачи и шаблоны, где пользователь является автором или исполнителем.
+     *
+     * @param from  начало диапазона включительно
+     * @param to    конец диапазона не включительно
+     * @param limit максимальное количество задач, от 1 до {@value #MAX_UPCOMING}
+     * @return список {@link TaskDto}
+     * @throws IllegalArgumentException если диапазон пуст или лимит вне допустимого диапазона
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDto> getUpcoming(LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit < 1 || limit > MAX_UPCOMING) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_UPCOMING);
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Range start must be before its end");
+        }
+        User currentUser = userService.getCurrentUser();
+        Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+
+        PriorityQueue<UpcomingSource> sources = new PriorityQueue<>(UpcomingSource.ORDER);
+        UpcomingSource stored = UpcomingSource.stored(taskRepository.findUpcoming(from, to, visibleToUserId, limit));
+        if (stored.advance()) {
+            sources.add(stored);
+        }
+        List<Object[]> rules = visibleToUserId == null
+                ? recurrenceRepository.findVirtualInRange(from, to)
+                : recurrenceRepository.findVirtualInRangeVisibleTo(from, to, visibleToUserId);
+        for (Object[] row : rules) {
+            TaskRecurrence recurrence = (TaskRecurrence) row[0];
+            LocalDateTime virtualFrom = recurrence.getGeneratedUntil().isAfter(from)
+                    ? recurrence.getGeneratedUntil() : from;
+            UpcomingSource source = UpcomingSource.virtual((Task) row[1], recurrence.getId(),
+                    RecurrenceMapper.toRule(recurrence).occurrences(virtualFrom, to));
+            if (source.advance()) {
+                sources.add(source);
+            }
+        }
+
+        List<TaskDto> result = new ArrayList<>(limit);
+        while (result.size() < limit && !sources.isEmpty()) {
+            UpcomingSource source = sources.poll();
+            result.add(source.head);
+            if (source.advance()) {
+                sources.add(source);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "recurrence";
+    }
+
+    /**
+     * Возвращает число созданных экземпляров и запусков фонового генератора и длительность последнего запуска.
+     */
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("generated", generated.get());
+        metrics.put("generatorRuns", generatorRuns.get());
+        metrics.put("lastGenerateMillis", lastGenerateMillis);
+        return metrics;
+    }
+
+    private void generate(Long templateId, LocalDateTime horizon) {
+        recurrenceRepository.findByTemplateIdForUpdate(templateId).ifPresent(recurrence ->
+                taskRepository.findById(templateId).ifPresentOrElse(
+                        template -> generate(recurrence, template, horizon, MAX_GENERATED_PER_RULE),
+                        () -> recurrenceRepository.delete(recurrence)));
+    }
+
+    /**
+     * Создаёт не больше {@code max} экземпляров правила с моментами от {@code generatedUntil} до {@code until}
+     * и сдвигает {@code generatedUntil} на момент первого несозданного экземпляра или на {@code until}.
+     * Вызывается под блокировкой строки правила.
+     */
+    private List<TaskDto> generate(TaskRecurrence recurrence, Task template, LocalDateTime until, int max) {
+        List<TaskDto> created = new ArrayList<>();
+        if (!recurrence.getGeneratedUntil().isBefore(until)) {
+            return created;
+        }
+        Iterator<LocalDateTime> pending = RecurrenceMapper.toRule(recurrence)
+                .occurrences(recurrence.getGeneratedUntil(), until);
+        LocalDateTime generatedUntil = until;
+        while (pending.hasNext()) {
+            LocalDateTime occurrenceAt = pending.next();
+            if (created.size() == max) {
+                generatedUntil = occurrenceAt;
+                break;
+            }
+            created.add(taskService.createOccurrence(template, recurrence.getId(), occurrenceAt));
+        }
+        recurrence.setGeneratedUntil(generatedUntil);
+        recurrenceRepository.save(recurrence);
+        generated.addAndGet(created.size());
+        return created;
+    }
+
+    /**
+     * Упорядоченный источник задач для слияния: задачи из базы данных или виртуальные экземпляры одного правила.
+     * При равном сроке задачи из базы данных идут первыми, виртуальные экземпляры — по идентификатору правила.
+     */
+    private static final class UpcomingSource {
+
+        static final Comparator<UpcomingSource> ORDER = Comparator
+                .comparing((UpcomingSource source) -> source.head.getDueAt())
+                .thenComparing(source -> source.recurrenceId);
+
+        private final Iterator<Task> tasks;
+        private final Task template;
+        private final long recurrenceId;
+        private final Iterator<LocalDateTime> occurrences;
+        private TaskDto head;
+
+        private UpcomingSource(Iterator<Task> tasks, Task template, long recurrenceId,
+                               Iterator<LocalDateTime> occurrences) {
+            this.tasks = tasks;
+            this.template = template;
+            this.recurrenceId = recurrenceId;
+            this.occurrences = occurrences;
+        }
+
+        static UpcomingSource stored(List<Task> tasks) {
+            return new UpcomingSource(tasks.iterator(), null, Long.MIN_VALUE, null);
+        }
+
+        static UpcomingSource virtual(Task template, Long recurrenceId, Iterator<LocalDateTime> occurrences) {
+            return new UpcomingSource(null, template, recurrenceId, occurrences);
+        }
+
+        /**
+         * Переходит к следующей задаче источника.
+         *
+         * @return {@code false}, если источник исчерпан
+         */
+        boolean advance() {
+            if (tasks != null) {
+                head = tasks.hasNext() ? TaskMapper.toDto(tasks.next()) : null;
+            } else {
+                head = occurrences.hasNext()
+                        ? TaskMapper.toOccurrenceDto(template, recurrenceId, occurrences.next()) : null;
+            }
+            return head != null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.test.ManageSystem.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.event.TaskDependencyEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.mapper.TaskMapper;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.search.TaskDependencyIndex;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис зависимостей между задачами («задача заблокирована другой задачей»).
+ * Зависимости хранятся в таблице {@code task_dependencies}; проверка на цикл, список готовых к работе задач
+ * и критический путь вычисляются по индексу в памяти {@link TaskDependencyIndex}.
+ * Новая зависимость добавляется в индекс сразу, под его блокировкой записи, поэтому параллельные добавления
+ * не могут вместе образовать цикл; при откате транзакции она убирается из индекса по {@link TaskDependencyEvent}.
+ * <p>
+ * Пользователь без роли ADMIN может сделать блокирующей только задачу, где он автор или исполнитель. Остальные
+ * задачи в списках блокирующих задач и в критическом пути ему возвращаются скрытыми: только идентификатор и статус,
+ * чтобы было видно, что задача заблокирована, но не чем.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskDependencyService {
+
+    public static final int MAX_READY_LIMIT = 100;
+
+    private final TaskRepository taskRepository;
+    private final UserService userService;
+    private final TaskDependencyIndex taskDependencyIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Возвращает задачи, блокирующие указанную задачу.
+     *
+     * @param taskId идентификатор задачи
+     * @return список объектов {@link TaskDto}, упорядоченных по идентификатору
+     * @throws ResourceNotFoundException если задача не найдена
+     */
+    @Transactional
+    public List<TaskDto> getBlockers(Long taskId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        return toSortedDtos(task, visibleToUserId());
+    }
+
+    /**
+     * Добавляет зависимость: задача {@code blockerId} блокирует задачу {@code taskId}.
+     * Повторное добавление существующей зависимости ничего не меняет.
+     *
+     * @param taskId    идентификатор заблокированной задачи
+     * @param blockerId идентификатор блокирующей задачи
+     * @return список объектов {@link TaskDto}, представляющих все блокирующие задачи
+     * @throws ResourceNotFoundException если одна из задач не найдена или блокирующая задача недоступна
+     *                                   текущему пользователю
+     * @throws IllegalArgumentException  если зависимость создаёт цикл
+     */
+    @Transactional
+    public List<TaskDto> addBlocker(Long taskId, Long blockerId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        Long visibleToUserId = visibleToUserId();
+        Task blocker = taskRepository.findById(blockerId)
+                .filter(candidate -> TaskService.isVisibleTo(candidate, visibleToUserId))
+                .orElseThrow(() -> new ResourceNotFoundException("Blocker task not found"));
+        if (taskDependencyIndex.addDependency(taskId, blockerId)) {
+            eventPublisher.publishEvent(new TaskDependencyEvent(TaskDependencyEvent.Type.ADDED, taskId, blockerId));
+            task.getBlockers().add(blocker);
+            taskRepository.save(task);
+        }
+        return toSortedDtos(task, visibleToUserId);
+    }
+
+    /**
+     * Удаляет зависимость между задачами, если она есть.
+     *
+     * @param taskId    идентификатор заблокированной задачи
+     * @param blockerId идентификатор блокирующей задачи
+     * @throws ResourceNotFoundException если задача не найдена
+     */
+    @Transactional
+    public void removeBlocker(Long taskId, Long blockerId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        if (task.getBlockers().removeIf(blocker -> blocker.getId().equals(blockerId))) {
+            taskRepository.save(task);
+            eventPublisher.publishEvent(new TaskDependencyEvent(TaskDependencyEvent.Type.REMOVED, taskId, blockerId));
+        }
+    }
+
+    /**
+     * Возвращает задачи текущего пользователя, которые можно начать: незавершённые задачи, где он исполнитель,
+     * все блокирующие задачи которых завершены.
+     *
+     * @param limit максимальное количество задач, от 1 до {@link #MAX_READY_LIMIT}
+     * @return список объектов {@link TaskDto} от новых к старым
+     * @throws IllegalArgumentException если лимит вне допустимого диапазона
+     */
+    public List<TaskDto> getReadyTasks(int limit) {
+        if (limit < 1 || limit > MAX_READY_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_READY_LIMIT);
+        }
+        User currentUser = userService.getCurrentUser();
+        return hydrate(taskDependencyIndex.readyFor(currentUser.getId(), limit),
+                currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId());
+    }
+
+    /**
+     * Возвращает критический путь задачи: самую длинную цепочку незавершённых блокирующих задач,
+     * которая заканчивается этой задачей.
+     *
+     * @param taskId идентификатор задачи
+     * @return список объектов {@link TaskDto} от первой задачи цепочки к самой задаче
+     * @throws ResourceNotFoundException если задача не найдена
+     */
+    public List<TaskDto> getCriticalPath(Long taskId) {
+        return hydrate(taskDependencyIndex.criticalPath(taskId), visibleToUserId());
+    }
+
+    private Long visibleToUserId() {
+        User currentUser = userService.getCurrentUser();
+        return currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+    }
+
+    private List<TaskDto> hydrate(List<Long> ids, Long visibleToUserId) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(task -> toDto(task, visibleToUserId))
+                .collect(Collectors.toList());
+    }
+
+    private static List<TaskDto> toSortedDtos(Task task, Long visibleToUserId) {
+        return task.getBlockers().stream()
+                .sorted(Comparator.comparing(Task::getId))
+                .map(blocker -> toDto(blocker, visibleToUserId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Преобразует задачу в {@link TaskDto}; задачу, недоступную пользователю, — в скрытую с идентификатором
+     * и статусом.
+     */
+    private static TaskDto toDto(Task task, Long visibleToUserId) {
+        if (TaskService.isVisibleTo(task, visibleToUserId)) {
+            return TaskMapper.toDto(task);
+        }
+        return TaskDto.builder().id(task.getId()).status(task.getStatus()).build();
+    }
+}
@@ -0,0 +1,112 @@
+package ru.test.ManageSystem.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import ru.test.ManageSystem.DTO.CommentDto;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.TaskDetailsDto;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.DTO.UserDto;
+import ru.test.ManageSystem.concurrent.FailFastScope;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskField;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.mapper.TaskMapper;
+import ru.test.ManageSystem.mapper.UserMapper;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Сервис карточки задачи.
+ * Права проверяются один раз по идентификаторам автора и исполнителя, после чего задача, самые новые
+ * комментарии, автор и исполнитель загружаются параллельно в {@link FailFastScope}: время ответа близко
+ * к самой медленной части, а ошибка любой части отменяет остальные.
+ */
+@Service
+public class TaskDetailsService {
+
+    private static final List<TaskField> ACCESS_FIELDS =
+            List.of(TaskField.ID, TaskField.AUTHOR_ID, TaskField.ASSIGNEE_ID);
+
+    private final TaskRepository taskRepository;
+    private final CommentService commentService;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public TaskDetailsService(TaskRepository taskRepository, CommentService commentService,
+                              UserRepository userRepository, UserService userService,
+                              @Qualifier("taskDetailsExecutor") ExecutorService executor,
+                              @Value("${task.details.timeout:PT5S}") Duration timeout) {
+        this.taskRepository = taskRepository;
+        this.commentService = commentService;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Возвращает карточку задачи.
+     * Администратор видит любую задачу, пользователь — задачи, где он автор или исполнитель.
+     *
+     * @param taskId       идентификатор задачи
+     * @param commentsSize количество самых новых комментариев, от 1 до {@link CommentService#MAX_PAGE_SIZE}
+     * @return объект {@link TaskDetailsDto}
+     * @throws ResourceNotFoundException   если задача, её автор или исполнитель не найдены
+     * @throws AccessDeniedException       если задача недоступна текущему пользователю
+     * @throws IllegalArgumentException    если размер страницы комментариев вне допустимого диапазона
+     * @throws ServiceUnavailableException если части карточки не загрузились за {@code task.details.timeout}
+     */
+    public TaskDetailsDto getTaskDetails(Long taskId, int commentsSize) {
+        if (commentsSize < 1 || commentsSize > CommentService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Comments size must be between 1 and " + CommentService.MAX_PAGE_SIZE);
+        }
+        Object[] access = taskRepository.findColumnsById(taskId, ACCESS_FIELDS)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        Long authorId = (Long) access[1];
+        Long assigneeId = (Long) access[2];
+        User currentUser = userService.getCurrentUser();
+        if (!currentUser.hasRole(Role.ADMIN)
+                && !currentUser.getId().equals(authorId) && !currentUser.getId().equals(assigneeId)) {
+            throw new AccessDeniedException("Access denied to task " + taskId);
+        }
+
+        try (FailFastScope scope = new FailFastScope(executor)) {
+            Supplier<TaskDto> task = scope.fork(() -> taskRepository.findById(taskId)
+                    .map(TaskMapper::toDto)
+                    .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId)));
+            Supplier<CursorPageDto<CommentDto>> comments =
+                    scope.fork(() -> commentService.getCommentPage(taskId, null, commentsSize));
+            Supplier<UserDto> author = scope.fork(() -> findUser(authorId));
+            Supplier<UserDto> assignee = scope.fork(() -> assigneeId != null ? findUser(assigneeId) : null);
+            scope.join(timeout);
+
+            return TaskDetailsDto.builder()
+                    .task(task.get())
+                    .comments(comments.get())
+                    .author(author.get())
+                    .assignee(assignee.get())
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while loading task " + taskId);
+        }
+    }
+
+    private UserDto findUser(Long userId) {
+        return userRepository.findById(userId)
+                .map(UserMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    }
+}
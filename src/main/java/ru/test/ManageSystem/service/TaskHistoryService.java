@@ -0,0 +1,185 @@
+package ru.test.ManageSystem.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.DTO.TaskFieldChangeDto;
+import ru.test.ManageSystem.DTO.TaskHistoryDto;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
+import ru.test.ManageSystem.enums.TaskHistoryAction;
+import ru.test.ManageSystem.event.CommentEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.journal.JournalRecord;
+import ru.test.ManageSystem.journal.TaskJournal;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Сервис истории изменений задач. После фиксации каждого изменения задачи или её комментария в журнал
+ * {@link TaskJournal} дописывается запись с изменёнными полями, их старыми и новыми значениями и инициатором.
+ * История хранится вне базы данных, поэтому аудит не добавляет запросов в транзакции изменений; запись, которую
+ * не удалось дописать, теряется и попадает в журнал приложения.
+ * <p>
+ * Для задачи записываются поля {@link #AUDITED_FIELDS}; служебные поля, которые меняются вместе с другими
+ * ({@code updatedAt}, счётчик и время последнего комментария), не записываются. Созданная задача записывается
+ * с заполненными полями, удалённая — с последними значениями полей.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Поля задачи, изменения которых записываются в историю, в порядке вывода.
+     */
+    private static final Map<String, Function<TaskDto, Object>> AUDITED_FIELDS = new LinkedHashMap<>();
+
+    static {
+        AUDITED_FIELDS.put("title", TaskDto::getTitle);
+        AUDITED_FIELDS.put("description", TaskDto::getDescription);
+        AUDITED_FIELDS.put("status", TaskDto::getStatus);
+        AUDITED_FIELDS.put("priority", TaskDto::getPriority);
+        AUDITED_FIELDS.put("assigneeId", TaskDto::getAssigneeId);
+        AUDITED_FIELDS.put("parentId", TaskDto::getParentId);
+        AUDITED_FIELDS.put("dueAt", TaskDto::getDueAt);
+        AUDITED_FIELDS.put("overdue", TaskDto::isOverdue);
+        AUDITED_FIELDS.put("recurrenceId", TaskDto::getRecurrenceId);
+    }
+
+    private final TaskJournal taskJournal;
+    private final UserSnapshotCache userSnapshotCache;
+
+    /**
+     * Записывает в историю создание, удаление или изменение полей задачи.
+     * Изменение, не затронувшее записываемые поля, не записывается.
+     *
+     * @param event событие изменения задачи
+     */
+    @TransactionalEventListener
+    public void onTaskEvent(TaskEvent event) {
+        List<JournalRecord.Change> changes = new ArrayList<>();
+        for (Map.Entry<String, Function<TaskDto, Object>> field : AUDITED_FIELDS.entrySet()) {
+            String before = value(event.before(), field.getValue());
+            String after = value(event.after(), field.getValue());
+            if (!Objects.equals(before, after)) {
+                changes.add(new JournalRecord.Change(field.getKey(), before, after));
+            }
+        }
+        TaskHistoryAction action = switch (event.type()) {
+            case CREATED -> TaskHistoryAction.TASK_CREATED;
+            case UPDATED -> TaskHistoryAction.TASK_UPDATED;
+            case DELETED -> TaskHistoryAction.TASK_DELETED;
+        };
+        if (action == TaskHistoryAction.TASK_UPDATED && changes.isEmpty()) {
+            return;
+        }
+        append(new JournalRecord(event.taskId(), LocalDateTime.now(), currentActorId(), action, null, changes));
+    }
+
+    /**
+     * Записывает в историю задачи создание, изменение или удаление комментария с прежним и новым текстом.
+     *
+     * @param event событие изменения комментария
+     */
+    @TransactionalEventListener
+    public void onCommentEvent(CommentEvent event) {
+        TaskHistoryAction action = switch (event.type()) {
+            case CREATED -> TaskHistoryAction.COMMENT_CREATED;
+            case UPDATED -> TaskHistoryAction.COMMENT_UPDATED;
+            case DELETED -> TaskHistoryAction.COMMENT_DELETED;
+        };
+        Long actorId = currentActorId();
+        append(new JournalRecord(event.taskId(), LocalDateTime.now(), actorId != null ? actorId : event.authorId(),
+                action, event.commentId(),
+                List.of(new JournalRecord.Change("content", event.previousContent(), event.content()))));
+    }
+
+    /**
+     * Возвращает страницу истории задачи от новых изменений к старым.
+     *
+     * @param taskId идентификатор задачи
+     * @param cursor курсор из предыдущей страницы или {@code null} для самых новых изменений
+     * @param size   размер страницы, от 1 до {@link #MAX_PAGE_SIZE}
+     * @return объект {@link CursorPageDto} со списком {@link TaskHistoryDto} и курсором следующей страницы
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    public CursorPageDto<TaskHistoryDto> getHistory(Long taskId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long before = cursor == null || cursor.isEmpty() ? Long.MAX_VALUE : decodeCursor(cursor);
+        List<TaskJournal.Entry> entries = new ArrayList<>(taskJournal.read(taskId, before, size + 1));
+        boolean hasNext = entries.size() > size;
+        if (hasNext) {
+            entries.remove(size);
+        }
+        return CursorPageDto.<TaskHistoryDto>builder()
+                .content(entries.stream().map(entry -> toDto(entry.record())).toList())
+                .nextCursor(hasNext ? encodeCursor(entries.get(entries.size() - 1).position()) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private void append(JournalRecord record) {
+        try {
+            taskJournal.append(record);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to journal {} of task {}", record.action(), record.taskId(), e);
+        }
+    }
+
+    private Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return userSnapshotCache.get(authentication.getName()).map(UserSnapshot::getId).orElse(null);
+    }
+
+    private static String value(TaskDto task, Function<TaskDto, Object> getter) {
+        Object value = task != null ? getter.apply(task) : null;
+        return value != null ? value.toString() : null;
+    }
+
+    private static TaskHistoryDto toDto(JournalRecord record) {
+        return TaskHistoryDto.builder()
+                .at(record.at())
+                .action(record.action())
+                .actorId(record.actorId())
+                .commentId(record.commentId())
+                .changes(record.changes().stream()
+                        .map(change -> new TaskFieldChangeDto(change.field(), change.oldValue(), change.newValue()))
+                        .toList())
+                .build();
+    }
+
+    private static String encodeCursor(long position) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
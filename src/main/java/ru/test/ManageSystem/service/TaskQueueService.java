@@ -0,0 +1,118 @@
+package ru.test.ManageSystem.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.mapper.TaskMapper;
+import ru.test.ManageSystem.repository.TaskClosureRepository;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.search.TaskQueueIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис очереди задач исполнителя: следующая ожидающая задача текущего пользователя по приоритету
+ * и возрасту и взятие её в работу. Порядок берётся из индекса в памяти {@link TaskQueueIndex};
+ * кандидаты проверяются по базе данных, а взятие в работу выполняется условным обновлением строки,
+ * поэтому одну задачу не могут взять два запроса, в том числе на разных узлах.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskQueueService {
+
+    /**
+     * Количество кандидатов, читаемых из очереди за один раз.
+     */
+    static final int CANDIDATES = 8;
+
+    private final TaskRepository taskRepository;
+    private final TaskClosureRepository taskClosureRepository;
+    private final UserService userService;
+    private final BoardService boardService;
+    private final TaskQueueIndex taskQueueIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Возвращает следующую ожидающую задачу текущего пользователя, не меняя её.
+     *
+     * @return объект {@link TaskDto} или пустой результат, если ожидающих задач нет
+     * @throws ServiceUnavailableException если очереди ещё перестраиваются
+     */
+    @Transactional(readOnly = true)
+    public Optional<TaskDto> getNextTask() {
+        Long userId = userService.getCurrentUser().getId();
+        while (true) {
+            List<Long> candidates = taskQueueIndex.peek(userId, CANDIDATES);
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+            Map<Long, Task> tasks = taskRepository.findAllById(candidates).stream()
+                    .collect(Collectors.toMap(Task::getId, Function.identity()));
+            for (Long id : candidates) {
+                Task task = tasks.get(id);
+                if (isPendingFor(task, userId)) {
+                    return Optional.of(TaskMapper.toDto(task));
+                }
+                taskQueueIndex.discard(id);
+            }
+        }
+    }
+
+    /**
+     * Берёт в работу следующую ожидающую задачу текущего пользователя: переводит её в статус
+     * {@link TaskStatus#IN_PROGRESS} и ставит в конец соответствующей колонки доски.
+     * Задача, которую за это время взял или изменил другой запрос, пропускается.
+     *
+     * @return объект {@link TaskDto}, представляющий взятую задачу, или пустой результат, если ожидающих задач нет
+     * @throws ServiceUnavailableException если очереди ещё перестраиваются
+     */
+    @Transactional
+    public Optional<TaskDto> claimNextTask() {
+        Long userId = userService.getCurrentUser().getId();
+        while (true) {
+            List<Long> candidates = taskQueueIndex.peek(userId, CANDIDATES);
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+            for (Long id : candidates) {
+                Optional<TaskDto> claimed = claim(id, userId);
+                if (claimed.isPresent()) {
+                    return claimed;
+                }
+                taskQueueIndex.discard(id);
+            }
+        }
+    }
+
+    private Optional<TaskDto> claim(Long id, Long userId) {
+        Task task = taskRepository.findById(id).orElse(null);
+        if (!isPendingFor(task, userId)) {
+            return Optional.empty();
+        }
+        TaskDto before = TaskMapper.toDto(task);
+        String rank = boardService.rankAtEnd(TaskStatus.IN_PROGRESS);
+        if (taskRepository.claim(id, userId, rank, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        TaskDto claimed = taskRepository.findById(id).map(TaskMapper::toDto).orElseThrow();
+        taskClosureRepository.updateStatus(id, TaskStatus.IN_PROGRESS);
+        eventPublisher.publishEvent(TaskEvent.updated(before, claimed));
+        return Optional.of(claimed);
+    }
+
+    private static boolean isPendingFor(Task task, Long userId) {
+        return task != null && task.getStatus() == TaskStatus.PENDING && task.getAssignee() != null
+                && task.getAssignee().getId().equals(userId);
+    }
+}
@@ -1,73 +1,186 @@
 package ru.test.ManageSystem.service;
 
-import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.PageDto;
+import ru.test.ManageSystem.DTO.TaskBatchItemDto;
 import ru.test.ManageSystem.DTO.TaskCreateDto;
 import ru.test.ManageSystem.DTO.TaskDto;
 import ru.test.ManageSystem.DTO.TaskFilterDto;
+import ru.test.ManageSystem.DTO.TaskRollupDto;
+import ru.test.ManageSystem.DTO.TaskSuggestionDto;
+import ru.test.ManageSystem.entity.Label;
 import ru.test.ManageSystem.entity.Task;
 import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.BatchItemStatus;
+import ru.test.ManageSystem.enums.CountMode;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskField;
 import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
 import ru.test.ManageSystem.exception.ResourceNotFoundException;
 import ru.test.ManageSystem.mapper.TaskMapper;
+import ru.test.ManageSystem.repository.CommentRepository;
+import ru.test.ManageSystem.repository.LabelRepository;
+import ru.test.ManageSystem.repository.TaskClosureRepository;
+import ru.test.ManageSystem.repository.TaskRecurrenceRepository;
 import ru.test.ManageSystem.repository.TaskRepository;
 import ru.test.ManageSystem.repository.UserRepository;
+import ru.test.ManageSystem.search.TaskBitmapIndex;
+import ru.test.ManageSystem.search.TaskQuery;
+import ru.test.ManageSystem.search.TaskQueryParser;
+import ru.test.ManageSystem.search.TaskSearchIndex;
+import ru.test.ManageSystem.search.TitleAutocompleteIndex;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Сервис для управления задачами.
  * Предоставляет методы для создания, обновления, удаления и получения задач,
  * а также проверки прав доступа текущего пользователя.
+ * Каждое изменение задачи публикует {@link TaskEvent}, который слушатели обрабатывают после фиксации транзакции.
  */
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    /**
+     * Максимальное количество идентификаторов в пакетном запросе задач.
+     */
+    public static final int MAX_BATCH_SIZE = 200;
+
     private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final TaskClosureRepository taskClosureRepository;
+    private final TaskRecurrenceRepository taskRecurrenceRepository;
     private final UserRepository userRepository;
+    private final LabelRepository labelRepository;
     private final UserService userService;
+    private final BoardService boardService;
+    private final AssigneeBalancer assigneeBalancer;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TitleAutocompleteIndex titleAutocompleteIndex;
+    private final TaskBitmapIndex taskBitmapIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Создаёт новую задачу на основе переданных данных.
-     * Устанавливает текущего пользователя как автора и начальный статус PENDING.
+     * Устанавливает текущего пользователя как автора и начальный статус PENDING; задача ставится в конец
+     * колонки PENDING на доске.
+     * При {@code autoAssign} исполнителем становится наименее загруженный пользователь по {@link AssigneeBalancer}.
+     * Если указан родитель, задача создаётся как подзадача и связывается со всеми его предками
+     * в таблице замыкания {@link TaskClosureRepository}; пользователь без роли ADMIN может выбрать родителем
+     * только задачу, где он автор или исполнитель.
      *
      * @param dto объект {@link TaskCreateDto} с данными для создания задачи
      * @return объект {@link TaskDto}, представляющий созданную задачу
-     * @throws ResourceNotFoundException если указанный исполнитель (assignee) не найден
+     * @throws ResourceNotFoundException если указанный исполнитель (assignee) или родительская задача не найдены
+     *                                   или родитель недоступен текущему пользователю
+     * @throws IllegalArgumentException  если одновременно указаны исполнитель и {@code autoAssign}
      */
     @Transactional
     public TaskDto createTask(TaskCreateDto dto) {
+        if (dto.isAutoAssign() && dto.getAssigneeId() != null) {
+            throw new IllegalArgumentException("assigneeId cannot be combined with autoAssign");
+        }
+        User currentUser = userService.getCurrentUser();
         Task task = Task.builder()
                 .title(dto.getTitle())
                 .description(dto.getDescription())
                 .priority(dto.getPriority())
                 .status(TaskStatus.PENDING)
-                .author(userService.getCurrentUser())
+                .boardRank(boardService.rankAtEnd(TaskStatus.PENDING))
+                .dueAt(dto.getDueAt())
+                .author(currentUser)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        if (dto.getAssigneeId() != null) {
-            task.setAssignee(userRepository.findById(dto.getAssigneeId())
+        if (dto.getParentId() != null) {
+            Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+            task.setParent(taskRepository.findById(dto.getParentId())
+                    .filter(parent -> isVisibleTo(parent, visibleToUserId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Parent task not found")));
+        }
+        // Резерв балансировщика снимается только событием создания, поэтому всё, что может отклонить запрос,
+        // проверяется до выбора исполнителя.
+        Long assigneeId = dto.isAutoAssign() ? assigneeBalancer.assign() : dto.getAssigneeId();
+        if (assigneeId != null) {
+            task.setAssignee(userRepository.findById(assigneeId)
                     .orElseThrow(() -> new ResourceNotFoundException("Assignee not found")));
         }
 
-        return TaskMapper.toDto(taskRepository.save(task));
+        Task saved = taskRepository.save(task);
+        taskClosureRepository.insertSelf(saved.getId(), saved.getStatus().name());
+        if (dto.getParentId() != null) {
+            taskClosureRepository.insertAncestors(saved.getId(), dto.getParentId(), saved.getStatus().name());
+        }
+        TaskDto created = TaskMapper.toDto(saved);
+        eventPublisher.publishEvent(TaskEvent.created(created));
+        return created;
+    }
+
+    /**
+     * Создаёт экземпляр повторяющейся задачи — копию шаблона со сроком в момент экземпляра — в конце колонки
+     * PENDING на доске. Автор и исполнитель берутся из шаблона, поэтому метод не требует текущего пользователя
+     * и вызывается фоновым генератором {@link RecurrenceService}.
+     *
+     * @param template     задача-шаблон
+     * @param recurrenceId идентификатор правила повторения
+     * @param occurrenceAt момент экземпляра
+     * @return объект {@link TaskDto}, представляющий созданный экземпляр
+     */
+    @Transactional
+    public TaskDto createOccurrence(Task template, Long recurrenceId, LocalDateTime occurrenceAt) {
+        LocalDateTime now = LocalDateTime.now();
+        Task task = Task.builder()
+                .title(template.getTitle())
+                .description(template.getDescription())
+                .priority(template.getPriority())
+                .status(TaskStatus.PENDING)
+                .boardRank(boardService.rankAtEnd(TaskStatus.PENDING))
+                .dueAt(occurrenceAt)
+                .recurrenceId(recurrenceId)
+                .occurrenceAt(occurrenceAt)
+                .author(template.getAuthor())
+                .assignee(template.getAssignee())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        Task saved = taskRepository.save(task);
+        taskClosureRepository.insertSelf(saved.getId(), saved.getStatus().name());
+        TaskDto created = TaskMapper.toDto(saved);
+        eventPublisher.publishEvent(TaskEvent.created(created));
+        return created;
     }
 
     /**
      * Обновляет существующую задачу на основе переданных данных.
      * Сохраняет неизменяемыми статус, автора и комментарии задачи.
+     * Изменяются только поля загруженной сущности, поэтому параллельно обновляемые счётчики
+     * (например, количество комментариев) не перезаписываются.
+     * Срок выполнения заменяется переданным; при его изменении снимается признак просрочки.
      *
      * @param id  идентификатор задачи для обновления
      * @param dto объект {@link TaskCreateDto} с новыми данными задачи
@@ -78,28 +191,30 @@ public class TaskService {
     public TaskDto updateTask(Long id, TaskCreateDto dto) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        TaskDto before = TaskMapper.toDto(task);
 
-        task = Task.builder()
-                .id(task.getId())
-                .title(dto.getTitle())
-                .description(dto.getDescription())
-                .priority(dto.getPriority())
-                .status(task.getStatus())
-                .author(task.getAuthor())
-                .assignee(dto.getAssigneeId() != null ?
-                        userRepository.findById(dto.getAssigneeId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Assignee not found")) :
-                        task.getAssignee())
-                .comments(task.getComments())
-                .createdAt(task.getCreatedAt())
-                .updatedAt(LocalDateTime.now())
-                .build();
+        task.setTitle(dto.getTitle());
+        task.setDescription(dto.getDescription());
+        task.setPriority(dto.getPriority());
+        if (!Objects.equals(task.getDueAt(), dto.getDueAt())) {
+            task.setDueAt(dto.getDueAt());
+            task.setOverdue(false);
+        }
+        if (dto.getAssigneeId() != null) {
+            task.setAssignee(userRepository.findById(dto.getAssigneeId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Assignee not found")));
+        }
+        task.setUpdatedAt(LocalDateTime.now());
 
-        return TaskMapper.toDto(taskRepository.save(task));
+        TaskDto updated = TaskMapper.toDto(taskRepository.save(task));
+        eventPublisher.publishEvent(TaskEvent.updated(before, updated));
+        return updated;
     }
 
     /**
-     * Обновляет статус существующей задачи.
+     * Обновляет статус существующей задачи и его копию в таблице замыкания,
+     * по которой строится сводка по поддеревьям предков. При смене статуса задача ставится в конец
+     * колонки нового статуса на доске.
      *
      * @param id     идентификатор задачи для обновления
      * @param status новый статус задачи из перечисления {@link TaskStatus}
@@ -110,43 +225,222 @@ public class TaskService {
     public TaskDto updateTaskStatus(Long id, TaskStatus status) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        TaskDto before = TaskMapper.toDto(task);
+        if (task.getStatus() != status) {
+            task.setBoardRank(boardService.rankAtEnd(status));
+        }
         task.setStatus(status);
         task.setUpdatedAt(LocalDateTime.now());
-        return TaskMapper.toDto(taskRepository.save(task));
+        TaskDto updated = TaskMapper.toDto(taskRepository.save(task));
+        taskClosureRepository.updateStatus(id, status);
+        eventPublisher.publishEvent(TaskEvent.updated(before, updated));
+        return updated;
     }
 
     /**
-     * Удаляет задачу по её идентификатору.
+     * Удаляет задачу по её идентификатору вместе с комментариями, зависимостями, в которых она участвует,
+     * и правилом повторения, если задача — шаблон. Созданные по правилу экземпляры остаются.
+     * Ссылки ответов на родительские комментарии предварительно обнуляются, чтобы порядок удаления
+     * комментариев не нарушал внешний ключ {@code comments.parent_id}.
+     * Задачу с подзадачами удалить нельзя: их нужно предварительно удалить или переместить.
      *
      * @param id идентификатор задачи для удаления
      * @throws ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException  если у задачи есть подзадачи
      */
     @Transactional
     public void deleteTask(Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        if (taskRepository.existsByParentId(id)) {
+            throw new IllegalArgumentException("Task has sub-tasks; delete or move them first");
+        }
+        taskClosureRepository.deleteByDescendantId(id);
+        taskRepository.deleteDependencies(id);
+        taskRecurrenceRepository.deleteByTemplateId(id);
+        commentRepository.detachRepliesByTaskId(id);
         taskRepository.delete(task);
+        eventPublisher.publishEvent(TaskEvent.deleted(TaskMapper.toDto(task)));
     }
 
     /**
      * Возвращает отфильтрованный список задач с пагинацией.
      * Для не-администраторов возвращает только задачи, где пользователь является автором или исполнителем.
+     * Запрос берётся из таблицы заранее сгенерированных вариантов (см. {@link TaskRepository#findFiltered}).
+     * Общее количество задач вычисляется в зависимости от режима: точно, по оценке планировщика или не вычисляется.
+     *
+     * @param filter    объект {@link TaskFilterDto} с параметрами фильтрации
+     * @param pageable  объект {@link Pageable} для настройки пагинации и сортировки
+     * @param countMode режим подсчёта общего количества задач
+     * @return объект {@link PageDto} содержащий список {@link TaskDto}
+     */
+    public PageDto<TaskDto> getTasks(TaskFilterDto filter, Pageable pageable, CountMode countMode) {
+        return getTasks(filter, pageable, countMode, null);
+    }
+
+    /**
+     * Возвращает отфильтрованный список задач с пагинацией, заполняя только указанные поля.
+     * Если поля заданы, из базы данных выбираются только их колонки без загрузки сущностей
+     * (см. {@link TaskRepository#findFilteredColumns}); остальные поля {@link TaskDto} остаются {@code null}.
      *
-     * @param filter   объект {@link TaskFilterDto} с параметрами фильтрации
-     * @param pageable объект {@link Pageable} для настройки пагинации и сортировки
-     * @return объект {@link Page} содержащий список {@link TaskDto}
+     * @param filter    объект {@link TaskFilterDto} с параметрами фильтрации
+     * @param pageable  объект {@link Pageable} для настройки пагинации и сортировки
+     * @param countMode режим подсчёта общего количества задач
+     * @param fields    запрашиваемые поля или {@code null}, если нужны все поля
+     * @return объект {@link PageDto} содержащий список {@link TaskDto}
      */
-    public Page<TaskDto> getTasks(TaskFilterDto filter, Pageable pageable) {
-        Specification<Task> spec = buildSpecification(filter);
+    public PageDto<TaskDto> getTasks(TaskFilterDto filter, Pageable pageable, CountMode countMode,
+                                     Set<TaskField> fields) {
         User currentUser = userService.getCurrentUser();
-        if (!currentUser.getRoles().contains("ADMIN")) {
-            spec = spec.and((root, query, cb) -> cb.or(
-                    cb.equal(root.get("author").get("id"), currentUser.getId()),
-                    cb.equal(root.get("assignee").get("id"), currentUser.getId())
-            ));
+        Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+        List<TaskField> columns = fields != null ? List.copyOf(fields) : null;
+        if (countMode == CountMode.EXACT) {
+            return PageDto.exact(columns == null
+                    ? taskRepository.findFiltered(filter, visibleToUserId, pageable).map(TaskMapper::toDto)
+                    : taskRepository.findFilteredColumns(filter, visibleToUserId, pageable, columns)
+                            .map(row -> TaskMapper.toDto(row, columns)));
+        }
+
+        Slice<TaskDto> slice = columns == null
+                ? taskRepository.findFilteredSlice(filter, visibleToUserId, pageable).map(TaskMapper::toDto)
+                : taskRepository.findFilteredColumnsSlice(filter, visibleToUserId, pageable, columns)
+                        .map(row -> TaskMapper.toDto(row, columns));
+        if (countMode == CountMode.NONE) {
+            return PageDto.withoutTotal(slice);
         }
-        return taskRepository.findAll(spec, pageable)
-                .map(TaskMapper::toDto);
+        long seen = (pageable.isPaged() ? pageable.getOffset() : 0) + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || !pageable.isPaged() || pageable.getOffset() == 0)) {
+            return PageDto.counted(slice, seen, false);
+        }
+        TaskRepository.CountEstimate estimate = taskRepository.estimateFiltered(filter, visibleToUserId);
+        long total = Math.max(estimate.count(), seen + (slice.hasNext() ? 1 : 0));
+        return PageDto.counted(slice, total, estimate.approximate());
+    }
+
+    /**
+     * Возвращает задачи, удовлетворяющие фильтру, от недавно изменённых к давно изменённым
+     * с постраничной выборкой по ключу ({@code updatedAt}, {@code id}).
+     * Для не-администраторов возвращает только задачи, где пользователь является автором или исполнителем.
+     * Курсор кодирует ключ последней задачи страницы, поэтому стоимость запроса не зависит от глубины
+     * листания, а задачи, изменённые во время листания, не дублируются и не сдвигают страницы.
+     *
+     * @param filter объект {@link TaskFilterDto} с параметрами фильтрации
+     * @param cursor курсор из предыдущей страницы или {@code null} для первой страницы
+     * @param size   размер страницы, от 1 до 100
+     * @return объект {@link CursorPageDto} со списком {@link TaskDto} и курсором следующей страницы
+     * @throws IllegalArgumentException если курсор повреждён или размер страницы вне допустимого диапазона
+     */
+    public CursorPageDto<TaskDto> getRecentlyUpdatedTasks(TaskFilterDto filter, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            throw new IllegalArgumentException("Page size must be between 1 and 100");
+        }
+        TaskRepository.UpdatedAtKey after = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+        User currentUser = userService.getCurrentUser();
+        Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+
+        List<Task> tasks = taskRepository.findFilteredByUpdatedAt(filter, visibleToUserId, after, size + 1);
+        boolean hasNext = tasks.size() > size;
+        if (hasNext) {
+            tasks = tasks.subList(0, size);
+        }
+        Task last = tasks.isEmpty() ? null : tasks.get(tasks.size() - 1);
+        return CursorPageDto.<TaskDto>builder()
+                .content(tasks.stream().map(TaskMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(hasNext ? encodeCursor(last) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Выполняет полнотекстовый поиск задач по заголовку, описанию и комментариям.
+     * Для не-администраторов возвращает только задачи, где пользователь является автором или исполнителем.
+     * Идентификаторы подбираются по индексу в памяти ({@link TaskSearchIndex}), сами задачи загружаются
+     * одним запросом и возвращаются от новых к старым.
+     *
+     * @param query текст запроса
+     * @param limit максимальное количество результатов, от 1 до 100
+     * @return список объектов {@link TaskDto}, представляющих найденные задачи
+     * @throws IllegalArgumentException если запрос пуст или ограничение вне допустимого диапазона
+     */
+    public List<TaskDto> searchTasks(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (limit < 1 || limit > 100) {
+            throw new IllegalArgumentException("Search limit must be between 1 and 100");
+        }
+        User currentUser = userService.getCurrentUser();
+        Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+        return hydrate(taskSearchIndex.search(query, visibleToUserId, limit));
+    }
+
+    /**
+     * Возвращает подсказки задач по началу заголовка или любого слова в нём.
+     * Для не-администраторов возвращает только задачи, где пользователь является автором или исполнителем.
+     * Подсказки берутся из префиксного дерева в памяти ({@link TitleAutocompleteIndex}) без обращения к базе данных.
+     *
+     * @param prefix введённый текст
+     * @param limit  максимальное количество подсказок, от 1 до {@link TitleAutocompleteIndex#TOP_K}
+     * @return список объектов {@link TaskSuggestionDto} от недавно изменённых задач к давно изменённым
+     * @throws IllegalArgumentException если ограничение вне допустимого диапазона
+     */
+    public List<TaskSuggestionDto> autocompleteTasks(String prefix, int limit) {
+        if (limit < 1 || limit > TitleAutocompleteIndex.TOP_K) {
+            throw new IllegalArgumentException(
+                    "Autocomplete limit must be between 1 and " + TitleAutocompleteIndex.TOP_K);
+        }
+        User currentUser = userService.getCurrentUser();
+        Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+        return titleAutocompleteIndex.suggest(prefix, visibleToUserId, limit);
+    }
+
+    /**
+     * Возвращает задачи, подходящие под булево выражение над метками, статусом, приоритетом,
+     * исполнителем и автором (синтаксис см. в {@link TaskQueryParser}).
+     * Для не-администраторов возвращает только задачи, где пользователь является автором или исполнителем.
+     * Имена меток разрешаются одним запросом, выражение вычисляется над битовыми картами индекса
+     * ({@link TaskBitmapIndex}), а задачи страницы загружаются одним запросом.
+     *
+     * @param expression булево выражение фильтра
+     * @param page       номер страницы, начиная с 0
+     * @param size       размер страницы, от 1 до 100
+     * @return объект {@link PageDto} с задачами от новых к старым и точным общим количеством
+     * @throws IllegalArgumentException если выражение содержит ошибку или неизвестную метку,
+     *                                  или параметры страницы вне допустимого диапазона
+     */
+    public PageDto<TaskDto> queryTasks(String expression, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (size < 1 || size > 100) {
+            throw new IllegalArgumentException("Page size must be between 1 and 100");
+        }
+        TaskQuery query = TaskQueryParser.parse(expression);
+        Set<String> names = new HashSet<>();
+        query.collectLabels(names);
+        Map<String, Long> labelIds = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Label label : labelRepository.findByNameIn(names)) {
+                labelIds.put(label.getName(), label.getId());
+            }
+            names.removeAll(labelIds.keySet());
+            if (!names.isEmpty()) {
+                throw new IllegalArgumentException("Unknown labels: " + String.join(", ", names));
+            }
+        }
+
+        User currentUser = userService.getCurrentUser();
+        Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+        TaskBitmapIndex.Result result = taskBitmapIndex.query(query, labelIds, visibleToUserId,
+                (long) page * size, size);
+        return PageDto.<TaskDto>builder()
+                .content(hydrate(result.ids()))
+                .page(page)
+                .size(size)
+                .totalElements(result.total())
+                .totalPages((int) ((result.total() + size - 1) / size))
+                .hasNext(((long) page + 1) * size < result.total())
+                .build();
     }
 
     /**
@@ -162,6 +456,179 @@ public class TaskService {
         return TaskMapper.toDto(task);
     }
 
+    /**
+     * Возвращает задачу по её идентификатору, заполняя только указанные поля.
+     * Если поля заданы, из базы данных выбираются только их колонки без загрузки сущности.
+     *
+     * @param taskId идентификатор задачи
+     * @param fields запрашиваемые поля или {@code null}, если нужны все поля
+     * @return объект {@link TaskDto}, представляющий задачу
+     * @throws ResourceNotFoundException если задача не найдена
+     */
+    public TaskDto getTaskById(Long taskId, Set<TaskField> fields) {
+        if (fields == null) {
+            return getTaskById(taskId);
+        }
+        List<TaskField> columns = List.copyOf(fields);
+        Object[] row = taskRepository.findColumnsById(taskId, columns)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        return TaskMapper.toDto(row, columns);
+    }
+
+    /**
+     * Возвращает задачи по списку идентификаторов.
+     * Все задачи загружаются одним запросом, а права доступа проверяются в памяти по идентификаторам автора
+     * и исполнителя: администратор видит все задачи, пользователь — задачи, где он автор или исполнитель.
+     * Для каждого идентификатора возвращается отдельный результат в порядке запроса; повторы схлопываются.
+     *
+     * @param ids идентификаторы задач, не более {@link #MAX_BATCH_SIZE}
+     * @return список объектов {@link TaskBatchItemDto} со статусом и задачей для каждого идентификатора
+     * @throws IllegalArgumentException если список пуст, содержит {@code null} или слишком велик
+     */
+    public List<TaskBatchItemDto> getTasksByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Task ids must not be empty");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Task ids must not contain null");
+        }
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " task ids are allowed");
+        }
+        User currentUser = userService.getCurrentUser();
+        Long visibleToUserId = currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+        Map<Long, TaskDto> tasks = taskRepository.findAllById(uniqueIds).stream()
+                .map(TaskMapper::toDto)
+                .collect(Collectors.toMap(TaskDto::getId, Function.identity()));
+
+        return uniqueIds.stream()
+                .map(id -> {
+                    TaskDto task = tasks.get(id);
+                    if (task == null) {
+                        return new TaskBatchItemDto(id, BatchItemStatus.NOT_FOUND, null);
+                    }
+                    if (visibleToUserId != null && !visibleToUserId.equals(task.getAuthorId())
+                            && !visibleToUserId.equals(task.getAssigneeId())) {
+                        return new TaskBatchItemDto(id, BatchItemStatus.FORBIDDEN, null);
+                    }
+                    return new TaskBatchItemDto(id, BatchItemStatus.OK, task);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Перемещает задачу вместе со всем её поддеревом под другого родителя или на верхний уровень.
+     * Таблица замыкания обновляется двумя запросами независимо от размера поддерева: строки, связывающие
+     * поддерево со старыми предками, удаляются, а с новыми — добавляются декартовым произведением.
+     *
+     * @param id       идентификатор перемещаемой задачи
+     * @param parentId идентификатор нового родителя или {@code null}
+     * @return объект {@link TaskDto}, представляющий перемещённую задачу
+     * Пользователь без роли ADMIN может выбрать родителем только задачу, где он автор или исполнитель.
+     *
+     * @throws ResourceNotFoundException если задача или новый родитель не найдены или родитель недоступен
+     *                                   текущему пользователю
+     * @throws IllegalArgumentException  если новый родитель — сама задача или её подзадача
+     */
+    @Transactional
+    public TaskDto moveTask(Long id, Long parentId) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        Task parent = null;
+        if (parentId != null) {
+            Long visibleToUserId = visibleToUserId();
+            parent = taskRepository.findById(parentId)
+                    .filter(candidate -> isVisibleTo(candidate, visibleToUserId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Parent task not found"));
+            if (taskClosureRepository.existsByAncestorIdAndDescendantId(id, parentId)) {
+                throw new IllegalArgumentException("Task cannot be moved under itself or its sub-task");
+            }
+        }
+        TaskDto before = TaskMapper.toDto(task);
+
+        taskClosureRepository.detachSubtree(id);
+        if (parentId != null) {
+            taskClosureRepository.attachSubtree(id, parentId);
+        }
+        task.setParent(parent);
+        task.setUpdatedAt(LocalDateTime.now());
+
+        TaskDto updated = TaskMapper.toDto(taskRepository.save(task));
+        eventPublisher.publishEvent(TaskEvent.updated(before, updated));
+        return updated;
+    }
+
+    /**
+     * Возвращает подзадачи всех уровней до {@code maxDepth} включительно: сначала непосредственные подзадачи,
+     * затем их подзадачи и так далее. Страница читается одним запросом по индексу таблицы замыкания.
+     * Пользователю без роли ADMIN возвращаются только подзадачи, где он автор или исполнитель.
+     *
+     * @param id       идентификатор корня поддерева
+     * @param maxDepth максимальная глубина относительно задачи, не меньше 1
+     * @param pageable параметры страницы; сортировка не учитывается
+     * @return объект {@link PageDto} без общего количества, содержащий список {@link TaskDto}
+     * @throws ResourceNotFoundException если задача не найдена
+     * @throws IllegalArgumentException  если глубина меньше 1
+     */
+    public PageDto<TaskDto> getSubtasks(Long id, int maxDepth, Pageable pageable) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be positive");
+        }
+        if (!taskRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Task not found");
+        }
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return PageDto.withoutTotal(taskClosureRepository.findDescendants(id, maxDepth, visibleToUserId(), unsorted)
+                .map(TaskMapper::toDto));
+    }
+
+    /**
+     * Возвращает цепочку предков задачи от корня иерархии к непосредственному родителю.
+     * Пользователю без роли ADMIN возвращаются только предки, где он автор или исполнитель.
+     *
+     * @param id идентификатор задачи
+     * @return список объектов {@link TaskDto}; пустой для задачи верхнего уровня
+     * @throws ResourceNotFoundException если задача не найдена
+     */
+    public List<TaskDto> getAncestors(Long id) {
+        if (!taskRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Task not found");
+        }
+        return taskClosureRepository.findAncestors(id, visibleToUserId()).stream()
+                .map(TaskMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Возвращает сводку по поддереву задачи: количество подзадач всех уровней по статусам.
+     * Считается одним агрегирующим запросом по индексу таблицы замыкания без чтения самих задач; для пользователя
+     * без роли ADMIN учитываются только подзадачи, где он автор или исполнитель, и запрос соединяется с задачами.
+     *
+     * @param id идентификатор корня поддерева
+     * @return объект {@link TaskRollupDto}
+     * @throws ResourceNotFoundException если задача не найдена
+     */
+    public TaskRollupDto getRollup(Long id) {
+        if (!taskRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Task not found");
+        }
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        long total = 0;
+        Long visibleToUserId = visibleToUserId();
+        List<Object[]> rows = visibleToUserId == null ? taskClosureRepository.countDescendantsByStatus(id)
+                : taskClosureRepository.countVisibleDescendantsByStatus(id, visibleToUserId);
+        for (Object[] row : rows) {
+            long count = (Long) row[1];
+            byStatus.put((TaskStatus) row[0], count);
+            total += count;
+        }
+        return new TaskRollupDto(id, total, byStatus);
+    }
+
     /**
      * Возвращает список всех задач текущего пользователя.
      * Учитываются задачи, где пользователь является автором или исполнителем.
@@ -203,30 +670,58 @@ public class TaskService {
         return task.getAuthor().getId().equals(currentUser.getId());
     }
 
+    private static String encodeCursor(Task task) {
+        String key = task.getUpdatedAt() + "_" + task.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TaskRepository.UpdatedAtKey decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('_');
+            return new TaskRepository.UpdatedAtKey(LocalDateTime.parse(key.substring(0, separator)),
+                    Long.valueOf(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     /**
-     * Создаёт спецификацию для фильтрации задач на основе переданных параметров.
-     *
-     * @param filter объект {@link TaskFilterDto} с параметрами фильтрации
-     * @return объект {@link Specification} для применения фильтров к запросу задач
+     * Возвращает идентификатор текущего пользователя, если его выборки ограничены задачами, где он автор
+     * или исполнитель, или {@code null} для пользователя с ролью ADMIN.
      */
-    private Specification<Task> buildSpecification(TaskFilterDto filter) {
-        return (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
+    private Long visibleToUserId() {
+        User currentUser = userService.getCurrentUser();
+        return currentUser.hasRole(Role.ADMIN) ? null : currentUser.getId();
+    }
 
-            if (filter.getStatus() != null) {
-                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
-            }
-            if (filter.getPriority() != null) {
-                predicates.add(cb.equal(root.get("priority"), filter.getPriority()));
-            }
-            if (filter.getAuthorId() != null) {
-                predicates.add(cb.equal(root.get("author").get("id"), filter.getAuthorId()));
-            }
-            if (filter.getAssigneeId() != null) {
-                predicates.add(cb.equal(root.get("assignee").get("id"), filter.getAssigneeId()));
-            }
+    /**
+     * Проверяет, видна ли задача пользователю: является ли он её автором или исполнителем.
+     *
+     * @param task            задача
+     * @param visibleToUserId идентификатор пользователя или {@code null} для пользователя с ролью ADMIN
+     * @return {@code true}, если задача видна пользователю
+     */
+    static boolean isVisibleTo(Task task, Long visibleToUserId) {
+        return visibleToUserId == null
+                || (task.getAuthor() != null && visibleToUserId.equals(task.getAuthor().getId()))
+                || (task.getAssignee() != null && visibleToUserId.equals(task.getAssignee().getId()));
+    }
 
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+    /**
+     * Загружает задачи одним запросом и возвращает их в порядке переданных идентификаторов.
+     * Задачи, удалённые после построения списка, пропускаются.
+     */
+    private List<TaskDto> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(TaskMapper::toDto)
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
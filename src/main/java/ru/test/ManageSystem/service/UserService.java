@@ -1,6 +1,7 @@
 package ru.test.ManageSystem.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,17 +11,21 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.test.ManageSystem.DTO.UserCreateDto;
 import ru.test.ManageSystem.DTO.UserDto;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
 import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.event.UserCreatedEvent;
 import ru.test.ManageSystem.exception.ResourceNotFoundException;
 import ru.test.ManageSystem.exception.UserAlreadyExistsException;
 import ru.test.ManageSystem.mapper.UserMapper;
 import ru.test.ManageSystem.repository.UserRepository;
 import ru.test.ManageSystem.security.UserDetailsImpl;
+import ru.test.ManageSystem.security.UserSnapshot;
 
 /**
  * Сервис для управления пользователями.
  * Реализует функциональность создания пользователей, получения информации о них
  * и предоставления данных для аутентификации через Spring Security.
+ * Поиск пользователей по email идёт через {@link UserSnapshotCache}.
  */
 @Service
 @RequiredArgsConstructor
@@ -28,6 +33,8 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserSnapshotCache userSnapshotCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Загружает данные пользователя по email для аутентификации в Spring Security.
@@ -38,14 +45,15 @@ public class UserService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        UserSnapshot user = userSnapshotCache.get(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        return UserDetailsImpl.build(user);
+        return UserDetailsImpl.build(user.getEmail(), user.getPasswordHash(), user.getRoleMask());
     }
 
     /**
      * Создаёт нового пользователя на основе переданных данных.
      * Проверяет уникальность email и шифрует пароль перед сохранением.
+     * Публикует {@link UserCreatedEvent}, после которого пользователю можно автоматически назначать задачи.
      *
      * @param dto объект {@link UserCreateDto} с данными для создания пользователя
      * @return объект {@link UserDto}, представляющий созданного пользователя
@@ -61,18 +69,24 @@ public class UserService implements UserDetailsService {
                 .password(passwordEncoder.encode(dto.getPassword()))
                 .roles(dto.getRoles())
                 .build();
-        return UserMapper.toDto(userRepository.save(user));
+        userSnapshotCache.invalidate(dto.getEmail());
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCreatedEvent(saved.getId(), saved.getRoleMask()));
+        return UserMapper.toDto(saved);
     }
 
     /**
      * Возвращает пользователя по его email.
+     * Результат строится из кэшированного снимка: это отсоединённая сущность без пароля,
+     * пригодная для проверки прав и в качестве ссылки в связях других сущностей.
      *
      * @param email адрес электронной почты пользователя
      * @return объект {@link User}, представляющий пользователя
      * @throws ResourceNotFoundException если пользователь с указанным email не найден
      */
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userSnapshotCache.get(email)
+                .map(UserSnapshot::toUser)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
     }
 
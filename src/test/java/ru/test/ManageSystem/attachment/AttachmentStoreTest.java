@@ -0,0 +1,88 @@
+package ru.test.ManageSystem.attachment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttachmentStoreTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void commit_ShouldStoreContentOnceUnderItsHash() throws Exception {
+        AttachmentStore store = store(DataSize.ofKilobytes(1));
+        AttachmentStore.Upload first = store.write(stream("hello"));
+        AttachmentStore.Upload second = store.write(stream("hello"));
+        assertEquals(HELLO_SHA256, first.sha256());
+        assertEquals(5, first.size());
+
+        store.commit(first);
+        store.commit(second);
+
+        assertEquals("hello", Files.readString(store.path(HELLO_SHA256)));
+        assertFalse(Files.exists(second.temp()));
+        assertEquals(1L, store.getMetrics().get("stored"));
+        assertEquals(1L, store.getMetrics().get("deduplicated"));
+        store.delete(HELLO_SHA256);
+        assertFalse(Files.exists(store.path(HELLO_SHA256)));
+    }
+
+    @Test
+    void write_ShouldRejectContentOverMaxSizeWithoutLeavingTemporaryFile() throws Exception {
+        AttachmentStore store = store(DataSize.ofBytes(4));
+
+        assertThrows(IllegalArgumentException.class, () -> store.write(stream("hello")));
+        try (Stream<Path> files = Files.list(dir.resolve("tmp"))) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalArgumentException.class, () -> store.path("../etc/passwd"));
+    }
+
+    @Test
+    void transfer_ShouldUseSendfileForLargeRangesWhenContainerSupportsIt() throws Exception {
+        AttachmentStore store = store(DataSize.ofMegabytes(1));
+        byte[] data = new byte[100_000];
+        Arrays.fill(data, (byte) 7);
+        data[10] = 1;
+        AttachmentStore.Upload upload = store.write(new ByteArrayInputStream(data));
+        store.commit(upload);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        store.transfer(upload.sha256(), 10, 5, request, response);
+        assertArrayEquals(new byte[]{1, 7, 7, 7, 7}, response.getContentAsByteArray());
+
+        request.setAttribute(AttachmentStore.SENDFILE_SUPPORT, Boolean.TRUE);
+        response = new MockHttpServletResponse();
+        store.transfer(upload.sha256(), 1_000, 60_000, request, response);
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(60_000L, response.getContentLengthLong());
+        assertEquals(store.path(upload.sha256()).toRealPath().toString(),
+                request.getAttribute(AttachmentStore.SENDFILE_FILENAME));
+        assertEquals(61_000L, request.getAttribute(AttachmentStore.SENDFILE_END));
+    }
+
+    private AttachmentStore store(DataSize maxSize) throws Exception {
+        AttachmentStore store = new AttachmentStore(dir, maxSize);
+        store.start();
+        return store;
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.test.ManageSystem.attachment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteRangeTest {
+
+    @Test
+    void parse_ShouldClampSingleRangesToContentSize() {
+        assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=0-99", 1_000));
+        assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=900-5000", 1_000));
+        assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-", 1_000));
+        assertEquals(new ByteRange(990, 999), ByteRange.parse("bytes=-10", 1_000));
+        assertEquals(new ByteRange(0, 999), ByteRange.parse("BYTES=-5000", 1_000));
+        assertEquals(100, ByteRange.parse("bytes=0-99", 1_000).length());
+    }
+
+    @Test
+    void parse_ShouldReportUnsatisfiableRanges() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1_000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1_000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=0-", 0));
+    }
+
+    @Test
+    void parse_ShouldIgnoreInvalidOrMultipleRanges() {
+        assertNull(ByteRange.parse(null, 1_000));
+        assertNull(ByteRange.parse("items=0-9", 1_000));
+        assertNull(ByteRange.parse("bytes=0-9,20-29", 1_000));
+        assertNull(ByteRange.parse("bytes=9-0", 1_000));
+        assertNull(ByteRange.parse("bytes=-", 1_000));
+        assertNull(ByteRange.parse("bytes=a-9", 1_000));
+        assertNull(ByteRange.parse("bytes=99999999999999999999-", 1_000));
+    }
+}
@@ -0,0 +1,101 @@
+package ru.test.ManageSystem.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.test.ManageSystem.search.DeadlineWheel;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Замеры колеса таймеров {@link DeadlineWheel} на 2 000 000 сроков, равномерно распределённых по суткам:
+ * постановка, перенос каждого десятого срока, отмена каждого десятого срока и продвижение на сутки
+ * секунда за секундой. Для сравнения постановка, отмена и продвижение выполняются на двоичной куче
+ * {@link PriorityQueue}, где отмена требует линейного поиска элемента.
+ * Запуск: {@code mvn test -Dbenchmark=true -Dtest=DeadlineWheelBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DeadlineWheelBenchmarkTest {
+
+    private static final int DEADLINES = 2_000_000;
+    private static final int CHANGES = DEADLINES / 10;
+    private static final long TICK = 1_000;
+    private static final long DAY = 86_400_000;
+    private static final long START = 1_700_000_000_000L;
+    private static final int HEAP_CHANGES = 2_000;
+
+    @Test
+    void measureDeadlineWheel() {
+        Random random = new Random(42);
+        long[] deadlines = new long[DEADLINES + 1];
+        for (int id = 1; id <= DEADLINES; id++) {
+            deadlines[id] = START + (long) (random.nextDouble() * DAY);
+        }
+
+        DeadlineWheel wheel = new DeadlineWheel(TICK, START);
+        long start = System.nanoTime();
+        for (int id = 1; id <= DEADLINES; id++) {
+            wheel.schedule(id, deadlines[id]);
+        }
+        long schedule = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < CHANGES; i++) {
+            int id = 1 + random.nextInt(DEADLINES);
+            wheel.schedule(id, deadlines[id] + DAY / 2);
+        }
+        long reschedule = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int cancelled = 0;
+        for (int i = 0; i < CHANGES; i++) {
+            cancelled += wheel.cancel(1 + random.nextInt(DEADLINES)) ? 1 : 0;
+        }
+        long cancel = System.nanoTime() - start;
+
+        int remaining = wheel.size();
+        start = System.nanoTime();
+        long fired = 0;
+        long maxTickNanos = 0;
+        for (long now = START; now <= START + 2 * DAY; now += TICK) {
+            long tickStart = System.nanoTime();
+            fired += wheel.advance(now).length;
+            maxTickNanos = Math.max(maxTickNanos, System.nanoTime() - tickStart);
+        }
+        long advance = System.nanoTime() - start;
+
+        System.out.printf("wheel: schedule %.0f ns/op, reschedule %.0f ns/op, cancel %.0f ns/op (%d cancelled),"
+                        + " advance 2 days %d ms (%d of %d fired, %d cascades, max tick %.1f ms), %d MB%n",
+                (double) schedule / DEADLINES, (double) reschedule / CHANGES, (double) cancel / CHANGES, cancelled,
+                advance / 1_000_000, fired, remaining, wheel.cascades(), maxTickNanos / 1e6,
+                wheel.byteSize() >> 20);
+
+        PriorityQueue<long[]> heap = new PriorityQueue<>((a, b) -> Long.compare(a[1], b[1]));
+        start = System.nanoTime();
+        for (int id = 1; id <= DEADLINES; id++) {
+            heap.add(new long[]{id, deadlines[id]});
+        }
+        long heapSchedule = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < HEAP_CHANGES; i++) {
+            long id = 1 + random.nextInt(DEADLINES);
+            heap.removeIf(entry -> entry[0] == id);
+        }
+        long heapCancel = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long heapFired = 0;
+        for (long now = START; now <= START + DAY; now += TICK) {
+            while (!heap.isEmpty() && heap.peek()[1] <= now) {
+                heap.poll();
+                heapFired++;
+            }
+        }
+        long heapAdvance = System.nanoTime() - start;
+
+        System.out.printf("heap: schedule %.0f ns/op, cancel %.0f ns/op, advance 1 day %d ms (%d fired)%n",
+                (double) heapSchedule / DEADLINES, (double) heapCancel / HEAP_CHANGES, heapAdvance / 1_000_000,
+                heapFired);
+    }
+}
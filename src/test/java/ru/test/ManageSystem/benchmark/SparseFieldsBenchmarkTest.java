@@ -0,0 +1,181 @@
+package ru.test.ManageSystem.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.PageDto;
+import ru.test.ManageSystem.DTO.TaskFilterDto;
+import ru.test.ManageSystem.config.JacksonConfig;
+import ru.test.ManageSystem.entity.Comment;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.CommentField;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskField;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.mapper.CommentMapper;
+import ru.test.ManageSystem.mapper.TaskMapper;
+import ru.test.ManageSystem.repository.CommentRepository;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Сравнение полного ответа со списком задач и комментариев и ответа с параметром {@code fields}:
+ * размер JSON и время выборки, преобразования и сериализации.
+ * Запуск: {@code mvn test -Dbenchmark=true -Dtest=SparseFieldsBenchmarkTest}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchdb-fields;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SparseFieldsBenchmarkTest {
+
+    private static final int TASKS = 2_000;
+    private static final int COMMENTS = 200;
+    private static final int DESCRIPTION_LENGTH = 250;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long commentedTaskId;
+
+    @BeforeEach
+    void setUp() {
+        if (taskRepository.count() > 0) {
+            commentedTaskId = taskRepository.findAll().get(0).getId();
+            return;
+        }
+        User author = userRepository.save(User.builder()
+                .email("bench-fields@example.com")
+                .password("password")
+                .roles(Collections.singleton(Role.USER))
+                .build());
+        String description = "x".repeat(DESCRIPTION_LENGTH);
+
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(Task.builder()
+                    .title("Task " + i)
+                    .description(description)
+                    .status(TaskStatus.values()[i % TaskStatus.values().length])
+                    .priority(TaskPriority.values()[i % TaskPriority.values().length])
+                    .author(author)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        tasks = taskRepository.saveAll(tasks);
+        Task commented = tasks.get(0);
+        commentedTaskId = commented.getId();
+
+        List<Comment> comments = new ArrayList<>(COMMENTS);
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(Comment.builder()
+                    .content("Comment " + i + " " + "y".repeat(200))
+                    .task(commented)
+                    .author(author)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        commentRepository.saveAll(comments);
+    }
+
+    @Test
+    void compareFullAndSparseTaskPage() {
+        TaskFilterDto filter = new TaskFilterDto();
+        Pageable pageable = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Set<TaskField> fields = TaskField.parse("title,status,priority");
+        List<TaskField> columns = List.copyOf(fields);
+
+        Supplier<byte[]> full = () -> write(JacksonConfig.withFields(
+                PageDto.exact(taskRepository.findFiltered(filter, null, pageable).map(TaskMapper::toDto)),
+                TaskField.FILTER_ID, null));
+        Supplier<byte[]> sparse = () -> write(JacksonConfig.withFields(
+                PageDto.exact(taskRepository.findFilteredColumns(filter, null, pageable, columns)
+                        .map(row -> TaskMapper.toDto(row, columns))),
+                TaskField.FILTER_ID, TaskField.properties(fields)));
+
+        report("tasks", full, sparse);
+    }
+
+    @Test
+    void compareFullAndSparseComments() {
+        Set<CommentField> fields = CommentField.parse("createdAt");
+        List<CommentField> columns = List.copyOf(fields);
+
+        Supplier<byte[]> full = () -> write(JacksonConfig.withFields(
+                commentRepository.findByTaskId(commentedTaskId).stream().map(CommentMapper::toDto).toList(),
+                CommentField.FILTER_ID, null));
+        Supplier<byte[]> sparse = () -> write(JacksonConfig.withFields(
+                commentRepository.findColumnsByTaskId(commentedTaskId, columns).stream()
+                        .map(row -> CommentMapper.toDto(row, columns)).toList(),
+                CommentField.FILTER_ID, CommentField.properties(fields)));
+
+        report("comments", full, sparse);
+    }
+
+    private void report(String name, Supplier<byte[]> full, Supplier<byte[]> sparse) {
+        run(WARMUP, full);
+        long fullNanos = run(ITERATIONS, full);
+        run(WARMUP, sparse);
+        long sparseNanos = run(ITERATIONS, sparse);
+
+        int fullBytes = transactionTemplate.execute(status -> full.get()).length;
+        int sparseBytes = transactionTemplate.execute(status -> sparse.get()).length;
+        System.out.printf("%s full: %d bytes, %.1f us/op%n", name, fullBytes, fullNanos / 1000.0 / ITERATIONS);
+        System.out.printf("%s sparse: %d bytes, %.1f us/op%n", name, sparseBytes, sparseNanos / 1000.0 / ITERATIONS);
+    }
+
+    private long run(int iterations, Supplier<byte[]> action) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            transactionTemplate.executeWithoutResult(status -> action.get());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private byte[] write(MappingJacksonValue value) {
+        try {
+            if (value.getFilters() == null) {
+                return objectMapper.writeValueAsBytes(value.getValue());
+            }
+            return objectMapper.writer(value.getFilters()).writeValueAsBytes(value.getValue());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
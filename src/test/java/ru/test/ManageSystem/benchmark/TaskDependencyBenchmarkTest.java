@@ -0,0 +1,160 @@
+package ru.test.ManageSystem.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.search.TaskDependencyIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Замеры графа зависимостей {@link TaskDependencyIndex} на 200 000 задачах и 1 000 000 зависимостей:
+ * 200 проектов по 1 000 задач, у каждой задачи до пяти блокирующих задач из своего проекта, 1 000 исполнителей.
+ * Сравнивается добавление зависимости с инкрементальной проверкой на цикл и полный обход в глубину
+ * от заблокированной задачи, который понадобился бы без поддерживаемого топологического порядка,
+ * отдельно для рёбер, согласованных с порядком (блокирующая задача создана раньше), и для случайных рёбер.
+ * Запуск: {@code mvn test -Dbenchmark=true -Dtest=TaskDependencyBenchmarkTest}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchdb-dependencies;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskDependencyBenchmarkTest {
+
+    private static final int PROJECTS = 200;
+    private static final int PROJECT_SIZE = 1_000;
+    private static final int TASKS = PROJECTS * PROJECT_SIZE;
+    private static final int BLOCKERS = 5;
+    private static final int ASSIGNEES = 1_000;
+    private static final int WARMUP = 1_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Autowired
+    private TaskDependencyIndex taskDependencyIndex;
+
+    private final Random random = new Random(42);
+    private int[][] blocked;
+    private int[] blockedCounts;
+    private final int[] marks = new int[TASKS + 1];
+    private final int[] stack = new int[TASKS];
+    private int epoch;
+
+    @BeforeEach
+    void setUp() {
+        blocked = new int[TASKS + 1][];
+        blockedCounts = new int[TASKS + 1];
+        Arrays.fill(blocked, new int[0]);
+        long start = System.nanoTime();
+        for (int id = 1; id <= TASKS; id++) {
+            TaskStatus status = id % 4 == 0 ? TaskStatus.COMPLETED : TaskStatus.PENDING;
+            taskDependencyIndex.onTaskEvent(TaskEvent.created(TaskDto.builder()
+                    .id((long) id)
+                    .status(status)
+                    .priority(TaskPriority.LOW)
+                    .assigneeId((long) (1 + id % ASSIGNEES))
+                    .build()));
+        }
+        int edges = 0;
+        for (int id = 1; id <= TASKS; id++) {
+            int first = (id - 1) / PROJECT_SIZE * PROJECT_SIZE + 1;
+            for (int i = 0; i < BLOCKERS && id > first; i++) {
+                int blocker = Math.max(first, id - 1 - random.nextInt(50));
+                if (taskDependencyIndex.addDependency((long) id, (long) blocker)) {
+                    addEdge(blocker, id);
+                    edges++;
+                }
+            }
+        }
+        System.out.printf("seeded %d tasks, %d dependencies in %d ms%n",
+                TASKS, edges, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void measureDependencyQueries() {
+        run(WARMUP, i -> taskDependencyIndex.readyFor((long) (1 + i % ASSIGNEES), 20));
+        long ready = run(ITERATIONS, i -> taskDependencyIndex.readyFor((long) (1 + i % ASSIGNEES), 20));
+
+        run(WARMUP, i -> taskDependencyIndex.criticalPath((long) lastOfProject(i)));
+        long criticalPath = run(ITERATIONS, i -> taskDependencyIndex.criticalPath((long) lastOfProject(i)));
+
+        for (boolean ordered : new boolean[]{true, false}) {
+            int[][] candidates = new int[ITERATIONS][];
+            for (int i = 0; i < ITERATIONS; i++) {
+                int first = random.nextInt(PROJECTS) * PROJECT_SIZE + 1;
+                int a = first + random.nextInt(PROJECT_SIZE);
+                int b = first + random.nextInt(PROJECT_SIZE);
+                candidates[i] = ordered ? new int[]{Math.max(a, b), Math.min(a, b)} : new int[]{a, b};
+            }
+            long fullSearch = run(ITERATIONS, i -> reachable(candidates[i][0], candidates[i][1]));
+            int[] rejected = new int[1];
+            long incremental = run(ITERATIONS, i -> {
+                try {
+                    taskDependencyIndex.addDependency((long) candidates[i][0], (long) candidates[i][1]);
+                } catch (IllegalArgumentException e) {
+                    rejected[0]++;
+                }
+            });
+            System.out.printf("%s edges: add dependency %.1f us/op (%d cycles rejected), full DFS check %.1f us/op%n",
+                    ordered ? "ordered" : "random", incremental / 1e3 / ITERATIONS, rejected[0],
+                    fullSearch / 1e3 / ITERATIONS);
+        }
+
+        System.out.printf("readyFor %.1f us/op, criticalPath %.1f us/op%n",
+                ready / 1e3 / ITERATIONS, criticalPath / 1e3 / ITERATIONS);
+        System.out.println(taskDependencyIndex.getMetrics());
+    }
+
+    private static int lastOfProject(int i) {
+        return (1 + i % PROJECTS) * PROJECT_SIZE;
+    }
+
+    private void addEdge(int blocker, int task) {
+        if (blockedCounts[blocker] == blocked[blocker].length) {
+            blocked[blocker] = Arrays.copyOf(blocked[blocker], Math.max(4, blockedCounts[blocker] * 2));
+        }
+        blocked[blocker][blockedCounts[blocker]++] = task;
+    }
+
+    /**
+     * Проверка на цикл без топологического порядка: обход всех задач, зависящих от {@code from}.
+     */
+    private boolean reachable(int from, int target) {
+        int mark = ++epoch;
+        int top = 0;
+        stack[top++] = from;
+        marks[from] = mark;
+        while (top > 0) {
+            int node = stack[--top];
+            if (node == target) {
+                return true;
+            }
+            for (int i = 0; i < blockedCounts[node]; i++) {
+                int next = blocked[node][i];
+                if (marks[next] != mark) {
+                    marks[next] = mark;
+                    stack[top++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    private long run(int iterations, IntConsumer action) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            action.accept(i);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,150 @@
+package ru.test.ManageSystem.benchmark;
+
+import jakarta.persistence.criteria.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.TaskFilterDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Сравнение фильтрации задач через Criteria-спецификацию (прежняя реализация {@code buildSpecification})
+ * и через таблицу заранее сгенерированных запросов.
+ * Запуск: {@code mvn test -Dbenchmark=true -Dtest=TaskFilterBenchmarkTest}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchdb;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskFilterBenchmarkTest {
+
+    private static final int TASKS = 2_000;
+    private static final int WARMUP = 1_000;
+    private static final int ITERATIONS = 5_000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<TaskFilterDto> filters = new ArrayList<>();
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        if (taskRepository.count() > 0) {
+            return;
+        }
+        User author = userRepository.save(User.builder()
+                .email("bench-author@example.com")
+                .password("password")
+                .roles(Collections.singleton(Role.USER))
+                .build());
+        User assignee = userRepository.save(User.builder()
+                .email("bench-assignee@example.com")
+                .password("password")
+                .roles(Collections.singleton(Role.USER))
+                .build());
+        userId = author.getId();
+
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(Task.builder()
+                    .title("Task " + i)
+                    .status(TaskStatus.values()[i % TaskStatus.values().length])
+                    .priority(TaskPriority.values()[i % TaskPriority.values().length])
+                    .author(i % 2 == 0 ? author : assignee)
+                    .assignee(i % 3 == 0 ? assignee : null)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        taskRepository.saveAll(tasks);
+
+        for (int mask = 0; mask < 16; mask++) {
+            filters.add(TaskFilterDto.builder()
+                    .status((mask & 1) != 0 ? TaskStatus.PENDING : null)
+                    .priority((mask & 2) != 0 ? TaskPriority.HIGH : null)
+                    .authorId((mask & 4) != 0 ? author.getId() : null)
+                    .assigneeId((mask & 8) != 0 ? assignee.getId() : null)
+                    .build());
+        }
+    }
+
+    @Test
+    void compareCriteriaAndQueryTable() {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        run(WARMUP, i -> taskRepository.findAll(specification(filters.get(i % 16), i % 2 == 0 ? userId : null), pageable));
+        long criteria = run(ITERATIONS, i -> taskRepository.findAll(
+                specification(filters.get(i % 16), i % 2 == 0 ? userId : null), pageable));
+
+        run(WARMUP, i -> taskRepository.findFiltered(filters.get(i % 16), i % 2 == 0 ? userId : null, pageable));
+        long table = run(ITERATIONS, i -> taskRepository.findFiltered(
+                filters.get(i % 16), i % 2 == 0 ? userId : null, pageable));
+
+        System.out.printf("criteria specification: %.1f us/op%n", criteria / 1000.0 / ITERATIONS);
+        System.out.printf("precompiled query table: %.1f us/op%n", table / 1000.0 / ITERATIONS);
+    }
+
+    private long run(int iterations, IntConsumer action) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < iterations; i++) {
+                action.accept(i);
+            }
+        });
+        return System.nanoTime() - start;
+    }
+
+    private static Specification<Task> specification(TaskFilterDto filter, Long visibleToUserId) {
+        Specification<Task> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getPriority() != null) {
+                predicates.add(cb.equal(root.get("priority"), filter.getPriority()));
+            }
+            if (filter.getAuthorId() != null) {
+                predicates.add(cb.equal(root.get("author").get("id"), filter.getAuthorId()));
+            }
+            if (filter.getAssigneeId() != null) {
+                predicates.add(cb.equal(root.get("assignee").get("id"), filter.getAssigneeId()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        if (visibleToUserId != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.equal(root.get("author").get("id"), visibleToUserId),
+                    cb.equal(root.get("assignee").get("id"), visibleToUserId)));
+        }
+        return spec;
+    }
+}
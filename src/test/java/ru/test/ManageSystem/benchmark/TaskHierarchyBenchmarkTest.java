@@ -0,0 +1,132 @@
+package ru.test.ManageSystem.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.repository.TaskClosureRepository;
+import ru.test.ManageSystem.repository.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Сравнение сводки по статусам поддерева через таблицу замыкания и через рекурсивный запрос
+ * по {@code tasks.parent_id} на иерархии из 111 111 задач (10 подзадач у каждой, 6 уровней).
+ * Запуск: {@code mvn test -Dbenchmark=true -Dtest=TaskHierarchyBenchmarkTest}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchdb-hierarchy;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskHierarchyBenchmarkTest {
+
+    private static final int FANOUT = 10;
+    private static final int LEVELS = 6;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    private static final String RECURSIVE_ROLLUP = """
+            WITH RECURSIVE subtree(id) AS (
+                SELECT id FROM tasks WHERE parent_id = ?
+                UNION ALL
+                SELECT t.id FROM tasks t JOIN subtree s ON t.parent_id = s.id
+            )
+            SELECT t.status, COUNT(*) FROM subtree s JOIN tasks t ON t.id = s.id GROUP BY t.status""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskClosureRepository taskClosureRepository;
+
+    private long root;
+    private long middle;
+
+    @BeforeEach
+    void setUp() {
+        root = 1;
+        middle = 2;
+        if (taskClosureRepository.count() > 0) {
+            return;
+        }
+        User author = userRepository.save(User.builder()
+                .email("bench-hierarchy@example.com")
+                .password("password")
+                .roles(Collections.singleton(Role.USER))
+                .build());
+
+        List<Object[]> tasks = new ArrayList<>();
+        List<Object[]> closure = new ArrayList<>();
+        List<long[]> parents = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long nextId = 1;
+        List<Long> level = List.of(nextId++);
+        parents.add(new long[]{1, 0});
+        for (int depth = 1; depth < LEVELS; depth++) {
+            List<Long> next = new ArrayList<>();
+            for (long parent : level) {
+                for (int i = 0; i < FANOUT; i++) {
+                    long id = nextId++;
+                    parents.add(new long[]{id, parent});
+                    next.add(id);
+                }
+            }
+            level = next;
+        }
+        long[] parentOf = new long[(int) nextId];
+        for (long[] pair : parents) {
+            long id = pair[0];
+            parentOf[(int) id] = pair[1];
+            String status = TaskStatus.values()[(int) (id % TaskStatus.values().length)].name();
+            tasks.add(new Object[]{id, "Task " + id, status, "LOW", author.getId(),
+                    pair[1] == 0 ? null : pair[1], now, now});
+            int depth = 0;
+            for (long ancestor = id; ancestor != 0; ancestor = parentOf[(int) ancestor]) {
+                closure.add(new Object[]{ancestor, id, depth++, status});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, status, priority, author_id, parent_id, "
+                + "created_at, updated_at, comment_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)", tasks);
+        jdbcTemplate.batchUpdate("INSERT INTO task_closure (ancestor_id, descendant_id, depth, descendant_status) "
+                + "VALUES (?, ?, ?, ?)", closure);
+        System.out.printf("seeded %d tasks, %d closure rows%n", tasks.size(), closure.size());
+    }
+
+    @Test
+    void compareClosureAndRecursiveRollup() {
+        for (long taskId : new long[]{root, middle}) {
+            run(WARMUP, i -> taskClosureRepository.countDescendantsByStatus(taskId));
+            long closure = run(ITERATIONS, i -> taskClosureRepository.countDescendantsByStatus(taskId));
+
+            run(WARMUP, i -> jdbcTemplate.queryForList(RECURSIVE_ROLLUP, taskId));
+            long recursive = run(ITERATIONS, i -> jdbcTemplate.queryForList(RECURSIVE_ROLLUP, taskId));
+
+            System.out.printf("task %d: closure table %.2f ms/op, recursive query %.2f ms/op%n",
+                    taskId, closure / 1e6 / ITERATIONS, recursive / 1e6 / ITERATIONS);
+        }
+    }
+
+    private long run(int iterations, IntConsumer action) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            action.accept(i);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.test.ManageSystem.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InboxCountersTest {
+
+    private static final long USER = 7L;
+
+    @Test
+    void add_ShouldCountOnlyItemsAboveReadBoundary() {
+        InboxCounters counters = new InboxCounters(4);
+        for (long id = 1; id <= 3; id++) {
+            counters.inserted(id);
+            counters.add(USER, id);
+        }
+        counters.markRead(USER, 3, counters.safeWatermark(), 0);
+        counters.add(USER, 2);
+
+        assertEquals(0, counters.unread(USER));
+        assertEquals(3, counters.readUpTo(USER));
+        assertEquals(0, counters.unread(8L));
+    }
+
+    @Test
+    void snapshot_ShouldNotCountItemsAboveOpenReservation() {
+        InboxCounters counters = new InboxCounters(4);
+        InboxCounters.Reservation slow = counters.reserve();
+        counters.inserted(1);
+        InboxCounters.Reservation fast = counters.reserve();
+        counters.inserted(2);
+        counters.add(USER, 2);
+        counters.release(fast);
+
+        assertEquals(0, counters.safeWatermark());
+        List<InboxCounters.Snapshot> first = counters.snapshot(counters.safeWatermark());
+        assertEquals(List.of(new InboxCounters.Snapshot(USER, 0, 0, 0, 1)), first);
+        counters.flushed(first);
+
+        counters.add(USER, 1);
+        counters.release(slow);
+        assertEquals(2, counters.safeWatermark());
+        List<InboxCounters.Snapshot> second = counters.snapshot(2);
+        assertEquals(List.of(new InboxCounters.Snapshot(USER, 2, 0, 2, 2)), second);
+        counters.flushed(second);
+        assertTrue(counters.snapshot(2).isEmpty());
+    }
+
+    @Test
+    void markRead_ShouldCombineStoredCountBelowWatermarkWithRecentItems() {
+        InboxCounters counters = new InboxCounters(4);
+        for (long id = 1; id <= 5; id++) {
+            counters.inserted(id);
+            counters.add(USER, id);
+        }
+        counters.flushed(counters.snapshot(5));
+        for (long id = 6; id <= 7; id++) {
+            counters.inserted(id);
+            counters.add(USER, id);
+        }
+
+        assertEquals(4, counters.markRead(USER, 3, 5, 2));
+        assertEquals(4, counters.markRead(USER, 2, 5, 3));
+        assertEquals(7, counters.latest(USER, 5));
+        assertEquals(0, counters.markRead(USER, 7, 5, 0));
+    }
+
+    @Test
+    void flushed_ShouldKeepCounterDirtyWhenChangedAfterSnapshot() {
+        InboxCounters counters = new InboxCounters(4);
+        counters.inserted(1);
+        counters.add(USER, 1);
+        List<InboxCounters.Snapshot> snapshots = counters.snapshot(1);
+        counters.markRead(USER, 1, 1, 0);
+        counters.flushed(snapshots);
+
+        assertEquals(List.of(new InboxCounters.Snapshot(USER, 0, 1, 1, 2)), counters.snapshot(1));
+    }
+
+    @Test
+    void constructor_ShouldRejectStripeCountThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new InboxCounters(6));
+        assertThrows(IllegalArgumentException.class, () -> new InboxCounters(0));
+    }
+}
@@ -0,0 +1,184 @@
+package ru.test.ManageSystem.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.repository.UserRepository;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserSnapshotCacheTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final int THREADS = 8;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_ShouldCollapseConcurrentMissesIntoOneLoad() throws Exception {
+        UserSnapshotCache cache = cache(100, Duration.ofMinutes(5));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(inv -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return Optional.of(user(1L, EMAIL));
+        });
+
+        List<Future<Optional<UserSnapshot>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> cache.get(EMAIL)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < THREADS; i++) {
+            results.add(executor.submit(() -> cache.get(EMAIL)));
+        }
+        awaitCoalesced(cache, THREADS - 1);
+        release.countDown();
+
+        for (Future<Optional<UserSnapshot>> result : results) {
+            assertEquals(1L, result.get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        }
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        assertEquals((long) THREADS - 1, cache.getMetrics().get("coalescedLoads"));
+        assertEquals(1L, cache.getMetrics().get("misses"));
+    }
+
+    @Test
+    void get_ShouldPropagateFailedLoadToWaitersWithoutCachingIt() throws Exception {
+        UserSnapshotCache cache = cache(100, Duration.ofMinutes(5));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database is down");
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(inv -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw failure;
+        }).thenReturn(Optional.of(user(1L, EMAIL)));
+
+        List<Future<Optional<UserSnapshot>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> cache.get(EMAIL)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < THREADS; i++) {
+            results.add(executor.submit(() -> cache.get(EMAIL)));
+        }
+        awaitCoalesced(cache, THREADS - 1);
+        release.countDown();
+
+        for (Future<Optional<UserSnapshot>> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(0, cache.getMetrics().get("size"));
+        assertTrue(cache.get(EMAIL).isPresent());
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void get_ShouldCountHitsAndReloadExpiredEntry() throws Exception {
+        UserSnapshotCache cache = cache(100, Duration.ofMillis(20));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(1L, EMAIL)));
+
+        cache.get(EMAIL);
+        cache.get(EMAIL);
+        assertEquals(1L, cache.getMetrics().get("hits"));
+        assertEquals(0.5, cache.getMetrics().get("hitRate"));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+
+        Thread.sleep(40);
+        assertTrue(cache.get(EMAIL).isPresent());
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void get_ShouldStayWithinMaxSize() {
+        UserSnapshotCache cache = cache(10, Duration.ofMinutes(5));
+        when(userRepository.findByEmail(anyString()))
+                .thenAnswer(inv -> Optional.of(user(1L, inv.getArgument(0))));
+
+        for (int i = 0; i <= 10; i++) {
+            cache.get("user" + i + "@example.com");
+        }
+
+        assertTrue((int) cache.getMetrics().get("size") <= 10);
+        assertTrue((long) cache.getMetrics().get("evictions") > 0);
+    }
+
+    @Test
+    void get_ShouldNotCacheAbsentUser() {
+        UserSnapshotCache cache = cache(100, Duration.ofMinutes(5));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertTrue(cache.get(EMAIL).isEmpty());
+        assertTrue(cache.get(EMAIL).isEmpty());
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+        assertEquals(0, cache.getMetrics().get("size"));
+    }
+
+    @Test
+    void invalidate_ShouldRemoveEntryAgainAfterTransactionCompletes() {
+        UserSnapshotCache cache = cache(100, Duration.ofMinutes(5));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(1L, EMAIL)));
+        cache.get(EMAIL);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(EMAIL);
+        cache.get(EMAIL);
+        assertEquals(1, cache.getMetrics().get("size"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(0, cache.getMetrics().get("size"));
+        cache.get(EMAIL);
+        verify(userRepository, times(3)).findByEmail(EMAIL);
+    }
+
+    private UserSnapshotCache cache(int maxSize, Duration ttl) {
+        return new UserSnapshotCache(userRepository, maxSize, ttl);
+    }
+
+    /**
+     * Ждёт, пока ожидающие потоки дойдут до незавершённой загрузки.
+     */
+    private static void awaitCoalesced(UserSnapshotCache cache, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) cache.getMetrics().get("coalescedLoads") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static User user(Long id, String email) {
+        return User.builder().id(id).email(email).password("hash").roles(Set.of(Role.USER)).build();
+    }
+}
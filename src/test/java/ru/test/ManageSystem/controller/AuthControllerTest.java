@@ -12,7 +12,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.test.ManageSystem.DTO.AuthRequest;
 import ru.test.ManageSystem.DTO.UserCreateDto;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
 import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
 import ru.test.ManageSystem.repository.UserRepository;
 
 import java.util.Collections;
@@ -39,14 +41,18 @@ public class AuthControllerTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserSnapshotCache userSnapshotCache;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
+        userSnapshotCache.invalidateAll();
 
         User existingUser = User.builder()
                 .email("existing@example.com")
                 .password(passwordEncoder.encode("password123"))
-                .roles(Collections.singleton("USER"))
+                .roles(Collections.singleton(Role.USER))
                 .build();
         userRepository.save(existingUser);
     }
@@ -56,14 +62,15 @@ public class AuthControllerTest {
         UserCreateDto request = UserCreateDto.builder()
                 .email("newuser@example.com")
                 .password("password123")
-                .roles(Collections.singleton("USER"))
+                .roles(Collections.singleton(Role.USER))
                 .build();
 
         mockMvc.perform(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.email").value("newuser@example.com"));
+                .andExpect(jsonPath("$.email").value("newuser@example.com"))
+                .andExpect(jsonPath("$.roles[0]").value("USER"));
     }
 
     @Test
@@ -71,7 +78,7 @@ public class AuthControllerTest {
         UserCreateDto request = UserCreateDto.builder()
                 .email("invalid-email")
                 .password("123")
-                .roles(Collections.singleton("USER"))
+                .roles(Collections.singleton(Role.USER))
                 .build();
 
         mockMvc.perform(post("/api/auth/register")
@@ -88,7 +95,7 @@ public class AuthControllerTest {
         UserCreateDto request = UserCreateDto.builder()
                 .email("existing@example.com")
                 .password("password123")
-                .roles(Collections.singleton("USER"))
+                .roles(Collections.singleton(Role.USER))
                 .build();
 
         mockMvc.perform(post("/api/auth/register")
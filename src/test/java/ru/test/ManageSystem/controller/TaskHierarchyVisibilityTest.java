@@ -0,0 +1,110 @@
+package ru.test.ManageSystem.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.repository.UserRepository;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет, что обход иерархии не раскрывает задачи, где пользователь не автор и не исполнитель.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:hierarchydb;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TaskHierarchyVisibilityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = createUser("alice");
+        bob = createUser("bob");
+    }
+
+    @Test
+    void hierarchy_ShouldExcludeSubtasksAndAncestorsOfOtherUsers() throws Exception {
+        long root = createTask(alice, "root", null, bob.getId());
+        long own = createTask(alice, "own", root, null);
+        long foreign = createTask(bob, "foreign", root, null);
+        long shared = createTask(bob, "shared", foreign, alice.getId());
+
+        mockMvc.perform(get("/api/tasks/" + root + "/subtasks?depth=5").with(as(alice)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id").value(contains((int) own, (int) shared)));
+        mockMvc.perform(get("/api/tasks/" + shared + "/ancestors").with(as(alice)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains((int) root)));
+        mockMvc.perform(get("/api/tasks/" + root + "/rollup").with(as(alice)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2));
+        mockMvc.perform(get("/api/tasks/" + shared + "/ancestors").with(as(bob)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains((int) root, (int) foreign)));
+    }
+
+    @Test
+    void moveTask_ShouldRejectParentInvisibleToCaller() throws Exception {
+        long foreign = createTask(bob, "foreign", null, null);
+        long own = createTask(alice, "own", null, null);
+
+        mockMvc.perform(put("/api/tasks/" + own + "/parent").with(as(alice))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"parentId\":" + foreign + "}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/tasks").with(as(alice))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"child\",\"priority\":\"LOW\",\"parentId\":" + foreign + "}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .email(name + "-" + UUID.randomUUID() + "@example.com")
+                .password("password123")
+                .roles(Collections.singleton(Role.USER))
+                .build());
+    }
+
+    private long createTask(User author, String title, Long parentId, Long assigneeId) throws Exception {
+        String body = "{\"title\":\"" + title + "\",\"priority\":\"LOW\""
+                + (parentId != null ? ",\"parentId\":" + parentId : "")
+                + (assigneeId != null ? ",\"assigneeId\":" + assigneeId : "") + "}";
+        String response = mockMvc.perform(post("/api/tasks").with(as(author))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(response, "$.id")).longValue();
+    }
+
+    private static RequestPostProcessor as(User user) {
+        return user(user.getEmail()).roles("USER");
+    }
+}
@@ -0,0 +1,103 @@
+package ru.test.ManageSystem.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.test.ManageSystem.enums.TaskHistoryAction;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskJournalTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2030, 1, 1, 9, 0, 0, 123_456_789);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void encode_ShouldRoundTripRecordWithNullValues() {
+        JournalRecord record = new JournalRecord(5L, AT, null, TaskHistoryAction.COMMENT_UPDATED, 9L,
+                List.of(new JournalRecord.Change("content", null, "текст"), new JournalRecord.Change("x", "", null)));
+
+        assertEquals(record, JournalRecord.decode(ByteBuffer.wrap(record.encode())));
+    }
+
+    @Test
+    void read_ShouldPageRecordsOfOneTaskFromNewestAcrossSegments() throws Exception {
+        TaskJournal journal = journal(true);
+        for (int i = 0; i < 2_000; i++) {
+            journal.append(record(i % 2, "v" + i));
+        }
+
+        List<TaskJournal.Entry> first = journal.read(1, Long.MAX_VALUE, 3);
+        assertEquals(List.of("v1999", "v1997", "v1995"), values(first));
+        List<TaskJournal.Entry> next = journal.read(1, first.get(2).position(), 2);
+        assertEquals(List.of("v1993", "v1991"), values(next));
+        assertTrue(journal.read(7, Long.MAX_VALUE, 10).isEmpty());
+        assertTrue((int) journal.getMetrics().get("segments") > 1);
+        journal.stop();
+    }
+
+    @Test
+    void start_ShouldRebuildIndexFromSegmentsAfterRestart() throws Exception {
+        TaskJournal journal = journal(false);
+        for (int i = 0; i < 1_500; i++) {
+            journal.append(record(i % 3, "v" + i));
+        }
+        journal.stop();
+
+        TaskJournal restarted = journal(false);
+        assertEquals(1_500L, restarted.getMetrics().get("recovered"));
+        assertEquals(500, restarted.read(2, Long.MAX_VALUE, 1_000).size());
+        restarted.append(record(2, "after"));
+        assertEquals(List.of("after", "v1499"), values(restarted.read(2, Long.MAX_VALUE, 2)));
+        restarted.stop();
+    }
+
+    @Test
+    void start_ShouldTruncateTornTailOfLastSegment() throws Exception {
+        TaskJournal journal = journal(true);
+        journal.append(record(1, "kept"));
+        journal.stop();
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(file -> JournalSegment.ordinal(file) >= 0).findFirst().orElseThrow();
+        }
+        int end = JournalSegment.FRAME_HEADER + record(1, "kept").encode().length;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(16).putInt(40).putInt(12345).putLong(1L).flip(), end);
+        }
+
+        TaskJournal restarted = journal(true);
+        assertEquals(1L, restarted.getMetrics().get("recovered"));
+        assertTrue((long) restarted.getMetrics().get("truncatedBytes") > 0);
+        restarted.append(record(1, "next"));
+        assertEquals(List.of("next", "kept"), values(restarted.read(1, Long.MAX_VALUE, 5)));
+        restarted.stop();
+    }
+
+    private TaskJournal journal(boolean sync) throws Exception {
+        TaskJournal journal = new TaskJournal(dir, DataSize.ofKilobytes(64), Duration.ofMillis(1), sync);
+        journal.start();
+        return journal;
+    }
+
+    private static JournalRecord record(long taskId, String value) {
+        return new JournalRecord(taskId, AT, 1L, TaskHistoryAction.TASK_UPDATED, null,
+                List.of(new JournalRecord.Change("title", null, value)));
+    }
+
+    private static List<String> values(List<TaskJournal.Entry> entries) {
+        return entries.stream().map(entry -> entry.record().changes().get(0).newValue()).toList();
+    }
+}
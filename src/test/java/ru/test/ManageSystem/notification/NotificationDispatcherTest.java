@@ -0,0 +1,157 @@
+package ru.test.ManageSystem.notification;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
+import ru.test.ManageSystem.enums.NotificationType;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.CommentEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDispatcherTest {
+
+    private static final long WINDOW = Duration.ofMinutes(1).toNanos();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    @Mock
+    private ObjectProvider<NotificationSink> sinkProvider;
+
+    private final List<NotificationDigest> delivered = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void drain_ShouldCoalesceCommentsIntoOneDigestPerRecipientAfterWindow() throws Exception {
+        NotificationDispatcher dispatcher = dispatcher(100, sink());
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(5L);
+        when(rs.getLong("author_id")).thenReturn(1L);
+        when(rs.getLong("assignee_id")).thenReturn(2L);
+        when(rs.wasNull()).thenReturn(false);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, author_id, assignee_id FROM tasks WHERE id IN (?)"),
+                any(RowCallbackHandler.class), eq(5L));
+
+        LocalDateTime at = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < 5; i++) {
+            dispatcher.onCommentEvent(new CommentEvent(CommentEvent.Type.CREATED, 10L + i, 5L, 2L, "comment " + i,
+                    at.plusSeconds(i)));
+        }
+        dispatcher.onCommentEvent(new CommentEvent(CommentEvent.Type.DELETED, 10L, 5L, 2L, null, at));
+
+        dispatcher.drain(0);
+        assertTrue(delivered.isEmpty());
+        dispatcher.drain(WINDOW);
+
+        assertEquals(List.of(new NotificationDigest(1L, List.of(new NotificationDigest.Item(
+                NotificationType.COMMENTED, 5L, 5, "comment 4", at, at.plusSeconds(4))))), delivered);
+        assertEquals(4L, dispatcher.getMetrics().get("coalesced"));
+        assertEquals(0, dispatcher.getMetrics().get("openDigests"));
+    }
+
+    @Test
+    void onTaskEvent_ShouldNotifyNewAssigneeAndParticipantsExceptActor() {
+        NotificationDispatcher dispatcher = dispatcher(100, sink());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("author@example.com", null, List.of()));
+        when(userSnapshotCache.get("author@example.com"))
+                .thenReturn(Optional.of(new UserSnapshot(1L, "author@example.com", 0, "hash")));
+
+        TaskDto created = task(TaskStatus.PENDING, 2L);
+        TaskDto reassigned = task(TaskStatus.PENDING, 3L);
+        TaskDto completed = task(TaskStatus.COMPLETED, 3L);
+        dispatcher.onTaskEvent(TaskEvent.created(created));
+        dispatcher.onTaskEvent(TaskEvent.updated(created, reassigned));
+        dispatcher.onTaskEvent(TaskEvent.updated(reassigned, completed));
+        dispatcher.onTaskEvent(TaskEvent.deleted(completed));
+        dispatcher.drain(0);
+        dispatcher.drain(WINDOW);
+
+        assertEquals(List.of(2L, 3L), delivered.stream().map(NotificationDigest::recipientId).toList());
+        assertEquals(NotificationType.ASSIGNED, delivered.get(0).items().get(0).type());
+        assertEquals(List.of(NotificationType.ASSIGNED, NotificationType.STATUS_CHANGED),
+                delivered.get(1).items().stream().map(NotificationDigest.Item::type).toList());
+        assertEquals("COMPLETED", delivered.get(1).items().get(1).detail());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void onCommentEvent_ShouldDropNotificationsWhenQueueIsFull() {
+        NotificationDispatcher dispatcher = dispatcher(2, sink());
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.onCommentEvent(new CommentEvent(CommentEvent.Type.CREATED, (long) i, 5L, 2L, "text",
+                    LocalDateTime.now()));
+        }
+
+        assertEquals(2L, dispatcher.getMetrics().get("queued"));
+        assertEquals(3L, dispatcher.getMetrics().get("dropped"));
+        assertEquals(2, dispatcher.getMetrics().get("queueSize"));
+    }
+
+    @Test
+    void drain_ShouldDeliverToRemainingSinksWhenOneFails() {
+        NotificationSink failing = digests -> {
+            throw new IOException("disk full");
+        };
+        NotificationDispatcher dispatcher = dispatcher(100, failing, sink());
+
+        dispatcher.onTaskEvent(TaskEvent.created(task(TaskStatus.PENDING, 2L)));
+        dispatcher.drain(0);
+        dispatcher.drain(WINDOW);
+
+        assertEquals(1, delivered.size());
+        assertEquals(1L, dispatcher.getMetrics().get("failed"));
+        assertEquals(1L, dispatcher.getMetrics().get("delivered"));
+    }
+
+    private NotificationDispatcher dispatcher(int capacity, NotificationSink... sinks) {
+        when(sinkProvider.orderedStream()).thenReturn(Stream.of(sinks));
+        return new NotificationDispatcher(jdbcTemplate, userSnapshotCache, sinkProvider, capacity,
+                Duration.ofNanos(WINDOW), 10);
+    }
+
+    private NotificationSink sink() {
+        return delivered::addAll;
+    }
+
+    private static TaskDto task(TaskStatus status, Long assigneeId) {
+        return TaskDto.builder().id(5L).title("Task").status(status).authorId(1L).assigneeId(assigneeId).build();
+    }
+}
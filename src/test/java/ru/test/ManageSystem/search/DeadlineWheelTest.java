@@ -0,0 +1,107 @@
+package ru.test.ManageSystem.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void advance_ShouldFireDeadlinesNotEarlierThanScheduled() {
+        DeadlineWheel wheel = new DeadlineWheel(TICK, 0);
+        wheel.schedule(1L, 5_500);
+        wheel.schedule(2L, 3_000);
+        wheel.schedule(3L, 70_000);
+
+        assertArrayEquals(new long[0], wheel.advance(2_999));
+        assertArrayEquals(new long[]{2L}, wheel.advance(3_000));
+        assertArrayEquals(new long[0], wheel.advance(5_999));
+        assertArrayEquals(new long[]{1L}, wheel.advance(6_000));
+        assertEquals(1, wheel.size());
+        assertArrayEquals(new long[]{3L}, wheel.advance(80_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_ShouldFirePastDeadlinesOnNextAdvance() {
+        DeadlineWheel wheel = new DeadlineWheel(TICK, 10_000);
+        wheel.schedule(1L, 1_000);
+
+        assertArrayEquals(new long[]{1L}, wheel.advance(10_000));
+        assertArrayEquals(new long[0], wheel.advance(11_000));
+    }
+
+    @Test
+    void scheduleAndCancel_ShouldReplaceAndRemoveDeadlines() {
+        DeadlineWheel wheel = new DeadlineWheel(TICK, 0);
+        wheel.schedule(1L, 5_000);
+        wheel.schedule(2L, 5_000);
+        wheel.schedule(1L, 9_000);
+
+        assertTrue(wheel.cancel(2L));
+        assertFalse(wheel.cancel(2L));
+        assertFalse(wheel.contains(2L));
+        assertArrayEquals(new long[0], wheel.advance(8_000));
+        assertArrayEquals(new long[]{1L}, wheel.advance(9_000));
+    }
+
+    @Test
+    void advance_ShouldCascadeDeadlinesFromAllLevels() {
+        DeadlineWheel wheel = new DeadlineWheel(1, 0);
+        long[] deadlines = {63, 64, 4_095, 4_096, 262_143, 262_144, 16_777_215, 16_777_216, 40_000_000};
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i + 1, deadlines[i]);
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            assertArrayEquals(new long[0], wheel.advance(deadlines[i] - 1), "before deadline " + deadlines[i]);
+            assertArrayEquals(new long[]{i + 1}, wheel.advance(deadlines[i]), "at deadline " + deadlines[i]);
+        }
+        assertTrue(wheel.cascades() > 0);
+    }
+
+    @Test
+    void advance_ShouldMatchBruteForceUnderRandomChanges() {
+        long now = 1_700_000_000_000L;
+        DeadlineWheel wheel = new DeadlineWheel(TICK, now);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(5);
+        for (int step = 0; step < 20_000; step++) {
+            long taskId = 1 + random.nextInt(2_000);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    wheel.cancel(taskId);
+                    expected.remove(taskId);
+                }
+                case 1 -> {
+                    long deadline = now + (long) (Math.pow(random.nextDouble(), 4) * 5_000_000_000L);
+                    wheel.schedule(taskId, deadline);
+                    expected.put(taskId, deadline);
+                }
+                default -> {
+                    now += random.nextInt(random.nextInt(50) == 0 ? 100_000_000 : 5_000);
+                    long limit = now - Math.floorMod(now, TICK);
+                    long[] fired = wheel.advance(now);
+                    long[] due = expected.entrySet().stream()
+                            .filter(e -> e.getValue() <= limit)
+                            .mapToLong(Map.Entry::getKey)
+                            .toArray();
+                    Arrays.sort(fired);
+                    Arrays.sort(due);
+                    assertArrayEquals(due, fired, "step " + step);
+                    for (long id : due) {
+                        expected.remove(id);
+                    }
+                }
+            }
+            assertEquals(expected.size(), wheel.size());
+        }
+    }
+}
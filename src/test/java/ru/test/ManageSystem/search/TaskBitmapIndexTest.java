@@ -0,0 +1,155 @@
+package ru.test.ManageSystem.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.LabelDeletedEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.event.TaskLabelsEvent;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskBitmapIndexTest {
+
+    private static final Map<String, Long> LABELS = Map.of("backend", 1L, "urgent", 2L, "blocked", 3L);
+
+    private TaskBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskBitmapIndex();
+        index.beginRebuild();
+        index.finishRebuild(0);
+    }
+
+    @Test
+    void compressedBitmap_ShouldSwitchContainersAndCombineSets() {
+        CompressedBitmap evens = new CompressedBitmap();
+        CompressedBitmap threes = new CompressedBitmap();
+        IntStream.range(0, 20_000).filter(i -> i % 2 == 0).forEach(evens::add);
+        IntStream.range(0, 20_000).filter(i -> i % 3 == 0).forEach(threes::add);
+        evens.add(200_000);
+        assertFalse(evens.add(4));
+        assertTrue(evens.remove(200_000));
+        assertFalse(evens.remove(200_000));
+
+        assertEquals(10_000, evens.cardinality());
+        assertEquals(3_334, CompressedBitmap.and(evens, threes).cardinality());
+        assertEquals(13_333, CompressedBitmap.or(evens, threes).cardinality());
+        assertEquals(6_666, CompressedBitmap.andNot(evens, threes).cardinality());
+        assertArrayEquals(new int[]{0, 6, 12}, IntStream.of(CompressedBitmap.and(evens, threes).toArray())
+                .limit(3).toArray());
+
+        IntStream.range(0, 20_000).filter(i -> i % 2 == 0).forEach(evens::remove);
+        assertTrue(evens.isEmpty());
+    }
+
+    @Test
+    void parse_ShouldRespectPrecedenceAndRejectErrors() {
+        assertEquals(new TaskQuery.Or(new TaskQuery.Label("a"),
+                        new TaskQuery.And(new TaskQuery.Label("b"), new TaskQuery.Not(new TaskQuery.Label("c")))),
+                TaskQueryParser.parse("A or b AND not label:C"));
+        assertEquals(new TaskQuery.And(new TaskQuery.Or(new TaskQuery.Status(TaskStatus.PENDING),
+                        new TaskQuery.Priority(TaskPriority.HIGH)), new TaskQuery.Assignee(null)),
+                TaskQueryParser.parse("(status:pending OR priority:HIGH) assignee:none"));
+
+        assertThrows(IllegalArgumentException.class, () -> TaskQueryParser.parse("(backend"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQueryParser.parse("backend AND"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQueryParser.parse("status:DONE"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQueryParser.parse("owner:1"));
+    }
+
+    @Test
+    void query_ShouldEvaluateLabelExpressions() {
+        put(1L, TaskStatus.PENDING, TaskPriority.HIGH, 10L, null, 1L, 2L);
+        put(2L, TaskStatus.PENDING, TaskPriority.LOW, 10L, 20L, 1L, 2L, 3L);
+        put(3L, TaskStatus.COMPLETED, TaskPriority.HIGH, 10L, 20L, 1L);
+        put(4L, TaskStatus.IN_PROGRESS, TaskPriority.HIGH, 30L, null);
+
+        assertEquals(List.of(1L), ids("backend AND urgent AND NOT blocked", null));
+        assertEquals(List.of(3L, 2L, 1L), ids("backend", null));
+        assertEquals(List.of(4L, 1L), ids("priority:high AND NOT status:completed", null));
+        assertEquals(List.of(4L, 1L), ids("assignee:none", null));
+        assertEquals(List.of(4L, 3L, 2L), ids("NOT urgent OR blocked", null));
+        assertEquals(List.of(4L, 3L), ids("author:30 OR assignee:20 AND status:completed", null));
+    }
+
+    @Test
+    void query_ShouldRespectVisibilityAndPaging() {
+        for (long id = 1; id <= 5; id++) {
+            put(id, TaskStatus.PENDING, TaskPriority.LOW, 10L, id % 2 == 0 ? 20L : null, 1L);
+        }
+
+        TaskBitmapIndex.Result page = index.query(TaskQueryParser.parse("backend"), LABELS, null, 2, 2);
+        assertEquals(List.of(3L, 2L), page.ids());
+        assertEquals(5, page.total());
+
+        TaskBitmapIndex.Result visible = index.query(TaskQueryParser.parse("backend"), LABELS, 20L, 0, 10);
+        assertEquals(List.of(4L, 2L), visible.ids());
+        assertEquals(2, visible.total());
+        assertTrue(index.query(TaskQueryParser.parse("backend"), LABELS, 99L, 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void query_ShouldReflectUpdatesLabelChangesAndDeletions() {
+        put(1L, TaskStatus.PENDING, TaskPriority.LOW, 10L, null, 1L);
+
+        index.onTaskEvent(TaskEvent.updated(null, task(1L, TaskStatus.COMPLETED, TaskPriority.LOW, 10L, 20L)));
+        assertEquals(List.of(1L), ids("backend AND status:completed AND assignee:20", null));
+        assertTrue(ids("status:pending OR assignee:none", null).isEmpty());
+
+        index.onTaskLabelsEvent(new TaskLabelsEvent(1L, Set.of(2L, 3L)));
+        assertTrue(ids("backend", null).isEmpty());
+        assertEquals(List.of(1L), ids("urgent AND blocked", null));
+
+        index.onLabelDeletedEvent(new LabelDeletedEvent(3L));
+        assertTrue(ids("blocked", null).isEmpty());
+        assertEquals(List.of(1L), ids("urgent", null));
+
+        index.onTaskEvent(TaskEvent.deleted(task(1L, TaskStatus.COMPLETED, TaskPriority.LOW, 10L, 20L)));
+        assertTrue(ids("NOT backend", null).isEmpty());
+        assertEquals(0, index.getMetrics().get("labels"));
+    }
+
+    @Test
+    void rebuild_ShouldLoadLabelsAndApplyDeferredEvents() {
+        index.beginRebuild();
+        index.onTaskLabelsEvent(new TaskLabelsEvent(1L, Set.of(2L)));
+        assertThrows(ServiceUnavailableException.class, () -> ids("backend", null));
+
+        index.load(List.of(new IndexedTask(1L, "Task", null, null, TaskStatus.PENDING, TaskPriority.LOW, 10L,
+                null, new long[]{1L}, new long[0], new String[0], Map.of())));
+        index.finishRebuild(1);
+
+        assertTrue(ids("backend", null).isEmpty());
+        assertEquals(List.of(1L), ids("urgent", null));
+    }
+
+    private void put(Long id, TaskStatus status, TaskPriority priority, Long authorId, Long assigneeId,
+                     Long... labelIds) {
+        index.onTaskEvent(TaskEvent.created(task(id, status, priority, authorId, assigneeId)));
+        index.onTaskLabelsEvent(new TaskLabelsEvent(id, Set.of(labelIds)));
+    }
+
+    private List<Long> ids(String expression, Long visibleToUserId) {
+        return index.query(TaskQueryParser.parse(expression), LABELS, visibleToUserId, 0, 100).ids();
+    }
+
+    private static TaskDto task(Long id, TaskStatus status, TaskPriority priority, Long authorId, Long assigneeId) {
+        return TaskDto.builder()
+                .id(id)
+                .status(status)
+                .priority(priority)
+                .authorId(authorId)
+                .assigneeId(assigneeId)
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package ru.test.ManageSystem.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskDependencyEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskDependencyIndexTest {
+
+    private static final Long USER = 20L;
+
+    private TaskDependencyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskDependencyIndex();
+        index.beginRebuild();
+        index.finishRebuild(0);
+    }
+
+    @Test
+    void intIntMap_ShouldPutGetAndRemoveAcrossRehash() {
+        IntIntMap map = new IntIntMap(4);
+        for (int key = 0; key < 10_000; key++) {
+            map.put(key, key * 2);
+        }
+        for (int key = 0; key < 10_000; key += 2) {
+            assertEquals(key * 2, map.remove(key, -1));
+        }
+        assertEquals(5_000, map.size());
+        assertEquals(-1, map.get(0, -1));
+        assertEquals(-1, map.remove(0, -1));
+        for (int key = 1; key < 10_000; key += 2) {
+            assertEquals(key * 2, map.get(key, -1));
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(1, -1));
+    }
+
+    @Test
+    void addDependency_ShouldReorderTasksAndRejectCycles() {
+        for (long id = 1; id <= 4; id++) {
+            put(id, TaskStatus.PENDING, USER);
+        }
+
+        assertTrue(index.addDependency(1L, 2L));
+        assertTrue(index.addDependency(2L, 3L));
+        assertTrue(index.addDependency(3L, 4L));
+        assertFalse(index.addDependency(3L, 4L));
+
+        assertThrows(IllegalArgumentException.class, () -> index.addDependency(4L, 1L));
+        assertThrows(IllegalArgumentException.class, () -> index.addDependency(4L, 4L));
+        assertThrows(ResourceNotFoundException.class, () -> index.addDependency(1L, 99L));
+        assertEquals(List.of(4L, 3L, 2L, 1L), index.criticalPath(1L));
+        assertEquals(3L, index.getMetrics().get("edges"));
+        assertEquals(3L, index.getMetrics().get("reorders"));
+    }
+
+    @Test
+    void addDependency_ShouldKeepTopologicalOrderOnRandomGraph() {
+        int tasks = 300;
+        for (long id = 1; id <= tasks; id++) {
+            put(id, TaskStatus.PENDING, USER);
+        }
+        Random random = new Random(42);
+        boolean[][] reachable = new boolean[tasks + 1][tasks + 1];
+        for (int i = 0; i < 3_000; i++) {
+            int task = 1 + random.nextInt(tasks);
+            int blocker = 1 + random.nextInt(tasks);
+            boolean cycle = task == blocker || reachable[task][blocker];
+            if (cycle) {
+                assertThrows(IllegalArgumentException.class, () -> index.addDependency((long) task, (long) blocker));
+                continue;
+            }
+            index.addDependency((long) task, (long) blocker);
+            for (int from = 1; from <= tasks; from++) {
+                if (from == blocker || reachable[from][blocker]) {
+                    reachable[from][task] = true;
+                    for (int to = 1; to <= tasks; to++) {
+                        reachable[from][to] |= reachable[task][to];
+                    }
+                }
+            }
+        }
+        List<Long> expected = IntStream.iterate(tasks, id -> id >= 1, id -> id - 1)
+                .filter(id -> !blockedByPending(reachable, id, tasks))
+                .mapToObj(id -> (long) id)
+                .toList();
+        assertEquals(expected, index.readyFor(USER, tasks));
+    }
+
+    @Test
+    void readyFor_ShouldFollowStatusAssigneeAndDependencyChanges() {
+        put(1L, TaskStatus.PENDING, USER);
+        put(2L, TaskStatus.PENDING, USER);
+        put(3L, TaskStatus.PENDING, 30L);
+        index.addDependency(2L, 1L);
+        index.addDependency(2L, 3L);
+        assertEquals(List.of(1L), index.readyFor(USER, 10));
+
+        put(1L, TaskStatus.COMPLETED, USER);
+        assertTrue(index.readyFor(USER, 10).isEmpty());
+        put(3L, TaskStatus.COMPLETED, 30L);
+        assertEquals(List.of(2L), index.readyFor(USER, 10));
+
+        put(3L, TaskStatus.IN_PROGRESS, USER);
+        assertEquals(List.of(3L), index.readyFor(USER, 10));
+        index.onDependencyCommitted(new TaskDependencyEvent(TaskDependencyEvent.Type.REMOVED, 2L, 3L));
+        assertEquals(List.of(3L, 2L), index.readyFor(USER, 10));
+        assertEquals(List.of(3L), index.readyFor(USER, 1));
+
+        index.addDependency(2L, 3L);
+        index.onDependencyRolledBack(new TaskDependencyEvent(TaskDependencyEvent.Type.ADDED, 2L, 3L));
+        assertEquals(List.of(3L, 2L), index.readyFor(USER, 10));
+
+        index.onTaskEvent(TaskEvent.deleted(task(3L, TaskStatus.IN_PROGRESS, USER)));
+        assertEquals(List.of(2L), index.readyFor(USER, 10));
+        assertEquals(1L, index.getMetrics().get("edges"));
+    }
+
+    @Test
+    void criticalPath_ShouldFollowLongestChainOfIncompleteBlockers() {
+        for (long id = 1; id <= 6; id++) {
+            put(id, TaskStatus.PENDING, USER);
+        }
+        index.addDependency(6L, 5L);
+        index.addDependency(6L, 1L);
+        index.addDependency(5L, 4L);
+        index.addDependency(4L, 3L);
+        index.addDependency(1L, 2L);
+
+        assertEquals(List.of(3L, 4L, 5L, 6L), index.criticalPath(6L));
+        put(4L, TaskStatus.COMPLETED, USER);
+        assertEquals(List.of(2L, 1L, 6L), index.criticalPath(6L));
+        assertEquals(List.of(3L), index.criticalPath(3L));
+        assertThrows(ResourceNotFoundException.class, () -> index.criticalPath(99L));
+    }
+
+    @Test
+    void rebuild_ShouldLoadDependenciesAndApplyDeferredEvents() {
+        index.beginRebuild();
+        index.onTaskEvent(TaskEvent.updated(null, task(1L, TaskStatus.COMPLETED, USER)));
+        assertThrows(ServiceUnavailableException.class, () -> index.readyFor(USER, 10));
+        assertThrows(ServiceUnavailableException.class, () -> index.addDependency(2L, 1L));
+
+        index.load(List.of(indexed(1L, TaskStatus.PENDING), indexed(2L, TaskStatus.PENDING, 1L, 2L),
+                indexed(3L, TaskStatus.PENDING, 2L, 99L)));
+        index.finishRebuild(1);
+
+        assertEquals(List.of(2L), index.readyFor(USER, 10));
+        assertEquals(List.of(2L, 3L), index.criticalPath(3L));
+        assertEquals(2L, index.getMetrics().get("edges"));
+        assertThrows(IllegalArgumentException.class, () -> index.addDependency(1L, 3L));
+    }
+
+    private boolean blockedByPending(boolean[][] reachable, int task, int tasks) {
+        for (int from = 1; from <= tasks; from++) {
+            if (reachable[from][task]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void put(Long id, TaskStatus status, Long assigneeId) {
+        index.onTaskEvent(TaskEvent.updated(null, task(id, status, assigneeId)));
+    }
+
+    private static IndexedTask indexed(Long id, TaskStatus status, long... blockerIds) {
+        return new IndexedTask(id, "Task", null, null, status, TaskPriority.LOW, 10L, USER,
+                new long[0], blockerIds, new String[0], Map.of());
+    }
+
+    private static TaskDto task(Long id, TaskStatus status, Long assigneeId) {
+        return TaskDto.builder()
+                .id(id)
+                .status(status)
+                .priority(TaskPriority.LOW)
+                .authorId(10L)
+                .assigneeId(assigneeId)
+                .build();
+    }
+}
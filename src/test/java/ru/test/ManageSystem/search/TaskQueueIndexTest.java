@@ -0,0 +1,113 @@
+package ru.test.ManageSystem.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskQueueIndexTest {
+
+    private static final Long USER = 20L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private TaskQueueIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskQueueIndex();
+        index.beginRebuild();
+        index.finishRebuild(0);
+    }
+
+    @Test
+    void peek_ShouldOrderByPriorityThenAgeThenId() {
+        put(1L, TaskStatus.PENDING, TaskPriority.LOW, NOW.minusDays(3), USER);
+        put(2L, TaskStatus.PENDING, TaskPriority.HIGH, NOW, USER);
+        put(3L, TaskStatus.PENDING, TaskPriority.HIGH, NOW.minusHours(1), USER);
+        put(4L, TaskStatus.PENDING, TaskPriority.MEDIUM, NOW, USER);
+        put(5L, TaskStatus.PENDING, TaskPriority.HIGH, NOW, USER);
+        put(6L, TaskStatus.PENDING, TaskPriority.HIGH, NOW, 21L);
+
+        assertEquals(List.of(3L, 2L, 5L, 4L, 1L), index.peek(USER, 10));
+        assertEquals(List.of(3L, 2L), index.peek(USER, 2));
+        assertEquals(List.of(6L), index.peek(21L, 10));
+        assertEquals(List.of(), index.peek(22L, 10));
+    }
+
+    @Test
+    void onTaskEvent_ShouldKeepOnlyPendingAssignedTasks() {
+        put(1L, TaskStatus.PENDING, TaskPriority.LOW, NOW, USER);
+        put(2L, TaskStatus.PENDING, TaskPriority.LOW, NOW, USER);
+        put(3L, TaskStatus.PENDING, TaskPriority.LOW, NOW, null);
+
+        put(1L, TaskStatus.IN_PROGRESS, TaskPriority.LOW, NOW, USER);
+        put(2L, TaskStatus.PENDING, TaskPriority.HIGH, NOW, 21L);
+        assertEquals(List.of(), index.peek(USER, 10));
+        assertEquals(List.of(2L), index.peek(21L, 10));
+
+        put(1L, TaskStatus.PENDING, TaskPriority.HIGH, NOW, 21L);
+        index.onTaskEvent(TaskEvent.deleted(task(2L, TaskStatus.PENDING, TaskPriority.HIGH, NOW, 21L)));
+        assertEquals(List.of(1L), index.peek(21L, 10));
+        assertEquals(1, index.getMetrics().get("tasks"));
+        assertEquals(1, index.getMetrics().get("assignees"));
+    }
+
+    @Test
+    void discard_ShouldRemoveStaleTaskUntilNextEvent() {
+        put(1L, TaskStatus.PENDING, TaskPriority.HIGH, NOW, USER);
+        put(2L, TaskStatus.PENDING, TaskPriority.LOW, NOW, USER);
+
+        index.discard(1L);
+        index.discard(1L);
+        assertEquals(List.of(2L), index.peek(USER, 10));
+        assertEquals(1L, index.getMetrics().get("discarded"));
+
+        put(1L, TaskStatus.PENDING, TaskPriority.HIGH, NOW, USER);
+        assertEquals(List.of(1L, 2L), index.peek(USER, 10));
+    }
+
+    @Test
+    void rebuild_ShouldLoadQueuesAndApplyDeferredEvents() {
+        index.beginRebuild();
+        assertThrows(ServiceUnavailableException.class, () -> index.peek(USER, 10));
+
+        put(1L, TaskStatus.COMPLETED, TaskPriority.HIGH, NOW, USER);
+        index.load(List.of(
+                indexed(1L, TaskStatus.PENDING, TaskPriority.HIGH, NOW),
+                indexed(2L, TaskStatus.PENDING, TaskPriority.LOW, null),
+                indexed(3L, TaskStatus.IN_PROGRESS, TaskPriority.HIGH, NOW)));
+        index.finishRebuild(1);
+
+        assertEquals(List.of(2L), index.peek(USER, 10));
+    }
+
+    private void put(Long id, TaskStatus status, TaskPriority priority, LocalDateTime createdAt, Long assigneeId) {
+        index.onTaskEvent(TaskEvent.updated(null, task(id, status, priority, createdAt, assigneeId)));
+    }
+
+    private static IndexedTask indexed(Long id, TaskStatus status, TaskPriority priority, LocalDateTime createdAt) {
+        return new IndexedTask(id, "Task", createdAt, null, status, priority, 10L, USER,
+                new long[0], new long[0], new String[0], Map.of());
+    }
+
+    private static TaskDto task(Long id, TaskStatus status, TaskPriority priority, LocalDateTime createdAt,
+                                Long assigneeId) {
+        return TaskDto.builder()
+                .id(id)
+                .status(status)
+                .priority(priority)
+                .createdAt(createdAt)
+                .authorId(10L)
+                .assigneeId(assigneeId)
+                .build();
+    }
+}
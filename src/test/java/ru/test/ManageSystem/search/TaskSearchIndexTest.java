@@ -0,0 +1,120 @@
+package ru.test.ManageSystem.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.CommentEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        index.beginRebuild();
+        index.finishRebuild(0);
+    }
+
+    @Test
+    void terms_ShouldStemRussianAndEnglishWords() {
+        assertEquals(TextAnalyzer.terms("задача"), TextAnalyzer.terms("Задачи"));
+        assertEquals(TextAnalyzer.terms("отчёт"), TextAnalyzer.terms("отчеты"));
+        assertEquals(Set.of("run"), TextAnalyzer.terms("running"));
+        assertEquals(TextAnalyzer.terms("connection"), TextAnalyzer.terms("connected"));
+        assertTrue(TextAnalyzer.terms("и the в of").isEmpty());
+    }
+
+    @Test
+    void postingList_ShouldKeepIdsSortedAcrossInsertsAndRemovals() {
+        PostingList list = new PostingList();
+        assertTrue(list.add(5));
+        assertTrue(list.add(300));
+        assertTrue(list.add(1));
+        assertFalse(list.add(300));
+        assertTrue(list.add(100_000));
+        assertTrue(list.remove(5));
+        assertFalse(list.remove(7));
+
+        assertArrayEquals(new int[]{1, 300, 100_000}, list.toArray());
+    }
+
+    @Test
+    void search_ShouldMatchAllTermsAcrossTitleDescriptionAndComments() {
+        index.onTaskEvent(TaskEvent.created(task(1L, "Подготовить отчёт", "Квартальные данные", 10L, null)));
+        index.onTaskEvent(TaskEvent.created(task(2L, "Подготовить презентацию", null, 10L, null)));
+        index.onCommentEvent(comment(CommentEvent.Type.CREATED, 7L, 2L, "Нужны квартальные отчеты"));
+
+        assertEquals(List.of(2L, 1L), index.search("отчёты", null, 10));
+        assertEquals(List.of(2L, 1L), index.search("квартальный отчет", null, 10));
+        assertEquals(List.of(2L), index.search("квартальный отчет", null, 1));
+        assertTrue(index.search("бюджет", null, 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldReflectUpdatesAndDeletions() {
+        index.onTaskEvent(TaskEvent.created(task(1L, "Fix login bug", null, 10L, null)));
+        index.onCommentEvent(comment(CommentEvent.Type.CREATED, 7L, 1L, "Logging is broken"));
+
+        index.onTaskEvent(TaskEvent.updated(null, task(1L, "Fix signup", null, 10L, null)));
+        assertTrue(index.search("bug", null, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("logging", null, 10));
+
+        index.onCommentEvent(comment(CommentEvent.Type.DELETED, 7L, 1L, null));
+        assertTrue(index.search("logging", null, 10).isEmpty());
+
+        index.onTaskEvent(TaskEvent.deleted(task(1L, "Fix signup", null, 10L, null)));
+        assertTrue(index.search("signup", null, 10).isEmpty());
+        assertEquals(0, index.getMetrics().get("terms"));
+    }
+
+    @Test
+    void search_ShouldRespectVisibility() {
+        index.onTaskEvent(TaskEvent.created(task(1L, "Deploy release", null, 10L, 20L)));
+        index.onTaskEvent(TaskEvent.created(task(2L, "Deploy hotfix", null, 30L, null)));
+
+        assertEquals(List.of(1L), index.search("deploy", 20L, 10));
+        assertEquals(List.of(2L), index.search("deploy", 30L, 10));
+        assertEquals(List.of(2L, 1L), index.search("deploy", null, 10));
+    }
+
+    @Test
+    void rebuild_ShouldApplyEventsDeferredDuringLoad() {
+        index.beginRebuild();
+        index.onTaskEvent(TaskEvent.updated(null, task(1L, "Renamed task", null, 10L, null)));
+        assertThrows(ServiceUnavailableException.class, () -> index.search("task", null, 10));
+
+        index.load(List.of(new IndexedTask(1L, "Original task", null, null, TaskStatus.PENDING,
+                TaskPriority.LOW, 10L, null, new long[0], new long[0], TextAnalyzer.sortedTerms("Original task"),
+                Map.of())));
+        index.finishRebuild(1);
+
+        assertEquals(List.of(1L), index.search("renamed", null, 10));
+        assertTrue(index.search("original", null, 10).isEmpty());
+    }
+
+    private static TaskDto task(Long id, String title, String description, Long authorId, Long assigneeId) {
+        return TaskDto.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .authorId(authorId)
+                .assigneeId(assigneeId)
+                .build();
+    }
+
+    private static CommentEvent comment(CommentEvent.Type type, Long commentId, Long taskId, String content) {
+        return new CommentEvent(type, commentId, taskId, 10L, content, LocalDateTime.now());
+    }
+}
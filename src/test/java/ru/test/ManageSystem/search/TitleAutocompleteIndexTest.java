@@ -0,0 +1,119 @@
+package ru.test.ManageSystem.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.DTO.TaskSuggestionDto;
+import ru.test.ManageSystem.event.TaskEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleAutocompleteIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private TitleAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TitleAutocompleteIndex();
+        index.beginRebuild();
+        index.finishRebuild(0);
+    }
+
+    @Test
+    void suggest_ShouldMatchTitleAndWordPrefixes() {
+        put(1L, "Подготовить отчёт", 1, 10L, null);
+        put(2L, "Report: quarterly", 2, 10L, null);
+
+        assertEquals(List.of(1L), ids("подг", null, 10));
+        assertEquals(List.of(1L), ids("отчет", null, 10));
+        assertEquals(List.of(2L), ids("REPORT  quart", null, 10));
+        assertTrue(ids("xyz", null, 10).isEmpty());
+        assertEquals("Подготовить отчёт", index.suggest("от", null, 10).get(0).getTitle());
+    }
+
+    @Test
+    void suggest_ShouldRankByUpdatedAtAndKeepTopKAfterDeletes() {
+        LongStream.rangeClosed(1, 15).forEach(id -> put(id, "Task " + id, (int) id, 10L, null));
+
+        assertEquals(List.of(15L, 14L, 13L), ids("task", null, 3));
+
+        for (long id = 15; id >= 9; id--) {
+            index.onTaskEvent(TaskEvent.deleted(task(id, "Task " + id, (int) id, 10L, null)));
+        }
+        assertEquals(List.of(8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L), ids("ta", null, 10));
+
+        put(3L, "Task 3", 100, 10L, null);
+        assertEquals(List.of(3L, 8L), ids("task", null, 2));
+    }
+
+    @Test
+    void suggest_ShouldScanSubtreeWhenTopKIsNotVisible() {
+        LongStream.rangeClosed(1, 15).forEach(id -> put(id, "Deploy " + id, (int) id, 10L, id == 2 ? 20L : null));
+
+        assertEquals(List.of(2L), ids("deploy", 20L, 10));
+        assertEquals(10, ids("deploy", 10L, 10).size());
+    }
+
+    @Test
+    void suggest_ShouldForgetOldTitleAfterUpdate() {
+        put(1L, "Fix login", 1, 10L, null);
+        put(1L, "Fix signup", 2, 10L, null);
+
+        assertTrue(ids("login", null, 10).isEmpty());
+        assertEquals(List.of(1L), ids("sign", null, 10));
+
+        index.onTaskEvent(TaskEvent.deleted(task(1L, "Fix signup", 2, 10L, null)));
+        assertTrue(ids("fix", null, 10).isEmpty());
+        assertEquals(0, index.getMetrics().get("nodes"));
+    }
+
+    @Test
+    void suggest_ShouldReorderUpdatedTaskWithoutMarkingPrefixesStale() {
+        LongStream.rangeClosed(1, 15).forEach(id -> put(id, "Task " + id, (int) id, 10L, null));
+
+        put(3L, "Task 3", 100, 10L, null);
+        put(14L, "Task 14 fix fix", 101, 10L, null);
+
+        assertEquals(0L, index.getMetrics().get("staleNodes"));
+        assertEquals(List.of(14L, 3L, 15L, 13L), ids("t", null, 4));
+        assertEquals(List.of(14L), ids("fix", null, 10));
+
+        put(14L, "Task 14", 0, 10L, null);
+        assertEquals(List.of(3L, 15L, 13L, 12L, 11L, 10L, 9L, 8L, 7L, 6L), ids("task", null, 10));
+    }
+
+    @Test
+    void suggest_ShouldStopScanAfterLimitAndReturnPartialResult() {
+        int tasks = TitleAutocompleteIndex.MAX_SCAN_TASKS + 100;
+        LongStream.rangeClosed(1, tasks).forEach(id -> put(id, "Deploy " + id, (int) id, 10L, null));
+        put((long) tasks + 1, "Deploy z", 0, 20L, null);
+
+        assertTrue(ids("deploy", 20L, 10).isEmpty());
+        assertEquals(List.of((long) tasks + 1), ids("deploy z", 20L, 10));
+        assertEquals(10, ids("deploy", 10L, 10).size());
+    }
+
+    private void put(Long id, String title, int minutes, Long authorId, Long assigneeId) {
+        index.onTaskEvent(TaskEvent.created(task(id, title, minutes, authorId, assigneeId)));
+    }
+
+    private List<Long> ids(String prefix, Long visibleToUserId, int limit) {
+        return index.suggest(prefix, visibleToUserId, limit).stream().map(TaskSuggestionDto::getId).toList();
+    }
+
+    private static TaskDto task(Long id, String title, int minutes, Long authorId, Long assigneeId) {
+        return TaskDto.builder()
+                .id(id)
+                .title(title)
+                .updatedAt(BASE.plusMinutes(minutes))
+                .authorId(authorId)
+                .assigneeId(assigneeId)
+                .build();
+    }
+}
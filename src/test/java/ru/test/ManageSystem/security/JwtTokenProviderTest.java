@@ -0,0 +1,69 @@
+package ru.test.ManageSystem.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.test.ManageSystem.enums.Role;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret-test-secret-1234";
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "validityInMilliseconds", 60_000L);
+        jwtTokenProvider.init();
+    }
+
+    @Test
+    void getAuthentication_ShouldReadRolesFromRoleMask() {
+        UserDetailsImpl user = UserDetailsImpl.build("user@example.com", "",
+                Role.toMask(Set.of(Role.USER, Role.ADMIN)));
+        String token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        Authentication authentication = jwtTokenProvider.getAuthentication(token);
+
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), authorities(authentication));
+    }
+
+    @Test
+    void getAuthentication_ShouldReadLegacyRolesClaimWhenRoleMaskIsAbsent() {
+        String token = Jwts.builder()
+                .setSubject("user@example.com")
+                .claim("roles", "ROLE_ADMIN,ROLE_USER,ROLE_REMOVED")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getEncoder().encodeToString(SECRET.getBytes())
+                        .getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        Authentication authentication = jwtTokenProvider.getAuthentication(token);
+
+        assertEquals("user@example.com", authentication.getName());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), authorities(authentication));
+    }
+
+    private static Set<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+}
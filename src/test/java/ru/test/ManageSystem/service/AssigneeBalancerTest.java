@@ -0,0 +1,172 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.event.UserCreatedEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AssigneeBalancerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AssigneeBalancer balancer;
+
+    @BeforeEach
+    void setUp() {
+        balancer = new AssigneeBalancer(jdbcTemplate);
+    }
+
+    @Test
+    void assign_ShouldRequireLoadedUsers() {
+        assertThrows(ServiceUnavailableException.class, () -> balancer.assign());
+
+        reconcile();
+        assertThrows(ResourceNotFoundException.class, () -> balancer.assign());
+    }
+
+    @Test
+    void assign_ShouldSpreadTasksOverLeastLoadedUsers() {
+        reconcile(1L, 2L, 3L);
+        created(1L);
+        created(1L);
+        created(2L);
+
+        List<Long> assigned = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            assigned.add(balancer.assign());
+        }
+
+        assertEquals(List.of(3L, 2L, 3L, 1L, 2L, 3L), assigned);
+        assertEquals(3, balancer.loadOf(1L));
+        assertEquals(3, balancer.loadOf(2L));
+        assertEquals(3, balancer.loadOf(3L));
+    }
+
+    @Test
+    void onTaskEvent_ShouldConsumeReservationOfAssignedTask() {
+        reconcile(1L, 2L);
+        Long assignee = balancer.assign();
+        assertEquals(1, balancer.loadOf(assignee));
+
+        created(assignee);
+        assertEquals(1, balancer.loadOf(assignee));
+        assertEquals(0, balancer.getMetrics().get("reserved"));
+
+        created(assignee);
+        assertEquals(2, balancer.loadOf(assignee));
+    }
+
+    @Test
+    void onTaskRolledBack_ShouldReleaseReservation() {
+        reconcile(1L, 2L);
+        Long assignee = balancer.assign();
+
+        balancer.onTaskRolledBack(TaskEvent.created(task(assignee, TaskStatus.PENDING)));
+
+        assertEquals(0, balancer.loadOf(assignee));
+        assertEquals(1L, balancer.assign());
+    }
+
+    @Test
+    void onTaskEvent_ShouldTrackReassignmentCompletionAndDeletion() {
+        reconcile(1L, 2L);
+        created(1L);
+        created(1L);
+
+        balancer.onTaskEvent(TaskEvent.updated(task(1L, TaskStatus.PENDING), task(2L, TaskStatus.IN_PROGRESS)));
+        assertEquals(1, balancer.loadOf(1L));
+        assertEquals(1, balancer.loadOf(2L));
+
+        balancer.onTaskEvent(TaskEvent.updated(task(2L, TaskStatus.IN_PROGRESS), task(2L, TaskStatus.COMPLETED)));
+        balancer.onTaskEvent(TaskEvent.updated(task(2L, TaskStatus.COMPLETED), task(2L, TaskStatus.COMPLETED)));
+        assertEquals(0, balancer.loadOf(2L));
+        assertEquals(2L, balancer.assign());
+
+        balancer.onTaskEvent(TaskEvent.deleted(task(1L, TaskStatus.PENDING)));
+        assertEquals(0, balancer.loadOf(1L));
+        assertEquals(1L, balancer.assign());
+    }
+
+    @Test
+    void onUserCreated_ShouldAddOnlyRegularUsers() {
+        reconcile(5L);
+        created(5L);
+
+        balancer.onUserCreated(new UserCreatedEvent(7L, Role.ADMIN.mask()));
+        assertEquals(-1, balancer.loadOf(7L));
+        assertEquals(5L, balancer.assign());
+
+        balancer.onUserCreated(new UserCreatedEvent(6L, Role.USER.mask()));
+        assertEquals(6L, balancer.assign());
+    }
+
+    @Test
+    void heap_ShouldStayConsistentUnderRandomChanges() {
+        int users = 50;
+        Long[] ids = new Long[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = (long) (i + 1);
+        }
+        reconcile(ids);
+        long[] loads = new long[users + 1];
+        Random random = new Random(3);
+        for (int i = 0; i < 5_000; i++) {
+            long user = 1 + random.nextInt(users);
+            if (random.nextInt(3) == 0 && loads[(int) user] > 0) {
+                balancer.onTaskEvent(TaskEvent.deleted(task(user, TaskStatus.PENDING)));
+                loads[(int) user]--;
+            } else if (random.nextBoolean()) {
+                created(user);
+                loads[(int) user]++;
+            } else {
+                long assigned = balancer.assign();
+                long min = Long.MAX_VALUE;
+                for (int u = 1; u <= users; u++) {
+                    min = Math.min(min, loads[u]);
+                }
+                assertEquals(min, loads[(int) assigned]);
+                loads[(int) assigned]++;
+                created(assigned);
+            }
+        }
+        for (int u = 1; u <= users; u++) {
+            assertEquals(loads[u], balancer.loadOf((long) u));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reconcile(Long... userIds) {
+        lenient().when(jdbcTemplate.query(startsWith("SELECT id, role_mask"), any(RowMapper.class)))
+                .thenReturn(List.of(userIds));
+        balancer.reconcile();
+    }
+
+    private void created(Long assigneeId) {
+        balancer.onTaskEvent(TaskEvent.created(task(assigneeId, TaskStatus.PENDING)));
+    }
+
+    private static TaskDto task(Long assigneeId, TaskStatus status) {
+        return TaskDto.builder().id(1L).status(status).assigneeId(assigneeId).build();
+    }
+}
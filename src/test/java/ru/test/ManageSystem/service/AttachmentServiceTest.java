@@ -0,0 +1,134 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import ru.test.ManageSystem.DTO.AttachmentDto;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.attachment.AttachmentStore;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
+import ru.test.ManageSystem.entity.TaskAttachment;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.repository.TaskAttachmentRepository;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AttachmentServiceTest {
+
+    private static final long USER = 2L;
+
+    @Mock
+    private TaskAttachmentRepository attachmentRepository;
+
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    private AttachmentStore attachmentStore;
+    private AttachmentService attachmentService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        attachmentStore = new AttachmentStore(dir, DataSize.ofKilobytes(1));
+        attachmentStore.start();
+        attachmentService = new AttachmentService(attachmentRepository, attachmentStore, userSnapshotCache,
+                transactionManager);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null, List.of()));
+        lenient().when(userSnapshotCache.get("user@example.com"))
+                .thenReturn(Optional.of(new UserSnapshot(USER, "user@example.com", 0, "hash")));
+        lenient().when(attachmentRepository.save(any(TaskAttachment.class))).thenAnswer(inv -> {
+            TaskAttachment attachment = inv.getArgument(0);
+            attachment.setId(10L);
+            return attachment;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void upload_ShouldSaveSanitizedNameAndStoreSameContentOnce() throws Exception {
+        AttachmentDto first = attachmentService.upload(5L, "../../logs\\app.log", null, stream("trace"));
+        AttachmentDto second = attachmentService.upload(6L, "copy.log", "text/plain", stream("trace"));
+
+        ArgumentCaptor<TaskAttachment> captor = ArgumentCaptor.forClass(TaskAttachment.class);
+        verify(attachmentRepository, times(2)).save(captor.capture());
+        TaskAttachment saved = captor.getAllValues().get(0);
+        assertEquals("app.log", saved.getFileName());
+        assertEquals("application/octet-stream", saved.getContentType());
+        assertEquals(USER, saved.getUploadedBy());
+        assertEquals(5, first.getSize());
+        assertEquals(first.getSha256(), second.getSha256());
+        assertEquals("trace", Files.readString(attachmentStore.path(first.getSha256())));
+        assertEquals(1L, attachmentStore.getMetrics().get("deduplicated"));
+        assertThrows(IllegalArgumentException.class,
+                () -> attachmentService.upload(5L, "dir/", null, stream("trace")));
+    }
+
+    @Test
+    void deleteAttachment_ShouldRemoveContentOnlyWhenNoLongerReferenced() throws Exception {
+        AttachmentDto uploaded = attachmentService.upload(5L, "app.log", null, stream("trace"));
+        TaskAttachment attachment = TaskAttachment.builder().id(10L).taskId(5L).sha256(uploaded.getSha256()).build();
+        when(attachmentRepository.findById(10L)).thenReturn(Optional.of(attachment));
+        when(attachmentRepository.existsBySha256(uploaded.getSha256())).thenReturn(true, false);
+
+        assertThrows(ResourceNotFoundException.class, () -> attachmentService.deleteAttachment(6L, 10L));
+        attachmentService.deleteAttachment(5L, 10L);
+        assertTrue(Files.exists(attachmentStore.path(uploaded.getSha256())));
+        attachmentService.deleteAttachment(5L, 10L);
+        assertFalse(Files.exists(attachmentStore.path(uploaded.getSha256())));
+        verify(attachmentRepository, times(2)).deleteById(10L);
+    }
+
+    @Test
+    void onTaskEvent_ShouldDeleteAttachmentsOfDeletedTaskAndReleaseContentAfterCommit() throws Exception {
+        AttachmentDto uploaded = attachmentService.upload(5L, "app.log", null, stream("trace"));
+        when(attachmentRepository.findContentHashesByTaskId(5L)).thenReturn(List.of(uploaded.getSha256()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        attachmentService.onTaskEvent(TaskEvent.deleted(TaskDto.builder().id(5L).build()));
+
+        verify(attachmentRepository).deleteByTaskId(5L);
+        assertTrue(Files.exists(attachmentStore.path(uploaded.getSha256())));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertFalse(Files.exists(attachmentStore.path(uploaded.getSha256())));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardRankTest {
+
+    @Test
+    void between_ShouldKeepOrderForRandomInsertions() {
+        List<String> ranks = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            int position = random.nextInt(ranks.size() + 1);
+            String lower = position > 0 ? ranks.get(position - 1) : null;
+            String upper = position < ranks.size() ? ranks.get(position) : null;
+            String rank = BoardRank.between(lower, upper);
+            assertTrue(lower == null || lower.compareTo(rank) < 0, lower + " < " + rank);
+            assertTrue(upper == null || rank.compareTo(upper) < 0, rank + " < " + upper);
+            assertFalse(rank.endsWith("0"));
+            ranks.add(position, rank);
+        }
+    }
+
+    @Test
+    void between_ShouldAppendWithoutGrowingRanks() {
+        String rank = BoardRank.between(null, null);
+        for (int i = 0; i < 100_000; i++) {
+            String next = BoardRank.between(rank, null);
+            assertTrue(rank.compareTo(next) < 0);
+            rank = next;
+        }
+        assertEquals(6, rank.length());
+        assertEquals("zzzzzzi", BoardRank.between("zzzzzz", null));
+        assertEquals("a01", BoardRank.between("9zz", null));
+    }
+
+    @Test
+    void between_ShouldGrowSlowlyForInsertionsAtOnePlace() {
+        String lower = BoardRank.spread(0, 2);
+        String upper = BoardRank.spread(1, 2);
+        for (int i = 0; i < 50; i++) {
+            upper = BoardRank.between(lower, upper);
+        }
+        assertTrue(upper.length() <= 20, upper);
+        assertTrue(BoardRank.between("a", "a1").startsWith("a0"));
+    }
+
+    @Test
+    void between_ShouldRejectInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> BoardRank.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> BoardRank.between("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> BoardRank.between("A", "b"));
+    }
+
+    @Test
+    void spread_ShouldReturnOrderedRanksOfEqualLength() {
+        for (int count : new int[]{1, 10, 1_000_000}) {
+            String previous = "";
+            for (int i = 0; i < Math.min(count, 10_000); i++) {
+                String rank = BoardRank.spread(i, count);
+                assertTrue(previous.compareTo(rank) < 0);
+                assertEquals(BoardRank.spread(0, count).length(), rank.length());
+                assertFalse(rank.endsWith("0"));
+                previous = rank;
+            }
+            assertTrue(BoardRank.spread(count - 1, count).compareTo("i") < 0);
+        }
+        assertEquals(6, BoardRank.spread(0, 1).length());
+        assertEquals(7, BoardRank.spread(0, 1_000_000).length());
+    }
+}
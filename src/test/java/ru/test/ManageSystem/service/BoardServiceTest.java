@@ -0,0 +1,174 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.repository.TaskRepositoryCustom.BoardKey;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoardServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BoardService boardService;
+
+    private User user;
+    private Task task;
+    private Task anchor;
+
+    @BeforeEach
+    void setUp() {
+        boardService = new BoardService(taskRepository, userService, jdbcTemplate, transactionTemplate, 8);
+        user = User.builder().id(1L).email("test@example.com").build();
+        task = Task.builder().id(1L).title("Task").status(TaskStatus.PENDING).boardRank("m").author(user).build();
+        anchor = Task.builder().id(2L).title("Anchor").status(TaskStatus.PENDING).boardRank("a").author(user).build();
+    }
+
+    @Test
+    void moveTask_ShouldUpdateOnlyMovedTaskRank() {
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(anchor));
+        when(taskRepository.findNextBoardRank(TaskStatus.PENDING, new BoardKey("a", 2L), 1L))
+                .thenReturn(Optional.of("c"));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        TaskDto result = boardService.moveTask(1L, 2L);
+
+        assertEquals("b", task.getBoardRank());
+        assertEquals(1L, result.getId());
+        verify(taskRepository).save(task);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void moveTask_ShouldMoveTaskToColumnStart() {
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findNextBoardRank(TaskStatus.PENDING, null, 1L)).thenReturn(Optional.of("a"));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        boardService.moveTask(1L, null);
+
+        assertEquals("5", task.getBoardRank());
+    }
+
+    @Test
+    void moveTask_ShouldSkipSaveWhenTaskIsAlreadyInPlace() {
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(anchor));
+        when(taskRepository.findNextBoardRank(TaskStatus.PENDING, new BoardKey("a", 2L), 1L))
+                .thenReturn(Optional.of("z"));
+
+        boardService.moveTask(1L, 2L);
+
+        assertEquals("m", task.getBoardRank());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void moveTask_ShouldRejectAnchorFromOtherColumn() {
+        anchor.setStatus(TaskStatus.COMPLETED);
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(anchor));
+
+        assertThrows(IllegalArgumentException.class, () -> boardService.moveTask(1L, 2L));
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void moveTask_ShouldRejectTaskAsItsOwnAnchor() {
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+
+        assertThrows(IllegalArgumentException.class, () -> boardService.moveTask(1L, 1L));
+    }
+
+    @Test
+    void moveTask_ShouldThrowWhenTaskNotFound() {
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> boardService.moveTask(1L, 2L));
+    }
+
+    @Test
+    void moveTask_ShouldScheduleRebalanceForDuplicateNeighbourRanks() {
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(anchor));
+        when(taskRepository.findNextBoardRank(TaskStatus.PENDING, new BoardKey("a", 2L), 1L))
+                .thenReturn(Optional.of("a"));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        boardService.moveTask(1L, 2L);
+
+        assertTrue(task.getBoardRank().compareTo("a") > 0);
+        assertEquals(List.of("PENDING"), boardService.getMetrics().get("pendingRebalance"));
+    }
+
+    @Test
+    void rankAtEnd_ShouldScheduleRebalanceForLongRanks() {
+        when(taskRepository.findLastBoardRank(TaskStatus.PENDING)).thenReturn(Optional.of("i0000001"));
+        when(taskRepository.findLastBoardRank(TaskStatus.COMPLETED)).thenReturn(Optional.of("zzzzzzzz"));
+
+        assertEquals("i0000002", boardService.rankAtEnd(TaskStatus.PENDING));
+        assertEquals(List.of(), boardService.getMetrics().get("pendingRebalance"));
+
+        assertEquals("zzzzzzzzi", boardService.rankAtEnd(TaskStatus.COMPLETED));
+        assertEquals(List.of("COMPLETED"), boardService.getMetrics().get("pendingRebalance"));
+    }
+
+    @Test
+    void getBoardColumn_ShouldFilterByVisibilityAndReturnCursor() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findBoardColumn(TaskStatus.PENDING, 1L, null, 2)).thenReturn(List.of(anchor, task));
+
+        CursorPageDto<TaskDto> page = boardService.getBoardColumn(TaskStatus.PENDING, null, 1);
+
+        assertEquals(List.of(2L), page.getContent().stream().map(TaskDto::getId).toList());
+        assertTrue(page.isHasNext());
+
+        when(taskRepository.findBoardColumn(TaskStatus.PENDING, 1L, new BoardKey("a", 2L), 2))
+                .thenReturn(List.of(task));
+
+        CursorPageDto<TaskDto> next = boardService.getBoardColumn(TaskStatus.PENDING, page.getNextCursor(), 1);
+
+        assertEquals(List.of(1L), next.getContent().stream().map(TaskDto::getId).toList());
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getBoardColumn_ShouldRejectInvalidCursorAndPageSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> boardService.getBoardColumn(TaskStatus.PENDING, "!!!", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> boardService.getBoardColumn(TaskStatus.PENDING, null, 0));
+        verify(taskRepository, never()).findBoardColumn(any(), any(), any(), eq(1));
+    }
+}
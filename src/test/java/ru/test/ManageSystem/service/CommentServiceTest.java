@@ -6,27 +6,39 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import ru.test.ManageSystem.DTO.CommentDto;
+import ru.test.ManageSystem.DTO.CursorPageDto;
 import ru.test.ManageSystem.entity.Comment;
 import ru.test.ManageSystem.entity.Task;
 import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.CommentField;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.event.CommentEvent;
 import ru.test.ManageSystem.exception.ResourceNotFoundException;
 import ru.test.ManageSystem.mapper.CommentMapper;
 import ru.test.ManageSystem.repository.CommentRepository;
 import ru.test.ManageSystem.repository.TaskRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class CommentServiceTest {
 
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
     @Mock
     private CommentRepository commentRepository;
 
@@ -39,6 +51,9 @@ public class CommentServiceTest {
     @Mock
     private TaskService taskService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -77,6 +92,9 @@ public class CommentServiceTest {
         assertNotNull(result);
         assertEquals(comment.getContent(), result.getContent());
         verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(taskRepository, times(1)).incrementCommentCount(eq(1L), any(LocalDateTime.class));
+        verify(eventPublisher, times(1)).publishEvent(new CommentEvent(CommentEvent.Type.CREATED, 1L, 1L, 1L,
+                "Test Comment", comment.getCreatedAt()));
     }
 
     @Test
@@ -85,6 +103,8 @@ public class CommentServiceTest {
 
         assertThrows(ResourceNotFoundException.class, () -> commentService.createComment(1L, "Test Comment"));
         verify(commentRepository, never()).save(any(Comment.class));
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(taskRepository, never()).incrementCommentCount(any(), any());
     }
 
     @Test
@@ -135,6 +155,9 @@ public class CommentServiceTest {
         commentService.deleteComment(1L);
 
         verify(commentRepository, times(1)).delete(comment);
+        verify(taskRepository, times(1)).decrementCommentCount(1L, 1);
+        verify(eventPublisher, times(1)).publishEvent(new CommentEvent(CommentEvent.Type.DELETED, 1L, 1L, 1L,
+                null, comment.getCreatedAt(), comment.getContent()));
     }
 
     @Test
@@ -166,6 +189,208 @@ public class CommentServiceTest {
         verify(commentRepository, never()).findByTaskId(any(Long.class));
     }
 
+    @Test
+    void getCommentsByTaskId_WithFields_ShouldSelectOnlyRequestedColumns() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        List<CommentField> columns = List.of(CommentField.ID, CommentField.AUTHOR, CommentField.CREATED_AT);
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findColumnsByTaskId(1L, columns)).thenReturn(Collections.singletonList(
+                new Object[]{5L, 1L, "user@example.com", Role.USER.mask(), createdAt}));
+
+        List<CommentDto> result = commentService.getCommentsByTaskId(1L, CommentField.parse("createdAt,author"));
+
+        CommentDto dto = result.get(0);
+        assertEquals(5L, dto.getId());
+        assertNull(dto.getContent());
+        assertEquals("user@example.com", dto.getAuthor().getEmail());
+        assertEquals(Set.of(Role.USER), dto.getAuthor().getRoles());
+        assertEquals(createdAt, dto.getCreatedAt());
+        verify(commentRepository, never()).findByTaskId(any(Long.class));
+    }
+
+    @Test
+    void getCommentsByTaskId_WithFields_ShouldThrowWhenTaskIsMissing() {
+        when(taskRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> commentService.getCommentsByTaskId(1L, CommentField.parse("content")));
+        verify(commentRepository, never()).findColumnsByTaskId(any(), any());
+    }
+
+    @Test
+    void getCommentPage_ShouldReturnNewestWindowWithCursors() {
+        List<Comment> newest = List.of(comment(3L, 3), comment(2L, 2), comment(1L, 1));
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findNewestByTaskId(1L, PageRequest.of(0, 3))).thenReturn(newest);
+
+        CursorPageDto<CommentDto> page = commentService.getCommentPage(1L, null, 2);
+
+        assertEquals(List.of(3L, 2L), page.getContent().stream().map(CommentDto::getId).toList());
+        assertTrue(page.isHasNext());
+
+        when(commentRepository.findOlderByTaskId(1L, BASE.plusMinutes(2), 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(comment(1L, 1)));
+        CursorPageDto<CommentDto> older = commentService.getCommentPage(1L, page.getNextCursor(), 2);
+        assertEquals(List.of(1L), older.getContent().stream().map(CommentDto::getId).toList());
+        assertFalse(older.isHasNext());
+        assertNull(older.getNextCursor());
+
+        when(commentRepository.findNewerByTaskId(1L, BASE.plusMinutes(3), 3L, PageRequest.of(0, 3)))
+                .thenReturn(List.of());
+        CursorPageDto<CommentDto> since = commentService.getCommentPage(1L, page.getPrevCursor(), 2);
+        assertTrue(since.getContent().isEmpty());
+        assertEquals(page.getPrevCursor(), since.getNextCursor());
+    }
+
+    @Test
+    void getCommentPage_ShouldContinueSinceCursorAfterLastNewComment() {
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findNewestByTaskId(1L, PageRequest.of(0, 2))).thenReturn(List.of(comment(1L, 1)));
+        String since = commentService.getCommentPage(1L, null, 1).getPrevCursor();
+        when(commentRepository.findNewerByTaskId(1L, BASE.plusMinutes(1), 1L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(comment(4L, 4)));
+
+        CursorPageDto<CommentDto> page = commentService.getCommentPage(1L, since, 1);
+
+        assertEquals(List.of(4L), page.getContent().stream().map(CommentDto::getId).toList());
+        assertFalse(page.isHasNext());
+        when(commentRepository.findNewerByTaskId(1L, BASE.plusMinutes(4), 4L, PageRequest.of(0, 2)))
+                .thenReturn(List.of());
+        assertTrue(commentService.getCommentPage(1L, page.getNextCursor(), 1).getContent().isEmpty());
+    }
+
+    @Test
+    void getCommentPage_ShouldRejectInvalidCursorAndSize() {
+        assertThrows(IllegalArgumentException.class, () -> commentService.getCommentPage(1L, "not-a-cursor", 20));
+        assertThrows(IllegalArgumentException.class, () -> commentService.getCommentPage(1L, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> commentService.getCommentPage(1L, null, CommentService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getCommentPage_ShouldThrowWhenTaskIsMissing() {
+        when(taskRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentPage(1L, null, 20));
+    }
+
+    @Test
+    void createComment_WithParent_ShouldExtendParentPath() {
+        Comment parent = reply(comment(5L, 0), null);
+        List<Comment> saved = new ArrayList<>();
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(parent));
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> {
+            Comment created = invocation.getArgument(0);
+            created.setId(7L);
+            saved.add(created);
+            return created;
+        });
+
+        CommentDto result = commentService.createComment(1L, "Reply", 5L);
+
+        assertEquals("000000000005000000000007", saved.get(0).getPath());
+        assertEquals(5L, result.getParentId());
+        assertEquals(1, result.getDepth());
+        verify(commentRepository).addReplyCount(5L, 1);
+        verify(taskRepository).incrementCommentCount(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void createComment_WithParent_ShouldRejectForeignTaskAndDepthLimit() {
+        Task other = new Task();
+        other.setId(2L);
+        Comment foreign = comment(5L, 0);
+        foreign.setTask(other);
+        Comment deepest = comment(6L, 0);
+        deepest.setDepth(Comment.MAX_DEPTH - 1);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(foreign));
+        when(commentRepository.findById(6L)).thenReturn(Optional.of(deepest));
+        when(commentRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> commentService.createComment(1L, "Reply", 5L));
+        assertThrows(IllegalArgumentException.class, () -> commentService.createComment(1L, "Reply", 6L));
+        assertThrows(ResourceNotFoundException.class, () -> commentService.createComment(1L, "Reply", 9L));
+        verify(commentRepository, never()).save(any(Comment.class));
+        verify(commentRepository, never()).addReplyCount(any(), anyInt());
+    }
+
+    @Test
+    void deleteComment_WithReplies_ShouldDeleteSubtreeAndUpdateCounters() {
+        Comment parent = reply(comment(4L, 0), null);
+        Comment middle = reply(comment(2L, 1), parent);
+        Comment leaf = reply(comment(3L, 2), middle);
+        middle.setReplyCount(1);
+        String from = middle.getPath();
+        String to = "000000000004000000000003";
+        when(commentRepository.findById(2L)).thenReturn(Optional.of(middle));
+        when(commentRepository.findByPathRange(eq(1L), eq(from), eq(to), any())).thenReturn(List.of(middle, leaf));
+
+        commentService.deleteComment(2L);
+
+        verify(commentRepository).detachByPathRange(1L, from, to);
+        verify(commentRepository).deleteByPathRange(1L, from, to);
+        verify(commentRepository, never()).delete(any(Comment.class));
+        verify(commentRepository).addReplyCount(4L, -1);
+        verify(taskRepository).decrementCommentCount(1L, 2);
+        verify(eventPublisher, times(2)).publishEvent(any(CommentEvent.class));
+    }
+
+    @Test
+    void getThread_ShouldPageSubtreeByPath() {
+        Comment root = reply(comment(1L, 0), null);
+        Comment first = reply(comment(2L, 1), root);
+        Comment nested = reply(comment(4L, 3), first);
+        Comment second = reply(comment(3L, 2), root);
+        String to = "000000000002";
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(root));
+        when(commentRepository.findByPathRange(1L, root.getPath(), to, PageRequest.of(0, 3)))
+                .thenReturn(List.of(root, first, nested));
+
+        CursorPageDto<CommentDto> page = commentService.getThread(1L, 1L, null, 2);
+
+        assertEquals(List.of(1L, 2L), page.getContent().stream().map(CommentDto::getId).toList());
+        assertTrue(page.isHasNext());
+
+        when(commentRepository.findByPathRange(1L, first.getPath() + "0", to, PageRequest.of(0, 3)))
+                .thenReturn(List.of(nested, second));
+
+        CursorPageDto<CommentDto> next = commentService.getThread(1L, 1L, page.getNextCursor(), 2);
+
+        assertEquals(List.of(4L, 3L), next.getContent().stream().map(CommentDto::getId).toList());
+        assertEquals(List.of(2, 1), next.getContent().stream().map(CommentDto::getDepth).toList());
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getThread_ShouldRejectForeignCommentAndInvalidCursor() {
+        Comment root = reply(comment(1L, 0), null);
+        Task other = new Task();
+        other.setId(2L);
+        Comment foreign = reply(comment(5L, 0), null);
+        foreign.setTask(other);
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(root));
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(foreign));
+
+        assertThrows(IllegalArgumentException.class, () -> commentService.getThread(1L, 5L, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> commentService.getThread(1L, 1L, "bm90LWEtcGF0aA", 10));
+        assertThrows(IllegalArgumentException.class, () -> commentService.getThread(1L, 1L,
+                Base64.getUrlEncoder().withoutPadding().encodeToString("000000000009".getBytes()), 10));
+        assertThrows(IllegalArgumentException.class, () -> commentService.getThread(1L, 1L, null, 0));
+        verify(commentRepository, never()).findByPathRange(any(), any(), any(), any());
+    }
+
+    @Test
+    void pathUpperBound_ShouldCarryAcrossSegments() {
+        assertEquals("000000000002", CommentService.pathUpperBound("000000000001"));
+        assertEquals("000000000010000000000000", CommentService.pathUpperBound("000000000009999999999999"));
+        assertEquals("000000000009000000000100", CommentService.pathUpperBound("000000000009000000000099"));
+    }
+
     @Test
     void isCommentAuthor_ShouldReturnTrue() {
         when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
@@ -180,4 +405,21 @@ public class CommentServiceTest {
 
         assertThrows(ResourceNotFoundException.class, () -> commentService.isCommentAuthor(1L));
     }
+
+    private Comment comment(Long id, int minutes) {
+        return Comment.builder()
+                .id(id)
+                .content("Comment " + id)
+                .task(task)
+                .author(user)
+                .createdAt(BASE.plusMinutes(minutes))
+                .build();
+    }
+
+    private static Comment reply(Comment comment, Comment parent) {
+        comment.setParent(parent);
+        comment.setPath((parent != null ? parent.getPath() : "") + CommentService.pathSegment(comment.getId()));
+        comment.setDepth(parent != null ? parent.getDepth() + 1 : 0);
+        return comment;
+    }
 }
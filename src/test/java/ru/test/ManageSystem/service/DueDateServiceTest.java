@@ -0,0 +1,135 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.event.TaskOverdueEvent;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DueDateServiceTest {
+
+    private static final String LOAD = "SELECT id, due_at FROM tasks WHERE due_at <";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DueDateService dueDateService;
+
+    @BeforeEach
+    void setUp() {
+        dueDateService = new DueDateService(jdbcTemplate, transactionTemplate, eventPublisher,
+                Duration.ofSeconds(1), Duration.ofHours(1), 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tick_ShouldLoadDeadlinesPageByPage() {
+        Timestamp future = Timestamp.valueOf(LocalDateTime.now().plusMinutes(10));
+        when(jdbcTemplate.query(startsWith(LOAD), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(new Object[]{1L, future}, new Object[]{2L, future}))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, future}));
+
+        dueDateService.tick();
+        dueDateService.tick();
+
+        verify(jdbcTemplate).query(contains("id > ?"), any(RowMapper.class), any(Object[].class));
+        verify(jdbcTemplate, times(2)).query(startsWith(LOAD), any(RowMapper.class), any(Object[].class));
+        assertEquals(3, dueDateService.getMetrics().get("scheduled"));
+        assertEquals(0L, dueDateService.getMetrics().get("fired"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tick_ShouldPublishEventOnlyForMarkedTasksAndRescheduleMovedDeadlines() throws Exception {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        when(jdbcTemplate.query(startsWith(LOAD), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(new Object[]{1L, Timestamp.valueOf(past)}, new Object[]{2L, Timestamp.valueOf(past)}))
+                .thenReturn(List.of());
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE tasks SET overdue = TRUE"), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> batch = invocation.getArgument(1);
+                    return batch.stream().mapToInt(args -> args[0].equals(1L) ? 1 : 0).toArray();
+                });
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(1L);
+        when(rs.getLong("author_id")).thenReturn(10L);
+        when(rs.getLong("assignee_id")).thenReturn(0L);
+        when(rs.wasNull()).thenReturn(true);
+        when(rs.getTimestamp("due_at")).thenReturn(Timestamp.valueOf(past));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, author_id"), any(RowCallbackHandler.class), eq(1L));
+        Timestamp moved = Timestamp.valueOf(LocalDateTime.now().plusMinutes(5));
+        when(jdbcTemplate.query(startsWith("SELECT id, due_at FROM tasks WHERE id IN"), any(RowMapper.class),
+                any(Object[].class)))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, moved}));
+
+        dueDateService.tick();
+
+        verify(eventPublisher).publishEvent(new TaskOverdueEvent(1L, 10L, null, past));
+        verifyNoMoreInteractions(eventPublisher);
+        assertEquals(1L, dueDateService.getMetrics().get("fired"));
+        assertEquals(1L, dueDateService.getMetrics().get("skipped"));
+        assertEquals(1, dueDateService.getMetrics().get("scheduled"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTaskEvent_ShouldTrackDeadlinesInsideLoadedWindow() {
+        LocalDateTime soon = LocalDateTime.now().plusMinutes(10);
+
+        dueDateService.onTaskEvent(TaskEvent.created(task(1L, soon, TaskStatus.PENDING)));
+        assertEquals(0, dueDateService.getMetrics().get("scheduled"));
+
+        when(jdbcTemplate.query(startsWith(LOAD), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        dueDateService.tick();
+
+        dueDateService.onTaskEvent(TaskEvent.created(task(1L, soon, TaskStatus.PENDING)));
+        dueDateService.onTaskEvent(TaskEvent.created(task(2L, soon.plusDays(1), TaskStatus.PENDING)));
+        dueDateService.onTaskEvent(TaskEvent.created(task(3L, soon, TaskStatus.PENDING)));
+        assertEquals(2, dueDateService.getMetrics().get("scheduled"));
+
+        dueDateService.onTaskEvent(TaskEvent.updated(task(1L, soon, TaskStatus.PENDING),
+                task(1L, soon, TaskStatus.COMPLETED)));
+        dueDateService.onTaskEvent(TaskEvent.deleted(task(3L, soon, TaskStatus.PENDING)));
+        assertEquals(0, dueDateService.getMetrics().get("scheduled"));
+    }
+
+    private static TaskDto task(Long id, LocalDateTime dueAt, TaskStatus status) {
+        return TaskDto.builder().id(id).dueAt(dueAt).status(status).build();
+    }
+}
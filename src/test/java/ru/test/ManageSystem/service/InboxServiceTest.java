@@ -0,0 +1,191 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.InboxUnreadDto;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
+import ru.test.ManageSystem.entity.InboxItem;
+import ru.test.ManageSystem.enums.NotificationType;
+import ru.test.ManageSystem.event.CommentEvent;
+import ru.test.ManageSystem.repository.InboxItemRepository;
+import ru.test.ManageSystem.security.UserSnapshot;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InboxServiceTest {
+
+    private static final long USER = 2L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private InboxItemRepository inboxItemRepository;
+
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    private InboxService inboxService;
+
+    @BeforeEach
+    void setUp() {
+        inboxService = new InboxService(jdbcTemplate, transactionTemplate, inboxItemRepository, userSnapshotCache,
+                4, 2);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null, List.of()));
+        lenient().when(userSnapshotCache.get("user@example.com"))
+                .thenReturn(Optional.of(new UserSnapshot(USER, "user@example.com", 0, "hash")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onCommentEvent_ShouldCountItemsForParticipantsExceptAuthorOnlyAfterCommit() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(1L);
+        when(rs.getLong(2)).thenReturn(USER);
+        when(rs.wasNull()).thenReturn(false);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT author_id, assignee_id FROM tasks"),
+                any(RowCallbackHandler.class), eq(5L));
+        AtomicLong ids = new AtomicLong();
+        when(inboxItemRepository.save(any(InboxItem.class))).thenAnswer(invocation -> {
+            InboxItem item = invocation.getArgument(0);
+            item.setId(ids.incrementAndGet());
+            return item;
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+        inboxService.onCommentEvent(new CommentEvent(CommentEvent.Type.CREATED, 10L, 5L, 1L, "text",
+                LocalDateTime.now()));
+
+        verify(inboxItemRepository).save(argThat(item -> item.getUserId() == USER
+                && item.getType() == NotificationType.COMMENTED && item.getTaskId() == 5L));
+        assertEquals(0, inboxService.getUnread().getUnread());
+        assertEquals(0L, inboxService.getMetrics().get("watermark"));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(1, inboxService.getUnread().getUnread());
+        assertEquals(1L, inboxService.getMetrics().get("watermark"));
+    }
+
+    @Test
+    void load_ShouldReplayItemsAboveStoredWatermark() throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(USER);
+        when(row.getLong(2)).thenReturn(3L);
+        when(row.getLong(3)).thenReturn(4L);
+        when(row.getLong(4)).thenReturn(10L);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT user_id, unread, read_up_to, counted_up_to"),
+                any(RowCallbackHandler.class));
+        ResultSet delta = mock(ResultSet.class);
+        when(delta.getLong(1)).thenReturn(USER);
+        when(delta.getLong(2)).thenReturn(2L);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(delta);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT i.user_id, COUNT(*) FROM inbox_items"),
+                any(RowCallbackHandler.class), eq(10L));
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM inbox_items", Long.class)).thenReturn(12L);
+
+        inboxService.load();
+
+        assertEquals(new InboxUnreadDto(5, 4), inboxService.getUnread());
+        assertEquals(2L, inboxService.getMetrics().get("replayed"));
+        assertEquals(12L, inboxService.getMetrics().get("watermark"));
+    }
+
+    @Test
+    void markRead_ShouldCountStoredItemsOnlyForPartialRange() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM inbox_items", Long.class)).thenReturn(8L);
+        lenient().doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(mockDelta());
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT i.user_id, COUNT(*) FROM inbox_items"),
+                any(RowCallbackHandler.class), eq(0L));
+        inboxService.load();
+        when(inboxItemRepository.countInRange(USER, 6L, 8L)).thenReturn(2L);
+
+        assertEquals(new InboxUnreadDto(2, 6), inboxService.markRead(6L));
+        assertEquals(new InboxUnreadDto(0, 8), inboxService.markRead(null));
+        verify(inboxItemRepository, times(1)).countInRange(anyLong(), anyLong(), anyLong());
+        assertThrows(IllegalArgumentException.class, () -> inboxService.markRead(-1L));
+    }
+
+    @Test
+    void flush_ShouldUpdateStoredCountersAndInsertMissingOnes() throws Exception {
+        ResultSet delta = mock(ResultSet.class);
+        when(delta.getLong(1)).thenReturn(USER, 3L);
+        when(delta.getLong(2)).thenReturn(1L, 2L);
+        lenient().doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(delta);
+            handler.processRow(delta);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT i.user_id, COUNT(*) FROM inbox_items"),
+                any(RowCallbackHandler.class), eq(0L));
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM inbox_items", Long.class)).thenReturn(3L);
+        inboxService.load();
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE inbox_counters"), anyList())).thenReturn(new int[]{1, 0});
+
+        inboxService.flush();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO inbox_counters"),
+                argThat((List<Object[]> rows) -> rows.size() == 1));
+        assertEquals(2L, inboxService.getMetrics().get("flushedRows"));
+        inboxService.flush();
+        verify(transactionTemplate, times(1)).executeWithoutResult(any(Consumer.class));
+    }
+
+    private static ResultSet mockDelta() throws Exception {
+        ResultSet delta = mock(ResultSet.class);
+        when(delta.getLong(1)).thenReturn(USER);
+        when(delta.getLong(2)).thenReturn(4L);
+        return delta;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.test.ManageSystem.DTO.LabelDto;
+import ru.test.ManageSystem.entity.Label;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.event.LabelDeletedEvent;
+import ru.test.ManageSystem.event.TaskLabelsEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.repository.LabelRepository;
+import ru.test.ManageSystem.repository.TaskRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LabelServiceTest {
+
+    @Mock
+    private LabelRepository labelRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private LabelService labelService;
+
+    private Task task;
+    private Label backend;
+    private Label urgent;
+
+    @BeforeEach
+    void setUp() {
+        task = Task.builder().id(1L).title("Test Task").build();
+        backend = Label.builder().id(5L).name("backend").build();
+        urgent = Label.builder().id(6L).name("urgent").build();
+    }
+
+    @Test
+    void createLabel_ShouldNormalizeName() {
+        when(labelRepository.existsByName("backend")).thenReturn(false);
+        when(labelRepository.save(any(Label.class))).thenReturn(backend);
+
+        LabelDto result = labelService.createLabel("Backend");
+
+        assertEquals("backend", result.getName());
+        verify(labelRepository).save(argThat(label -> label.getName().equals("backend")));
+    }
+
+    @Test
+    void createLabel_ShouldRejectDuplicateName() {
+        when(labelRepository.existsByName("backend")).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> labelService.createLabel("BACKEND"));
+        verify(labelRepository, never()).save(any());
+    }
+
+    @Test
+    void setTaskLabels_ShouldReplaceLabelsAndPublishEvent() {
+        task.getLabels().add(Label.builder().id(7L).name("blocked").build());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(labelRepository.findAllById(Set.of(5L, 6L))).thenReturn(List.of(urgent, backend));
+
+        List<LabelDto> result = labelService.setTaskLabels(1L, Set.of(5L, 6L));
+
+        assertEquals(List.of("backend", "urgent"), result.stream().map(LabelDto::getName).toList());
+        assertEquals(Set.of(backend, urgent), task.getLabels());
+        verify(eventPublisher).publishEvent(new TaskLabelsEvent(1L, Set.of(5L, 6L)));
+    }
+
+    @Test
+    void setTaskLabels_ShouldRejectUnknownLabel() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(labelRepository.findAllById(Set.of(5L, 8L))).thenReturn(List.of(backend));
+
+        assertThrows(ResourceNotFoundException.class, () -> labelService.setTaskLabels(1L, Set.of(5L, 8L)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteLabel_ShouldDetachFromTasksAndPublishEvent() {
+        when(labelRepository.findById(5L)).thenReturn(Optional.of(backend));
+
+        labelService.deleteLabel(5L);
+
+        verify(labelRepository).detachFromTasks(5L);
+        verify(labelRepository).delete(backend);
+        verify(eventPublisher).publishEvent(new LabelDeletedEvent(5L));
+    }
+}
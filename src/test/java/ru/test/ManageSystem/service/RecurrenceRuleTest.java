@@ -0,0 +1,76 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.Test;
+import ru.test.ManageSystem.enums.RecurrenceFrequency;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecurrenceRuleTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 31, 9, 0);
+
+    @Test
+    void occurrences_ShouldListMomentsInsideRange() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.WEEKLY, 2, START, null);
+
+        assertEquals(List.of(START.plusWeeks(2), START.plusWeeks(4)),
+                list(rule.occurrences(START.plusDays(1), START.plusWeeks(6))));
+        assertEquals(List.of(START), list(rule.occurrences(START.minusYears(1), START.plusDays(1))));
+        assertEquals(List.of(), list(rule.occurrences(START.plusDays(1), START.plusDays(13))));
+    }
+
+    @Test
+    void occurrences_ShouldNotDriftAfterShortMonths() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.MONTHLY, 1, START, null);
+
+        assertEquals(List.of(
+                        LocalDateTime.of(2024, 1, 31, 9, 0),
+                        LocalDateTime.of(2024, 2, 29, 9, 0),
+                        LocalDateTime.of(2024, 3, 31, 9, 0),
+                        LocalDateTime.of(2024, 4, 30, 9, 0)),
+                list(rule.occurrences(START, START.plusMonths(4))));
+    }
+
+    @Test
+    void occurrences_ShouldStopAtInclusiveEnd() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 1, START, START.plusDays(2));
+
+        assertEquals(List.of(START, START.plusDays(1), START.plusDays(2)),
+                list(rule.occurrences(START, START.plusDays(10))));
+    }
+
+    @Test
+    void occurrences_ShouldStartFarFromFirstMomentWithoutSkippingAny() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 3, START, null);
+        LocalDateTime from = START.plusYears(500).plusHours(1);
+
+        Iterator<LocalDateTime> occurrences = rule.occurrences(from, from.plusYears(1));
+
+        LocalDateTime first = occurrences.next();
+        assertFalse(first.isBefore(from));
+        assertTrue(first.minusDays(3).isBefore(from));
+        assertEquals(0, ChronoUnit.DAYS.between(START, first) % 3);
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidRule() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecurrenceRule(RecurrenceFrequency.DAILY, 0, START, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecurrenceRule(RecurrenceFrequency.DAILY, 1, START, START.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecurrenceRule(null, 1, START, null));
+    }
+
+    private static List<LocalDateTime> list(Iterator<LocalDateTime> occurrences) {
+        List<LocalDateTime> result = new ArrayList<>();
+        occurrences.forEachRemaining(result::add);
+        return result;
+    }
+}
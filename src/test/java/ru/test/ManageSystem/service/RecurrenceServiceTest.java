@@ -0,0 +1,178 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.TaskRecurrence;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.RecurrenceFrequency;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.repository.TaskRecurrenceRepository;
+import ru.test.ManageSystem.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RecurrenceServiceTest {
+
+    @Mock
+    private TaskRecurrenceRepository recurrenceRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Task template;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).email("test@example.com").build();
+        template = Task.builder().id(1L).title("Weekly report").status(TaskStatus.COMPLETED).author(user).build();
+    }
+
+    @Test
+    void generateDue_ShouldCreateOccurrencesInsideLeadAndAdvanceRule() {
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        TaskRecurrence recurrence = recurrence(RecurrenceFrequency.DAILY, start, start.plusHours(2));
+        List<LocalDateTime> created = stubGeneration(recurrence);
+
+        LocalDateTime before = LocalDateTime.now();
+        service(Duration.ofDays(3)).generateDue();
+
+        assertEquals(List.of(start.plusDays(1), start.plusDays(2), start.plusDays(3)), created);
+        assertFalse(recurrence.getGeneratedUntil().isBefore(before.plusDays(3)));
+        verify(recurrenceRepository).save(recurrence);
+    }
+
+    @Test
+    void generateDue_ShouldCapOccurrencesPerRuleAndResumeOnNextRun() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        TaskRecurrence recurrence = recurrence(RecurrenceFrequency.DAILY, start, start);
+        List<LocalDateTime> created = stubGeneration(recurrence);
+        RecurrenceService service = service(Duration.ofDays(150));
+
+        service.generateDue();
+        assertEquals(100, created.size());
+        assertEquals(start.plusDays(100), recurrence.getGeneratedUntil());
+
+        service.generateDue();
+        assertEquals(150, created.size());
+        assertEquals(start.plusDays(149), created.get(149));
+        assertEquals(150L, service.getMetrics().get("generated"));
+    }
+
+    @Test
+    void materialize_ShouldRejectTooManyOccurrences() {
+        LocalDateTime now = LocalDateTime.now();
+        TaskRecurrence recurrence = recurrence(RecurrenceFrequency.DAILY, now, now);
+        when(recurrenceRepository.findByTemplateIdForUpdate(1L)).thenReturn(Optional.of(recurrence));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service(Duration.ofDays(7)).materialize(1L, now.plusDays(RecurrenceService.MAX_MATERIALIZED)));
+
+        verifyNoInteractions(taskService);
+        verify(recurrenceRepository, never()).save(any());
+    }
+
+    @Test
+    void getUpcoming_ShouldMergeStoredTasksWithVirtualOccurrencesWithoutWriting() {
+        user.setRoles(Set.of(Role.ADMIN));
+        when(userService.getCurrentUser()).thenReturn(user);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 9, 0);
+        LocalDateTime to = from.plusDays(30);
+        Task first = Task.builder().id(10L).title("stored").status(TaskStatus.PENDING).author(user)
+                .dueAt(from.plusHours(1)).build();
+        Task second = Task.builder().id(11L).title("stored").status(TaskStatus.PENDING).author(user)
+                .dueAt(from.plusDays(2)).build();
+        when(taskRepository.findUpcoming(from, to, null, 4)).thenReturn(List.of(first, second));
+        TaskRecurrence recurrence = recurrence(RecurrenceFrequency.DAILY, from, from.plusHours(12));
+        when(recurrenceRepository.findVirtualInRange(from, to)).thenReturn(List.<Object[]>of(
+                new Object[]{recurrence, template}));
+
+        List<TaskDto> result = service(Duration.ofDays(7)).getUpcoming(from, to, 4);
+
+        assertEquals(List.of(from.plusHours(1), from.plusDays(1), from.plusDays(2), from.plusDays(2)),
+                result.stream().map(TaskDto::getDueAt).toList());
+        assertEquals(10L, result.get(0).getId());
+        assertNull(result.get(1).getId());
+        assertEquals(7L, result.get(1).getRecurrenceId());
+        assertEquals(TaskStatus.PENDING, result.get(1).getStatus());
+        assertEquals("Weekly report", result.get(1).getTitle());
+        assertEquals(11L, result.get(2).getId());
+        assertNull(result.get(3).getId());
+        verify(recurrenceRepository, never()).save(any());
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void getUpcoming_ShouldRejectEmptyRange() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> service(Duration.ofDays(7)).getUpcoming(now, now, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> service(Duration.ofDays(7)).getUpcoming(now, now.plusDays(1), 0));
+    }
+
+    private RecurrenceService service(Duration lead) {
+        return new RecurrenceService(recurrenceRepository, taskRepository, taskService, userService,
+                transactionTemplate, lead, 2);
+    }
+
+    private static TaskRecurrence recurrence(RecurrenceFrequency frequency, LocalDateTime start,
+                                             LocalDateTime generatedUntil) {
+        return TaskRecurrence.builder()
+                .id(7L)
+                .templateId(1L)
+                .frequency(frequency)
+                .repeatInterval(1)
+                .startAt(start)
+                .generatedUntil(generatedUntil)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LocalDateTime> stubGeneration(TaskRecurrence recurrence) {
+        when(recurrenceRepository.findBehind(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+        when(recurrenceRepository.findByTemplateIdForUpdate(1L)).thenReturn(Optional.of(recurrence));
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(template));
+        List<LocalDateTime> created = new ArrayList<>();
+        when(taskService.createOccurrence(eq(template), eq(7L), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            created.add(invocation.getArgument(2));
+            return TaskDto.builder().dueAt(invocation.getArgument(2)).build();
+        });
+        return created;
+    }
+}
@@ -0,0 +1,173 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskDependencyEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.search.TaskDependencyIndex;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskDependencyServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TaskDependencyIndex taskDependencyIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaskDependencyService taskDependencyService;
+
+    private User user;
+    private Task task;
+    private Task blocker;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).email("test@example.com").build();
+        task = Task.builder().id(1L).title("Task").author(user).build();
+        blocker = Task.builder().id(2L).title("Blocker").author(user).build();
+        lenient().when(userService.getCurrentUser()).thenReturn(user);
+    }
+
+    @Test
+    void addBlocker_ShouldSaveDependencyAndPublishEvent() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(blocker));
+        when(taskDependencyIndex.addDependency(1L, 2L)).thenReturn(true);
+
+        List<TaskDto> result = taskDependencyService.addBlocker(1L, 2L);
+
+        assertEquals(List.of(2L), result.stream().map(TaskDto::getId).toList());
+        verify(taskRepository).save(task);
+        verify(eventPublisher).publishEvent(new TaskDependencyEvent(TaskDependencyEvent.Type.ADDED, 1L, 2L));
+    }
+
+    @Test
+    void addBlocker_ShouldIgnoreExistingDependency() {
+        task.getBlockers().add(blocker);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(blocker));
+        when(taskDependencyIndex.addDependency(1L, 2L)).thenReturn(false);
+
+        assertEquals(1, taskDependencyService.addBlocker(1L, 2L).size());
+        verify(taskRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void addBlocker_ShouldRejectCycle() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(blocker));
+        when(taskDependencyIndex.addDependency(1L, 2L))
+                .thenThrow(new IllegalArgumentException("Dependency would create a cycle"));
+
+        assertThrows(IllegalArgumentException.class, () -> taskDependencyService.addBlocker(1L, 2L));
+        assertTrue(task.getBlockers().isEmpty());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void addBlocker_ShouldThrowWhenBlockerNotFound() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> taskDependencyService.addBlocker(1L, 2L));
+        verifyNoInteractions(taskDependencyIndex);
+    }
+
+    @Test
+    void addBlocker_ShouldRejectBlockerInvisibleToCaller() {
+        User other = User.builder().id(3L).email("other@example.com").build();
+        blocker.setAuthor(other);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(blocker));
+
+        assertThrows(ResourceNotFoundException.class, () -> taskDependencyService.addBlocker(1L, 2L));
+        verifyNoInteractions(taskDependencyIndex);
+        assertTrue(task.getBlockers().isEmpty());
+    }
+
+    @Test
+    void getBlockersAndCriticalPath_ShouldRedactTasksInvisibleToCaller() {
+        User other = User.builder().id(3L).email("other@example.com").build();
+        Task foreign = Task.builder().id(3L).title("Secret").description("Secret").status(TaskStatus.PENDING)
+                .author(other).build();
+        task.getBlockers().add(foreign);
+        task.getBlockers().add(blocker);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskDependencyIndex.criticalPath(1L)).thenReturn(List.of(3L, 1L));
+        when(taskRepository.findAllById(List.of(3L, 1L))).thenReturn(List.of(foreign, task));
+
+        List<TaskDto> blockers = taskDependencyService.getBlockers(1L);
+        List<TaskDto> path = taskDependencyService.getCriticalPath(1L);
+
+        assertEquals(List.of(2L, 3L), blockers.stream().map(TaskDto::getId).toList());
+        assertEquals("Blocker", blockers.get(0).getTitle());
+        assertNull(blockers.get(1).getTitle());
+        assertNull(blockers.get(1).getAuthorId());
+        assertEquals(TaskStatus.PENDING, blockers.get(1).getStatus());
+        assertEquals(List.of(3L, 1L), path.stream().map(TaskDto::getId).toList());
+        assertNull(path.get(0).getTitle());
+        assertEquals("Task", path.get(1).getTitle());
+
+        user.setRoles(Set.of(Role.ADMIN));
+        assertEquals("Secret", taskDependencyService.getBlockers(1L).get(1).getTitle());
+    }
+
+    @Test
+    void removeBlocker_ShouldPublishEventOnlyWhenDependencyExisted() {
+        task.getBlockers().add(blocker);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        taskDependencyService.removeBlocker(1L, 3L);
+        verify(eventPublisher, never()).publishEvent(any());
+
+        taskDependencyService.removeBlocker(1L, 2L);
+        assertTrue(task.getBlockers().isEmpty());
+        verify(taskRepository).save(task);
+        verify(eventPublisher).publishEvent(new TaskDependencyEvent(TaskDependencyEvent.Type.REMOVED, 1L, 2L));
+    }
+
+    @Test
+    void getReadyTasks_ShouldHydrateIdsInIndexOrder() {
+        when(taskDependencyIndex.readyFor(1L, 10)).thenReturn(List.of(2L, 1L));
+        when(taskRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(task, blocker));
+
+        List<TaskDto> result = taskDependencyService.getReadyTasks(10);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(TaskDto::getId).toList());
+    }
+
+    @Test
+    void getReadyTasks_ShouldRejectInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> taskDependencyService.getReadyTasks(0));
+        assertThrows(IllegalArgumentException.class, () -> taskDependencyService.getReadyTasks(101));
+        verifyNoInteractions(taskDependencyIndex);
+    }
+}
@@ -0,0 +1,163 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import ru.test.ManageSystem.DTO.CommentDto;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.TaskDetailsDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.exception.ServiceUnavailableException;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskDetailsServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CommentService commentService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    private ExecutorService executor;
+    private TaskDetailsService taskDetailsService;
+
+    private User author;
+    private User assignee;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        taskDetailsService = new TaskDetailsService(taskRepository, commentService, userRepository,
+                userService, executor, Duration.ofSeconds(5));
+
+        author = User.builder().id(1L).email("author@example.com").roles(Collections.singleton(Role.USER)).build();
+        assignee = User.builder().id(2L).email("assignee@example.com").roles(Collections.singleton(Role.USER)).build();
+        task = Task.builder().id(10L).title("Test Task").author(author).assignee(assignee).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getTaskDetails_ShouldAssembleAllParts() {
+        CursorPageDto<CommentDto> comments = CursorPageDto.<CommentDto>builder()
+                .content(List.of(CommentDto.builder().id(3L).build(), CommentDto.builder().id(2L).build()))
+                .nextCursor("older")
+                .prevCursor("newer")
+                .hasNext(true)
+                .build();
+        when(taskRepository.findColumnsById(eq(10L), anyList())).thenReturn(Optional.of(new Object[]{10L, 1L, 2L}));
+        when(userService.getCurrentUser()).thenReturn(assignee);
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(task));
+        when(commentService.getCommentPage(10L, null, 2)).thenReturn(comments);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(author));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(assignee));
+
+        TaskDetailsDto result = taskDetailsService.getTaskDetails(10L, 2);
+
+        assertEquals("Test Task", result.getTask().getTitle());
+        assertSame(comments, result.getComments());
+        assertEquals("author@example.com", result.getAuthor().getEmail());
+        assertEquals("assignee@example.com", result.getAssignee().getEmail());
+    }
+
+    @Test
+    void getTaskDetails_ShouldDenyAccessBeforeLoadingParts() {
+        User stranger = User.builder().id(3L).roles(Collections.singleton(Role.USER)).build();
+        when(taskRepository.findColumnsById(eq(10L), anyList())).thenReturn(Optional.of(new Object[]{10L, 1L, null}));
+        when(userService.getCurrentUser()).thenReturn(stranger);
+
+        assertThrows(AccessDeniedException.class, () -> taskDetailsService.getTaskDetails(10L, 20));
+        verify(taskRepository, never()).findById(any());
+        verifyNoInteractions(commentService, userRepository);
+    }
+
+    @Test
+    void getTaskDetails_ShouldThrowWhenTaskIsMissing() {
+        when(taskRepository.findColumnsById(eq(10L), anyList())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> taskDetailsService.getTaskDetails(10L, 20));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void getTaskDetails_ShouldCancelSiblingsWhenPartFails() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(taskRepository.findColumnsById(eq(10L), anyList())).thenReturn(Optional.of(new Object[]{10L, 1L, null}));
+        when(userService.getCurrentUser()).thenReturn(author);
+        when(commentService.getCommentPage(10L, null, 20)).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return new CursorPageDto<CommentDto>();
+        });
+        when(taskRepository.findById(10L)).thenAnswer(invocation -> {
+            started.await();
+            return Optional.empty();
+        });
+        lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(author));
+
+        assertThrows(ResourceNotFoundException.class, () -> taskDetailsService.getTaskDetails(10L, 20));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getTaskDetails_ShouldFailWhenPartsTimeOut() {
+        taskDetailsService = new TaskDetailsService(taskRepository, commentService, userRepository,
+                userService, executor, Duration.ofMillis(50));
+        lenient().when(commentService.getCommentPage(10L, null, 1)).thenReturn(new CursorPageDto<>());
+        when(taskRepository.findColumnsById(eq(10L), anyList())).thenReturn(Optional.of(new Object[]{10L, 1L, null}));
+        when(userService.getCurrentUser()).thenReturn(author);
+        when(taskRepository.findById(10L)).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return Optional.of(task);
+        });
+        lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(author));
+
+        assertThrows(ServiceUnavailableException.class, () -> taskDetailsService.getTaskDetails(10L, 1));
+    }
+
+    @Test
+    void getTaskDetails_ShouldRejectInvalidCommentsSize() {
+        assertThrows(IllegalArgumentException.class, () -> taskDetailsService.getTaskDetails(10L, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskDetailsService.getTaskDetails(10L, CommentService.MAX_PAGE_SIZE + 1));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.DTO.TaskFieldChangeDto;
+import ru.test.ManageSystem.DTO.TaskHistoryDto;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
+import ru.test.ManageSystem.enums.TaskHistoryAction;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.CommentEvent;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.journal.JournalRecord;
+import ru.test.ManageSystem.journal.TaskJournal;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskHistoryServiceTest {
+
+    @Mock
+    private TaskJournal taskJournal;
+
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    @InjectMocks
+    private TaskHistoryService taskHistoryService;
+
+    @Test
+    void onTaskEvent_ShouldJournalOnlyChangedAuditedFields() throws Exception {
+        TaskDto before = task("Old", TaskStatus.PENDING, LocalDateTime.of(2030, 1, 1, 0, 0));
+        TaskDto after = task("New", TaskStatus.IN_PROGRESS, LocalDateTime.of(2030, 1, 2, 0, 0));
+
+        taskHistoryService.onTaskEvent(TaskEvent.updated(before, after));
+        taskHistoryService.onTaskEvent(TaskEvent.updated(after, task("New", TaskStatus.IN_PROGRESS,
+                LocalDateTime.of(2030, 1, 3, 0, 0))));
+
+        ArgumentCaptor<JournalRecord> captor = ArgumentCaptor.forClass(JournalRecord.class);
+        verify(taskJournal).append(captor.capture());
+        JournalRecord record = captor.getValue();
+        assertEquals(5L, record.taskId());
+        assertEquals(TaskHistoryAction.TASK_UPDATED, record.action());
+        assertEquals(List.of(new JournalRecord.Change("title", "Old", "New"),
+                new JournalRecord.Change("status", "PENDING", "IN_PROGRESS")), record.changes());
+    }
+
+    @Test
+    void onCommentEvent_ShouldJournalPreviousAndNewContentAndSurviveJournalFailure() throws Exception {
+        doThrow(new IOException("disk full")).when(taskJournal).append(any());
+
+        taskHistoryService.onCommentEvent(new CommentEvent(CommentEvent.Type.UPDATED, 9L, 5L, 2L, "edited",
+                LocalDateTime.now(), "first"));
+
+        ArgumentCaptor<JournalRecord> captor = ArgumentCaptor.forClass(JournalRecord.class);
+        verify(taskJournal).append(captor.capture());
+        assertEquals(2L, captor.getValue().actorId());
+        assertEquals(9L, captor.getValue().commentId());
+        assertEquals(List.of(new JournalRecord.Change("content", "first", "edited")), captor.getValue().changes());
+    }
+
+    @Test
+    void getHistory_ShouldReturnNewestEntriesWithCursorToOlderOnes() {
+        LocalDateTime at = LocalDateTime.of(2030, 1, 1, 9, 0);
+        when(taskJournal.read(5L, Long.MAX_VALUE, 3)).thenReturn(List.of(
+                entry(30, at.plusMinutes(2)), entry(20, at.plusMinutes(1)), entry(10, at)));
+        when(taskJournal.read(5L, 20L, 3)).thenReturn(List.of(entry(10, at)));
+
+        CursorPageDto<TaskHistoryDto> page = taskHistoryService.getHistory(5L, null, 2);
+        assertTrue(page.isHasNext());
+        assertEquals(List.of(at.plusMinutes(2), at.plusMinutes(1)),
+                page.getContent().stream().map(TaskHistoryDto::getAt).toList());
+        assertEquals(List.of(new TaskFieldChangeDto("status", "PENDING", "COMPLETED")),
+                page.getContent().get(0).getChanges());
+
+        CursorPageDto<TaskHistoryDto> next = taskHistoryService.getHistory(5L, page.getNextCursor(), 2);
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+        assertEquals(1, next.getContent().size());
+        assertThrows(IllegalArgumentException.class, () -> taskHistoryService.getHistory(5L, "@@", 2));
+        assertThrows(IllegalArgumentException.class, () -> taskHistoryService.getHistory(5L, null, 0));
+    }
+
+    private static TaskDto task(String title, TaskStatus status, LocalDateTime updatedAt) {
+        return TaskDto.builder().id(5L).title(title).status(status).priority(TaskPriority.HIGH).authorId(1L)
+                .updatedAt(updatedAt).build();
+    }
+
+    private static TaskJournal.Entry entry(long position, LocalDateTime at) {
+        return new TaskJournal.Entry(position, new JournalRecord(5L, at, 1L, TaskHistoryAction.TASK_UPDATED, null,
+                List.of(new JournalRecord.Change("status", "PENDING", "COMPLETED"))));
+    }
+}
@@ -0,0 +1,144 @@
+package ru.test.ManageSystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.test.ManageSystem.DTO.TaskDto;
+import ru.test.ManageSystem.entity.Task;
+import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.TaskPriority;
+import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
+import ru.test.ManageSystem.repository.TaskClosureRepository;
+import ru.test.ManageSystem.repository.TaskRepository;
+import ru.test.ManageSystem.search.TaskQueueIndex;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskQueueServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskClosureRepository taskClosureRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private TaskQueueIndex taskQueueIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaskQueueService taskQueueService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).email("test@example.com").build();
+        when(userService.getCurrentUser()).thenReturn(user);
+    }
+
+    @Test
+    void getNextTask_ShouldSkipAndDiscardStaleCandidates() {
+        Task claimed = task(1L, TaskStatus.IN_PROGRESS);
+        Task next = task(2L, TaskStatus.PENDING);
+        when(taskQueueIndex.peek(1L, TaskQueueService.CANDIDATES)).thenReturn(List.of(1L, 2L));
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(claimed, next));
+
+        Optional<TaskDto> result = taskQueueService.getNextTask();
+
+        assertEquals(2L, result.orElseThrow().getId());
+        verify(taskQueueIndex).discard(1L);
+        verify(taskQueueIndex, never()).discard(2L);
+    }
+
+    @Test
+    void getNextTask_ShouldReturnEmptyForEmptyQueue() {
+        when(taskQueueIndex.peek(1L, TaskQueueService.CANDIDATES)).thenReturn(List.of());
+
+        assertTrue(taskQueueService.getNextTask().isEmpty());
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void claimNextTask_ShouldClaimTaskAndPublishEvent() {
+        Task pending = task(1L, TaskStatus.PENDING);
+        Task claimed = task(1L, TaskStatus.IN_PROGRESS);
+        when(taskQueueIndex.peek(1L, TaskQueueService.CANDIDATES)).thenReturn(List.of(1L));
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(pending), Optional.of(claimed));
+        when(boardService.rankAtEnd(TaskStatus.IN_PROGRESS)).thenReturn("i00001");
+        when(taskRepository.claim(eq(1L), eq(1L), eq("i00001"), any())).thenReturn(1);
+
+        Optional<TaskDto> result = taskQueueService.claimNextTask();
+
+        assertEquals(TaskStatus.IN_PROGRESS, result.orElseThrow().getStatus());
+        verify(taskClosureRepository).updateStatus(1L, TaskStatus.IN_PROGRESS);
+        verify(eventPublisher).publishEvent(argThat((TaskEvent event) -> event.type() == TaskEvent.Type.UPDATED
+                && event.before().getStatus() == TaskStatus.PENDING
+                && event.after().getStatus() == TaskStatus.IN_PROGRESS));
+        verify(taskQueueIndex, never()).discard(anyLong());
+    }
+
+    @Test
+    void claimNextTask_ShouldMoveToNextCandidateWhenRaceIsLost() {
+        when(taskQueueIndex.peek(1L, TaskQueueService.CANDIDATES))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task(1L, TaskStatus.PENDING)));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(task(2L, TaskStatus.PENDING)));
+        when(boardService.rankAtEnd(TaskStatus.IN_PROGRESS)).thenReturn("i00001");
+        when(taskRepository.claim(anyLong(), eq(1L), anyString(), any())).thenReturn(0);
+
+        assertTrue(taskQueueService.claimNextTask().isEmpty());
+        verify(taskQueueIndex).discard(1L);
+        verify(taskQueueIndex).discard(2L);
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(taskClosureRepository, never()).updateStatus(anyLong(), any());
+    }
+
+    @Test
+    void claimNextTask_ShouldSkipTaskReassignedToAnotherUser() {
+        Task reassigned = task(1L, TaskStatus.PENDING);
+        reassigned.setAssignee(User.builder().id(2L).build());
+        when(taskQueueIndex.peek(1L, TaskQueueService.CANDIDATES))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(reassigned));
+
+        assertTrue(taskQueueService.claimNextTask().isEmpty());
+        verify(taskQueueIndex).discard(1L);
+        verify(taskRepository, never()).claim(anyLong(), anyLong(), any(), any());
+    }
+
+    private Task task(Long id, TaskStatus status) {
+        return Task.builder()
+                .id(id)
+                .title("Task " + id)
+                .status(status)
+                .priority(TaskPriority.HIGH)
+                .author(user)
+                .assignee(user)
+                .build();
+    }
+}
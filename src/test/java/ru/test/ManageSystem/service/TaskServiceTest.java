@@ -3,32 +3,60 @@ package ru.test.ManageSystem.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.test.ManageSystem.DTO.CursorPageDto;
+import ru.test.ManageSystem.DTO.PageDto;
+import ru.test.ManageSystem.DTO.TaskBatchItemDto;
 import ru.test.ManageSystem.DTO.TaskCreateDto;
 import ru.test.ManageSystem.DTO.TaskDto;
 import ru.test.ManageSystem.DTO.TaskFilterDto;
+import ru.test.ManageSystem.DTO.TaskRollupDto;
+import ru.test.ManageSystem.DTO.TaskSuggestionDto;
+import ru.test.ManageSystem.entity.Label;
 import ru.test.ManageSystem.entity.Task;
 import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.BatchItemStatus;
+import ru.test.ManageSystem.enums.CountMode;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.enums.TaskField;
 import ru.test.ManageSystem.enums.TaskPriority;
 import ru.test.ManageSystem.enums.TaskStatus;
+import ru.test.ManageSystem.event.TaskEvent;
 import ru.test.ManageSystem.exception.ResourceNotFoundException;
+import ru.test.ManageSystem.repository.CommentRepository;
+import ru.test.ManageSystem.repository.LabelRepository;
+import ru.test.ManageSystem.repository.TaskClosureRepository;
+import ru.test.ManageSystem.repository.TaskRecurrenceRepository;
 import ru.test.ManageSystem.repository.TaskRepository;
 import ru.test.ManageSystem.repository.UserRepository;
+import ru.test.ManageSystem.search.TaskBitmapIndex;
+import ru.test.ManageSystem.search.TaskSearchIndex;
+import ru.test.ManageSystem.search.TitleAutocompleteIndex;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,12 +65,42 @@ public class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private TaskClosureRepository taskClosureRepository;
+
+    @Mock
+    private TaskRecurrenceRepository taskRecurrenceRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private UserService userService;
 
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private AssigneeBalancer assigneeBalancer;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private TitleAutocompleteIndex titleAutocompleteIndex;
+
+    @Mock
+    private LabelRepository labelRepository;
+
+    @Mock
+    private TaskBitmapIndex taskBitmapIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -82,6 +140,7 @@ public class TaskServiceTest {
         assertNotNull(result);
         assertEquals(task.getTitle(), result.getTitle());
         verify(taskRepository, times(1)).save(any(Task.class));
+        verify(eventPublisher, times(1)).publishEvent(TaskEvent.created(result));
     }
 
     @Test
@@ -137,7 +196,11 @@ public class TaskServiceTest {
 
         taskService.deleteTask(1L);
 
+        verify(taskRepository).deleteDependencies(1L);
+        verify(taskRecurrenceRepository).deleteByTemplateId(1L);
+        verify(commentRepository).detachRepliesByTaskId(1L);
         verify(taskRepository, times(1)).delete(task);
+        verify(eventPublisher, times(1)).publishEvent(any(TaskEvent.class));
     }
 
 
@@ -162,14 +225,276 @@ public class TaskServiceTest {
         Page<Task> taskPage = new PageImpl<>(Collections.singletonList(task));
 
         when(userService.getCurrentUser()).thenReturn(user);
-        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(taskPage);
+        when(taskRepository.findFiltered(filter, user.getId(), pageable)).thenReturn(taskPage);
 
-        Page<TaskDto> result = taskService.getTasks(filter, pageable);
+        PageDto<TaskDto> result = taskService.getTasks(filter, pageable, CountMode.EXACT);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
+        assertFalse(result.isTotalApproximate());
         assertEquals(task.getTitle(), result.getContent().get(0).getTitle());
-        verify(taskRepository, times(1)).findAll(any(Specification.class), eq(pageable));
+        verify(taskRepository, times(1)).findFiltered(filter, user.getId(), pageable);
+    }
+
+    @Test
+    void getTasks_ShouldNotRestrictVisibilityForAdmin() {
+        User admin = User.builder()
+                .id(2L)
+                .email("admin@example.com")
+                .roles(Collections.singleton(Role.ADMIN))
+                .build();
+        TaskFilterDto filter = new TaskFilterDto();
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(userService.getCurrentUser()).thenReturn(admin);
+        when(taskRepository.findFiltered(filter, null, pageable))
+                .thenReturn(new PageImpl<>(Collections.singletonList(task)));
+
+        PageDto<TaskDto> result = taskService.getTasks(filter, pageable, CountMode.EXACT);
+
+        assertEquals(1, result.getTotalElements());
+        verify(taskRepository, times(1)).findFiltered(filter, null, pageable);
+    }
+
+    @Test
+    void getTasks_WithEstimate_ShouldReturnApproximateTotal() {
+        TaskFilterDto filter = new TaskFilterDto();
+        Pageable pageable = PageRequest.of(0, 1);
+
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findFilteredSlice(filter, user.getId(), pageable))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(task), pageable, true));
+        when(taskRepository.estimateFiltered(filter, user.getId()))
+                .thenReturn(new TaskRepository.CountEstimate(500, true));
+
+        PageDto<TaskDto> result = taskService.getTasks(filter, pageable, CountMode.ESTIMATE);
+
+        assertEquals(500, result.getTotalElements());
+        assertTrue(result.isTotalApproximate());
+        assertTrue(result.isHasNext());
+    }
+
+    @Test
+    void getTasks_WithFields_ShouldSelectOnlyRequestedColumns() {
+        TaskFilterDto filter = new TaskFilterDto();
+        Pageable pageable = PageRequest.of(0, 10);
+        List<TaskField> columns = List.of(TaskField.ID, TaskField.TITLE, TaskField.STATUS);
+        Page<Object[]> rows = new PageImpl<>(Collections.singletonList(
+                new Object[]{1L, "Test Task", TaskStatus.PENDING}));
+
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findFilteredColumns(filter, user.getId(), pageable, columns)).thenReturn(rows);
+
+        PageDto<TaskDto> result = taskService.getTasks(filter, pageable, CountMode.EXACT,
+                TaskField.parse("status,title"));
+
+        TaskDto dto = result.getContent().get(0);
+        assertEquals(1L, dto.getId());
+        assertEquals("Test Task", dto.getTitle());
+        assertEquals(TaskStatus.PENDING, dto.getStatus());
+        assertNull(dto.getDescription());
+        assertNull(dto.getAuthorId());
+        verify(taskRepository, never()).findFiltered(any(), any(), any());
+    }
+
+    @Test
+    void getTaskById_WithFields_ShouldSelectOnlyRequestedColumns() {
+        List<TaskField> columns = List.of(TaskField.ID, TaskField.ASSIGNEE_ID);
+        when(taskRepository.findColumnsById(1L, columns)).thenReturn(Optional.of(new Object[]{1L, null}));
+
+        TaskDto result = taskService.getTaskById(1L, TaskField.parse("assigneeId"));
+
+        assertEquals(1L, result.getId());
+        assertNull(result.getTitle());
+        verify(taskRepository, never()).findById(any());
+    }
+
+    @Test
+    void getTaskById_WithFields_ShouldThrowWhenTaskIsMissing() {
+        when(taskRepository.findColumnsById(eq(1L), any())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> taskService.getTaskById(1L, TaskField.parse("title")));
+    }
+
+    @Test
+    void parseTaskFields_ShouldRejectUnknownField() {
+        assertNull(TaskField.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> TaskField.parse("title,secret"));
+    }
+
+    @Test
+    void getTasks_WithoutCount_ShouldNotQueryTotal() {
+        TaskFilterDto filter = new TaskFilterDto();
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findFilteredSlice(filter, user.getId(), pageable))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(task), pageable, false));
+
+        PageDto<TaskDto> result = taskService.getTasks(filter, pageable, CountMode.NONE);
+
+        assertNull(result.getTotalElements());
+        assertFalse(result.isHasNext());
+        verify(taskRepository, never()).estimateFiltered(any(), any());
+        verify(taskRepository, never()).findFiltered(any(), any(), any());
+    }
+
+    @Test
+    void getRecentlyUpdatedTasks_ShouldContinueAfterLastKey() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 6, 10, 30);
+        task.setUpdatedAt(updatedAt);
+        Task newer = Task.builder()
+                .id(2L)
+                .title("Newer Task")
+                .status(TaskStatus.PENDING)
+                .author(user)
+                .updatedAt(updatedAt.plusHours(1))
+                .build();
+        TaskFilterDto filter = TaskFilterDto.builder().updatedFrom(updatedAt.minusDays(7)).build();
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findFilteredByUpdatedAt(filter, 1L, null, 2)).thenReturn(List.of(newer, task));
+        when(taskRepository.findFilteredByUpdatedAt(filter, 1L,
+                new TaskRepository.UpdatedAtKey(newer.getUpdatedAt(), 2L), 2)).thenReturn(List.of(task));
+
+        CursorPageDto<TaskDto> first = taskService.getRecentlyUpdatedTasks(filter, null, 1);
+        assertEquals(List.of(2L), first.getContent().stream().map(TaskDto::getId).toList());
+        assertTrue(first.isHasNext());
+
+        CursorPageDto<TaskDto> second = taskService.getRecentlyUpdatedTasks(filter, first.getNextCursor(), 1);
+        assertEquals(List.of(1L), second.getContent().stream().map(TaskDto::getId).toList());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getRecentlyUpdatedTasks_ShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getRecentlyUpdatedTasks(new TaskFilterDto(), "bm90LWEtY3Vyc29y", 20));
+        verify(taskRepository, never()).findFilteredByUpdatedAt(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchTasks_ShouldReturnTasksInIndexOrder() {
+        Task older = Task.builder()
+                .id(2L)
+                .title("Older Task")
+                .status(TaskStatus.PENDING)
+                .author(user)
+                .build();
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskSearchIndex.search("task", 1L, 20)).thenReturn(List.of(2L, 1L));
+        when(taskRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(task, older));
+
+        List<TaskDto> result = taskService.searchTasks("task", 20);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(TaskDto::getId).toList());
+    }
+
+    @Test
+    void searchTasks_ShouldNotRestrictVisibilityForAdmin() {
+        User admin = User.builder()
+                .id(2L)
+                .email("admin@example.com")
+                .roles(Collections.singleton(Role.ADMIN))
+                .build();
+        when(userService.getCurrentUser()).thenReturn(admin);
+        when(taskSearchIndex.search("task", null, 20)).thenReturn(List.of());
+
+        assertTrue(taskService.searchTasks("task", 20).isEmpty());
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void searchTasks_ShouldRejectBlankQuery() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks("  ", 20));
+        verify(taskSearchIndex, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    void autocompleteTasks_ShouldRestrictVisibilityForUser() {
+        List<TaskSuggestionDto> suggestions = List.of(new TaskSuggestionDto(1L, "Test Task"));
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(titleAutocompleteIndex.suggest("te", 1L, 5)).thenReturn(suggestions);
+
+        assertEquals(suggestions, taskService.autocompleteTasks("te", 5));
+    }
+
+    @Test
+    void autocompleteTasks_ShouldRejectTooLargeLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.autocompleteTasks("te", TitleAutocompleteIndex.TOP_K + 1));
+        verify(titleAutocompleteIndex, never()).suggest(any(), any(), anyInt());
+    }
+
+    @Test
+    void queryTasks_ShouldResolveLabelsAndReturnExactTotal() {
+        when(labelRepository.findByNameIn(any())).thenReturn(List.of(
+                Label.builder().id(5L).name("backend").build(),
+                Label.builder().id(6L).name("blocked").build()));
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskBitmapIndex.query(any(), eq(Map.of("backend", 5L, "blocked", 6L)), eq(1L), eq(2L), eq(2)))
+                .thenReturn(new TaskBitmapIndex.Result(List.of(1L), 3));
+        when(taskRepository.findAllById(List.of(1L))).thenReturn(List.of(task));
+
+        PageDto<TaskDto> result = taskService.queryTasks("Backend AND NOT blocked", 1, 2);
+
+        assertEquals(List.of(1L), result.getContent().stream().map(TaskDto::getId).toList());
+        assertEquals(3L, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void queryTasks_WithLastPossiblePage_ShouldNotReportNextPage() {
+        when(labelRepository.findByNameIn(any())).thenReturn(List.of(Label.builder().id(5L).name("backend").build()));
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskBitmapIndex.query(any(), any(), eq(1L), eq((long) Integer.MAX_VALUE * 2), eq(2)))
+                .thenReturn(new TaskBitmapIndex.Result(List.of(), 3));
+
+        PageDto<TaskDto> result = taskService.queryTasks("backend", Integer.MAX_VALUE, 2);
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    void queryTasks_ShouldRejectUnknownLabel() {
+        when(labelRepository.findByNameIn(any())).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.queryTasks("missing", 0, 20));
+        verify(taskBitmapIndex, never()).query(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getTasksByIds_ShouldMarkForbiddenAndMissingIds() {
+        User other = User.builder().id(3L).email("other@example.com").build();
+        Task foreign = Task.builder()
+                .id(2L)
+                .title("Foreign Task")
+                .status(TaskStatus.PENDING)
+                .author(other)
+                .build();
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findAllById(any())).thenReturn(List.of(foreign, task));
+
+        List<TaskBatchItemDto> result = taskService.getTasksByIds(List.of(2L, 1L, 9L, 1L));
+
+        assertEquals(List.of(2L, 1L, 9L), result.stream().map(TaskBatchItemDto::getId).toList());
+        assertEquals(List.of(BatchItemStatus.FORBIDDEN, BatchItemStatus.OK, BatchItemStatus.NOT_FOUND),
+                result.stream().map(TaskBatchItemDto::getStatus).toList());
+        assertNull(result.get(0).getTask());
+        assertEquals("Test Task", result.get(1).getTask().getTitle());
+        verify(taskRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void getTasksByIds_ShouldRejectTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, TaskService.MAX_BATCH_SIZE + 1)
+                .boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksByIds(ids));
+        verify(taskRepository, never()).findAllById(any());
     }
 
     @Test
@@ -180,6 +505,286 @@ public class TaskServiceTest {
         verify(taskRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void createTask_WithParent_ShouldLinkClosureToAncestors() {
+        Task parent = Task.builder().id(5L).author(user).status(TaskStatus.PENDING).build();
+        taskCreateDto.setParentId(5L);
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(parent));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+
+        TaskDto result = taskService.createTask(taskCreateDto);
+
+        assertEquals(5L, result.getParentId());
+        verify(taskClosureRepository).insertSelf(7L, "PENDING");
+        verify(taskClosureRepository).insertAncestors(7L, 5L, "PENDING");
+    }
+
+    @Test
+    void createTask_WithAutoAssign_ShouldAssignLeastLoadedUser() {
+        User assignee = User.builder().id(3L).email("assignee@example.com").build();
+        taskCreateDto.setAutoAssign(true);
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(assigneeBalancer.assign()).thenReturn(3L);
+        when(userRepository.findById(3L)).thenReturn(Optional.of(assignee));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TaskDto result = taskService.createTask(taskCreateDto);
+
+        assertEquals(3L, result.getAssigneeId());
+    }
+
+    @Test
+    void createTask_WithAutoAssignAndMissingParent_ShouldNotReserveAssignee() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        lenient().when(jdbcTemplate.query(startsWith("SELECT id, role_mask"), any(RowMapper.class)))
+                .thenReturn(List.of(3L));
+        AssigneeBalancer balancer = new AssigneeBalancer(jdbcTemplate);
+        balancer.reconcile();
+        ReflectionTestUtils.setField(taskService, "assigneeBalancer", balancer);
+        taskCreateDto.setAutoAssign(true);
+        taskCreateDto.setParentId(404L);
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findById(404L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.createTask(taskCreateDto));
+        assertEquals(0, balancer.loadOf(3L));
+        assertEquals(0, balancer.getMetrics().get("reserved"));
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void createTask_WithAutoAssignAndAssignee_ShouldThrowIllegalArgumentException() {
+        taskCreateDto.setAutoAssign(true);
+        taskCreateDto.setAssigneeId(3L);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTask(taskCreateDto));
+        verifyNoInteractions(assigneeBalancer);
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void updateTask_WithChangedDueAt_ShouldResetOverdueFlag() {
+        LocalDateTime dueAt = LocalDateTime.now().plusDays(1);
+        task.setDueAt(LocalDateTime.now().minusDays(1));
+        task.setOverdue(true);
+        taskCreateDto.setDueAt(dueAt);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TaskDto result = taskService.updateTask(1L, taskCreateDto);
+
+        assertEquals(dueAt, result.getDueAt());
+        assertFalse(result.isOverdue());
+    }
+
+    @Test
+    void updateTask_WithSameDueAt_ShouldKeepOverdueFlag() {
+        LocalDateTime dueAt = LocalDateTime.now().minusDays(1);
+        task.setDueAt(dueAt);
+        task.setOverdue(true);
+        taskCreateDto.setDueAt(dueAt);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TaskDto result = taskService.updateTask(1L, taskCreateDto);
+
+        assertTrue(result.isOverdue());
+    }
+
+    @Test
+    void createTask_WithMissingParent_ShouldThrowResourceNotFoundException() {
+        taskCreateDto.setParentId(5L);
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findById(5L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.createTask(taskCreateDto));
+        verify(taskRepository, never()).save(any(Task.class));
+        verifyNoInteractions(taskClosureRepository);
+    }
+
+    @Test
+    void updateTaskStatus_ShouldUpdateClosureStatus() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        taskService.updateTaskStatus(1L, TaskStatus.IN_PROGRESS);
+
+        verify(taskClosureRepository).updateStatus(1L, TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void createTask_ShouldAppendTaskToPendingBoardColumn() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(boardService.rankAtEnd(TaskStatus.PENDING)).thenReturn("i00001");
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        taskService.createTask(taskCreateDto);
+
+        verify(taskRepository).save(argThat(saved -> "i00001".equals(saved.getBoardRank())));
+    }
+
+    @Test
+    void createOccurrence_ShouldCopyTemplateWithoutCurrentUser() {
+        task.setStatus(TaskStatus.COMPLETED);
+        task.setPriority(TaskPriority.HIGH);
+        LocalDateTime occurrenceAt = LocalDateTime.of(2030, 1, 1, 9, 0);
+        when(boardService.rankAtEnd(TaskStatus.PENDING)).thenReturn("i00001");
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+
+        TaskDto result = taskService.createOccurrence(task, 3L, occurrenceAt);
+
+        assertEquals(TaskStatus.PENDING, result.getStatus());
+        assertEquals(TaskPriority.HIGH, result.getPriority());
+        assertEquals(task.getTitle(), result.getTitle());
+        assertEquals(occurrenceAt, result.getDueAt());
+        assertEquals(3L, result.getRecurrenceId());
+        verify(taskRepository).save(argThat(saved -> occurrenceAt.equals(saved.getOccurrenceAt())));
+        verify(taskClosureRepository).insertSelf(7L, "PENDING");
+        verify(eventPublisher).publishEvent(TaskEvent.created(result));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void updateTaskStatus_ShouldMoveTaskToEndOfNewBoardColumn() {
+        task.setBoardRank("100001");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(boardService.rankAtEnd(TaskStatus.COMPLETED)).thenReturn("i00001");
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        taskService.updateTaskStatus(1L, TaskStatus.COMPLETED);
+        assertEquals("i00001", task.getBoardRank());
+
+        taskService.updateTaskStatus(1L, TaskStatus.COMPLETED);
+        verify(boardService, times(1)).rankAtEnd(any());
+    }
+
+    @Test
+    void deleteTask_WithSubtasks_ShouldThrowIllegalArgumentException() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.existsByParentId(1L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.deleteTask(1L));
+        verify(taskRepository, never()).delete(any(Task.class));
+        verifyNoInteractions(taskClosureRepository);
+    }
+
+    @Test
+    void moveTask_ShouldRelinkSubtree() {
+        Task parent = Task.builder().id(5L).author(user).status(TaskStatus.PENDING).build();
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(parent));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        TaskDto result = taskService.moveTask(1L, 5L);
+
+        assertEquals(5L, result.getParentId());
+        InOrder inOrder = inOrder(taskClosureRepository);
+        inOrder.verify(taskClosureRepository).detachSubtree(1L);
+        inOrder.verify(taskClosureRepository).attachSubtree(1L, 5L);
+        verify(eventPublisher).publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    void moveTask_ToTopLevel_ShouldOnlyDetachSubtree() {
+        task.setParent(Task.builder().id(5L).build());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        TaskDto result = taskService.moveTask(1L, null);
+
+        assertNull(result.getParentId());
+        verify(taskClosureRepository).detachSubtree(1L);
+        verify(taskClosureRepository, never()).attachSubtree(any(), any());
+    }
+
+    @Test
+    void moveTask_UnderOwnSubtask_ShouldThrowIllegalArgumentException() {
+        Task child = Task.builder().id(5L).author(user).status(TaskStatus.PENDING).build();
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(child));
+        when(taskClosureRepository.existsByAncestorIdAndDescendantId(1L, 5L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.moveTask(1L, 5L));
+        verify(taskClosureRepository, never()).detachSubtree(any());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void moveTask_UnderTaskOfAnotherUser_ShouldThrowResourceNotFoundException() {
+        User other = User.builder().id(2L).email("other@example.com").build();
+        Task foreign = Task.builder().id(5L).author(other).status(TaskStatus.PENDING).build();
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(foreign));
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.moveTask(1L, 5L));
+        verify(taskClosureRepository, never()).detachSubtree(any());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void getRollup_ShouldCountSubtasksPerStatus() {
+        user.setRoles(Collections.singleton(Role.ADMIN));
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskClosureRepository.countDescendantsByStatus(1L)).thenReturn(List.of(
+                new Object[]{TaskStatus.PENDING, 3L}, new Object[]{TaskStatus.COMPLETED, 2L}));
+
+        TaskRollupDto result = taskService.getRollup(1L);
+
+        assertEquals(5, result.getTotal());
+        assertEquals(Map.of(TaskStatus.PENDING, 3L, TaskStatus.IN_PROGRESS, 0L, TaskStatus.COMPLETED, 2L),
+                result.getByStatus());
+    }
+
+    @Test
+    void getRollup_ForNonAdmin_ShouldCountOnlyVisibleSubtasks() {
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskClosureRepository.countVisibleDescendantsByStatus(1L, 1L)).thenReturn(List.<Object[]>of(
+                new Object[]{TaskStatus.PENDING, 1L}));
+
+        TaskRollupDto result = taskService.getRollup(1L);
+
+        assertEquals(1, result.getTotal());
+        verify(taskClosureRepository, never()).countDescendantsByStatus(any());
+    }
+
+    @Test
+    void getSubtasksAndAncestors_ForNonAdmin_ShouldExcludeTasksOfOtherUsers() {
+        Task own = Task.builder().id(2L).author(user).status(TaskStatus.PENDING).build();
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskClosureRepository.findDescendants(eq(1L), eq(3), eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(own)));
+        when(taskClosureRepository.findAncestors(1L, 1L)).thenReturn(List.of(own));
+
+        assertEquals(List.of(2L), taskService.getSubtasks(1L, 3, PageRequest.of(0, 20)).getContent().stream()
+                .map(TaskDto::getId).toList());
+        assertEquals(List.of(2L), taskService.getAncestors(1L).stream().map(TaskDto::getId).toList());
+        verify(taskClosureRepository, never()).findDescendants(any(), anyInt(), isNull(), any());
+        verify(taskClosureRepository, never()).findAncestors(any(), isNull());
+    }
+
+    @Test
+    void getSubtasks_ShouldRejectInvalidDepthAndMissingTask() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getSubtasks(1L, 0, PageRequest.of(0, 20)));
+        when(taskRepository.existsById(1L)).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getSubtasks(1L, 1, PageRequest.of(0, 20)));
+        verifyNoInteractions(taskClosureRepository);
+    }
+
     @Test
     void getAllTasks_ShouldReturnTasksForCurrentUser() {
         when(userService.getCurrentUser()).thenReturn(user);
@@ -6,12 +6,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ru.test.ManageSystem.DTO.UserCreateDto;
 import ru.test.ManageSystem.DTO.UserDto;
+import ru.test.ManageSystem.cache.UserSnapshotCache;
 import ru.test.ManageSystem.entity.User;
+import ru.test.ManageSystem.enums.Role;
+import ru.test.ManageSystem.event.UserCreatedEvent;
+import ru.test.ManageSystem.exception.ResourceNotFoundException;
 import ru.test.ManageSystem.exception.UserAlreadyExistsException;
 import ru.test.ManageSystem.repository.UserRepository;
+import ru.test.ManageSystem.security.UserSnapshot;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -28,6 +34,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -40,13 +52,13 @@ public class UserServiceTest {
                 .id(1L)
                 .email("user@example.com")
                 .password("encodedPassword")
-                .roles(Collections.singleton("USER"))
+                .roles(Collections.singleton(Role.USER))
                 .build();
 
         userCreateDto = UserCreateDto.builder()
                 .email("user@example.com")
                 .password("password123")
-                .roles(Collections.singleton("USER"))
+                .roles(Collections.singleton(Role.USER))
                 .build();
     }
 
@@ -61,6 +73,8 @@ public class UserServiceTest {
         assertNotNull(result);
         assertEquals(userCreateDto.getEmail(), result.getEmail());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(userSnapshotCache, times(1)).invalidate(userCreateDto.getEmail());
+        verify(eventPublisher).publishEvent(new UserCreatedEvent(1L, Role.USER.mask()));
     }
 
     @Test
@@ -73,11 +87,20 @@ public class UserServiceTest {
 
     @Test
     void getUserByEmail_ShouldReturnUser() {
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        when(userSnapshotCache.get("user@example.com")).thenReturn(Optional.of(UserSnapshot.of(user)));
 
         User result = userService.getUserByEmail("user@example.com");
 
         assertNotNull(result);
         assertEquals(user.getEmail(), result.getEmail());
+        assertTrue(result.hasRole(Role.USER));
+        assertNull(result.getPassword());
+    }
+
+    @Test
+    void getUserByEmail_ShouldThrowResourceNotFoundException() {
+        when(userSnapshotCache.get("missing@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserByEmail("missing@example.com"));
     }
 }
\ No newline at end of file